@@ -0,0 +1,86 @@
+package com.radim.project.benchmark;
+
+import com.radim.project.entity.Question;
+import com.radim.project.entity.QuestionOption;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuestionRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entity fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A question whose first option is the correct one
+     */
+    static Question question(Quiz quiz, int index, int optionCount) {
+        Question question = Question.builder()
+                .id(UUID.randomUUID())
+                .quiz(quiz)
+                .questionText("Question " + index)
+                .points(1)
+                .options(new ArrayList<>())
+                .build();
+        List<QuestionOption> options = question.getOptions();
+        for (int i = 0; i < optionCount; i++) {
+            options.add(QuestionOption.builder()
+                    .id(UUID.randomUUID())
+                    .question(question)
+                    .optionText("Option " + i)
+                    .isCorrect(i == 0)
+                    .build());
+        }
+        return question;
+    }
+
+    /**
+     * Rows QuestionRepository.findAnswerKeyRowsByQuizId would return for the given questions
+     */
+    static List<QuestionRepository.AnswerKeyRow> answerKeyRows(Collection<Question> questions) {
+        List<QuestionRepository.AnswerKeyRow> rows = new ArrayList<>();
+        for (Question question : questions) {
+            question.getOptions().stream()
+                    .filter(QuestionOption::getIsCorrect)
+                    .forEach(option -> rows.add(new AnswerKeyRow(
+                            question.getQuiz().getPassingScore(), question.getId(), question.getQuestionText(), question.getPoints(), option.getId())));
+        }
+        return rows;
+    }
+
+    private record AnswerKeyRow(Integer passingScore, UUID questionId, String questionText, Integer points,
+            UUID optionId) implements QuestionRepository.AnswerKeyRow {
+
+        @Override
+        public Integer getPassingScore() {
+            return passingScore;
+        }
+
+        @Override
+        public UUID getQuestionId() {
+            return questionId;
+        }
+
+        @Override
+        public String getQuestionText() {
+            return questionText;
+        }
+
+        @Override
+        public Integer getPoints() {
+            return points;
+        }
+
+        @Override
+        public UUID getOptionId() {
+            return optionId;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.radim.project.benchmark;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.entity.Course;
+import com.radim.project.service.CertificateTemplateRenderer;
+import com.radim.project.service.PdfGenerationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificate rendering as done by PdfGenerationService, including the write to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CertificatePdfBenchmark {
+
+    private PdfGenerationService pdfGenerationService;
+    private Path storagePath;
+    private Certificate certificate;
+    private Course course;
+
+    @Setup
+    public void setUp() throws IOException {
+        storagePath = Files.createTempDirectory("certificate-benchmark");
+        pdfGenerationService = new PdfGenerationService(new CertificateTemplateRenderer());
+        ReflectionTestUtils.setField(pdfGenerationService, "certificateStoragePath", storagePath.toString());
+
+        course = Course.builder().id(UUID.randomUUID()).title("Introduction to Distributed Systems").build();
+        certificate = Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(course)
+                .studentId(100L)
+                .verificationCode("ABCD-1234-EFGH")
+                .completionRate(92.5)
+                .issuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(storagePath);
+    }
+
+    @Benchmark
+    public String generateCertificatePdf() throws IOException {
+        return pdfGenerationService.generateCertificatePdf(certificate, course);
+    }
+}
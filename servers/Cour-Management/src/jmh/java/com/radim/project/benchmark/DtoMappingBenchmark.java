@@ -0,0 +1,118 @@
+package com.radim.project.benchmark;
+
+import com.radim.project.dto.CourseDto;
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.entity.Course;
+import com.radim.project.entity.Question;
+import com.radim.project.entity.Quiz;
+import com.radim.project.entity.QuizAttempt;
+import com.radim.project.entity.StudentAnswer;
+import com.radim.project.entity.enums.CourseLevel;
+import com.radim.project.repository.CourseRepository;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizAttemptRepository;
+import com.radim.project.repository.QuizBestAttemptRepository;
+import com.radim.project.repository.QuizRepository;
+import com.radim.project.repository.StudentAnswerRepository;
+import com.radim.project.service.AnswerKeyCache;
+import com.radim.project.service.AttemptExpiryQueue;
+import com.radim.project.service.CourseService;
+import com.radim.project.service.QuizAttemptService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Entity to DTO mapping through the services' mapToResponse helpers, with in-memory repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoMappingBenchmark {
+
+    @Param({"100"})
+    private int size;
+
+    private CourseService courseService;
+    private QuizAttemptService quizAttemptService;
+
+    @Setup
+    public void setUp() {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            courses.add(Course.builder()
+                    .id(UUID.randomUUID())
+                    .title("Course " + i)
+                    .description("Description " + i)
+                    .category("Programming")
+                    .level(CourseLevel.BEGINNER)
+                    .teacherId(1L)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        CourseRepository courseRepository = mock(CourseRepository.class, withSettings().stubOnly());
+        when(courseRepository.findAll()).thenReturn(courses);
+        courseService = new CourseService(courseRepository);
+
+        Quiz quiz = Quiz.builder().id(UUID.randomUUID()).title("Benchmark quiz").build();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(UUID.randomUUID())
+                .quiz(quiz)
+                .studentId(100L)
+                .score(size / 2)
+                .maxScore(size)
+                .percentage(50.0)
+                .passed(false)
+                .startedAt(LocalDateTime.now())
+                .submittedAt(LocalDateTime.now())
+                .build();
+        List<StudentAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Question question = BenchmarkData.question(quiz, i, 4);
+            answers.add(StudentAnswer.builder()
+                    .quizAttempt(attempt)
+                    .question(question)
+                    .selectedOptionId(question.getOptions().get(i % 4).getId())
+                    .isCorrect(i % 4 == 0)
+                    .build());
+        }
+        QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class, withSettings().stubOnly());
+        StudentAnswerRepository studentAnswerRepository = mock(StudentAnswerRepository.class, withSettings().stubOnly());
+        when(quizAttemptRepository.findById(any())).thenReturn(Optional.of(attempt));
+        when(studentAnswerRepository.findByQuizAttemptId(any())).thenReturn(answers);
+        QuestionRepository questionRepository = mock(QuestionRepository.class, withSettings().stubOnly());
+        quizAttemptService = new QuizAttemptService(
+                quizAttemptRepository,
+                studentAnswerRepository,
+                mock(QuizRepository.class, withSettings().stubOnly()),
+                questionRepository,
+                new AnswerKeyCache(questionRepository),
+                mock(QuizBestAttemptRepository.class, withSettings().stubOnly()),
+                mock(QuestionOptionStatsRepository.class, withSettings().stubOnly()),
+                new AttemptExpiryQueue());
+    }
+
+    @Benchmark
+    public List<CourseDto.Response> mapCourses() {
+        return courseService.getAllCourses();
+    }
+
+    @Benchmark
+    public QuizAttemptDto.AttemptResponse mapAttemptWithAnswers() {
+        return quizAttemptService.getAttemptDetails(UUID.randomUUID());
+    }
+}
@@ -0,0 +1,71 @@
+package com.radim.project.benchmark;
+
+import com.radim.project.security.JwtPrincipal;
+import com.radim.project.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token handling as done by JwtAuthenticationFilter on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        token = Jwts.builder()
+                .setSubject("student@example.com")
+                .claim("userId", 100L)
+                .claim("roles", List.of("ROLE_STUDENT"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+
+    /**
+     * Verified principal, served from the token cache after the first call
+     */
+    @Benchmark
+    public JwtPrincipal parsePrincipal() {
+        return jwtService.parsePrincipal(token);
+    }
+
+    /**
+     * One full signature verification and claims parse
+     */
+    @Benchmark
+    public Long parseClaims() {
+        return jwtService.extractUserId(token);
+    }
+
+    /**
+     * Per-claim extraction: four verified parses per request
+     */
+    @Benchmark
+    public void extractClaimsSeparately(Blackhole blackhole) {
+        blackhole.consume(jwtService.extractUsername(token));
+        blackhole.consume(jwtService.extractUserId(token));
+        blackhole.consume(jwtService.extractRoles(token));
+        blackhole.consume(jwtService.isTokenValid(token));
+    }
+}
@@ -0,0 +1,106 @@
+package com.radim.project.benchmark;
+
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.entity.Question;
+import com.radim.project.entity.QuestionOption;
+import com.radim.project.entity.Quiz;
+import com.radim.project.entity.QuizAttempt;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizAttemptRepository;
+import com.radim.project.repository.QuizBestAttemptRepository;
+import com.radim.project.repository.QuizRepository;
+import com.radim.project.repository.StudentAnswerRepository;
+import com.radim.project.service.AnswerKeyCache;
+import com.radim.project.service.AttemptExpiryQueue;
+import com.radim.project.service.QuizAttemptService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Grading as done by QuizAttemptService.submitQuizAttempt, with in-memory repositories.
+ * Repository stubs cost the same on both sides of a baseline comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuizGradingBenchmark {
+
+    private static final Long STUDENT_ID = 100L;
+
+    @Param({"10", "50"})
+    private int questionCount;
+
+    private QuizAttemptService quizAttemptService;
+    private QuizAttemptDto.SubmitRequest submitRequest;
+    private Quiz quiz;
+
+    @Setup
+    public void setUp() {
+        quiz = Quiz.builder().id(UUID.randomUUID()).title("Benchmark quiz").passingScore(60).build();
+        Map<UUID, Question> questions = new HashMap<>();
+        List<QuizAttemptDto.SubmitRequest.AnswerSubmission> answers = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            Question question = BenchmarkData.question(quiz, i, 4);
+            questions.put(question.getId(), question);
+            // Alternate correct and wrong answers
+            QuestionOption selected = question.getOptions().get(i % 2 == 0 ? 0 : 1);
+            answers.add(new QuizAttemptDto.SubmitRequest.AnswerSubmission(question.getId(), selected.getId()));
+        }
+        quiz.setQuestions(new ArrayList<>(questions.values()));
+        submitRequest = QuizAttemptDto.SubmitRequest.builder().answers(answers).build();
+
+        QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class, withSettings().stubOnly());
+        QuestionRepository questionRepository = mock(QuestionRepository.class, withSettings().stubOnly());
+        when(quizAttemptRepository.findById(any())).thenAnswer(invocation -> Optional.of(newAttempt()));
+        when(quizAttemptRepository.submitIfOpen(any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(questionRepository.getReferenceById(any()))
+                .thenAnswer(invocation -> questions.get(invocation.<UUID>getArgument(0)));
+        when(questionRepository.findAnswerKeyRowsByQuizId(any()))
+                .thenReturn(BenchmarkData.answerKeyRows(questions.values()));
+
+        quizAttemptService = new QuizAttemptService(
+                quizAttemptRepository,
+                mock(StudentAnswerRepository.class, withSettings().stubOnly()),
+                mock(QuizRepository.class, withSettings().stubOnly()),
+                questionRepository,
+                new AnswerKeyCache(questionRepository),
+                mock(QuizBestAttemptRepository.class, withSettings().stubOnly()),
+                mock(QuestionOptionStatsRepository.class, withSettings().stubOnly()),
+                new AttemptExpiryQueue());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(STUDENT_ID.toString(), null, List.of()));
+    }
+
+    @Benchmark
+    public QuizAttemptDto.AttemptResponse submitQuizAttempt() {
+        return quizAttemptService.submitQuizAttempt(UUID.randomUUID(), submitRequest);
+    }
+
+    private QuizAttempt newAttempt() {
+        return QuizAttempt.builder()
+                .id(UUID.randomUUID())
+                .quiz(quiz)
+                .studentId(STUDENT_ID)
+                .score(0)
+                .maxScore(questionCount)
+                .percentage(0.0)
+                .passed(false)
+                .startedAt(LocalDateTime.now())
+                .studentAnswers(new ArrayList<>())
+                .build();
+    }
+}
@@ -1,10 +1,15 @@
 package com.radim.project.controller;
 
 import com.radim.project.dto.CertificateDto;
+import com.radim.project.entity.enums.CertificateStatus;
 import com.radim.project.service.CertificateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -38,13 +43,43 @@ public class CertificateController {
 
     @PostMapping("/generate/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    @Operation(summary = "Generate certificate", description = "Student can generate their certificate if eligible")
+    @Operation(summary = "Generate certificate", description = "Student can generate their certificate if eligible. "
+            + "The PDF is rendered in the background: 202 while PENDING, poll the certificate until it is READY")
     public ResponseEntity<CertificateDto.CertificateResponse> generateCertificate(
             @PathVariable UUID courseId,
             Authentication authentication) {
         Long studentId = extractUserId(authentication);
         CertificateDto.CertificateResponse response = certificateService.generateCertificate(courseId, studentId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        HttpStatus status = response.getStatus() == CertificateStatus.PENDING ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/courses/{courseId}/eligibility")
+    @PreAuthorize("hasRole('TEACHER')")
+    @Operation(summary = "Check certificate eligibility of many students", description = "Teacher checks the "
+            + "eligibility of the listed students, or of every enrolled student when no list is given")
+    public ResponseEntity<CertificateDto.BulkEligibilityResponse> checkBulkEligibility(
+            @PathVariable UUID courseId,
+            @Valid @RequestBody(required = false) CertificateDto.BulkEligibilityRequest request,
+            Authentication authentication) {
+        Long teacherId = extractUserId(authentication);
+        CertificateDto.BulkEligibilityResponse response = certificateService.checkEligibility(courseId,
+                request != null ? request.getStudentIds() : null, teacherId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/courses/{courseId}/classes/{classId}")
+    @PreAuthorize("hasRole('TEACHER')")
+    @Operation(summary = "Issue certificates to a class", description = "Teacher issues certificates to every eligible "
+            + "member of a class. Reports the outcome per student; running it again resumes an interrupted issuance")
+    public ResponseEntity<CertificateDto.ClassIssuanceResponse> issueClassCertificates(
+            @PathVariable UUID courseId,
+            @PathVariable UUID classId,
+            Authentication authentication) {
+        Long teacherId = extractUserId(authentication);
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                teacherId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-certificates")
@@ -68,18 +103,23 @@ public class CertificateController {
 
     @GetMapping("/{certificateId}/download")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
-    @Operation(summary = "Download certificate PDF", description = "Download certificate as PDF file")
-    public ResponseEntity<byte[]> downloadCertificate(
+    @Operation(summary = "Download certificate PDF", description = "Download certificate as PDF file. "
+            + "Supports Range requests, and If-None-Match / If-Modified-Since revalidation")
+    public ResponseEntity<Resource> downloadCertificate(
             @PathVariable UUID certificateId) {
-        byte[] pdfBytes = certificateService.downloadCertificate(certificateId);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", "certificate-" + certificateId + ".pdf");
+        // Spring MVC streams the resource, answers Range requests with 206 and revalidation with 304
+        CertificateService.CertificateFile file = certificateService.downloadCertificate(certificateId);
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("certificate-" + certificateId + ".pdf")
+                        .build()
+                        .toString())
+                .eTag(file.etag())
+                .lastModified(file.lastModified())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(file.resource());
     }
 
     @GetMapping("/verify/{verificationCode}")
@@ -2,6 +2,7 @@ package com.radim.project.controller;
 
 import com.radim.project.dto.CourseDto;
 import com.radim.project.service.CourseService;
+import com.radim.project.service.CourseStructureCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseStructureCache courseStructureCache;
 
     @GetMapping
     @Operation(summary = "List all courses")
@@ -34,6 +36,13 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCourseById(courseId));
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/structure-cache/stats")
+    @Operation(summary = "Get course structure cache statistics", description = "Hits, misses and evictions of the course outline cache")
+    public ResponseEntity<CourseStructureCache.Stats> getStructureCacheStats() {
+        return ResponseEntity.ok(courseStructureCache.getStats());
+    }
+
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @GetMapping("/teacher/{teacherId}")
     @Operation(summary = "Get courses by teacher ID")
@@ -4,11 +4,14 @@ import com.radim.project.dto.ProgressDto;
 import com.radim.project.service.ProgressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +35,18 @@ public class ProgressController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/lessons/complete/batch")
+    @PreAuthorize("hasRole('STUDENT')")
+    @Operation(summary = "Sync lesson completions", description = "Offline clients replay a batch of (lessonId, completedAt) completions in one transaction. Returns the resulting progress of every known lesson; unknown lessons are skipped.")
+    public ResponseEntity<List<ProgressDto.LessonProgressResponse>> syncLessonCompletions(
+            @Valid @RequestBody ProgressDto.LessonCompletionSyncRequest request,
+            Authentication authentication) {
+        Long studentId = extractUserId(authentication);
+        List<ProgressDto.LessonProgressResponse> response = progressService.syncLessonCompletions(studentId,
+                request.getCompletions());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/lessons/{lessonId}")
     @PreAuthorize("hasRole('STUDENT')")
     @Operation(summary = "Get lesson progress", description = "Student can view their progress for a specific lesson")
@@ -60,6 +75,61 @@ public class ProgressController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/courses/{courseId}/modules")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    @Operation(summary = "Get module progress", description = "Per-module completion for a course. Student views their own progress, teacher can view student progress")
+    public ResponseEntity<List<ProgressDto.ModuleProgressResponse>> getModuleProgress(
+            @PathVariable UUID courseId,
+            @RequestParam(required = false) Long studentId,
+            Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        Long targetStudentId = (studentId != null) ? studentId : userId;
+
+        List<ProgressDto.ModuleProgressResponse> response = progressService.getModuleProgress(courseId, targetStudentId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/courses/{courseId}/next-lesson")
+    @PreAuthorize("hasRole('STUDENT')")
+    @Operation(summary = "Get next lesson", description = "Returns the first lesson in course order the student has not completed yet")
+    public ResponseEntity<ProgressDto.NextLessonResponse> getNextLesson(
+            @PathVariable UUID courseId,
+            Authentication authentication) {
+        Long studentId = extractUserId(authentication);
+        ProgressDto.NextLessonResponse response = progressService.getNextLesson(courseId, studentId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/courses/{courseId}/common-completions")
+    @PreAuthorize("hasRole('TEACHER')")
+    @Operation(summary = "Get lessons completed by all students",
+               description = "Teacher can list the lessons every student enrolled in their course has completed, optionally restricted to one class")
+    public ResponseEntity<ProgressDto.CommonCompletionResponse> getLessonsCompletedByAll(
+            @PathVariable UUID courseId,
+            @RequestParam(required = false) UUID classId,
+            Authentication authentication) {
+        progressService.validateCourseOwnership(courseId, extractUserId(authentication));
+        ProgressDto.CommonCompletionResponse response = progressService.getLessonsCompletedByAll(courseId, classId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/courses/{courseId}/students")
+    @PreAuthorize("hasRole('TEACHER')")
+    @Operation(summary = "Get progress of all enrolled students",
+               description = "Teacher can view completion of every student enrolled in their course. With includeLessons=true each student also gets a per-lesson completion bit string aligned with the lessonIds header. The response is streamed.")
+    public ResponseEntity<StreamingResponseBody> getCourseProgressMatrix(
+            @PathVariable UUID courseId,
+            @RequestParam(defaultValue = "false") boolean includeLessons,
+            Authentication authentication) {
+        Long teacherId = extractUserId(authentication);
+        progressService.validateCourseOwnership(courseId, teacherId);
+
+        StreamingResponseBody body = out -> progressService.writeCourseProgressMatrix(courseId, includeLessons, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @GetMapping("/courses/{courseId}/lessons")
     @PreAuthorize("hasRole('STUDENT')")
     @Operation(summary = "Get all lesson progress for a course", 
@@ -72,6 +142,18 @@ public class ProgressController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/courses/{courseId}/lessons/overview")
+    @PreAuthorize("hasRole('STUDENT')")
+    @Operation(summary = "Get lesson progress overview for a course",
+               description = "Read-only variant: returns every lesson of the course in order with the student's progress. Lessons never opened are reported as not started and no LessonProgress records are created.")
+    public ResponseEntity<List<ProgressDto.LessonProgressResponse>> getLessonProgressOverview(
+            @PathVariable UUID courseId,
+            Authentication authentication) {
+        Long studentId = extractUserId(authentication);
+        List<ProgressDto.LessonProgressResponse> response = progressService.getLessonProgressOverview(courseId, studentId);
+        return ResponseEntity.ok(response);
+    }
+
     private Long extractUserId(Authentication authentication) {
         return Long.parseLong(authentication.getName());
     }
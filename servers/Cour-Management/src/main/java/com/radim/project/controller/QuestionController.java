@@ -44,6 +44,15 @@ public class QuestionController {
         return ResponseEntity.ok(questionService.updateQuestion(quizId, questionId, request));
     }
 
+    @PutMapping
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Update several questions of a quiz", description = "Options with an id are updated in place, "
+            + "options without id are added and options left out are removed")
+    public ResponseEntity<List<QuizDto.QuestionResponse>> updateQuestions(@PathVariable UUID quizId,
+            @Valid @RequestBody QuizDto.BulkQuestionUpdateRequest request) {
+        return ResponseEntity.ok(questionService.updateQuestions(quizId, request));
+    }
+
     @DeleteMapping("/{questionId}")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Delete a question")
@@ -2,12 +2,15 @@ package com.radim.project.controller;
 
 import com.radim.project.dto.QuizAttemptDto;
 import com.radim.project.service.QuizAttemptService;
+import com.radim.project.service.SubmissionIdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,7 +20,11 @@ import java.util.UUID;
 @Tag(name = "Quiz Attempts", description = "Student quiz attempt and scoring endpoints")
 public class QuizAttemptController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final QuizAttemptService quizAttemptService;
+    private final SubmissionIdempotencyStore submissionIdempotencyStore;
 
     @Operation(summary = "Start a new quiz attempt", description = "Student starts taking a quiz")
     @PostMapping("/start/{quizId}")
@@ -25,12 +32,33 @@ public class QuizAttemptController {
         return ResponseEntity.ok(quizAttemptService.startQuizAttempt(quizId));
     }
 
-    @Operation(summary = "Submit quiz answers", description = "Student submits answers and receives score")
+    @Operation(summary = "Submit quiz answers", description = "Student submits answers and receives score. "
+            + "Retries with the same Idempotency-Key get the first result back without grading again, "
+            + "reusing the key with different answers is rejected with 422")
     @PostMapping("/{attemptId}/submit")
     public ResponseEntity<QuizAttemptDto.AttemptResponse> submitQuiz(
+            @PathVariable UUID attemptId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody QuizAttemptDto.SubmitRequest request,
+            Principal principal) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(quizAttemptService.submitQuizAttempt(attemptId, request));
+        }
+        SubmissionIdempotencyStore.Result result = submissionIdempotencyStore.submitOnce(attemptId,
+                principal != null ? principal.getName() : null, idempotencyKey, request,
+                () -> quizAttemptService.submitQuizAttempt(attemptId, request));
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @Operation(summary = "Save answers without submitting", description = "Replaces the answers saved so far. "
+            + "A timed attempt that runs out of time is submitted with these answers")
+    @PutMapping("/{attemptId}/answers")
+    public ResponseEntity<QuizAttemptDto.AttemptResponse> saveAnswers(
             @PathVariable UUID attemptId,
             @RequestBody QuizAttemptDto.SubmitRequest request) {
-        return ResponseEntity.ok(quizAttemptService.submitQuizAttempt(attemptId, request));
+        return ResponseEntity.ok(quizAttemptService.saveAnswers(attemptId, request));
     }
 
     @Operation(summary = "Get student's all attempts", description = "Retrieve all quiz attempts by a student")
@@ -47,6 +75,19 @@ public class QuizAttemptController {
         return ResponseEntity.ok(quizAttemptService.getQuizAttempts(quizId));
     }
 
+    @Operation(summary = "Page through submitted attempts for a quiz", description = "Teacher view: newest first, "
+            + "keyset pagination with the nextCursor of the previous page, optional student and passed/failed filters")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/quiz/{quizId}/page")
+    public ResponseEntity<QuizAttemptDto.AttemptPage> getQuizAttemptsPage(
+            @PathVariable UUID quizId,
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) Boolean passed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(quizAttemptService.getQuizAttemptsPage(quizId, studentId, passed, cursor, size));
+    }
+
     @Operation(summary = "Get student attempts for a specific quiz", description = "Retrieve student's attempts for a specific quiz")
     @GetMapping("/student/{studentId}/quiz/{quizId}")
     public ResponseEntity<List<QuizAttemptDto.AttemptResponse>> getStudentQuizAttempts(
@@ -1,16 +1,24 @@
 package com.radim.project.controller;
 
+import com.radim.project.dto.QuizAttemptDto;
 import com.radim.project.dto.QuizDto;
+import com.radim.project.service.OfflineGradingService;
+import com.radim.project.service.QuizAnalyticsService;
+import com.radim.project.service.QuizDeliveryCache;
 import com.radim.project.service.QuizService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +29,8 @@ import java.util.UUID;
 public class QuizController {
 
     private final QuizService quizService;
+    private final QuizAnalyticsService quizAnalyticsService;
+    private final OfflineGradingService offlineGradingService;
 
     @GetMapping
     @Operation(summary = "List quizzes for a course")
@@ -36,6 +46,18 @@ public class QuizController {
         return ResponseEntity.ok(quizService.getQuizById(quizId));
     }
 
+    @GetMapping(value = "/{quizId}/delivery", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get a quiz to take", description = "Student view: questions and options without "
+            + "correctness, as a QuizDto.DeliveryResponse. Send If-None-Match with the ETag to get 304 when unchanged")
+    public ResponseEntity<byte[]> getQuizDelivery(@PathVariable UUID courseId, @PathVariable UUID quizId) {
+        // The body is already serialized; a matching If-None-Match is answered with 304 by Spring MVC
+        QuizDeliveryCache.Payload payload = quizService.getQuizDelivery(courseId, quizId);
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(payload.body());
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     @Operation(summary = "Create a new quiz")
@@ -59,4 +81,39 @@ public class QuizController {
         quizService.deleteQuiz(courseId, quizId);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/{quizId}/item-analysis")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get item analysis of a quiz", description = "Percent correct per question and answer distribution per option")
+    public ResponseEntity<QuizDto.ItemAnalysisResponse> getItemAnalysis(@PathVariable UUID courseId,
+            @PathVariable UUID quizId) {
+        return ResponseEntity.ok(quizAnalyticsService.getItemAnalysis(courseId, quizId));
+    }
+
+    @PostMapping("/{quizId}/item-analysis/rebuild")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Rebuild item analysis of a quiz", description = "Recompute the answer counters from all submitted answers")
+    public ResponseEntity<QuizDto.ItemAnalysisRebuildResponse> rebuildItemAnalysis(@PathVariable UUID courseId,
+            @PathVariable UUID quizId) {
+        return ResponseEntity.ok(quizAnalyticsService.rebuildItemAnalysis(courseId, quizId));
+    }
+
+    @PostMapping(value = "/{quizId}/offline-grading",
+            consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Grade offline answer sheets", description = "JSON lines body, one QuizAttemptDto.OfflineSheet "
+            + "per line. Grading runs in the background, poll the returned job for progress and per-line errors")
+    public ResponseEntity<QuizAttemptDto.GradingJobResponse> startOfflineGrading(@PathVariable UUID courseId,
+            @PathVariable UUID quizId, HttpServletRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(offlineGradingService.startGrading(courseId, quizId, request.getInputStream()));
+    }
+
+    @GetMapping("/{quizId}/offline-grading/{jobId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @Operation(summary = "Get an offline grading job")
+    public ResponseEntity<QuizAttemptDto.GradingJobResponse> getOfflineGradingJob(@PathVariable UUID courseId,
+            @PathVariable UUID quizId, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(offlineGradingService.getJob(courseId, quizId, jobId));
+    }
 }
@@ -1,5 +1,7 @@
 package com.radim.project.dto;
 
+import com.radim.project.entity.enums.CertificateStatus;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +25,8 @@ public class CertificateDto {
         private String verificationCode;
         private Double completionRate;
         private LocalDateTime issuedAt;
+        private CertificateStatus status;
+        private String failureReason;
         private String downloadUrl;
     }
 
@@ -31,6 +35,7 @@ public class CertificateDto {
     @AllArgsConstructor
     @Builder
     public static class CertificateEligibilityResponse {
+        private Long studentId;
         private Boolean eligible;
         private Double completionRate;
         private Boolean completionRequirementMet;
@@ -38,6 +43,57 @@ public class CertificateDto {
         private List<String> missingRequirements;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkEligibilityRequest {
+        // All students enrolled in the course when empty
+        @Size(max = 10000, message = "At most 10000 students per request")
+        private List<Long> studentIds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkEligibilityResponse {
+        private UUID courseId;
+        private Integer totalStudents;
+        private Integer eligibleStudents;
+        private List<CertificateEligibilityResponse> results;
+        private List<Long> unknownStudentIds;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ClassIssuanceResponse {
+        private UUID courseId;
+        private UUID classId;
+        private Integer totalStudents;
+        private Integer issued;
+        private Integer alreadyIssued;
+        private Integer notEligible;
+        private Integer failed;
+        private List<StudentIssuanceResult> results;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StudentIssuanceResult {
+        private Long studentId;
+        // ISSUED, REQUEUED, ALREADY_ISSUED, NOT_ELIGIBLE or ERROR
+        private String outcome;
+        private UUID certificateId;
+        private CertificateStatus status;
+        private List<String> missingRequirements;
+        private String error;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -1,12 +1,16 @@
 package com.radim.project.dto;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class ProgressDto {
@@ -20,6 +24,26 @@ public class ProgressDto {
         private UUID lessonId;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LessonCompletionSyncRequest {
+        @NotEmpty
+        @Size(max = 500)
+        private List<@Valid LessonCompletion> completions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LessonCompletion {
+        @NotNull
+        private UUID lessonId;
+        private LocalDateTime completedAt; // When the lesson was completed offline, defaults to now
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -54,4 +78,41 @@ public class ProgressDto {
         private Long completedLessons;
         private Double completionRate;
     }
+
+    /**
+     * One row of the teacher progress matrix. lessonCompletion is only set when
+     * per-lesson detail is requested: one '0'/'1' character per lesson, in the
+     * order of the matrix lessonIds header.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StudentProgressResponse {
+        private Long studentId;
+        private Long completedLessons;
+        private Double completionRate;
+        private String lessonCompletion;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class NextLessonResponse {
+        private UUID courseId;
+        private UUID lessonId; // null when every lesson is completed
+        private Long completedLessons;
+        private Double completionRate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CommonCompletionResponse {
+        private UUID courseId;
+        private UUID classId;
+        private List<UUID> lessonIds; // Lessons completed by every enrolled student, in course order
+    }
 }
@@ -42,9 +42,20 @@ public class QuizAttemptDto {
         private Boolean passed;
         private LocalDateTime startedAt;
         private LocalDateTime submittedAt;
+        private LocalDateTime expiresAt; // Only set for timed quizzes
         private List<AnswerDetail> answers; // Only shown after submission
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AttemptPage {
+        private List<AttemptResponse> items;
+        private String nextCursor; // Pass back as cursor to get the next page, null on the last page
+        private Boolean hasMore;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -70,4 +81,43 @@ public class QuizAttemptDto {
         private Double latestScore;
         private LocalDateTime lastAttemptDate;
     }
+
+    /**
+     * One line of an offline grading import (JSON lines)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OfflineSheet {
+        private Long studentId;
+        private LocalDateTime submittedAt; // Optional, defaults to the import time
+        private List<SubmitRequest.AnswerSubmission> answers;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class GradingJobResponse {
+        private UUID jobId;
+        private UUID quizId;
+        private String status; // RUNNING, COMPLETED, FAILED
+        private Integer totalRows;
+        private Integer gradedRows;
+        private Integer failedRows;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private List<RowError> errors; // Capped, see failedRows for the full count
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private Integer line;
+        private Long studentId;
+        private String message;
+    }
 }
@@ -1,8 +1,10 @@
 package com.radim.project.dto;
 
 import com.radim.project.entity.enums.QuizDifficulty;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,6 +26,9 @@ public class QuizDto {
         private String title;
         private String description;
         private QuizDifficulty difficulty;
+
+        @Positive
+        private Integer timeLimitMinutes; // Optional, null for an untimed quiz
     }
 
     @Data
@@ -36,6 +41,7 @@ public class QuizDto {
         private String title;
         private String description;
         private QuizDifficulty difficulty;
+        private Integer timeLimitMinutes;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
     }
@@ -63,11 +69,56 @@ public class QuizDto {
     @AllArgsConstructor
     @Builder
     public static class OptionRequest {
+        /**
+         * Id of the existing option to update, null for a new option
+         */
+        private UUID id;
+
         @NotBlank
         private String optionText;
 
         @NotNull
         private Boolean isCorrect;
+
+        public OptionRequest(String optionText, Boolean isCorrect) {
+            this(null, optionText, isCorrect);
+        }
+    }
+
+    /**
+     * One question of a bulk update, identified by its id
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QuestionUpdateRequest {
+        @NotNull
+        private UUID id;
+
+        @NotBlank
+        private String questionText;
+
+        @NotBlank
+        private String questionType;
+
+        @NotNull
+        @Size(min = 2, max = 10)
+        @Valid
+        private List<OptionRequest> options;
+
+        private Integer points;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkQuestionUpdateRequest {
+        @NotNull
+        @Size(min = 1, max = 500)
+        @Valid
+        private List<QuestionUpdateRequest> questions;
     }
 
     @Data
@@ -92,4 +143,82 @@ public class QuizDto {
         private String optionText;
         private Boolean isCorrect;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DeliveryResponse {
+        private UUID quizId;
+        private UUID courseId;
+        private String title;
+        private String description;
+        private Integer timeLimitMinutes;
+        private List<DeliveryQuestion> questions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DeliveryQuestion {
+        private UUID id;
+        private String questionText;
+        private String questionType;
+        private Integer points;
+        private List<DeliveryOption> options; // No isCorrect: this is what students see
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DeliveryOption {
+        private UUID id;
+        private String optionText;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemAnalysisResponse {
+        private UUID quizId;
+        private List<QuestionAnalysis> questions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QuestionAnalysis {
+        private UUID questionId;
+        private String questionText;
+        private Long answerCount;
+        private Long correctCount;
+        private Double percentCorrect; // Difficulty index, null when never answered
+        private List<OptionAnalysis> options;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OptionAnalysis {
+        private UUID optionId;
+        private String optionText;
+        private Boolean isCorrect;
+        private Long selectCount;
+        private Double selectRate; // Share of the question's answers, null when never answered
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemAnalysisRebuildResponse {
+        private UUID quizId;
+        private Long answersProcessed;
+        private Integer statsRows;
+    }
 }
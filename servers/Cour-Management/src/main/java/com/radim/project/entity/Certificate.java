@@ -1,5 +1,6 @@
 package com.radim.project.entity;
 
+import com.radim.project.entity.enums.CertificateStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -46,6 +47,14 @@ public class Certificate {
     @Column(length = 500)
     private String pdfUrl;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private CertificateStatus status = CertificateStatus.PENDING;
+
+    @Column(length = 500)
+    private String failureReason;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,63 @@
+package com.radim.project.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized lesson counters for one student in one course.
+ * Kept in sync with lesson_progress and the course's lessons so that
+ * course progress can be read without COUNT queries.
+ */
+@Entity
+@Table(name = "course_progress")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    @ToString.Exclude
+    private Course course;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long studentId;
+
+    @NotNull
+    @Column(nullable = false)
+    @Builder.Default
+    private Long totalLessons = 0L;
+
+    @NotNull
+    @Column(nullable = false)
+    @Builder.Default
+    private Long completedLessons = 0L;
+
+    /**
+     * Completed lessons as a bitset indexed by lesson ordinal in course order (BitSet.toByteArray).
+     * Null when it must be rebuilt from lesson_progress.
+     */
+    @Column(name = "completion_bits")
+    @ToString.Exclude
+    private byte[] completionBits;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.radim.project.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running answer counters for one option of one question, updated on every quiz submission.
+ * Per-question totals are the sum over the question's rows, so item analysis never scans student_answers.
+ */
+@Entity
+@Table(name = "question_option_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionOptionStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_id", nullable = false)
+    @ToString.Exclude
+    private Quiz quiz;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "question_id", nullable = false)
+    @ToString.Exclude
+    private Question question;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID optionId; // Selected option, not a foreign key: options are replaced when a question is edited
+
+    @NotNull
+    @Column(nullable = false)
+    @Builder.Default
+    private Long selectCount = 0L;
+
+    @NotNull
+    @Column(nullable = false)
+    @Builder.Default
+    private Long correctCount = 0L;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -44,6 +44,9 @@ public class Quiz {
     @Builder.Default
     private Boolean mandatory = false;
 
+    @Column(name = "time_limit_minutes")
+    private Integer timeLimitMinutes; // null means the quiz is not timed
+
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Question> questions;
 
@@ -39,7 +39,7 @@ public class QuizAttempt {
     private Double percentage; // Score as percentage
 
     @Column(nullable = false)
-    private Boolean passed; // Whether student passed (e.g., >=60%)
+    private Boolean passed; // Whether student passed (percentage >= quiz passing score)
 
     @OneToMany(mappedBy = "quizAttempt", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<StudentAnswer> studentAnswers;
@@ -49,6 +49,8 @@ public class QuizAttempt {
 
     private LocalDateTime submittedAt;
 
+    private LocalDateTime expiresAt; // startedAt + quiz time limit, null for untimed quizzes
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -68,9 +70,9 @@ public class QuizAttempt {
     }
 
     /**
-     * Determine if student passed (60% threshold)
+     * Determine if student passed the quiz's passing score (percentage threshold)
      */
-    public void determinePassed() {
-        this.passed = this.percentage >= 60.0;
+    public void determinePassed(int passingScore) {
+        this.passed = this.percentage >= passingScore;
     }
 }
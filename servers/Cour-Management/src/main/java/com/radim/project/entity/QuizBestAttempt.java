@@ -0,0 +1,61 @@
+package com.radim.project.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized best submitted attempt of one student on one quiz.
+ * Updated when an attempt is submitted so that certificate eligibility
+ * does not have to scan every retake.
+ */
+@Entity
+@Table(name = "quiz_best_attempts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizBestAttempt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_id", nullable = false)
+    @ToString.Exclude
+    private Quiz quiz;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long studentId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "attempt_id", nullable = false)
+    @ToString.Exclude
+    private QuizAttempt attempt;
+
+    @NotNull
+    @Column(nullable = false)
+    private Double percentage;
+
+    @NotNull
+    @Column(nullable = false)
+    private Boolean passed;
+
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
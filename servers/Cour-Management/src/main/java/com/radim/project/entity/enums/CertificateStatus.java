@@ -0,0 +1,7 @@
+package com.radim.project.entity.enums;
+
+public enum CertificateStatus {
+    PENDING,
+    READY,
+    FAILED
+}
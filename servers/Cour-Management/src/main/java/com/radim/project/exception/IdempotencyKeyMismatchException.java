@@ -0,0 +1,11 @@
+package com.radim.project.exception;
+
+/**
+ * An Idempotency-Key was reused with a different request body
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,17 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.Certificate;
+import com.radim.project.entity.enums.CertificateStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,4 +26,35 @@ public interface CertificateRepository extends JpaRepository<Certificate, UUID>
     List<Certificate> findByStudentId(Long studentId);
 
     boolean existsByCourse_IdAndStudentId(UUID courseId, Long studentId);
+
+    List<Certificate> findByCourse_IdAndStudentIdIn(UUID courseId, Collection<Long> studentIds);
+
+    /**
+     * Put failed certificates back in the render queue
+     */
+    @Modifying
+    @Query("UPDATE Certificate c SET c.status = com.radim.project.entity.enums.CertificateStatus.PENDING, "
+            + "c.failureReason = NULL, c.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE c.id IN :ids AND c.status = com.radim.project.entity.enums.CertificateStatus.FAILED")
+    int requeueFailed(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT c FROM Certificate c JOIN FETCH c.course WHERE c.id = :id")
+    Optional<Certificate> findWithCourseById(@Param("id") UUID id);
+
+    /**
+     * Oldest certificates in the given status, used as the render queue
+     */
+    @Query("SELECT c.id FROM Certificate c WHERE c.status = :status ORDER BY c.createdAt ASC")
+    List<UUID> findIdsByStatus(@Param("status") CertificateStatus status, Limit limit);
+
+    /**
+     * Store the outcome of a render, only while the certificate is still pending.
+     * Called from the render worker, outside of any service transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Certificate c SET c.status = :status, c.pdfUrl = :pdfUrl, c.failureReason = :failureReason, "
+            + "c.updatedAt = :updatedAt WHERE c.id = :id AND c.status = com.radim.project.entity.enums.CertificateStatus.PENDING")
+    int completeRender(@Param("id") UUID id, @Param("status") CertificateStatus status, @Param("pdfUrl") String pdfUrl,
+            @Param("failureReason") String failureReason, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -2,6 +2,8 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.ClassStudent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,9 @@ public interface ClassStudentRepository extends JpaRepository<ClassStudent, UUID
 
     List<ClassStudent> findByStudentClassId(UUID classId);
 
+    @Query("SELECT cs.studentId FROM ClassStudent cs WHERE cs.studentClass.id = :classId ORDER BY cs.studentId ASC")
+    List<Long> findStudentIdsByClassId(@Param("classId") UUID classId);
+
     boolean existsByStudentClassIdAndStudentId(UUID classId, Long studentId);
 
     void deleteByStudentClassIdAndStudentId(UUID classId, Long studentId);
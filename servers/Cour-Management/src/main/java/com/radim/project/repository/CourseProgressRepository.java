@@ -0,0 +1,114 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.CourseProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CourseProgressRepository extends JpaRepository<CourseProgress, UUID> {
+
+    Optional<CourseProgress> findByCourse_IdAndStudentId(UUID courseId, Long studentId);
+
+    List<CourseProgress> findByCourse_Id(UUID courseId);
+
+    List<CourseProgress> findByCourse_IdAndStudentIdIn(UUID courseId, Collection<Long> studentIds);
+
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.completedLessons = cp.completedLessons + 1, cp.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE cp.course.id = :courseId AND cp.studentId = :studentId")
+    int incrementCompletedLessons(@Param("courseId") UUID courseId, @Param("studentId") Long studentId);
+
+    /**
+     * Create the counters of a student's first completion in a course. When a concurrent first completion
+     * created the row in the meantime, this one is counted on top of it instead.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO course_progress (id, course_id, student_id, total_lessons, completed_lessons, created_at, updated_at) "
+            + "VALUES (gen_random_uuid(), :courseId, :studentId, :totalLessons, :completedLessons, NOW(), NOW()) "
+            + "ON CONFLICT (course_id, student_id) DO UPDATE SET "
+            + "completed_lessons = course_progress.completed_lessons + 1, updated_at = NOW()",
+            nativeQuery = true)
+    int seedCompletedLessons(@Param("courseId") UUID courseId, @Param("studentId") Long studentId,
+            @Param("totalLessons") long totalLessons, @Param("completedLessons") long completedLessons);
+
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.totalLessons = cp.totalLessons + :delta, cp.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE cp.course.id = :courseId")
+    int adjustTotalLessons(@Param("courseId") UUID courseId, @Param("delta") long delta);
+
+    /**
+     * Decrement the completed counter of every student who had completed the given lesson.
+     * Must run before the lesson (and its lesson_progress rows) is deleted.
+     */
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.completedLessons = cp.completedLessons - 1, cp.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE cp.course.id = :courseId AND cp.studentId IN "
+            + "(SELECT lp.studentId FROM LessonProgress lp WHERE lp.lesson.id = :lessonId AND lp.completed = true)")
+    int decrementCompletedForLesson(@Param("courseId") UUID courseId, @Param("lessonId") UUID lessonId);
+
+    /**
+     * Recompute the counters of one student for the given courses from lessons and lesson_progress,
+     * creating missing rows. Used after set-based progress writes.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO course_progress (id, course_id, student_id, total_lessons, completed_lessons, created_at, updated_at) "
+            + "SELECT gen_random_uuid(), m.course_id, :studentId, COUNT(l.id), "
+            + "COUNT(lp.id) FILTER (WHERE lp.completed), NOW(), NOW() "
+            + "FROM modules m "
+            + "JOIN lessons l ON l.module_id = m.id "
+            + "LEFT JOIN lesson_progress lp ON lp.lesson_id = l.id AND lp.student_id = :studentId "
+            + "WHERE m.course_id IN (:courseIds) "
+            + "GROUP BY m.course_id "
+            + "ON CONFLICT (course_id, student_id) DO UPDATE SET "
+            + "total_lessons = EXCLUDED.total_lessons, completed_lessons = EXCLUDED.completed_lessons, updated_at = NOW()",
+            nativeQuery = true)
+    int refreshCounters(@Param("studentId") Long studentId, @Param("courseIds") Collection<UUID> courseIds);
+
+    /**
+     * Persisted bits of a student, read straight from the table rather than from the persistence context
+     */
+    @Query("SELECT cp.completionBits AS completionBits, cp.totalLessons AS totalLessons FROM CourseProgress cp "
+            + "WHERE cp.course.id = :courseId AND cp.studentId = :studentId")
+    Optional<CompletionBitsView> findCompletionBits(@Param("courseId") UUID courseId,
+            @Param("studentId") Long studentId);
+
+    /**
+     * Same as findCompletionBits, with the row locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT cp.completionBits AS completionBits, cp.totalLessons AS totalLessons FROM CourseProgress cp "
+            + "WHERE cp.course.id = :courseId AND cp.studentId = :studentId")
+    Optional<CompletionBitsView> findCompletionBitsForUpdate(@Param("courseId") UUID courseId,
+            @Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.completionBits = :bits "
+            + "WHERE cp.course.id = :courseId AND cp.studentId = :studentId")
+    int updateCompletionBits(@Param("courseId") UUID courseId, @Param("studentId") Long studentId,
+            @Param("bits") byte[] bits);
+
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.completionBits = NULL "
+            + "WHERE cp.studentId = :studentId AND cp.course.id IN :courseIds")
+    int clearCompletionBits(@Param("studentId") Long studentId, @Param("courseIds") Collection<UUID> courseIds);
+
+    @Modifying
+    @Query("UPDATE CourseProgress cp SET cp.completionBits = NULL WHERE cp.course.id = :courseId")
+    int clearCompletionBitsByCourseId(@Param("courseId") UUID courseId);
+
+    interface CompletionBitsView {
+        byte[] getCompletionBits();
+
+        Long getTotalLessons();
+    }
+}
@@ -1,17 +1,22 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
@@ -30,4 +35,34 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
     @EntityGraph(attributePaths = {"course", "studentClass"})
     Optional<Enrollment> findByCourse_IdAndStudentId(UUID courseId, Long studentId);
 
+    @Query("SELECT DISTINCT e.studentId FROM Enrollment e "
+            + "WHERE e.course.id = :courseId AND e.studentId IS NOT NULL "
+            + "ORDER BY e.studentId ASC")
+    List<Long> findStudentIdsByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT DISTINCT e.studentId FROM Enrollment e "
+            + "WHERE e.course.id = :courseId AND e.studentId IN :studentIds")
+    List<Long> findEnrolledStudentIds(@Param("courseId") UUID courseId,
+            @Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Completed lesson count of every student enrolled in a course, ordered by student id.
+     * Only the course's lessons are joined, the student's progress in other courses is never read.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e.studentId AS studentId, COUNT(DISTINCT lp.id) AS completedLessons "
+            + "FROM Enrollment e "
+            + "LEFT JOIN LessonProgress lp ON lp.studentId = e.studentId AND lp.completed = true "
+            + "AND lp.lesson.id IN (SELECT l.id FROM Lesson l JOIN l.module m WHERE m.course.id = :courseId) "
+            + "WHERE e.course.id = :courseId AND e.studentId IS NOT NULL "
+            + "GROUP BY e.studentId "
+            + "ORDER BY e.studentId ASC")
+    Stream<StudentCompletionView> streamStudentCompletionsByCourseId(@Param("courseId") UUID courseId);
+
+    interface StudentCompletionView {
+        Long getStudentId();
+
+        Long getCompletedLessons();
+    }
 }
@@ -1,17 +1,24 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.LessonProgress;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface LessonProgressRepository extends JpaRepository<LessonProgress, UUID> {
+public interface LessonProgressRepository extends JpaRepository<LessonProgress, UUID>, LessonProgressRepositoryCustom {
 
     Optional<LessonProgress> findByLesson_IdAndStudentId(UUID lessonId, Long studentId);
 
@@ -20,8 +27,87 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
     @Query("SELECT lp FROM LessonProgress lp JOIN FETCH lp.lesson WHERE lp.studentId = :studentId AND lp.lesson.module.course.id = :courseId")
     List<LessonProgress> findByStudentIdAndCourseIdWithLesson(@Param("studentId") Long studentId, @Param("courseId") UUID courseId);
 
+    @Query("SELECT lp FROM LessonProgress lp JOIN FETCH lp.lesson WHERE lp.studentId = :studentId AND lp.lesson.id IN :lessonIds")
+    List<LessonProgress> findByStudentIdAndLessonIdInWithLesson(@Param("studentId") Long studentId,
+            @Param("lessonIds") Collection<UUID> lessonIds);
+
     long countByStudentIdAndLesson_Module_Course_IdAndCompletedTrue(Long studentId, UUID courseId);
 
+    /**
+     * Complete a lesson for a student, creating the progress row when missing. Returns 1 when this call
+     * completed the lesson and 0 when it already was, so concurrent calls count a completion only once.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lesson_progress (id, lesson_id, student_id, completed, completed_at, created_at, updated_at) "
+            + "VALUES (gen_random_uuid(), :lessonId, :studentId, true, :completedAt, NOW(), NOW()) "
+            + "ON CONFLICT (lesson_id, student_id) DO UPDATE SET "
+            + "completed = true, completed_at = EXCLUDED.completed_at, updated_at = NOW() "
+            + "WHERE lesson_progress.completed = false",
+            nativeQuery = true)
+    int markCompleted(@Param("lessonId") UUID lessonId, @Param("studentId") Long studentId,
+            @Param("completedAt") LocalDateTime completedAt);
+
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.module.course.id = :courseId")
     long countTotalLessonsByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * Every lesson of a course in module/lesson order, left joined to the student's progress.
+     * Lessons without a progress row come back with null completion columns.
+     */
+    @Query("SELECT l.id AS lessonId, l.title AS lessonTitle, lp.completed AS completed, lp.completedAt AS completedAt "
+            + "FROM Lesson l JOIN l.module m "
+            + "LEFT JOIN LessonProgress lp ON lp.lesson.id = l.id AND lp.studentId = :studentId "
+            + "WHERE m.course.id = :courseId "
+            + "ORDER BY m.orderIndex ASC, l.orderIndex ASC")
+    List<LessonProgressView> findLessonProgressViewsByCourseId(@Param("courseId") UUID courseId,
+            @Param("studentId") Long studentId);
+
+    /**
+     * Completed (student, lesson) pairs of a course ordered by student id.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT lp.studentId AS studentId, lp.lesson.id AS lessonId FROM LessonProgress lp "
+            + "WHERE lp.lesson.module.course.id = :courseId AND lp.completed = true "
+            + "ORDER BY lp.studentId ASC")
+    Stream<StudentLessonView> streamCompletedLessonsByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * Per-module lesson totals and the student's completed lessons for a course, in module order.
+     */
+    @Query("SELECT m.id AS moduleId, m.title AS moduleTitle, COUNT(l.id) AS totalLessons, COUNT(lp.id) AS completedLessons "
+            + "FROM Module m "
+            + "LEFT JOIN Lesson l ON l.module.id = m.id "
+            + "LEFT JOIN LessonProgress lp ON lp.lesson.id = l.id AND lp.studentId = :studentId AND lp.completed = true "
+            + "WHERE m.course.id = :courseId "
+            + "GROUP BY m.id, m.title, m.orderIndex "
+            + "ORDER BY m.orderIndex ASC")
+    List<ModuleProgressView> findModuleProgressByCourseId(@Param("courseId") UUID courseId,
+            @Param("studentId") Long studentId);
+
+    interface ModuleProgressView {
+        UUID getModuleId();
+
+        String getModuleTitle();
+
+        Long getTotalLessons();
+
+        Long getCompletedLessons();
+    }
+
+    interface StudentLessonView {
+        Long getStudentId();
+
+        UUID getLessonId();
+    }
+
+    interface LessonProgressView {
+        UUID getLessonId();
+
+        String getLessonTitle();
+
+        Boolean getCompleted();
+
+        LocalDateTime getCompletedAt();
+    }
 }
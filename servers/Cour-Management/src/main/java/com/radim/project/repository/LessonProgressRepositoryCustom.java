@@ -0,0 +1,18 @@
+package com.radim.project.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public interface LessonProgressRepositoryCustom {
+
+    /**
+     * Mark the given lessons completed for a student with a single
+     * INSERT ... ON CONFLICT (lesson_id, student_id) statement.
+     * Existing completions keep their earliest completedAt.
+     *
+     * @param completions completedAt per lesson id, lesson ids must exist and be unique
+     * @return number of inserted or updated rows
+     */
+    int upsertCompletions(Long studentId, Map<UUID, LocalDateTime> completions);
+}
@@ -0,0 +1,46 @@
+package com.radim.project.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public class LessonProgressRepositoryImpl implements LessonProgressRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int upsertCompletions(Long studentId, Map<UUID, LocalDateTime> completions) {
+        if (completions.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO lesson_progress (id, lesson_id, student_id, completed, completed_at, created_at, updated_at) VALUES ");
+        for (int i = 0; i < completions.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(gen_random_uuid(), :lessonId").append(i)
+                    .append(", :studentId, true, :completedAt").append(i).append(", NOW(), NOW())");
+        }
+        sql.append(" ON CONFLICT (lesson_id, student_id) DO UPDATE SET ")
+                .append("completed = true, ")
+                .append("completed_at = LEAST(lesson_progress.completed_at, EXCLUDED.completed_at), ")
+                .append("updated_at = NOW()");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("studentId", studentId);
+        int i = 0;
+        for (Map.Entry<UUID, LocalDateTime> entry : completions.entrySet()) {
+            query.setParameter("lessonId" + i, entry.getKey());
+            query.setParameter("completedAt" + i, entry.getValue());
+            i++;
+        }
+        return query.executeUpdate();
+    }
+}
@@ -2,12 +2,28 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, UUID> {
     List<Lesson> findByModuleIdOrderByOrderIndexAsc(UUID moduleId);
+
+    @Query("SELECT l.id FROM Lesson l WHERE l.module.course.id = :courseId "
+            + "ORDER BY l.module.orderIndex ASC, l.orderIndex ASC")
+    List<UUID> findIdsByCourseIdOrdered(@Param("courseId") UUID courseId);
+
+    @Query("SELECT l.id AS lessonId, l.module.course.id AS courseId FROM Lesson l WHERE l.id IN :lessonIds")
+    List<LessonCourseView> findCourseIdsByLessonIds(@Param("lessonIds") Collection<UUID> lessonIds);
+
+    interface LessonCourseView {
+        UUID getLessonId();
+
+        UUID getCourseId();
+    }
 }
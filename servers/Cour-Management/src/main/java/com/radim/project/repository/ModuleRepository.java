@@ -2,6 +2,8 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,33 @@ import java.util.UUID;
 @Repository
 public interface ModuleRepository extends JpaRepository<Module, UUID> {
     List<Module> findByCourseIdOrderByOrderIndexAsc(UUID courseId);
+
+    /**
+     * Flattened course structure: one row per lesson (or per empty module), in course order
+     */
+    @Query("SELECT m.id AS moduleId, m.title AS moduleTitle, m.orderIndex AS moduleOrderIndex, "
+            + "l.id AS lessonId, l.title AS lessonTitle, l.orderIndex AS lessonOrderIndex, COUNT(c.id) AS contentCount "
+            + "FROM Module m "
+            + "LEFT JOIN Lesson l ON l.module.id = m.id "
+            + "LEFT JOIN LessonContent c ON c.lesson.id = l.id "
+            + "WHERE m.course.id = :courseId "
+            + "GROUP BY m.id, m.title, m.orderIndex, l.id, l.title, l.orderIndex "
+            + "ORDER BY m.orderIndex ASC, l.orderIndex ASC")
+    List<OutlineRow> findOutlineRowsByCourseId(@Param("courseId") UUID courseId);
+
+    interface OutlineRow {
+        UUID getModuleId();
+
+        String getModuleTitle();
+
+        Integer getModuleOrderIndex();
+
+        UUID getLessonId();
+
+        String getLessonTitle();
+
+        Integer getLessonOrderIndex();
+
+        Long getContentCount();
+    }
 }
@@ -0,0 +1,64 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.QuestionOptionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface QuestionOptionStatsRepository extends JpaRepository<QuestionOptionStats, UUID>,
+        QuestionOptionStatsRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM QuestionOptionStats s WHERE s.quiz.id = :quizId")
+    int deleteByQuizId(@Param("quizId") UUID quizId);
+
+    /**
+     * Every option of every question of a quiz with its counters (null when never selected),
+     * in option order
+     */
+    @Query("SELECT q.id AS questionId, q.questionText AS questionText, o.id AS optionId, o.optionText AS optionText, "
+            + "o.isCorrect AS isCorrect, s.selectCount AS selectCount "
+            + "FROM Question q "
+            + "JOIN QuestionOption o ON o.question.id = q.id "
+            + "LEFT JOIN QuestionOptionStats s ON s.question.id = q.id AND s.optionId = o.id "
+            + "WHERE q.quiz.id = :quizId "
+            + "ORDER BY q.id ASC, o.optionOrder ASC")
+    List<OptionStatsView> findOptionStatsByQuizId(@Param("quizId") UUID quizId);
+
+    /**
+     * Per-question totals, including answers to options that no longer exist
+     */
+    @Query("SELECT s.question.id AS questionId, SUM(s.selectCount) AS answerCount, SUM(s.correctCount) AS correctCount "
+            + "FROM QuestionOptionStats s "
+            + "WHERE s.quiz.id = :quizId "
+            + "GROUP BY s.question.id")
+    List<QuestionTotalsView> findQuestionTotalsByQuizId(@Param("quizId") UUID quizId);
+
+    interface OptionStatsView {
+        UUID getQuestionId();
+
+        String getQuestionText();
+
+        UUID getOptionId();
+
+        String getOptionText();
+
+        Boolean getIsCorrect();
+
+        Long getSelectCount();
+    }
+
+    interface QuestionTotalsView {
+        UUID getQuestionId();
+
+        Long getAnswerCount();
+
+        Long getCorrectCount();
+    }
+}
@@ -0,0 +1,24 @@
+package com.radim.project.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface QuestionOptionStatsRepositoryCustom {
+
+    /**
+     * Add the given counts to the stats rows of a quiz in a single statement, creating missing rows.
+     * Each (question, option) pair must appear at most once.
+     * Holds the quiz's counters lock in shared mode until the transaction ends, so increments of
+     * concurrent submissions never wait on each other but do wait on a rebuild.
+     */
+    int incrementCounts(UUID quizId, Collection<OptionCount> counts);
+
+    /**
+     * Take the quiz's counters lock in exclusive mode until the transaction ends: waits for the
+     * transactions that already incremented the counters to finish and holds off new increments.
+     */
+    void lockCountsExclusively(UUID quizId);
+
+    record OptionCount(UUID questionId, UUID optionId, long selectCount, long correctCount) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.radim.project.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public class QuestionOptionStatsRepositoryImpl implements QuestionOptionStatsRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int incrementCounts(UUID quizId, Collection<OptionCount> counts) {
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        lock(quizId, "pg_advisory_xact_lock_shared");
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO question_option_stats (id, quiz_id, question_id, option_id, select_count, correct_count, created_at, updated_at) VALUES ");
+        for (int i = 0; i < counts.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(gen_random_uuid(), :quizId, :questionId").append(i)
+                    .append(", :optionId").append(i)
+                    .append(", :selectCount").append(i)
+                    .append(", :correctCount").append(i).append(", NOW(), NOW())");
+        }
+        sql.append(" ON CONFLICT (question_id, option_id) DO UPDATE SET ")
+                .append("select_count = question_option_stats.select_count + EXCLUDED.select_count, ")
+                .append("correct_count = question_option_stats.correct_count + EXCLUDED.correct_count, ")
+                .append("updated_at = NOW()");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("quizId", quizId);
+        int i = 0;
+        for (OptionCount count : counts) {
+            query.setParameter("questionId" + i, count.questionId());
+            query.setParameter("optionId" + i, count.optionId());
+            query.setParameter("selectCount" + i, count.selectCount());
+            query.setParameter("correctCount" + i, count.correctCount());
+            i++;
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public void lockCountsExclusively(UUID quizId) {
+        lock(quizId, "pg_advisory_xact_lock");
+    }
+
+    /**
+     * Transaction scoped advisory lock keyed on the quiz id. The function returns void, cast so the
+     * driver gets a mappable type.
+     */
+    private void lock(UUID quizId, String function) {
+        entityManager.createNativeQuery("SELECT CAST(" + function + "(:lockKey) AS text)")
+                .setParameter("lockKey", quizId.getMostSignificantBits() ^ quizId.getLeastSignificantBits())
+                .getSingleResult();
+    }
+}
@@ -2,12 +2,74 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, UUID> {
     List<Question> findByQuizId(UUID quizId);
+
+    /**
+     * Questions of a quiz with their options loaded in the same query, for bulk edits
+     */
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options "
+            + "WHERE q.quiz.id = :quizId AND q.id IN :questionIds")
+    List<Question> findWithOptionsByQuizIdAndIdIn(@Param("quizId") UUID quizId,
+            @Param("questionIds") Collection<UUID> questionIds);
+
+    /**
+     * Answer key of a quiz: one row per correct option (or per question without one), in option order.
+     * A quiz without questions yields a single row with a null question id.
+     */
+    @Query("SELECT qz.passingScore AS passingScore, q.id AS questionId, q.questionText AS questionText, "
+            + "q.points AS points, o.id AS optionId "
+            + "FROM Quiz qz "
+            + "LEFT JOIN Question q ON q.quiz.id = qz.id "
+            + "LEFT JOIN QuestionOption o ON o.question.id = q.id AND o.isCorrect = true "
+            + "WHERE qz.id = :quizId "
+            + "ORDER BY q.id ASC, o.optionOrder ASC")
+    List<AnswerKeyRow> findAnswerKeyRowsByQuizId(@Param("quizId") UUID quizId);
+
+    /**
+     * Questions of a quiz with their options as flat rows, in question then option order.
+     * Correctness is not selected: these rows feed the student-facing quiz payload.
+     */
+    @Query("SELECT q.id AS questionId, q.questionText AS questionText, q.questionType AS questionType, "
+            + "q.points AS points, o.id AS optionId, o.optionText AS optionText "
+            + "FROM Question q "
+            + "LEFT JOIN QuestionOption o ON o.question.id = q.id "
+            + "WHERE q.quiz.id = :quizId "
+            + "ORDER BY q.id ASC, o.optionOrder ASC")
+    List<DeliveryRow> findDeliveryRowsByQuizId(@Param("quizId") UUID quizId);
+
+    interface DeliveryRow {
+        UUID getQuestionId();
+
+        String getQuestionText();
+
+        String getQuestionType();
+
+        Integer getPoints();
+
+        UUID getOptionId();
+
+        String getOptionText();
+    }
+
+    interface AnswerKeyRow {
+        Integer getPassingScore();
+
+        UUID getQuestionId();
+
+        String getQuestionText();
+
+        Integer getPoints();
+
+        UUID getOptionId();
+    }
 }
@@ -2,13 +2,18 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.QuizAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID> {
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID>,
+        QuizAttemptRepositoryCustom {
     List<QuizAttempt> findByStudentId(Long studentId);
 
     List<QuizAttempt> findByQuizId(UUID quizId);
@@ -18,4 +23,51 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, UUID>
     List<QuizAttempt> findByQuiz_IdAndStudentIdOrderByPercentageDesc(UUID quizId, Long studentId);
 
     Long countByStudentIdAndQuiz_Id(Long studentId, UUID quizId);
+
+    /**
+     * Attempts of timed quizzes that are still open, to rebuild the expiry queue at startup
+     */
+    @Query("SELECT a.id AS id, a.expiresAt AS expiresAt FROM QuizAttempt a "
+            + "WHERE a.submittedAt IS NULL AND a.expiresAt IS NOT NULL")
+    List<OpenAttemptView> findOpenTimedAttempts();
+
+    /**
+     * Record the grade of an attempt only if it has not been submitted yet.
+     * Returns 0 when another submission got there first.
+     */
+    @Modifying
+    @Query("UPDATE QuizAttempt a SET a.score = :score, a.maxScore = :maxScore, a.percentage = :percentage, "
+            + "a.passed = :passed, a.submittedAt = :submittedAt, a.updatedAt = :updatedAt "
+            + "WHERE a.id = :id AND a.submittedAt IS NULL")
+    int submitIfOpen(@Param("id") UUID id, @Param("score") Integer score, @Param("maxScore") Integer maxScore,
+            @Param("percentage") Double percentage, @Param("passed") Boolean passed,
+            @Param("submittedAt") LocalDateTime submittedAt, @Param("updatedAt") LocalDateTime updatedAt);
+
+    interface OpenAttemptView {
+        UUID getId();
+
+        LocalDateTime getExpiresAt();
+    }
+
+    interface AttemptSummaryView {
+        UUID getId();
+
+        UUID getQuizId();
+
+        String getQuizTitle();
+
+        Long getStudentId();
+
+        Integer getScore();
+
+        Integer getMaxScore();
+
+        Double getPercentage();
+
+        Boolean getPassed();
+
+        LocalDateTime getStartedAt();
+
+        LocalDateTime getSubmittedAt();
+    }
 }
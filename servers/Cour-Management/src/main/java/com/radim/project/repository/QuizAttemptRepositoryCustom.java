@@ -0,0 +1,23 @@
+package com.radim.project.repository;
+
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizAttemptRepositoryCustom {
+
+    /**
+     * First page of submitted attempts of a quiz, newest first. Null filters match everything.
+     */
+    List<QuizAttemptRepository.AttemptSummaryView> findSubmittedSummariesByQuizId(UUID quizId, Long studentId,
+            Boolean passed, Limit limit);
+
+    /**
+     * Next page of submitted attempts of a quiz: rows strictly after the (submittedAt, id) cursor in
+     * (submittedAt DESC, id DESC) order
+     */
+    List<QuizAttemptRepository.AttemptSummaryView> findSubmittedSummariesByQuizIdAfter(UUID quizId, Long studentId,
+            Boolean passed, LocalDateTime afterSubmittedAt, UUID afterId, Limit limit);
+}
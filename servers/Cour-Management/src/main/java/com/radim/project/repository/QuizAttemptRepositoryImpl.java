@@ -0,0 +1,127 @@
+package com.radim.project.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class QuizAttemptRepositoryImpl implements QuizAttemptRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<QuizAttemptRepository.AttemptSummaryView> findSubmittedSummariesByQuizId(UUID quizId, Long studentId,
+            Boolean passed, Limit limit) {
+        return findSubmittedSummaries(quizId, studentId, passed, null, null, limit);
+    }
+
+    @Override
+    public List<QuizAttemptRepository.AttemptSummaryView> findSubmittedSummariesByQuizIdAfter(UUID quizId,
+            Long studentId, Boolean passed, LocalDateTime afterSubmittedAt, UUID afterId, Limit limit) {
+        return findSubmittedSummaries(quizId, studentId, passed, afterSubmittedAt, afterId, limit);
+    }
+
+    /**
+     * Only the filters that are set become predicates: a catch-all "(:x IS NULL OR col = :x)" is planned
+     * once for every value and keeps the keyset predicate from using the (quiz_id, submitted_at, id) index
+     */
+    private List<QuizAttemptRepository.AttemptSummaryView> findSubmittedSummaries(UUID quizId, Long studentId,
+            Boolean passed, LocalDateTime afterSubmittedAt, UUID afterId, Limit limit) {
+        StringBuilder jpql = new StringBuilder("SELECT a.id AS id, q.id AS quizId, q.title AS quizTitle, ")
+                .append("a.studentId AS studentId, a.score AS score, a.maxScore AS maxScore, ")
+                .append("a.percentage AS percentage, a.passed AS passed, a.startedAt AS startedAt, ")
+                .append("a.submittedAt AS submittedAt ")
+                .append("FROM QuizAttempt a JOIN a.quiz q ")
+                .append("WHERE q.id = :quizId AND a.submittedAt IS NOT NULL");
+        if (studentId != null) {
+            jpql.append(" AND a.studentId = :studentId");
+        }
+        if (passed != null) {
+            jpql.append(" AND a.passed = :passed");
+        }
+        if (afterSubmittedAt != null) {
+            jpql.append(" AND (a.submittedAt < :afterSubmittedAt")
+                    .append(" OR (a.submittedAt = :afterSubmittedAt AND a.id < :afterId))");
+        }
+        jpql.append(" ORDER BY a.submittedAt DESC, a.id DESC");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        query.setParameter("quizId", quizId);
+        if (studentId != null) {
+            query.setParameter("studentId", studentId);
+        }
+        if (passed != null) {
+            query.setParameter("passed", passed);
+        }
+        if (afterSubmittedAt != null) {
+            query.setParameter("afterSubmittedAt", afterSubmittedAt);
+            query.setParameter("afterId", afterId);
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList().stream()
+                .map(AttemptSummary::new)
+                .collect(Collectors.toList());
+    }
+
+    private record AttemptSummary(Tuple row) implements QuizAttemptRepository.AttemptSummaryView {
+
+        @Override
+        public UUID getId() {
+            return row.get("id", UUID.class);
+        }
+
+        @Override
+        public UUID getQuizId() {
+            return row.get("quizId", UUID.class);
+        }
+
+        @Override
+        public String getQuizTitle() {
+            return row.get("quizTitle", String.class);
+        }
+
+        @Override
+        public Long getStudentId() {
+            return row.get("studentId", Long.class);
+        }
+
+        @Override
+        public Integer getScore() {
+            return row.get("score", Integer.class);
+        }
+
+        @Override
+        public Integer getMaxScore() {
+            return row.get("maxScore", Integer.class);
+        }
+
+        @Override
+        public Double getPercentage() {
+            return row.get("percentage", Double.class);
+        }
+
+        @Override
+        public Boolean getPassed() {
+            return row.get("passed", Boolean.class);
+        }
+
+        @Override
+        public LocalDateTime getStartedAt() {
+            return row.get("startedAt", LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime getSubmittedAt() {
+            return row.get("submittedAt", LocalDateTime.class);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.QuizBestAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface QuizBestAttemptRepository extends JpaRepository<QuizBestAttempt, UUID>,
+        QuizBestAttemptRepositoryCustom {
+
+    /**
+     * Every mandatory quiz of a course with the student's best percentage (null when never submitted)
+     */
+    @Query("SELECT qz.id AS quizId, qz.title AS quizTitle, qz.passingScore AS passingScore, b.percentage AS bestPercentage "
+            + "FROM Quiz qz "
+            + "LEFT JOIN QuizBestAttempt b ON b.quiz.id = qz.id AND b.studentId = :studentId "
+            + "WHERE qz.course.id = :courseId AND qz.mandatory = true")
+    List<MandatoryQuizResultView> findMandatoryQuizResults(@Param("courseId") UUID courseId,
+            @Param("studentId") Long studentId);
+
+    /**
+     * Best percentages of a group of students on the mandatory quizzes of a course, one row per attempted quiz
+     */
+    @Query("SELECT b.quiz.id AS quizId, b.studentId AS studentId, b.percentage AS percentage "
+            + "FROM QuizBestAttempt b "
+            + "WHERE b.quiz.course.id = :courseId AND b.quiz.mandatory = true AND b.studentId IN :studentIds")
+    List<MandatoryBestView> findMandatoryBestPercentages(@Param("courseId") UUID courseId,
+            @Param("studentIds") Collection<Long> studentIds);
+
+    interface MandatoryBestView {
+        UUID getQuizId();
+
+        Long getStudentId();
+
+        Double getPercentage();
+    }
+
+    interface MandatoryQuizResultView {
+        UUID getQuizId();
+
+        String getQuizTitle();
+
+        Integer getPassingScore();
+
+        Double getBestPercentage();
+    }
+}
@@ -0,0 +1,19 @@
+package com.radim.project.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface QuizBestAttemptRepositoryCustom {
+
+    /**
+     * Record submitted attempts of a quiz as best attempts in a single statement: a student without
+     * a row gets one, an existing row is replaced only when the attempt scores strictly higher.
+     * Each student must appear at most once.
+     */
+    int upsertIfBetter(UUID quizId, Collection<BestAttempt> attempts);
+
+    record BestAttempt(Long studentId, UUID attemptId, Double percentage, Boolean passed,
+            LocalDateTime submittedAt) {
+    }
+}
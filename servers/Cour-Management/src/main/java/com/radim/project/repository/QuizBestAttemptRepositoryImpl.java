@@ -0,0 +1,54 @@
+package com.radim.project.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public class QuizBestAttemptRepositoryImpl implements QuizBestAttemptRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int upsertIfBetter(UUID quizId, Collection<BestAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO quiz_best_attempts (id, quiz_id, student_id, attempt_id, percentage, passed, submitted_at, created_at, updated_at) VALUES ");
+        for (int i = 0; i < attempts.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(gen_random_uuid(), :quizId, :studentId").append(i)
+                    .append(", :attemptId").append(i)
+                    .append(", :percentage").append(i)
+                    .append(", :passed").append(i)
+                    .append(", :submittedAt").append(i).append(", NOW(), NOW())");
+        }
+        sql.append(" ON CONFLICT (quiz_id, student_id) DO UPDATE SET ")
+                .append("attempt_id = EXCLUDED.attempt_id, ")
+                .append("percentage = EXCLUDED.percentage, ")
+                .append("passed = EXCLUDED.passed, ")
+                .append("submitted_at = EXCLUDED.submitted_at, ")
+                .append("updated_at = NOW() ")
+                .append("WHERE quiz_best_attempts.percentage < EXCLUDED.percentage");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("quizId", quizId);
+        int i = 0;
+        for (BestAttempt attempt : attempts) {
+            query.setParameter("studentId" + i, attempt.studentId());
+            query.setParameter("attemptId" + i, attempt.attemptId());
+            query.setParameter("percentage" + i, attempt.percentage());
+            query.setParameter("passed" + i, attempt.passed());
+            query.setParameter("submittedAt" + i, attempt.submittedAt());
+            i++;
+        }
+        return query.executeUpdate();
+    }
+}
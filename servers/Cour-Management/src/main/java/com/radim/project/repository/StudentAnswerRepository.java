@@ -1,13 +1,54 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.StudentAnswer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentAnswerRepository extends JpaRepository<StudentAnswer, UUID> {
     List<StudentAnswer> findByQuizAttemptId(UUID quizAttemptId);
+
+    /**
+     * Answers saved on an attempt, without loading questions
+     */
+    @Query("SELECT sa.question.id AS questionId, sa.selectedOptionId AS selectedOptionId, sa.isCorrect AS isCorrect "
+            + "FROM StudentAnswer sa "
+            + "WHERE sa.quizAttempt.id = :attemptId")
+    List<AnswerView> findAnswerViewsByQuizAttemptId(@Param("attemptId") UUID attemptId);
+
+    /**
+     * Drop the answers saved on an attempt, before saving a new set
+     */
+    @Modifying
+    @Query("DELETE FROM StudentAnswer sa WHERE sa.quizAttempt.id = :attemptId")
+    int deleteByQuizAttemptId(@Param("attemptId") UUID attemptId);
+
+    /**
+     * Every answer given on a submitted attempt of a quiz, ordered by question.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT sa.question.id AS questionId, sa.selectedOptionId AS selectedOptionId, sa.isCorrect AS isCorrect "
+            + "FROM StudentAnswer sa "
+            + "WHERE sa.quizAttempt.quiz.id = :quizId AND sa.quizAttempt.submittedAt IS NOT NULL "
+            + "ORDER BY sa.question.id ASC")
+    Stream<AnswerView> streamAnswersByQuizId(@Param("quizId") UUID quizId);
+
+    interface AnswerView {
+        UUID getQuestionId();
+
+        UUID getSelectedOptionId();
+
+        Boolean getIsCorrect();
+    }
 }
@@ -30,7 +30,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail; // or userId
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,28 +38,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            userEmail = jwtService.extractUsername(jwt);
-            Long userId = jwtService.extractUserId(jwt);
-            List<String> roles = jwtService.extractRoles(jwt);
+            // Single verified parse per token; repeated tokens are served from JwtService's cache
+            JwtPrincipal principal = jwtService.parsePrincipal(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isTokenValid(jwt)) {
-                    // Ensure roles have ROLE_ prefix for Spring Security hasRole() checks
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
-                            .map(role -> {
-                                // If role already has ROLE_ prefix, use it as is, otherwise add it
-                                String roleName = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-                                return new SimpleGrantedAuthority(roleName);
-                            })
-                            .collect(Collectors.toList());
+            if (principal.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Ensure roles have ROLE_ prefix for Spring Security hasRole() checks
+                List<SimpleGrantedAuthority> authorities = principal.roles().stream()
+                        .map(role -> {
+                            // If role already has ROLE_ prefix, use it as is, otherwise add it
+                            String roleName = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+                            return new SimpleGrantedAuthority(roleName);
+                        })
+                        .collect(Collectors.toList());
 
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userId != null ? userId.toString() : userEmail,
-                            null,
-                            authorities);
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal.name(),
+                        null,
+                        authorities);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             // Token invalid or expired
@@ -0,0 +1,23 @@
+package com.radim.project.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified claims of a bearer token, parsed once per token.
+ * name() is what the rest of the service sees as the authenticated principal (the userId when present).
+ */
+public record JwtPrincipal(String username, Long userId, List<String> roles, Instant expiresAt) {
+
+    public JwtPrincipal {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    public String name() {
+        return userId != null ? userId.toString() : username;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
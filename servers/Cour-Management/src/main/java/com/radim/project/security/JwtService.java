@@ -1,15 +1,24 @@
 package com.radim.project.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 @Service
@@ -18,6 +27,59 @@ public class JwtService {
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
+    @Value("${application.security.jwt.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private volatile JwtParser parser;
+
+    // Verified principals keyed by token digest; an entry is only served until the token's exp
+    private final Map<String, JwtPrincipal> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JwtPrincipal> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Verify the token once and return its claims as an immutable principal.
+     * Repeated calls with the same token are served from the cache until it expires.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public JwtPrincipal parsePrincipal(String token) {
+        String digest = digest(token);
+        Instant now = Instant.now();
+        synchronized (verifiedTokens) {
+            JwtPrincipal cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                verifiedTokens.remove(digest);
+            }
+        }
+
+        Claims claims = extractAllClaims(token);
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                roles,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        if (principal.isExpired(now)) {
+            throw new ExpiredJwtException(null, claims, "JWT expired");
+        }
+
+        // Tokens without exp are verified on every request rather than cached forever
+        if (principal.expiresAt() != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(digest, principal);
+            }
+        }
+        return principal;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -36,18 +98,36 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = current;
+        }
+        return current;
+    }
+
     private Key getSignInKey() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public boolean isTokenValid(String token) {
         try {
             return !isTokenExpired(token);
@@ -0,0 +1,142 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Bounded LRU cache of compiled answer keys: for every question of a quiz, its correct option ids
+ * and points, plus the quiz's max score and passing score. Grading a submission is then a pure in-memory pass. Questions and options only
+ * change through QuestionService (and are removed with their quiz), which invalidate the quiz here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerKeyCache {
+
+    private final QuestionRepository questionRepository;
+
+    static final int DEFAULT_PASSING_SCORE = 60;
+
+    @Value("${quiz.answer-key-cache.max-size:1000}")
+    private int maxSize = 1000;
+
+    private final Map<UUID, CacheSlot<AnswerKey>> answerKeys = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CacheSlot<AnswerKey>> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    public AnswerKey getAnswerKey(UUID quizId) {
+        CacheSlot<AnswerKey> slot;
+        long generation;
+        synchronized (answerKeys) {
+            slot = answerKeys.computeIfAbsent(quizId, id -> new CacheSlot<>());
+            if (slot.value() != null) {
+                return slot.value();
+            }
+            generation = slot.generation();
+        }
+
+        AnswerKey answerKey = load(quizId);
+        synchronized (answerKeys) {
+            // Not cached when the quiz was invalidated, or the slot evicted, while loading
+            if (answerKeys.get(quizId) == slot) {
+                slot.fill(generation, answerKey);
+            }
+        }
+        return answerKey;
+    }
+
+    /**
+     * Drop the answer key of a quiz now and again once the current transaction commits,
+     * so that a concurrent submission cannot cache the pre-commit questions. Each drop bumps the
+     * quiz's generation: a load that was running at that point does not store its result.
+     */
+    public void invalidate(UUID quizId) {
+        evict(quizId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(quizId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID quizId) {
+        synchronized (answerKeys) {
+            CacheSlot<AnswerKey> slot = answerKeys.get(quizId);
+            if (slot != null) {
+                slot.invalidate();
+            }
+        }
+    }
+
+    private AnswerKey load(UUID quizId) {
+        log.debug("Compiling answer key for quiz {}", quizId);
+
+        Integer passingScore = null;
+        Map<UUID, QuestionRepository.AnswerKeyRow> questionRows = new LinkedHashMap<>();
+        Map<UUID, Set<UUID>> correctOptions = new HashMap<>();
+        for (QuestionRepository.AnswerKeyRow row : questionRepository.findAnswerKeyRowsByQuizId(quizId)) {
+            passingScore = row.getPassingScore();
+            if (row.getQuestionId() == null) {
+                continue;
+            }
+            questionRows.putIfAbsent(row.getQuestionId(), row);
+            Set<UUID> optionIds = correctOptions.computeIfAbsent(row.getQuestionId(), id -> new LinkedHashSet<>());
+            if (row.getOptionId() != null) {
+                optionIds.add(row.getOptionId());
+            }
+        }
+
+        Map<UUID, QuestionKey> questions = new LinkedHashMap<>();
+        int maxScore = 0;
+        for (QuestionRepository.AnswerKeyRow row : questionRows.values()) {
+            // Questions without points count for one, as before weighting
+            int points = row.getPoints() != null ? Math.max(row.getPoints(), 0) : 1;
+            questions.put(row.getQuestionId(), new QuestionKey(
+                    row.getQuestionId(),
+                    row.getQuestionText(),
+                    Collections.unmodifiableSet(correctOptions.get(row.getQuestionId())),
+                    points));
+            maxScore += points;
+        }
+        return new AnswerKey(quizId, Collections.unmodifiableMap(questions), maxScore,
+                passingScore != null ? passingScore : DEFAULT_PASSING_SCORE);
+    }
+
+    /**
+     * @param maxScore     sum of the points of every question
+     * @param passingScore minimum percentage to pass
+     */
+    public record AnswerKey(UUID quizId, Map<UUID, QuestionKey> questions, int maxScore, int passingScore) {
+
+        public QuestionKey question(UUID questionId) {
+            return questions.get(questionId);
+        }
+    }
+
+    /**
+     * @param correctOptionIds correct options in option order
+     */
+    public record QuestionKey(UUID questionId, String questionText, Set<UUID> correctOptionIds, int points) {
+
+        public boolean isCorrect(UUID selectedOptionId) {
+            return selectedOptionId != null && correctOptionIds.contains(selectedOptionId);
+        }
+
+        public UUID correctOptionId() {
+            return correctOptionIds.isEmpty() ? null : correctOptionIds.iterator().next();
+        }
+    }
+}
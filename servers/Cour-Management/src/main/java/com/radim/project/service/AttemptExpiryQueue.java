@@ -0,0 +1,86 @@
+package com.radim.project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory deadlines of open timed quiz attempts. An attempt becomes due once its time limit
+ * plus a short grace period has passed; AttemptExpiryWorker takes due attempts and auto-submits them.
+ * The queue is not persisted: it is rebuilt from quiz_attempts.expires_at at startup.
+ */
+@Service
+public class AttemptExpiryQueue {
+
+    @Value("${quiz.attempt.submit-grace-seconds:30}")
+    private long submitGraceSeconds = 30;
+
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+
+    /**
+     * Queue an attempt for auto-submission, once the current transaction (if any) has committed
+     */
+    public void schedule(UUID attemptId, LocalDateTime expiresAt) {
+        Expiry expiry = new Expiry(attemptId, toEpochMillis(expiresAt.plusSeconds(submitGraceSeconds)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    expiries.add(expiry);
+                }
+            });
+        } else {
+            expiries.add(expiry);
+        }
+    }
+
+    /**
+     * Queue an attempt again after a failed auto-submission
+     */
+    public void retry(UUID attemptId, long delayMillis) {
+        expiries.add(new Expiry(attemptId, System.currentTimeMillis() + delayMillis));
+    }
+
+    /**
+     * Whether a submission for an attempt with this deadline must be refused
+     */
+    public boolean isClosed(LocalDateTime expiresAt) {
+        return expiresAt != null && LocalDateTime.now().isAfter(expiresAt.plusSeconds(submitGraceSeconds));
+    }
+
+    /**
+     * Wait for the next due attempt
+     */
+    public UUID take() throws InterruptedException {
+        return expiries.take().attemptId();
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Expiry(UUID attemptId, long dueAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Expiry) other).dueAtMillis);
+        }
+    }
+}
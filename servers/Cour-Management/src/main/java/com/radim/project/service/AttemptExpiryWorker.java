@@ -0,0 +1,109 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.QuizAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Auto-submits timed quiz attempts when they become due in AttemptExpiryQueue.
+ * At startup the queue is refilled with every open timed attempt, so deadlines that passed
+ * while the service was down are handled right away. A failed auto-submission (or a failed reload)
+ * is retried with an exponential backoff capped at quiz.attempt.expiry-retry.max-delay-ms,
+ * so a transient database error never leaves an attempt open for good.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttemptExpiryWorker {
+
+    private final AttemptExpiryQueue attemptExpiryQueue;
+    private final QuizAttemptService quizAttemptService;
+    private final QuizAttemptRepository quizAttemptRepository;
+
+    @Value("${quiz.attempt.expiry-retry.initial-delay-ms:1000}")
+    private long retryInitialDelayMillis = 1000;
+
+    @Value("${quiz.attempt.expiry-retry.max-delay-ms:300000}")
+    private long retryMaxDelayMillis = 300000;
+
+    private final Map<UUID, Integer> failures = new ConcurrentHashMap<>();
+
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = new Thread(this::run, "quiz-attempt-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    void rebuildQueue() {
+        List<QuizAttemptRepository.OpenAttemptView> openAttempts = quizAttemptRepository.findOpenTimedAttempts();
+        openAttempts.forEach(attempt -> attemptExpiryQueue.schedule(attempt.getId(), attempt.getExpiresAt()));
+        log.info("Scheduled {} open timed quiz attempts for expiry", openAttempts.size());
+    }
+
+    /**
+     * Reload the open attempts, retrying until the database answers
+     */
+    void loadOpenAttempts() throws InterruptedException {
+        for (int failureCount = 1; ; failureCount++) {
+            try {
+                rebuildQueue();
+                return;
+            } catch (RuntimeException e) {
+                long delay = retryDelayMillis(failureCount);
+                log.error("Failed to load open timed quiz attempts, retrying in {} ms", delay, e);
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    void expire(UUID attemptId) {
+        try {
+            if (quizAttemptService.expireAttempt(attemptId)) {
+                log.debug("Auto-submitted expired quiz attempt {}", attemptId);
+            }
+            failures.remove(attemptId);
+        } catch (RuntimeException e) {
+            int failureCount = failures.merge(attemptId, 1, Integer::sum);
+            long delay = retryDelayMillis(failureCount);
+            log.error("Failed to auto-submit expired quiz attempt {} ({} failures), retrying in {} ms",
+                    attemptId, failureCount, delay, e);
+            attemptExpiryQueue.retry(attemptId, delay);
+        }
+    }
+
+    long retryDelayMillis(int failureCount) {
+        long delay = retryInitialDelayMillis << Math.min(failureCount - 1, 20);
+        return Math.min(delay, retryMaxDelayMillis);
+    }
+
+    private void run() {
+        try {
+            loadOpenAttempts();
+            while (!Thread.currentThread().isInterrupted()) {
+                expire(attemptExpiryQueue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.radim.project.service;
+
+/**
+ * Entry of the in-memory LRU caches that are filled from the database and invalidated on writes.
+ * Each invalidation bumps the generation and drops the value; a value loaded outside the cache's lock
+ * is only stored when the generation is still the one read before the load, so an invalidation that
+ * lands while loading never leaves the pre-change value cached. Guarded by the owning map's lock.
+ */
+final class CacheSlot<V> {
+
+    private long generation;
+    private V value;
+
+    V value() {
+        return value;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    void invalidate() {
+        generation++;
+        value = null;
+    }
+
+    /**
+     * Store a value loaded from the given generation, unless the slot was invalidated since
+     */
+    boolean fill(long loadedGeneration, V loaded) {
+        if (generation != loadedGeneration) {
+            return false;
+        }
+        value = loaded;
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.repository.CertificateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persists one chunk of a class-wide issuance in a single transaction: new certificates are inserted
+ * through Hibernate JDBC batching (see JdbcBatchScope) and failed ones go back to PENDING. Every certificate of the chunk
+ * is handed to the render worker once the transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class CertificateBatchWriter {
+
+    private final CertificateRepository certificateRepository;
+    private final CertificateRenderWorker certificateRenderWorker;
+    private final JdbcBatchScope jdbcBatchScope;
+
+    @Transactional
+    public List<Certificate> writeChunk(List<Certificate> certificates, Collection<UUID> failedIds) {
+        List<Certificate> saved = jdbcBatchScope.flushBatched(() -> certificateRepository.saveAll(certificates));
+        if (!failedIds.isEmpty()) {
+            certificateRepository.requeueFailed(failedIds);
+        }
+
+        saved.forEach(certificate -> certificateRenderWorker.enqueue(certificate.getId()));
+        failedIds.forEach(certificateRenderWorker::enqueue);
+        return saved;
+    }
+}
@@ -0,0 +1,154 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.entity.enums.CertificateStatus;
+import com.radim.project.repository.CertificateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders certificate PDFs in the background on a bounded pool.
+ * The certificates table is the queue: a PENDING certificate is a job. New certificates are handed
+ * to the pool once their transaction commits, and a periodic sweep picks up whatever is still pending
+ * (jobs rejected by a full pool, or left over by a restart). Rendering holds no transaction,
+ * the outcome is written with a single conditional update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateRenderWorker {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 500;
+
+    private final CertificateRepository certificateRepository;
+    private final PdfGenerationService pdfGenerationService;
+
+    @Value("${certificate.render.pool-size:2}")
+    private int poolSize = 2;
+
+    @Value("${certificate.render.queue-capacity:500}")
+    private int queueCapacity = 500;
+
+    @Value("${certificate.render.sweep-interval-seconds:30}")
+    private long sweepIntervalSeconds = 30;
+
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void startPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "certificate-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeper() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "certificate-render-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Render a pending certificate, after the current transaction commits when there is one
+     */
+    public void enqueue(UUID certificateId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(certificateId);
+                }
+            });
+        } else {
+            submit(certificateId);
+        }
+    }
+
+    void submit(UUID certificateId) {
+        if (!queued.add(certificateId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(certificateId));
+        } catch (RejectedExecutionException e) {
+            // Still PENDING in the database, the next sweep retries it
+            queued.remove(certificateId);
+            log.debug("Certificate render queue full, deferring certificate {}", certificateId);
+        }
+    }
+
+    void sweep() {
+        try {
+            int capacity = executor.getQueue().remainingCapacity();
+            if (capacity > 0) {
+                certificateRepository.findIdsByStatus(CertificateStatus.PENDING, Limit.of(capacity))
+                        .forEach(this::submit);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to poll pending certificates", e);
+        }
+    }
+
+    void render(UUID certificateId) {
+        try {
+            Certificate certificate = certificateRepository.findWithCourseById(certificateId).orElse(null);
+            if (certificate == null || certificate.getStatus() != CertificateStatus.PENDING) {
+                return;
+            }
+
+            try {
+                String pdfPath = pdfGenerationService.generateCertificatePdf(certificate, certificate.getCourse());
+                certificateRepository.completeRender(certificateId, CertificateStatus.READY, pdfPath, null,
+                        LocalDateTime.now());
+                log.info("Certificate {} rendered", certificateId);
+            } catch (Exception e) {
+                log.error("Failed to generate PDF for certificate {}", certificateId, e);
+                certificateRepository.completeRender(certificateId, CertificateStatus.FAILED, null,
+                        failureReason(e), LocalDateTime.now());
+            }
+        } catch (RuntimeException e) {
+            // Left PENDING, picked up again by the sweep
+            log.error("Failed to render certificate {}", certificateId, e);
+        } finally {
+            queued.remove(certificateId);
+        }
+    }
+
+    private static String failureReason(Exception e) {
+        String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return reason.length() > MAX_FAILURE_REASON_LENGTH ? reason.substring(0, MAX_FAILURE_REASON_LENGTH) : reason;
+    }
+}
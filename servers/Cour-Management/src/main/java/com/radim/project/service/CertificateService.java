@@ -4,18 +4,20 @@ import com.radim.project.dto.CertificateDto;
 import com.radim.project.entity.Certificate;
 import com.radim.project.entity.Course;
 import com.radim.project.entity.Quiz;
-import com.radim.project.entity.QuizAttempt;
+import com.radim.project.entity.StudentClass;
+import com.radim.project.entity.enums.CertificateStatus;
 import com.radim.project.repository.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +27,15 @@ public class CertificateService {
 
     private final CertificateRepository certificateRepository;
     private final CourseRepository courseRepository;
-    private final QuizRepository quizRepository;
-    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizBestAttemptRepository quizBestAttemptRepository;
     private final ProgressService progressService;
     private final PdfGenerationService pdfGenerationService;
+    private final CertificateRenderWorker certificateRenderWorker;
+    private final CertificateBatchWriter certificateBatchWriter;
+    private final QuizRepository quizRepository;
+    private final StudentClassRepository studentClassRepository;
+    private final ClassStudentRepository classStudentRepository;
+    private final EnrollmentRepository enrollmentRepository;
 
     @Value("${certificate.completion-threshold:80.0}")
     private Double completionThreshold;
@@ -36,6 +43,9 @@ public class CertificateService {
     @Value("${certificate.storage-path:uploads/certificates}")
     private String certificateStoragePath;
 
+    @Value("${certificate.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
+
     public CertificateDto.CertificateEligibilityResponse checkEligibility(UUID courseId, Long studentId) {
         log.info("Checking certificate eligibility for student {} in course {}", studentId, courseId);
 
@@ -44,48 +54,68 @@ public class CertificateService {
 
         // 1. Check completion rate
         double completionRate = progressService.calculateCompletionRate(courseId, studentId);
-        boolean completionRequirementMet = completionRate >= completionThreshold;
 
-        // 2. Check mandatory quizzes
-        List<Quiz> mandatoryQuizzes = quizRepository.findByCourse_IdAndMandatoryTrue(courseId);
-        List<String> missingRequirements = new ArrayList<>();
-        boolean allMandatoryQuizzesPassed = true;
-
-        for (Quiz quiz : mandatoryQuizzes) {
-            // Get student's best attempt for this quiz
-            List<QuizAttempt> attempts = quizAttemptRepository
-                    .findByQuiz_IdAndStudentIdOrderByPercentageDesc(quiz.getId(), studentId);
+        // 2. Check mandatory quizzes against the student's best attempts, in one query
+        List<MandatoryQuizResult> mandatoryQuizzes = quizBestAttemptRepository
+                .findMandatoryQuizResults(courseId, studentId).stream()
+                .map(quiz -> new MandatoryQuizResult(quiz.getQuizTitle(), quiz.getPassingScore(),
+                        quiz.getBestPercentage()))
+                .collect(Collectors.toList());
 
-            if (attempts.isEmpty()) {
-                missingRequirements.add("Quiz not attempted: " + quiz.getTitle());
-                allMandatoryQuizzesPassed = false;
-                continue;
-            }
+        return toEligibility(studentId, completionRate, mandatoryQuizzes);
+    }
 
-            QuizAttempt bestAttempt = attempts.get(0);
-            if (bestAttempt.getPercentage() < quiz.getPassingScore()) {
-                missingRequirements.add(String.format("Quiz '%s' not passed (score: %.1f%%, required: %d%%)",
-                        quiz.getTitle(), bestAttempt.getPercentage(), quiz.getPassingScore()));
-                allMandatoryQuizzesPassed = false;
-            }
+    /**
+     * Eligibility of many students at once, for the given students or every student enrolled in the course.
+     * Students are evaluated in chunks with two grouped queries each (progress counters and best attempts),
+     * plus one query for the course's mandatory quizzes. Listed students who are not enrolled in the course
+     * are not evaluated and are reported in unknownStudentIds.
+     */
+    public CertificateDto.BulkEligibilityResponse checkEligibility(UUID courseId, Collection<Long> studentIds,
+            Long teacherId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        if (!course.getTeacherId().equals(teacherId)) {
+            throw new RuntimeException("Access denied: You do not own this course");
         }
 
-        if (!completionRequirementMet) {
-            missingRequirements.add(String.format("Course completion %.1f%% (required: %.1f%%)",
-                    completionRate, completionThreshold));
-        }
+        boolean listed = studentIds != null && !studentIds.isEmpty();
+        List<Long> students = listed
+                ? new ArrayList<>(new LinkedHashSet<>(studentIds))
+                : enrollmentRepository.findStudentIdsByCourseId(courseId);
+        log.info("Checking certificate eligibility for {} students in course {}", students.size(), courseId);
 
-        boolean eligible = completionRequirementMet && allMandatoryQuizzesPassed;
+        List<Quiz> mandatoryQuizzes = quizRepository.findByCourse_IdAndMandatoryTrue(courseId);
+        List<CertificateDto.CertificateEligibilityResponse> results = new ArrayList<>(students.size());
+        List<Long> unknownStudentIds = new ArrayList<>();
+        for (int from = 0; from < students.size(); from += batchChunkSize) {
+            List<Long> chunk = students.subList(from, Math.min(from + batchChunkSize, students.size()));
+            if (listed) {
+                Set<Long> enrolled = new HashSet<>(enrollmentRepository.findEnrolledStudentIds(courseId, chunk));
+                chunk.stream().filter(studentId -> !enrolled.contains(studentId)).forEach(unknownStudentIds::add);
+                chunk = chunk.stream().filter(enrolled::contains).collect(Collectors.toList());
+                if (chunk.isEmpty()) {
+                    continue;
+                }
+            }
+            results.addAll(evaluateEligibility(courseId, mandatoryQuizzes, chunk).values());
+        }
 
-        return CertificateDto.CertificateEligibilityResponse.builder()
-                .eligible(eligible)
-                .completionRate(completionRate)
-                .completionRequirementMet(completionRequirementMet)
-                .mandatoryQuizzesPassed(allMandatoryQuizzesPassed)
-                .missingRequirements(missingRequirements)
+        return CertificateDto.BulkEligibilityResponse.builder()
+                .courseId(courseId)
+                .totalStudents(results.size())
+                .eligibleStudents((int) results.stream()
+                        .filter(CertificateDto.CertificateEligibilityResponse::getEligible)
+                        .count())
+                .results(results)
+                .unknownStudentIds(unknownStudentIds)
                 .build();
     }
 
+    /**
+     * Issue the certificate and queue its PDF: returns right away with a PENDING certificate,
+     * poll getCertificate until it is READY
+     */
     @Transactional
     public CertificateDto.CertificateResponse generateCertificate(UUID courseId, Long studentId) {
         log.info("Generating certificate for student {} in course {}", studentId, courseId);
@@ -93,8 +123,17 @@ public class CertificateService {
         // Check if certificate already exists (idempotency)
         var existingCert = certificateRepository.findByCourse_IdAndStudentId(courseId, studentId);
         if (existingCert.isPresent()) {
-            log.info("Certificate already exists for student {} in course {}", studentId, courseId);
-            return toCertificateResponse(existingCert.get());
+            Certificate certificate = existingCert.get();
+            if (certificate.getStatus() == CertificateStatus.FAILED) {
+                log.info("Retrying PDF generation for certificate {}", certificate.getId());
+                certificate.setStatus(CertificateStatus.PENDING);
+                certificate.setFailureReason(null);
+                certificate = certificateRepository.save(certificate);
+                certificateRenderWorker.enqueue(certificate.getId());
+            } else {
+                log.info("Certificate already exists for student {} in course {}", studentId, courseId);
+            }
+            return toCertificateResponse(certificate);
         }
 
         // Check eligibility
@@ -110,28 +149,68 @@ public class CertificateService {
         // Generate verification code (8 characters, alphanumeric)
         String verificationCode = generateVerificationCode();
 
-        // Create certificate entity
+        // Create certificate entity, the PDF is rendered by the worker once this transaction commits
         Certificate certificate = Certificate.builder()
                 .course(course)
                 .studentId(studentId)
                 .verificationCode(verificationCode)
                 .completionRate(eligibility.getCompletionRate())
                 .issuedAt(LocalDateTime.now())
+                .status(CertificateStatus.PENDING)
                 .build();
 
         Certificate saved = certificateRepository.save(certificate);
+        certificateRenderWorker.enqueue(saved.getId());
 
-        // Generate PDF asynchronously (or synchronously if needed)
-        try {
-            String pdfPath = pdfGenerationService.generateCertificatePdf(saved, course);
-            saved.setPdfUrl(pdfPath);
-            certificateRepository.save(saved);
-        } catch (Exception e) {
-            log.error("Failed to generate PDF for certificate {}", saved.getId(), e);
-            // Continue - certificate is created, PDF can be regenerated later
+        return toCertificateResponse(saved);
+    }
+
+    /**
+     * Issue certificates to every eligible member of a class. Members are processed in chunks: one query
+     * for the existing certificates, three for eligibility, and one JDBC-batched insert per chunk
+     * (CertificateBatchWriter). PDFs are rendered in parallel by the render worker once a chunk commits.
+     * Students who already hold a certificate are skipped, so running the issuance again resumes an
+     * interrupted one; certificates left PENDING by a crash are picked up by the worker's sweep.
+     */
+    public CertificateDto.ClassIssuanceResponse issueClassCertificates(UUID courseId, UUID classId, Long teacherId) {
+        log.info("Issuing certificates of course {} to class {} for teacher {}", courseId, classId, teacherId);
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        if (!course.getTeacherId().equals(teacherId)) {
+            throw new RuntimeException("Access denied: You do not own this course");
+        }
+        StudentClass studentClass = studentClassRepository.findById(classId)
+                .orElseThrow(() -> new RuntimeException("Class not found"));
+        if (!studentClass.getTeacherId().equals(teacherId)) {
+            throw new RuntimeException("Access denied: You do not own this class");
         }
 
-        return toCertificateResponse(saved);
+        List<Long> studentIds = classStudentRepository.findStudentIdsByClassId(classId);
+        List<Quiz> mandatoryQuizzes = quizRepository.findByCourse_IdAndMandatoryTrue(courseId);
+
+        List<CertificateDto.StudentIssuanceResult> results = new ArrayList<>(studentIds.size());
+        for (int from = 0; from < studentIds.size(); from += batchChunkSize) {
+            List<Long> chunk = studentIds.subList(from, Math.min(from + batchChunkSize, studentIds.size()));
+            results.addAll(issueChunk(course, mandatoryQuizzes, chunk));
+        }
+
+        Map<String, Long> outcomes = results.stream()
+                .collect(Collectors.groupingBy(CertificateDto.StudentIssuanceResult::getOutcome,
+                        Collectors.counting()));
+        log.info("Issued certificates of course {} to class {}: {}", courseId, classId, outcomes);
+
+        return CertificateDto.ClassIssuanceResponse.builder()
+                .courseId(courseId)
+                .classId(classId)
+                .totalStudents(studentIds.size())
+                .issued(outcomes.getOrDefault("ISSUED", 0L).intValue()
+                        + outcomes.getOrDefault("REQUEUED", 0L).intValue())
+                .alreadyIssued(outcomes.getOrDefault("ALREADY_ISSUED", 0L).intValue())
+                .notEligible(outcomes.getOrDefault("NOT_ELIGIBLE", 0L).intValue())
+                .failed(outcomes.getOrDefault("ERROR", 0L).intValue())
+                .results(results)
+                .build();
     }
 
     public CertificateDto.CertificateResponse getCertificate(UUID certificateId) {
@@ -140,15 +219,24 @@ public class CertificateService {
         return toCertificateResponse(certificate);
     }
 
-    public byte[] downloadCertificate(UUID certificateId) {
+    public CertificateFile downloadCertificate(UUID certificateId) {
         Certificate certificate = certificateRepository.findById(certificateId)
                 .orElseThrow(() -> new RuntimeException("Certificate not found"));
 
-        if (certificate.getPdfUrl() == null) {
+        if (certificate.getStatus() != CertificateStatus.READY || certificate.getPdfUrl() == null) {
             throw new RuntimeException("Certificate PDF not yet generated");
         }
 
-        return pdfGenerationService.loadCertificatePdf(certificate.getPdfUrl());
+        Resource resource = pdfGenerationService.loadCertificateResource(certificate.getPdfUrl());
+        long lastModified;
+        try {
+            lastModified = resource.lastModified();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load certificate PDF", e);
+        }
+        // A re-rendered PDF gets a new modification time, hence a new ETag
+        String etag = "\"" + certificate.getId() + "-" + Long.toHexString(lastModified) + "\"";
+        return new CertificateFile(certificate.getId(), resource, lastModified, etag);
     }
 
     public CertificateDto.CertificateVerificationResponse verifyCertificate(String verificationCode) {
@@ -190,12 +278,176 @@ public class CertificateService {
                 .verificationCode(certificate.getVerificationCode())
                 .completionRate(certificate.getCompletionRate())
                 .issuedAt(certificate.getIssuedAt())
-                .downloadUrl(certificate.getPdfUrl() != null ? "/api/certificates/" + certificate.getId() + "/download"
+                .status(certificate.getStatus())
+                .failureReason(certificate.getFailureReason())
+                .downloadUrl(certificate.getStatus() == CertificateStatus.READY && certificate.getPdfUrl() != null
+                        ? "/api/certificates/" + certificate.getId() + "/download"
                         : null)
                 .build();
     }
 
+    private List<CertificateDto.StudentIssuanceResult> issueChunk(Course course, List<Quiz> mandatoryQuizzes,
+            List<Long> studentIds) {
+        return issueChunk(course, mandatoryQuizzes, studentIds, true);
+    }
+
+    private List<CertificateDto.StudentIssuanceResult> issueChunk(Course course, List<Quiz> mandatoryQuizzes,
+            List<Long> studentIds, boolean retryOnConflict) {
+        Map<Long, Certificate> existing = certificateRepository
+                .findByCourse_IdAndStudentIdIn(course.getId(), studentIds).stream()
+                .collect(Collectors.toMap(Certificate::getStudentId, certificate -> certificate));
+        List<Long> candidates = studentIds.stream()
+                .filter(studentId -> !existing.containsKey(studentId))
+                .collect(Collectors.toList());
+        Map<Long, CertificateDto.CertificateEligibilityResponse> eligibility = candidates.isEmpty()
+                ? Map.of()
+                : evaluateEligibility(course.getId(), mandatoryQuizzes, candidates);
+
+        LocalDateTime issuedAt = LocalDateTime.now();
+        List<Certificate> toIssue = new ArrayList<>();
+        for (Long studentId : candidates) {
+            CertificateDto.CertificateEligibilityResponse studentEligibility = eligibility.get(studentId);
+            if (studentEligibility.getEligible()) {
+                toIssue.add(Certificate.builder()
+                        .course(course)
+                        .studentId(studentId)
+                        .verificationCode(generateVerificationCode())
+                        .completionRate(studentEligibility.getCompletionRate())
+                        .issuedAt(issuedAt)
+                        .status(CertificateStatus.PENDING)
+                        .build());
+            }
+        }
+        List<UUID> toRequeue = existing.values().stream()
+                .filter(certificate -> certificate.getStatus() == CertificateStatus.FAILED)
+                .map(Certificate::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Certificate> issued = new HashMap<>();
+        String error = null;
+        if (!toIssue.isEmpty() || !toRequeue.isEmpty()) {
+            try {
+                certificateBatchWriter.writeChunk(toIssue, toRequeue)
+                        .forEach(certificate -> issued.put(certificate.getStudentId(), certificate));
+            } catch (DataIntegrityViolationException e) {
+                if (retryOnConflict) {
+                    // A certificate of the chunk was issued concurrently (unique course/student), the chunk
+                    // was rolled back: re-read the existing certificates and issue the rest once more
+                    log.warn("Certificate issued concurrently in course {}, retrying students {}", course.getId(),
+                            studentIds);
+                    return issueChunk(course, mandatoryQuizzes, studentIds, false);
+                }
+                log.error("Failed to issue certificates of course {} to students {}", course.getId(), studentIds, e);
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            } catch (RuntimeException e) {
+                // The chunk is rolled back as a whole, a later run retries these students
+                log.error("Failed to issue certificates of course {} to students {}", course.getId(), studentIds, e);
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+        }
+
+        List<CertificateDto.StudentIssuanceResult> results = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            var result = CertificateDto.StudentIssuanceResult.builder().studentId(studentId);
+            Certificate certificate = existing.get(studentId);
+            if (certificate != null) {
+                boolean requeued = certificate.getStatus() == CertificateStatus.FAILED;
+                if (requeued && error != null) {
+                    result.outcome("ERROR").certificateId(certificate.getId()).status(certificate.getStatus())
+                            .error(error);
+                } else {
+                    result.outcome(requeued ? "REQUEUED" : "ALREADY_ISSUED")
+                            .certificateId(certificate.getId())
+                            .status(requeued ? CertificateStatus.PENDING : certificate.getStatus());
+                }
+            } else if (!eligibility.get(studentId).getEligible()) {
+                result.outcome("NOT_ELIGIBLE").missingRequirements(eligibility.get(studentId).getMissingRequirements());
+            } else if (error != null) {
+                result.outcome("ERROR").error(error);
+            } else {
+                Certificate saved = issued.get(studentId);
+                result.outcome("ISSUED").certificateId(saved.getId()).status(saved.getStatus());
+            }
+            results.add(result.build());
+        }
+        return results;
+    }
+
+    /**
+     * Eligibility of a group of students with three queries in total (mandatory quizzes, best attempts
+     * and progress counters) instead of a round of queries per student
+     */
+    private Map<Long, CertificateDto.CertificateEligibilityResponse> evaluateEligibility(UUID courseId,
+            List<Quiz> mandatoryQuizzes, Collection<Long> studentIds) {
+        Map<Long, Double> completionRates = progressService.calculateCompletionRates(courseId, studentIds);
+        Map<Long, Map<UUID, Double>> bestPercentages = new HashMap<>();
+        if (!mandatoryQuizzes.isEmpty()) {
+            for (QuizBestAttemptRepository.MandatoryBestView best : quizBestAttemptRepository
+                    .findMandatoryBestPercentages(courseId, studentIds)) {
+                bestPercentages.computeIfAbsent(best.getStudentId(), id -> new HashMap<>())
+                        .put(best.getQuizId(), best.getPercentage());
+            }
+        }
+
+        Map<Long, CertificateDto.CertificateEligibilityResponse> eligibility = new LinkedHashMap<>();
+        for (Long studentId : studentIds) {
+            Map<UUID, Double> studentBest = bestPercentages.getOrDefault(studentId, Map.of());
+            List<MandatoryQuizResult> quizResults = mandatoryQuizzes.stream()
+                    .map(quiz -> new MandatoryQuizResult(quiz.getTitle(), quiz.getPassingScore(),
+                            studentBest.get(quiz.getId())))
+                    .collect(Collectors.toList());
+            eligibility.put(studentId, toEligibility(studentId, completionRates.get(studentId), quizResults));
+        }
+        return eligibility;
+    }
+
+    private CertificateDto.CertificateEligibilityResponse toEligibility(Long studentId, double completionRate,
+            List<MandatoryQuizResult> mandatoryQuizzes) {
+        boolean completionRequirementMet = completionRate >= completionThreshold;
+        List<String> missingRequirements = new ArrayList<>();
+        boolean allMandatoryQuizzesPassed = true;
+
+        for (MandatoryQuizResult quiz : mandatoryQuizzes) {
+            if (quiz.bestPercentage() == null) {
+                missingRequirements.add("Quiz not attempted: " + quiz.quizTitle());
+                allMandatoryQuizzesPassed = false;
+                continue;
+            }
+
+            if (quiz.bestPercentage() < quiz.passingScore()) {
+                missingRequirements.add(String.format("Quiz '%s' not passed (score: %.1f%%, required: %d%%)",
+                        quiz.quizTitle(), quiz.bestPercentage(), quiz.passingScore()));
+                allMandatoryQuizzesPassed = false;
+            }
+        }
+
+        if (!completionRequirementMet) {
+            missingRequirements.add(String.format("Course completion %.1f%% (required: %.1f%%)",
+                    completionRate, completionThreshold));
+        }
+
+        boolean eligible = completionRequirementMet && allMandatoryQuizzesPassed;
+
+        return CertificateDto.CertificateEligibilityResponse.builder()
+                .studentId(studentId)
+                .eligible(eligible)
+                .completionRate(completionRate)
+                .completionRequirementMet(completionRequirementMet)
+                .mandatoryQuizzesPassed(allMandatoryQuizzesPassed)
+                .missingRequirements(missingRequirements)
+                .build();
+    }
+
     private String generateVerificationCode() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
     }
+
+    /**
+     * Stored PDF of a certificate with its validators for conditional and range requests
+     */
+    public record CertificateFile(UUID certificateId, Resource resource, long lastModified, String etag) {
+    }
+
+    private record MandatoryQuizResult(String quizTitle, Integer passingScore, Double bestPercentage) {
+    }
 }
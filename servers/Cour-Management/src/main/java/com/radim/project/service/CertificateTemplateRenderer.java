@@ -0,0 +1,144 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.entity.Course;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Certificate layout rendered from a prepared template.
+ * The border and the fixed captions are laid out once into a compressed content stream that every
+ * certificate reuses as is; only the variable fields (student, course, rate, date, code) are measured
+ * and drawn per certificate. Fonts are loaded once per rendering thread: PDFBox fonts keep mutable
+ * caches, so they are not shared between threads.
+ */
+@Component
+public class CertificateTemplateRenderer {
+
+    private static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    private static final float MARGIN = 72; // 1 inch margin
+    private static final float TOP = PAGE_SIZE.getHeight() - MARGIN;
+    private static final DateTimeFormatter ISSUE_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
+
+    private static final COSName REGULAR = COSName.getPDFName("F1");
+    private static final COSName BOLD = COSName.getPDFName("F2");
+    private static final COSName BOLD_OBLIQUE = COSName.getPDFName("F3");
+    private static final COSName MONOSPACE = COSName.getPDFName("F4");
+
+    private final ThreadLocal<Fonts> fonts = ThreadLocal.withInitial(Fonts::load);
+    private final byte[] staticContent;
+
+    public CertificateTemplateRenderer() {
+        try {
+            staticContent = buildStaticContent(fonts.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare the certificate template", e);
+        }
+    }
+
+    public void render(Certificate certificate, Course course, OutputStream out) throws IOException {
+        Fonts pageFonts = fonts.get();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PAGE_SIZE);
+            page.setResources(pageFonts.resources());
+            document.addPage(page);
+
+            // The template is copied in its compressed form, it is never re-encoded
+            COSStream template = document.getDocument().createCOSStream();
+            try (OutputStream raw = template.createRawOutputStream()) {
+                raw.write(staticContent);
+            }
+            template.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+            page.setContents(new PDStream(template));
+
+            try (PDPageContentStream content = new PDPageContentStream(document, page,
+                    PDPageContentStream.AppendMode.APPEND, true)) {
+                // Student ID (placeholder - actual name would come from User service)
+                centered(content, pageFonts.bold(), 24, "Student ID: " + certificate.getStudentId(), TOP - 120);
+                centered(content, pageFonts.boldOblique(), 20, course.getTitle(), TOP - 210);
+                centered(content, pageFonts.regular(), 12,
+                        String.format("with a completion rate of %.1f%%", certificate.getCompletionRate()), TOP - 260);
+                centered(content, pageFonts.regular(), 12,
+                        "Issued on: " + certificate.getIssuedAt().format(ISSUE_DATE_FORMAT), TOP - 340);
+                centered(content, pageFonts.monospace(), 10,
+                        "Verification Code: " + certificate.getVerificationCode(), MARGIN + 20);
+            }
+
+            document.save(out);
+        }
+    }
+
+    private static byte[] buildStaticContent(Fonts templateFonts) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PAGE_SIZE);
+            page.setResources(templateFonts.resources());
+            document.addPage(page);
+
+            float pageWidth = PAGE_SIZE.getWidth();
+            float pageHeight = PAGE_SIZE.getHeight();
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                centered(content, templateFonts.bold(), 36, "Certificate of Completion", TOP);
+                centered(content, templateFonts.regular(), 14, "This is to certify that", TOP - 80);
+                centered(content, templateFonts.regular(), 14, "has successfully completed the course", TOP - 170);
+
+                // Draw border
+                content.setLineWidth(2);
+                content.addRect(MARGIN - 10, MARGIN - 10, pageWidth - 2 * (MARGIN - 10),
+                        pageHeight - 2 * (MARGIN - 10));
+                content.stroke();
+            }
+
+            COSStream contents = page.getCOSObject().getCOSStream(COSName.CONTENTS);
+            try (InputStream raw = contents.createRawInputStream()) {
+                return raw.readAllBytes();
+            }
+        }
+    }
+
+    private static void centered(PDPageContentStream content, PDType1Font font, float fontSize, String text, float y)
+            throws IOException {
+        float width = font.getStringWidth(text) / 1000 * fontSize;
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.newLineAtOffset((PAGE_SIZE.getWidth() - width) / 2, y);
+        content.showText(text);
+        content.endText();
+    }
+
+    /**
+     * Fonts of one rendering thread, registered under the names the template refers to
+     */
+    private record Fonts(PDType1Font regular, PDType1Font bold, PDType1Font boldOblique, PDType1Font monospace) {
+
+        static Fonts load() {
+            return new Fonts(new PDType1Font(Standard14Fonts.FontName.HELVETICA),
+                    new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD),
+                    new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD_OBLIQUE),
+                    new PDType1Font(Standard14Fonts.FontName.COURIER));
+        }
+
+        PDResources resources() {
+            PDResources resources = new PDResources();
+            resources.put(REGULAR, regular);
+            resources.put(BOLD, bold);
+            resources.put(BOLD_OBLIQUE, boldOblique);
+            resources.put(MONOSPACE, monospace);
+            return resources;
+        }
+    }
+}
@@ -22,6 +22,7 @@ public class ContentService {
 
     private final LessonContentRepository contentRepository;
     private final LessonRepository lessonRepository;
+    private final CourseStructureCache courseStructureCache;
 
     public List<ContentDto.Response> getContentByLesson(UUID lessonId) {
         return contentRepository.findByLessonIdOrderByOrderIndexAsc(lessonId).stream()
@@ -49,6 +50,7 @@ public class ContentService {
                 .build();
 
         LessonContent savedContent = contentRepository.save(content);
+        courseStructureCache.invalidate(lesson.getModule().getCourse().getId());
         return mapToResponse(savedContent);
     }
 
@@ -73,6 +75,7 @@ public class ContentService {
         content.setOrderIndex(request.getOrderIndex());
 
         LessonContent updatedContent = contentRepository.save(content);
+        courseStructureCache.invalidate(content.getLesson().getModule().getCourse().getId());
         return mapToResponse(updatedContent);
     }
 
@@ -88,6 +91,7 @@ public class ContentService {
         validateOwnership(content.getLesson().getModule().getCourse().getTeacherId());
 
         contentRepository.delete(content);
+        courseStructureCache.invalidate(content.getLesson().getModule().getCourse().getId());
     }
 
     private void validateContent(ContentDto.Request request) {
@@ -0,0 +1,151 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.ModuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded LRU cache of immutable course outlines (modules in order, lessons in order, lesson count).
+ * Course structure is read on almost every student request but only changes through
+ * ModuleService, LessonService and ContentService, which invalidate the course here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseStructureCache {
+
+    private final ModuleRepository moduleRepository;
+
+    @Value("${course.structure-cache.max-size:500}")
+    private int maxSize = 500;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Map<UUID, CacheSlot<CourseOutline>> outlines = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CacheSlot<CourseOutline>> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public CourseOutline getOutline(UUID courseId) {
+        CacheSlot<CourseOutline> slot;
+        long generation;
+        synchronized (outlines) {
+            slot = outlines.computeIfAbsent(courseId, id -> new CacheSlot<>());
+            if (slot.value() != null) {
+                hits.incrementAndGet();
+                return slot.value();
+            }
+            generation = slot.generation();
+        }
+        misses.incrementAndGet();
+
+        CourseOutline outline = load(courseId);
+        synchronized (outlines) {
+            // Not cached when the course was invalidated, or the slot evicted, while loading: lesson
+            // ordinals of the completion bitsets are derived from this outline
+            if (outlines.get(courseId) == slot) {
+                slot.fill(generation, outline);
+            }
+        }
+        return outline;
+    }
+
+    /**
+     * Drop the outline of a course now and again once the current transaction commits,
+     * so that a concurrent reader cannot cache the pre-commit structure. Each drop bumps the
+     * course's generation: a load that was running at that point does not store its outline.
+     */
+    public void invalidate(UUID courseId) {
+        evict(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(courseId);
+                }
+            });
+        }
+    }
+
+    public Stats getStats() {
+        synchronized (outlines) {
+            int size = (int) outlines.values().stream().filter(slot -> slot.value() != null).count();
+            return new Stats(hits.get(), misses.get(), evictions.get(), size, maxSize);
+        }
+    }
+
+    private void evict(UUID courseId) {
+        synchronized (outlines) {
+            CacheSlot<CourseOutline> slot = outlines.get(courseId);
+            if (slot != null) {
+                slot.invalidate();
+            }
+        }
+    }
+
+    private CourseOutline load(UUID courseId) {
+        log.debug("Loading course structure for course {}", courseId);
+
+        Map<UUID, List<LessonOutline>> lessonsByModule = new LinkedHashMap<>();
+        Map<UUID, ModuleRepository.OutlineRow> moduleRows = new LinkedHashMap<>();
+        for (ModuleRepository.OutlineRow row : moduleRepository.findOutlineRowsByCourseId(courseId)) {
+            moduleRows.putIfAbsent(row.getModuleId(), row);
+            List<LessonOutline> lessons = lessonsByModule.computeIfAbsent(row.getModuleId(), id -> new ArrayList<>());
+            if (row.getLessonId() != null) {
+                lessons.add(new LessonOutline(row.getLessonId(), row.getLessonTitle(), row.getLessonOrderIndex(),
+                        row.getContentCount() != null ? row.getContentCount().intValue() : 0));
+            }
+        }
+
+        List<ModuleOutline> modules = moduleRows.values().stream()
+                .map(row -> new ModuleOutline(row.getModuleId(), row.getModuleTitle(), row.getModuleOrderIndex(),
+                        List.copyOf(lessonsByModule.get(row.getModuleId()))))
+                .collect(Collectors.toUnmodifiableList());
+        return new CourseOutline(courseId, modules);
+    }
+
+    public record CourseOutline(UUID courseId, List<ModuleOutline> modules) {
+
+        public List<LessonOutline> lessons() {
+            return modules.stream()
+                    .flatMap(module -> module.lessons().stream())
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        public List<UUID> lessonIds() {
+            return modules.stream()
+                    .flatMap(module -> module.lessons().stream())
+                    .map(LessonOutline::lessonId)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        public int lessonCount() {
+            return modules.stream().mapToInt(module -> module.lessons().size()).sum();
+        }
+    }
+
+    public record ModuleOutline(UUID moduleId, String title, Integer orderIndex, List<LessonOutline> lessons) {
+    }
+
+    public record LessonOutline(UUID lessonId, String title, Integer orderIndex, int contentCount) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+    }
+}
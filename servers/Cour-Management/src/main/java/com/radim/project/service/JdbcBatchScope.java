@@ -0,0 +1,44 @@
+package com.radim.project.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Hibernate JDBC batching for bulk writes, enabled on the current session only: the rest of the
+ * application keeps unbatched statements. The work is flushed before the previous batch size is
+ * restored, the commit would otherwise flush it unbatched. Must be called inside a transaction.
+ */
+@Component
+public class JdbcBatchScope {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${persistence.jdbc-batch-size:500}")
+    private int batchSize = 500;
+
+    public <T> T flushBatched(Supplier<T> work) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            T result = work.get();
+            session.flush();
+            return result;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    public void flushBatched(Runnable work) {
+        flushBatched(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
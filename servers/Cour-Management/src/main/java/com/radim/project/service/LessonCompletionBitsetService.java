@@ -0,0 +1,299 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.CourseProgress;
+import com.radim.project.repository.ClassStudentRepository;
+import com.radim.project.repository.CourseProgressRepository;
+import com.radim.project.repository.EnrollmentRepository;
+import com.radim.project.repository.LessonProgressRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compact per-student completion store: one bit per lesson of a course, indexed by the
+ * lesson's ordinal in course order (module orderIndex, then lesson orderIndex).
+ * Bits are persisted in course_progress.completion_bits and cached in memory.
+ * lesson_progress stays the system of record; a missing or stale bitset is rebuilt from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonCompletionBitsetService {
+
+    private final CourseProgressRepository courseProgressRepository;
+    private final CourseStructureCache courseStructureCache;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ClassStudentRepository classStudentRepository;
+
+    @Value("${progress.bitset.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private final Map<Key, BitSet> bitsByStudent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BitSet> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Completion bits of a student in a course. The returned set is a copy.
+     */
+    @Transactional
+    public BitSet getCompletionBits(UUID courseId, Long studentId) {
+        return (BitSet) load(courseId, studentId).clone();
+    }
+
+    @Transactional
+    public double getCompletionRate(UUID courseId, Long studentId) {
+        int totalLessons = getLessonOrder(courseId).size();
+        if (totalLessons == 0) {
+            return 0.0;
+        }
+        double rate = (load(courseId, studentId).cardinality() * 100.0) / totalLessons;
+        return Math.round(rate * 100.0) / 100.0;
+    }
+
+    /**
+     * First lesson in course order the student has not completed, empty when the course is done
+     */
+    @Transactional
+    public Optional<UUID> findNextIncompleteLesson(UUID courseId, Long studentId) {
+        List<UUID> lessonOrder = getLessonOrder(courseId);
+        int ordinal = load(courseId, studentId).nextClearBit(0);
+        return ordinal < lessonOrder.size() ? Optional.of(lessonOrder.get(ordinal)) : Optional.empty();
+    }
+
+    /**
+     * Lessons completed by every student enrolled in the course, optionally restricted to the enrolled
+     * members of one class. Returns an empty list when nobody is enrolled.
+     */
+    @Transactional
+    public List<UUID> findLessonsCompletedByAll(UUID courseId, UUID classId) {
+        List<UUID> lessonOrder = getLessonOrder(courseId);
+        // Enrolling a class creates one row per member without class_id, so members come from the class
+        Set<Long> studentIds = new HashSet<>(enrollmentRepository.findStudentIdsByCourseId(courseId));
+        if (classId != null) {
+            studentIds.retainAll(classStudentRepository.findStudentIdsByClassId(classId));
+        }
+        if (studentIds.isEmpty() || lessonOrder.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, BitSet> bitsByStudentId = loadAll(courseId, lessonOrder, studentIds);
+        BitSet common = new BitSet(lessonOrder.size());
+        common.set(0, lessonOrder.size());
+        for (Long studentId : studentIds) {
+            common.and(bitsByStudentId.getOrDefault(studentId, new BitSet()));
+            if (common.isEmpty()) {
+                break;
+            }
+        }
+        return common.stream().mapToObj(lessonOrder::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Set the bit of a newly completed lesson. Must run after the course_progress counters were updated
+     * in the same transaction: that update holds the row lock, so the persisted bits read here include
+     * every completion committed before, and no other completion of the student can interleave.
+     * The cached bitset only changes once the transaction commits.
+     */
+    @Transactional
+    public void markCompleted(UUID courseId, Long studentId, UUID lessonId) {
+        List<UUID> lessonOrder = getLessonOrder(courseId);
+        int ordinal = lessonOrder.indexOf(lessonId);
+        if (ordinal < 0) {
+            invalidateCourse(courseId);
+            return;
+        }
+
+        Key key = new Key(courseId, studentId);
+        BitSet bits = courseProgressRepository.findCompletionBits(courseId, studentId)
+                .filter(view -> view.getCompletionBits() != null && view.getTotalLessons() == lessonOrder.size())
+                .map(view -> BitSet.valueOf(view.getCompletionBits()))
+                .orElse(null);
+        if (bits == null) {
+            // Nothing current to update, the next read rebuilds the bits from lesson_progress
+            afterCommit(() -> {
+                synchronized (bitsByStudent) {
+                    bitsByStudent.remove(key);
+                }
+            });
+            return;
+        }
+
+        bits.set(ordinal);
+        courseProgressRepository.updateCompletionBits(courseId, studentId, bits.toByteArray());
+        // Copy on write: readers may hold the cached instance outside the lock
+        afterCommit(() -> {
+            synchronized (bitsByStudent) {
+                bitsByStudent.computeIfPresent(key, (k, cached) -> {
+                    BitSet updated = (BitSet) cached.clone();
+                    updated.set(ordinal);
+                    return updated;
+                });
+            }
+        });
+    }
+
+    /**
+     * Drop the bitsets of one student, e.g. after a set-based progress write; rebuilt on next read
+     */
+    @Transactional
+    public void invalidateStudent(Long studentId, Collection<UUID> courseIds) {
+        synchronized (bitsByStudent) {
+            courseIds.forEach(courseId -> bitsByStudent.remove(new Key(courseId, studentId)));
+        }
+        courseProgressRepository.clearCompletionBits(studentId, courseIds);
+    }
+
+    /**
+     * Drop every bitset of a course after its lessons were added, removed or reordered,
+     * since lesson ordinals are no longer valid
+     */
+    @Transactional
+    public void invalidateCourse(UUID courseId) {
+        synchronized (bitsByStudent) {
+            bitsByStudent.keySet().removeIf(key -> key.courseId().equals(courseId));
+        }
+        courseProgressRepository.clearCompletionBitsByCourseId(courseId);
+    }
+
+    private List<UUID> getLessonOrder(UUID courseId) {
+        return courseStructureCache.getOutline(courseId).lessonIds();
+    }
+
+    private BitSet load(UUID courseId, Long studentId) {
+        Key key = new Key(courseId, studentId);
+        synchronized (bitsByStudent) {
+            BitSet cached = bitsByStudent.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<UUID> lessonOrder = getLessonOrder(courseId);
+        // Row lock until commit, as markCompleted holds it: a completion committed before is seen by the
+        // rebuild below, a later one waits and sets its bit on top of the rebuilt bits
+        Optional<CourseProgressRepository.CompletionBitsView> persisted = courseProgressRepository
+                .findCompletionBitsForUpdate(courseId, studentId);
+        BitSet bits = persisted
+                .filter(view -> view.getCompletionBits() != null && view.getTotalLessons() == lessonOrder.size())
+                .map(view -> BitSet.valueOf(view.getCompletionBits()))
+                .orElse(null);
+        if (bits == null) {
+            bits = rebuild(lessonOrder, lessonProgressRepository
+                    .findByStudentIdAndCourseIdWithLesson(studentId, courseId).stream()
+                    .filter(p -> Boolean.TRUE.equals(p.getCompleted()))
+                    .map(p -> p.getLesson().getId()));
+            if (persisted.isEmpty()) {
+                // No row to lock, so a first completion could interleave: not cached
+                return bits;
+            }
+            courseProgressRepository.updateCompletionBits(courseId, studentId, bits.toByteArray());
+        }
+        BitSet loaded = bits;
+        afterCommit(() -> cache(courseId, studentId, loaded));
+        return bits;
+    }
+
+    private Map<Long, BitSet> loadAll(UUID courseId, List<UUID> lessonOrder, Set<Long> studentIds) {
+        Map<Long, BitSet> result = new HashMap<>();
+        synchronized (bitsByStudent) {
+            for (Long studentId : studentIds) {
+                BitSet cached = bitsByStudent.get(new Key(courseId, studentId));
+                if (cached != null) {
+                    result.put(studentId, cached);
+                }
+            }
+        }
+        if (result.size() == studentIds.size()) {
+            return result;
+        }
+
+        boolean stale = false;
+        for (CourseProgress counters : courseProgressRepository.findByCourse_Id(courseId)) {
+            Long studentId = counters.getStudentId();
+            if (!studentIds.contains(studentId) || result.containsKey(studentId)) {
+                continue;
+            }
+            if (isCurrent(counters, lessonOrder)) {
+                result.put(studentId, BitSet.valueOf(counters.getCompletionBits()));
+            } else {
+                stale = true;
+            }
+        }
+
+        if (stale) {
+            // One ordered pass over the course's completions rebuilds every missing bitset
+            log.info("Rebuilding completion bitsets for course {}", courseId);
+            Map<UUID, Integer> ordinals = toOrdinals(lessonOrder);
+            Map<Long, BitSet> rebuilt = new HashMap<>();
+            try (Stream<LessonProgressRepository.StudentLessonView> completions = lessonProgressRepository
+                    .streamCompletedLessonsByCourseId(courseId)) {
+                completions.forEach(view -> {
+                    Integer ordinal = ordinals.get(view.getLessonId());
+                    if (ordinal != null && !result.containsKey(view.getStudentId())) {
+                        rebuilt.computeIfAbsent(view.getStudentId(), id -> new BitSet(lessonOrder.size())).set(ordinal);
+                    }
+                });
+            }
+            rebuilt.forEach((studentId, bits) -> {
+                courseProgressRepository.updateCompletionBits(courseId, studentId, bits.toByteArray());
+                result.put(studentId, bits);
+            });
+        }
+
+        result.forEach((studentId, bits) -> cache(courseId, studentId, bits));
+        return result;
+    }
+
+    private boolean isCurrent(CourseProgress counters, List<UUID> lessonOrder) {
+        return counters.getCompletionBits() != null && counters.getTotalLessons() == lessonOrder.size();
+    }
+
+    private BitSet rebuild(List<UUID> lessonOrder, Stream<UUID> completedLessonIds) {
+        Map<UUID, Integer> ordinals = toOrdinals(lessonOrder);
+        BitSet bits = new BitSet(lessonOrder.size());
+        completedLessonIds.map(ordinals::get).filter(Objects::nonNull).forEach(bits::set);
+        return bits;
+    }
+
+    private Map<UUID, Integer> toOrdinals(List<UUID> lessonOrder) {
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < lessonOrder.size(); i++) {
+            ordinals.put(lessonOrder.get(i), i);
+        }
+        return ordinals;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void cache(UUID courseId, Long studentId, BitSet bits) {
+        synchronized (bitsByStudent) {
+            bitsByStudent.put(new Key(courseId, studentId), bits);
+        }
+    }
+
+    private record Key(UUID courseId, Long studentId) {
+    }
+}
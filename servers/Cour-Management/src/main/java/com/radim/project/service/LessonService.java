@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,6 +23,8 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final ModuleRepository moduleRepository;
+    private final ProgressService progressService;
+    private final CourseStructureCache courseStructureCache;
 
     public List<LessonDto.Response> getLessonsByModule(UUID moduleId) {
         return lessonRepository.findByModuleIdOrderByOrderIndexAsc(moduleId).stream()
@@ -50,6 +53,8 @@ public class LessonService {
                 .build();
 
         Lesson savedLesson = lessonRepository.save(lesson);
+        courseStructureCache.invalidate(module.getCourse().getId());
+        progressService.onLessonCreated(module.getCourse().getId());
         return mapToResponse(savedLesson);
     }
 
@@ -64,11 +69,16 @@ public class LessonService {
 
         validateOwnership(lesson.getModule().getCourse().getTeacherId());
 
+        boolean reordered = !Objects.equals(lesson.getOrderIndex(), request.getOrderIndex());
         lesson.setTitle(request.getTitle());
         lesson.setSummary(request.getSummary());
         lesson.setOrderIndex(request.getOrderIndex());
 
         Lesson updatedLesson = lessonRepository.save(lesson);
+        courseStructureCache.invalidate(lesson.getModule().getCourse().getId());
+        if (reordered) {
+            progressService.onLessonsReordered(lesson.getModule().getCourse().getId());
+        }
         return mapToResponse(updatedLesson);
     }
 
@@ -83,7 +93,9 @@ public class LessonService {
 
         validateOwnership(lesson.getModule().getCourse().getTeacherId());
 
+        progressService.onLessonDeleted(lesson.getModule().getCourse().getId(), lessonId);
         lessonRepository.delete(lesson);
+        courseStructureCache.invalidate(lesson.getModule().getCourse().getId());
     }
 
     private void validateOwnership(Long teacherId) {
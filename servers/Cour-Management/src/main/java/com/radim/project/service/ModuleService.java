@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,6 +23,8 @@ public class ModuleService {
 
     private final ModuleRepository moduleRepository;
     private final CourseRepository courseRepository;
+    private final ProgressService progressService;
+    private final CourseStructureCache courseStructureCache;
 
     public List<ModuleDto.Response> getModulesByCourse(UUID courseId) {
         return moduleRepository.findByCourseIdOrderByOrderIndexAsc(courseId).stream()
@@ -45,6 +48,7 @@ public class ModuleService {
                 .build();
 
         Module savedModule = moduleRepository.save(module);
+        courseStructureCache.invalidate(courseId);
         return mapToResponse(savedModule);
     }
 
@@ -59,11 +63,16 @@ public class ModuleService {
 
         validateOwnership(module.getCourse());
 
+        boolean reordered = !Objects.equals(module.getOrderIndex(), request.getOrderIndex());
         module.setTitle(request.getTitle());
         module.setDescription(request.getDescription());
         module.setOrderIndex(request.getOrderIndex());
 
         Module updatedModule = moduleRepository.save(module);
+        courseStructureCache.invalidate(courseId);
+        if (reordered) {
+            progressService.onLessonsReordered(courseId);
+        }
         return mapToResponse(updatedModule);
     }
 
@@ -78,7 +87,12 @@ public class ModuleService {
 
         validateOwnership(module.getCourse());
 
+        // Lessons are removed by cascade, keep course progress counters in sync
+        if (module.getLessons() != null) {
+            module.getLessons().forEach(lesson -> progressService.onLessonDeleted(courseId, lesson.getId()));
+        }
         moduleRepository.delete(module);
+        courseStructureCache.invalidate(courseId);
     }
 
     private void validateOwnership(Course course) {
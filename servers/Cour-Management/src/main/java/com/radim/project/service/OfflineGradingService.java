@@ -0,0 +1,339 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk grading of offline (paper) exams imported as JSON lines, one OfflineSheet per line.
+ * The upload is spooled to a temporary file on the request thread, then read back in the background one
+ * batch at a time: each batch is parsed, graded in parallel on a bounded fork/join pool against the
+ * compiled answer key, and persisted in one transaction by OfflineGradingWriter, so memory stays bounded
+ * by the batch size whatever the upload size. Progress and per-line errors are kept in memory per job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OfflineGradingService {
+
+    private final QuizRepository quizRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final OfflineGradingWriter offlineGradingWriter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quiz.offline-grading.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${quiz.offline-grading.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${quiz.offline-grading.max-jobs:100}")
+    private int maxJobs = 100;
+
+    @Value("${quiz.offline-grading.max-errors:1000}")
+    private int maxErrors = 1000;
+
+    private ForkJoinPool pool;
+
+    private final Map<UUID, GradingJob> jobs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, GradingJob> eldest) {
+            return size() > maxJobs && eldest.getValue().finishedAt != null;
+        }
+    };
+
+    @PostConstruct
+    void startPool() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Spool the uploaded sheets to a temporary file and start grading them in the background
+     */
+    public QuizAttemptDto.GradingJobResponse startGrading(UUID courseId, UUID quizId, InputStream sheets) {
+        validateQuiz(courseId, quizId);
+
+        Path upload = spool(sheets);
+        GradingJob job = new GradingJob(UUID.randomUUID(), quizId);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        log.info("Offline grading job {} started for quiz {}", job.id, quizId);
+        pool.execute(() -> {
+            try {
+                run(job, upload);
+            } finally {
+                deleteQuietly(upload);
+            }
+        });
+        return job.toResponse();
+    }
+
+    public QuizAttemptDto.GradingJobResponse getJob(UUID courseId, UUID quizId, UUID jobId) {
+        validateQuiz(courseId, quizId);
+        GradingJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null || !job.quizId.equals(quizId)) {
+            throw new RuntimeException("Grading job not found");
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Read the spooled upload back one batch at a time; rows are counted as they are read
+     */
+    void run(GradingJob job, Path upload) {
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(job.quizId);
+            LocalDateTime importedAt = LocalDateTime.now();
+            List<ParsedSheet> batch = new ArrayList<>(batchSize);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.totalRows.incrementAndGet();
+                try {
+                    batch.add(new ParsedSheet(lineNumber, objectMapper.readValue(line, QuizAttemptDto.OfflineSheet.class)));
+                } catch (JsonProcessingException e) {
+                    job.fail(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+                if (batch.size() == batchSize) {
+                    gradeBatch(job, batch, answerKey, importedAt);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            gradeBatch(job, batch, answerKey, importedAt);
+            job.finish("COMPLETED");
+            log.info("Offline grading job {} completed: {} graded, {} failed",
+                    job.id, job.gradedRows.get(), job.failedRows.get());
+        } catch (IOException | RuntimeException e) {
+            log.error("Offline grading job {} failed", job.id, e);
+            job.finish("FAILED");
+        }
+    }
+
+    private void gradeBatch(GradingJob job, List<ParsedSheet> batch, AnswerKeyCache.AnswerKey answerKey,
+            LocalDateTime importedAt) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Grading is pure CPU work on the compiled key: runs on the pool's workers
+        List<GradeResult> results = batch.parallelStream()
+                .map(sheet -> grade(sheet, answerKey, importedAt))
+                .collect(Collectors.toList());
+
+        List<OfflineGradingWriter.GradedSheet> graded = new ArrayList<>(batch.size());
+        for (GradeResult result : results) {
+            if (result.sheet() != null) {
+                graded.add(result.sheet());
+            } else {
+                job.fail(result.line(), result.studentId(), result.error());
+            }
+        }
+        write(job, graded);
+    }
+
+    private Path spool(InputStream sheets) {
+        Path upload = null;
+        try (InputStream in = sheets) {
+            upload = Files.createTempFile("offline-grading-", ".jsonl");
+            Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+            return upload;
+        } catch (IOException e) {
+            deleteQuietly(upload);
+            throw new RuntimeException("Failed to read answer sheets", e);
+        }
+    }
+
+    private void deleteQuietly(Path upload) {
+        if (upload == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            log.warn("Could not delete offline grading upload {}", upload, e);
+        }
+    }
+
+    private void write(GradingJob job, List<OfflineGradingWriter.GradedSheet> graded) {
+        if (graded.isEmpty()) {
+            return;
+        }
+        try {
+            offlineGradingWriter.writeBatch(job.quizId, graded);
+            job.gradedRows.addAndGet(graded.size());
+        } catch (RuntimeException e) {
+            // The batch was rolled back as a whole
+            log.warn("Offline grading job {}: batch of {} sheets could not be saved", job.id, graded.size(), e);
+            graded.forEach(sheet -> job.fail(sheet.line(), sheet.studentId(), "Could not be saved: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Same rules as QuizAttemptService.submitQuizAttempt, a rejected sheet carries the error instead
+     */
+    GradeResult grade(ParsedSheet parsed, AnswerKeyCache.AnswerKey answerKey, LocalDateTime importedAt) {
+        QuizAttemptDto.OfflineSheet sheet = parsed.sheet();
+        if (sheet.getStudentId() == null) {
+            return GradeResult.failed(parsed.line(), null, "studentId is required");
+        }
+        List<QuizAttemptDto.SubmitRequest.AnswerSubmission> submissions =
+                sheet.getAnswers() != null ? sheet.getAnswers() : List.of();
+
+        int score = 0;
+        List<OfflineGradingWriter.GradedAnswer> answers = new ArrayList<>(submissions.size());
+        Set<UUID> answeredQuestionIds = new HashSet<>();
+        for (QuizAttemptDto.SubmitRequest.AnswerSubmission submission : submissions) {
+            AnswerKeyCache.QuestionKey questionKey = answerKey.question(submission.getQuestionId());
+            if (questionKey == null) {
+                return GradeResult.failed(parsed.line(), sheet.getStudentId(), "Question not found: " + submission.getQuestionId());
+            }
+            if (!answeredQuestionIds.add(questionKey.questionId())) {
+                return GradeResult.failed(parsed.line(), sheet.getStudentId(),
+                        "Question answered more than once: " + submission.getQuestionId());
+            }
+            if (submission.getSelectedOptionId() == null) {
+                return GradeResult.failed(parsed.line(), sheet.getStudentId(),
+                        "selectedOptionId is required for question " + submission.getQuestionId());
+            }
+            boolean isCorrect = questionKey.isCorrect(submission.getSelectedOptionId());
+            if (isCorrect) {
+                score += questionKey.points();
+            }
+            answers.add(new OfflineGradingWriter.GradedAnswer(questionKey.questionId(),
+                    submission.getSelectedOptionId(), isCorrect));
+        }
+
+        double percentage = answerKey.maxScore() > 0 ? (score * 100.0) / answerKey.maxScore() : 0.0;
+        return new GradeResult(parsed.line(), sheet.getStudentId(), new OfflineGradingWriter.GradedSheet(parsed.line(),
+                sheet.getStudentId(), score, answerKey.maxScore(), percentage, percentage >= answerKey.passingScore(),
+                sheet.getSubmittedAt() != null ? sheet.getSubmittedAt() : importedAt, answers), null);
+    }
+
+    private void validateQuiz(UUID courseId, UUID quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+        if (!quiz.getCourse().getId().equals(courseId)) {
+            throw new RuntimeException("Quiz does not belong to the specified course");
+        }
+
+        validateOwnership(quiz.getCourse().getTeacherId());
+    }
+
+    private void validateOwnership(Long teacherId) {
+        Long currentUserId = getCurrentUserId();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!isAdmin && !teacherId.equals(currentUserId)) {
+            throw new AccessDeniedException("You are not the owner of this course");
+        }
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        try {
+            return Long.parseLong((String) authentication.getPrincipal());
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid User ID");
+        }
+    }
+
+    record ParsedSheet(int line, QuizAttemptDto.OfflineSheet sheet) {
+    }
+
+    record GradeResult(int line, Long studentId, OfflineGradingWriter.GradedSheet sheet, String error) {
+
+        static GradeResult failed(int line, Long studentId, String error) {
+            return new GradeResult(line, studentId, null, error);
+        }
+    }
+
+    /**
+     * Progress of one import, updated by the pool while the API reads it
+     */
+    class GradingJob {
+        private final UUID id;
+        private final UUID quizId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger totalRows = new AtomicInteger();
+        private final AtomicInteger gradedRows = new AtomicInteger();
+        private final AtomicInteger failedRows = new AtomicInteger();
+        private final List<QuizAttemptDto.RowError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        GradingJob(UUID id, UUID quizId) {
+            this.id = id;
+            this.quizId = quizId;
+        }
+
+        void fail(int line, Long studentId, String message) {
+            failedRows.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(QuizAttemptDto.RowError.builder().line(line).studentId(studentId).message(message).build());
+            }
+        }
+
+        void finish(String finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        QuizAttemptDto.GradingJobResponse toResponse() {
+            List<QuizAttemptDto.RowError> errorsSnapshot;
+            synchronized (errors) {
+                errorsSnapshot = new ArrayList<>(errors);
+            }
+            errorsSnapshot.sort(Comparator.comparing(QuizAttemptDto.RowError::getLine));
+            return QuizAttemptDto.GradingJobResponse.builder()
+                    .jobId(id)
+                    .quizId(quizId)
+                    .status(status)
+                    .totalRows(totalRows.get())
+                    .gradedRows(gradedRows.get())
+                    .failedRows(failedRows.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errors(errorsSnapshot)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Quiz;
+import com.radim.project.entity.QuizAttempt;
+import com.radim.project.entity.StudentAnswer;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizAttemptRepository;
+import com.radim.project.repository.QuizBestAttemptRepository;
+import com.radim.project.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Persists one batch of offline-graded sheets in a single transaction: attempts with their answers
+ * (inserted through Hibernate JDBC batching, see JdbcBatchScope), best attempts and item analysis counters.
+ */
+@Service
+@RequiredArgsConstructor
+public class OfflineGradingWriter {
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizBestAttemptRepository quizBestAttemptRepository;
+    private final QuestionOptionStatsRepository questionOptionStatsRepository;
+    private final JdbcBatchScope jdbcBatchScope;
+
+    @Transactional
+    public void writeBatch(UUID quizId, List<GradedSheet> sheets) {
+        jdbcBatchScope.flushBatched(() -> saveBatch(quizId, sheets));
+    }
+
+    private void saveBatch(UUID quizId, List<GradedSheet> sheets) {
+        Quiz quiz = quizRepository.getReferenceById(quizId);
+
+        List<QuizAttempt> attempts = new ArrayList<>(sheets.size());
+        Map<OptionKey, long[]> optionCounts = new LinkedHashMap<>();
+        for (GradedSheet sheet : sheets) {
+            QuizAttempt attempt = QuizAttempt.builder()
+                    .quiz(quiz)
+                    .studentId(sheet.studentId())
+                    .score(sheet.score())
+                    .maxScore(sheet.maxScore())
+                    .percentage(sheet.percentage())
+                    .passed(sheet.passed())
+                    .startedAt(sheet.submittedAt())
+                    .submittedAt(sheet.submittedAt())
+                    .studentAnswers(new ArrayList<>(sheet.answers().size()))
+                    .build();
+            for (GradedAnswer answer : sheet.answers()) {
+                attempt.getStudentAnswers().add(StudentAnswer.builder()
+                        .quizAttempt(attempt)
+                        .question(questionRepository.getReferenceById(answer.questionId()))
+                        .selectedOptionId(answer.selectedOptionId())
+                        .isCorrect(answer.correct())
+                        .build());
+                long[] counts = optionCounts.computeIfAbsent(
+                        new OptionKey(answer.questionId(), answer.selectedOptionId()), key -> new long[2]);
+                counts[0]++;
+                if (answer.correct()) {
+                    counts[1]++;
+                }
+            }
+            attempts.add(attempt);
+        }
+
+        // Answers cascade from their attempt, ids are generated client side so inserts are batched
+        quizAttemptRepository.saveAll(attempts);
+        questionOptionStatsRepository.incrementCounts(quizId, optionCounts.entrySet().stream()
+                .map(e -> new QuestionOptionStatsRepository.OptionCount(e.getKey().questionId(),
+                        e.getKey().optionId(), e.getValue()[0], e.getValue()[1]))
+                .collect(Collectors.toList()));
+        recordBestAttempts(quizId, attempts);
+    }
+
+    /**
+     * Same rule as a live submission (a later attempt replaces the best one only when strictly better),
+     * with one conditional upsert for the whole batch: a better live attempt submitted meanwhile is kept
+     */
+    private void recordBestAttempts(UUID quizId, List<QuizAttempt> attempts) {
+        Map<Long, QuizAttempt> bestInBatch = new LinkedHashMap<>();
+        for (QuizAttempt attempt : attempts) {
+            bestInBatch.merge(attempt.getStudentId(), attempt,
+                    (current, candidate) -> candidate.getPercentage() > current.getPercentage() ? candidate : current);
+        }
+
+        quizBestAttemptRepository.upsertIfBetter(quizId, bestInBatch.values().stream()
+                .map(attempt -> new QuizBestAttemptRepository.BestAttempt(attempt.getStudentId(), attempt.getId(),
+                        attempt.getPercentage(), attempt.getPassed(), attempt.getSubmittedAt()))
+                .collect(Collectors.toList()));
+    }
+
+    public record GradedSheet(int line, Long studentId, int score, int maxScore, double percentage, boolean passed,
+            LocalDateTime submittedAt, List<GradedAnswer> answers) {
+    }
+
+    public record GradedAnswer(UUID questionId, UUID selectedOptionId, boolean correct) {
+    }
+
+    private record OptionKey(UUID questionId, UUID optionId) {
+    }
+}
@@ -1,21 +1,29 @@
 package com.radim.project.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.radim.project.dto.ProgressDto;
 import com.radim.project.entity.Course;
+import com.radim.project.entity.CourseProgress;
 import com.radim.project.entity.Lesson;
 import com.radim.project.entity.LessonProgress;
-import com.radim.project.entity.Module;
+import com.radim.project.repository.CourseProgressRepository;
 import com.radim.project.repository.CourseRepository;
+import com.radim.project.repository.EnrollmentRepository;
 import com.radim.project.repository.LessonProgressRepository;
 import com.radim.project.repository.LessonRepository;
-import com.radim.project.repository.ModuleRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +33,14 @@ public class ProgressService {
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
-    private final ModuleRepository moduleRepository;
+    private final CourseProgressRepository courseProgressRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final LessonCompletionBitsetService completionBitsetService;
+    private final CourseStructureCache courseStructureCache;
+
+    @Value("${progress.lessons.create-missing-records:true}")
+    private boolean createMissingLessonProgress = true;
 
     @Transactional
     public ProgressDto.LessonProgressResponse markLessonComplete(UUID lessonId, Long studentId) {
@@ -34,21 +49,71 @@ public class ProgressService {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new RuntimeException("Lesson not found"));
 
-        // Find or create progress record
-        LessonProgress progress = lessonProgressRepository
-                .findByLesson_IdAndStudentId(lessonId, studentId)
-                .orElse(LessonProgress.builder()
-                        .lesson(lesson)
-                        .studentId(studentId)
-                        .build());
-
-        // Mark as completed (idempotent)
-        progress.markCompleted();
-        LessonProgress saved = lessonProgressRepository.save(progress);
+        // Complete in one statement: only the call that actually flips the lesson updates the counters
+        boolean newlyCompleted = lessonProgressRepository.markCompleted(lessonId, studentId, LocalDateTime.now()) > 0;
+        if (newlyCompleted) {
+            UUID courseId = lesson.getModule().getCourse().getId();
+            incrementCompletedLessons(courseId, studentId);
+            completionBitsetService.markCompleted(courseId, studentId, lessonId);
+        }
 
+        LessonProgress saved = lessonProgressRepository.findByLesson_IdAndStudentId(lessonId, studentId)
+                .orElseThrow(() -> new RuntimeException("Lesson progress not found"));
         return toLessonProgressResponse(saved);
     }
 
+    /**
+     * Replay a batch of offline lesson completions in one transaction.
+     * Completions are applied with a single set-based upsert; lessons that no longer
+     * exist are skipped. Returns the resulting state of every applied lesson.
+     */
+    @Transactional
+    public List<ProgressDto.LessonProgressResponse> syncLessonCompletions(Long studentId,
+            List<ProgressDto.LessonCompletion> completions) {
+        log.info("Syncing {} lesson completions for student {}", completions.size(), studentId);
+
+        // Deduplicate, keeping the earliest completion per lesson; client clocks cannot be in the future
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, LocalDateTime> completedAtByLesson = new LinkedHashMap<>();
+        for (ProgressDto.LessonCompletion completion : completions) {
+            LocalDateTime completedAt = completion.getCompletedAt();
+            if (completedAt == null || completedAt.isAfter(now)) {
+                completedAt = now;
+            }
+            completedAtByLesson.merge(completion.getLessonId(), completedAt,
+                    (a, b) -> a.isBefore(b) ? a : b);
+        }
+
+        Map<UUID, UUID> courseIdByLesson = lessonRepository.findCourseIdsByLessonIds(completedAtByLesson.keySet())
+                .stream()
+                .collect(Collectors.toMap(LessonRepository.LessonCourseView::getLessonId,
+                        LessonRepository.LessonCourseView::getCourseId));
+        if (courseIdByLesson.size() < completedAtByLesson.size()) {
+            log.warn("Skipping {} unknown lessons in completion sync for student {}",
+                    completedAtByLesson.size() - courseIdByLesson.size(), studentId);
+            completedAtByLesson.keySet().retainAll(courseIdByLesson.keySet());
+        }
+        if (completedAtByLesson.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lessonProgressRepository.upsertCompletions(studentId, completedAtByLesson);
+        Set<UUID> courseIds = new HashSet<>(courseIdByLesson.values());
+        courseProgressRepository.refreshCounters(studentId, courseIds);
+        completionBitsetService.invalidateStudent(studentId, courseIds);
+
+        Map<UUID, LessonProgress> progressByLesson = lessonProgressRepository
+                .findByStudentIdAndLessonIdInWithLesson(studentId, completedAtByLesson.keySet())
+                .stream()
+                .collect(Collectors.toMap(p -> p.getLesson().getId(), p -> p));
+
+        return completedAtByLesson.keySet().stream()
+                .map(progressByLesson::get)
+                .filter(Objects::nonNull)
+                .map(this::toLessonProgressResponse)
+                .collect(Collectors.toList());
+    }
+
     public ProgressDto.LessonProgressResponse getLessonProgress(UUID lessonId, Long studentId) {
         log.info("Fetching progress for lesson {} and student {}", lessonId, studentId);
 
@@ -66,63 +131,251 @@ public class ProgressService {
         return toLessonProgressResponse(progress);
     }
 
+    /**
+     * Read-only listing of all lesson progress for a course and student.
+     * Uses a single ordered LEFT JOIN; lessons never opened are returned as
+     * "not started" entries without inserting LessonProgress rows.
+     */
+    public List<ProgressDto.LessonProgressResponse> getLessonProgressOverview(UUID courseId, Long studentId) {
+        log.info("Fetching lesson progress overview for course {} and student {}", courseId, studentId);
+
+        List<ProgressDto.LessonProgressResponse> result = lessonProgressRepository
+                .findLessonProgressViewsByCourseId(courseId, studentId)
+                .stream()
+                .map(view -> ProgressDto.LessonProgressResponse.builder()
+                        .lessonId(view.getLessonId())
+                        .lessonTitle(view.getLessonTitle())
+                        .completed(Boolean.TRUE.equals(view.getCompleted()))
+                        .completedAt(view.getCompletedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        if (result.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+        return result;
+    }
+
     public ProgressDto.CourseProgressResponse getCourseProgress(UUID courseId, Long studentId) {
         log.info("Calculating course progress for course {} and student {}", courseId, studentId);
 
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
-        long totalLessons = lessonProgressRepository.countTotalLessonsByCourseId(courseId);
-        long completedLessons = lessonProgressRepository
-                .countByStudentIdAndLesson_Module_Course_IdAndCompletedTrue(studentId, courseId);
-
-        double completionRate = 0.0;
-        if (totalLessons > 0) {
-            completionRate = (completedLessons * 100.0) / totalLessons;
-        }
+        CourseProgress counters = loadCounters(courseId, studentId);
 
         return ProgressDto.CourseProgressResponse.builder()
                 .courseId(courseId)
                 .courseTitle(course.getTitle())
-                .totalLessons(totalLessons)
-                .completedLessons(completedLessons)
-                .completionRate(Math.round(completionRate * 100.0) / 100.0) // Round to 2 decimals
+                .totalLessons(counters.getTotalLessons())
+                .completedLessons(counters.getCompletedLessons())
+                .completionRate(toCompletionRate(counters))
+                .build();
+    }
+
+    /**
+     * Module-level progress of a student across a whole course, computed with one grouped query
+     */
+    public List<ProgressDto.ModuleProgressResponse> getModuleProgress(UUID courseId, Long studentId) {
+        log.info("Calculating module progress for course {} and student {}", courseId, studentId);
+
+        List<ProgressDto.ModuleProgressResponse> result = lessonProgressRepository
+                .findModuleProgressByCourseId(courseId, studentId)
+                .stream()
+                .map(view -> ProgressDto.ModuleProgressResponse.builder()
+                        .moduleId(view.getModuleId())
+                        .moduleTitle(view.getModuleTitle())
+                        .totalLessons(view.getTotalLessons())
+                        .completedLessons(view.getCompletedLessons())
+                        .completionRate(toCompletionRate(view.getCompletedLessons(), view.getTotalLessons()))
+                        .build())
+                .collect(Collectors.toList());
+
+        if (result.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+        return result;
+    }
+
+    /**
+     * Next lesson to study, resolved from the student's completion bitset
+     */
+    public ProgressDto.NextLessonResponse getNextLesson(UUID courseId, Long studentId) {
+        log.info("Finding next lesson in course {} for student {}", courseId, studentId);
+
+        if (!courseRepository.existsById(courseId)) {
+            throw new RuntimeException("Course not found");
+        }
+        BitSet completed = completionBitsetService.getCompletionBits(courseId, studentId);
+        return ProgressDto.NextLessonResponse.builder()
+                .courseId(courseId)
+                .lessonId(completionBitsetService.findNextIncompleteLesson(courseId, studentId).orElse(null))
+                .completedLessons((long) completed.cardinality())
+                .completionRate(completionBitsetService.getCompletionRate(courseId, studentId))
+                .build();
+    }
+
+    /**
+     * Lessons every enrolled student (optionally of one class) has completed, via bitset intersection
+     */
+    public ProgressDto.CommonCompletionResponse getLessonsCompletedByAll(UUID courseId, UUID classId) {
+        log.info("Intersecting completions for course {} (class {})", courseId, classId);
+
+        return ProgressDto.CommonCompletionResponse.builder()
+                .courseId(courseId)
+                .classId(classId)
+                .lessonIds(completionBitsetService.findLessonsCompletedByAll(courseId, classId))
                 .build();
     }
 
     public double calculateCompletionRate(UUID courseId, Long studentId) {
-        ProgressDto.CourseProgressResponse progress = getCourseProgress(courseId, studentId);
-        return progress.getCompletionRate();
+        return toCompletionRate(loadCounters(courseId, studentId));
     }
 
     /**
-     * Get all lesson progress for a specific course and student
-     * This ensures each lesson has its own LessonProgress record
-     * Creates LessonProgress records for lessons that don't have one yet
+     * Completion rates of a group of students in one query. Students without a counters row
+     * have not completed any lesson yet.
      */
-    @Transactional
-    public List<ProgressDto.LessonProgressResponse> getAllLessonProgressForCourse(UUID courseId, Long studentId) {
-        log.info("Fetching all lesson progress for course {} and student {}", courseId, studentId);
+    public Map<Long, Double> calculateCompletionRates(UUID courseId, Collection<Long> studentIds) {
+        Map<Long, Double> completionRates = new HashMap<>();
+        for (CourseProgress counters : courseProgressRepository.findByCourse_IdAndStudentIdIn(courseId, studentIds)) {
+            completionRates.put(counters.getStudentId(), toCompletionRate(counters));
+        }
+        for (Long studentId : studentIds) {
+            completionRates.putIfAbsent(studentId, 0.0);
+        }
+        return completionRates;
+    }
 
+    public void validateCourseOwnership(UUID courseId, Long teacherId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
-        // Load modules for this course
-        List<Module> modules = moduleRepository.findByCourseIdOrderByOrderIndexAsc(courseId);
-        if (modules == null || modules.isEmpty()) {
-            log.info("No modules found for course {}", courseId);
-            return new ArrayList<>();
+        if (!course.getTeacherId().equals(teacherId)) {
+            throw new RuntimeException("Access denied: You do not own this course");
         }
+    }
 
-        // Get all lessons from all modules
-        List<Lesson> allLessons = new ArrayList<>();
-        for (Module module : modules) {
-            List<Lesson> moduleLessons = lessonRepository.findByModuleIdOrderByOrderIndexAsc(module.getId());
-            if (moduleLessons != null && !moduleLessons.isEmpty()) {
-                allLessons.addAll(moduleLessons);
+    /**
+     * Stream the progress of every student enrolled in a course as JSON:
+     * {"courseId", "totalLessons", "lessonIds" (only with lesson detail), "students": [StudentProgressResponse...]}.
+     * Rows are produced from grouped queries and written one at a time, so memory use does not
+     * grow with the class size. Ownership must be checked by the caller beforehand.
+     */
+    @Transactional
+    public void writeCourseProgressMatrix(UUID courseId, boolean includeLessons, OutputStream out) throws IOException {
+        log.info("Streaming progress matrix for course {} (lesson detail: {})", courseId, includeLessons);
+
+        List<UUID> lessonIds = courseStructureCache.getOutline(courseId).lessonIds();
+        Map<UUID, Integer> lessonOrdinals = new HashMap<>();
+        for (int i = 0; i < lessonIds.size(); i++) {
+            lessonOrdinals.put(lessonIds.get(i), i);
+        }
+        long totalLessons = lessonIds.size();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                Stream<EnrollmentRepository.StudentCompletionView> students = enrollmentRepository
+                        .streamStudentCompletionsByCourseId(courseId);
+                Stream<LessonProgressRepository.StudentLessonView> completions = includeLessons
+                        ? lessonProgressRepository.streamCompletedLessonsByCourseId(courseId)
+                        : Stream.empty()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("courseId", courseId.toString());
+            generator.writeNumberField("totalLessons", totalLessons);
+            if (includeLessons) {
+                generator.writeArrayFieldStart("lessonIds");
+                for (UUID lessonId : lessonIds) {
+                    generator.writeString(lessonId.toString());
+                }
+                generator.writeEndArray();
+            }
+            generator.writeArrayFieldStart("students");
+
+            // Both streams are ordered by student id, so lesson bits are merged in a single pass
+            Iterator<LessonProgressRepository.StudentLessonView> completionIterator = completions.iterator();
+            LessonProgressRepository.StudentLessonView pending = completionIterator.hasNext()
+                    ? completionIterator.next() : null;
+
+            for (Iterator<EnrollmentRepository.StudentCompletionView> it = students.iterator(); it.hasNext();) {
+                EnrollmentRepository.StudentCompletionView student = it.next();
+                String lessonCompletion = null;
+                if (includeLessons) {
+                    char[] bits = new char[lessonIds.size()];
+                    Arrays.fill(bits, '0');
+                    while (pending != null && pending.getStudentId() < student.getStudentId()) {
+                        pending = completionIterator.hasNext() ? completionIterator.next() : null;
+                    }
+                    while (pending != null && pending.getStudentId().equals(student.getStudentId())) {
+                        Integer ordinal = lessonOrdinals.get(pending.getLessonId());
+                        if (ordinal != null) {
+                            bits[ordinal] = '1';
+                        }
+                        pending = completionIterator.hasNext() ? completionIterator.next() : null;
+                    }
+                    lessonCompletion = new String(bits);
+                }
+
+                generator.writeObject(ProgressDto.StudentProgressResponse.builder()
+                        .studentId(student.getStudentId())
+                        .completedLessons(student.getCompletedLessons())
+                        .completionRate(toCompletionRate(student.getCompletedLessons(), totalLessons))
+                        .lessonCompletion(lessonCompletion)
+                        .build());
             }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
         }
+    }
 
+    /**
+     * Keep course_progress counters in sync after a lesson was added to a course
+     */
+    @Transactional
+    public void onLessonCreated(UUID courseId) {
+        courseProgressRepository.adjustTotalLessons(courseId, 1);
+        completionBitsetService.invalidateCourse(courseId);
+    }
+
+    /**
+     * Lesson ordinals change when lessons or modules are reordered
+     */
+    @Transactional
+    public void onLessonsReordered(UUID courseId) {
+        completionBitsetService.invalidateCourse(courseId);
+    }
+
+    /**
+     * Keep course_progress counters in sync before a lesson is removed from a course.
+     * Must be called while the lesson's progress rows still exist.
+     */
+    @Transactional
+    public void onLessonDeleted(UUID courseId, UUID lessonId) {
+        courseProgressRepository.decrementCompletedForLesson(courseId, lessonId);
+        courseProgressRepository.adjustTotalLessons(courseId, -1);
+        completionBitsetService.invalidateCourse(courseId);
+    }
+
+    /**
+     * Get all lesson progress for a specific course and student
+     * This ensures each lesson has its own LessonProgress record
+     * Creates LessonProgress records for lessons that don't have one yet,
+     * unless progress.lessons.create-missing-records is disabled
+     */
+    @Transactional
+    public List<ProgressDto.LessonProgressResponse> getAllLessonProgressForCourse(UUID courseId, Long studentId) {
+        if (!createMissingLessonProgress) {
+            return getLessonProgressOverview(courseId, studentId);
+        }
+
+        log.info("Fetching all lesson progress for course {} and student {}", courseId, studentId);
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+
+        // Lessons of all modules in course order, from the cached course structure
+        List<CourseStructureCache.LessonOutline> allLessons = courseStructureCache.getOutline(courseId).lessons();
         if (allLessons.isEmpty()) {
             log.info("No lessons found for course {}", courseId);
             return new ArrayList<>();
@@ -142,19 +395,19 @@ public class ProgressService {
 
         // Ensure every lesson has a progress record (create if missing)
         List<ProgressDto.LessonProgressResponse> result = new ArrayList<>();
-        for (Lesson lesson : allLessons) {
-            LessonProgress progress = progressMap.get(lesson.getId());
+        for (CourseStructureCache.LessonOutline lesson : allLessons) {
+            LessonProgress progress = progressMap.get(lesson.lessonId());
             if (progress == null) {
                 // Create a new progress record for this lesson if it doesn't exist
-                log.debug("Creating new LessonProgress for lesson {} and student {}", lesson.getId(), studentId);
+                log.debug("Creating new LessonProgress for lesson {} and student {}", lesson.lessonId(), studentId);
                 progress = LessonProgress.builder()
-                        .lesson(lesson)
+                        .lesson(lessonRepository.getReferenceById(lesson.lessonId()))
                         .studentId(studentId)
                         .completed(false)
                         .build();
                 progress = lessonProgressRepository.save(progress);
             }
-            // Use the lesson object we already have to avoid lazy loading issues
+            // Use the cached outline to avoid lazy loading issues
             result.add(toLessonProgressResponse(progress, lesson));
         }
 
@@ -163,6 +416,41 @@ public class ProgressService {
         return result;
     }
 
+    /**
+     * Read the materialized counters for a student. Students without any completed lesson
+     * have no row yet, so only the course's lesson count is needed.
+     */
+    private CourseProgress loadCounters(UUID courseId, Long studentId) {
+        return courseProgressRepository.findByCourse_IdAndStudentId(courseId, studentId)
+                .orElseGet(() -> CourseProgress.builder()
+                        .studentId(studentId)
+                        .totalLessons((long) courseStructureCache.getOutline(courseId).lessonCount())
+                        .completedLessons(0L)
+                        .build());
+    }
+
+    private void incrementCompletedLessons(UUID courseId, Long studentId) {
+        if (courseProgressRepository.incrementCompletedLessons(courseId, studentId) > 0) {
+            return;
+        }
+        // First completion in this course: seed the row from the source tables
+        courseProgressRepository.seedCompletedLessons(courseId, studentId,
+                courseStructureCache.getOutline(courseId).lessonCount(),
+                lessonProgressRepository.countByStudentIdAndLesson_Module_Course_IdAndCompletedTrue(studentId, courseId));
+    }
+
+    private double toCompletionRate(CourseProgress counters) {
+        return toCompletionRate(counters.getCompletedLessons(), counters.getTotalLessons());
+    }
+
+    private double toCompletionRate(long completedLessons, long totalLessons) {
+        double completionRate = 0.0;
+        if (totalLessons > 0) {
+            completionRate = (completedLessons * 100.0) / totalLessons;
+        }
+        return Math.round(completionRate * 100.0) / 100.0; // Round to 2 decimals
+    }
+
     private ProgressDto.LessonProgressResponse toLessonProgressResponse(LessonProgress progress) {
         // This method is used when we have the progress but need to access the lesson
         // It may cause lazy loading issues, so prefer the overloaded version with lesson parameter
@@ -175,11 +463,12 @@ public class ProgressService {
                 .build();
     }
 
-    private ProgressDto.LessonProgressResponse toLessonProgressResponse(LessonProgress progress, Lesson lesson) {
-        // This overloaded version accepts the lesson directly to avoid lazy loading issues
+    private ProgressDto.LessonProgressResponse toLessonProgressResponse(LessonProgress progress,
+            CourseStructureCache.LessonOutline lesson) {
+        // This overloaded version accepts the lesson outline directly to avoid lazy loading issues
         return ProgressDto.LessonProgressResponse.builder()
-                .lessonId(lesson.getId())
-                .lessonTitle(lesson.getTitle())
+                .lessonId(lesson.lessonId())
+                .lessonTitle(lesson.title())
                 .completed(progress.getCompleted())
                 .completedAt(progress.getCompletedAt())
                 .build();
@@ -13,8 +13,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +22,9 @@ public class QuestionService {
 
     private final QuestionRepository questionRepository;
     private final QuizRepository quizRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizDeliveryCache quizDeliveryCache;
+    private final JdbcBatchScope jdbcBatchScope;
 
     public List<QuizDto.QuestionResponse> getQuestionsByQuiz(UUID quizId) {
         return questionRepository.findByQuizId(quizId).stream()
@@ -56,6 +58,8 @@ public class QuestionService {
         }
 
         Question savedQuestion = questionRepository.save(question);
+        answerKeyCache.invalidate(quizId);
+        quizDeliveryCache.invalidate(quizId);
         return mapToResponse(savedQuestion);
     }
 
@@ -70,26 +74,56 @@ public class QuestionService {
 
         validateOwnership(question.getQuiz().getCourse().getTeacherId());
 
-        question.setQuestionText(request.getQuestionText());
-        question.setQuestionType(request.getQuestionType());
-        question.setPoints(request.getPoints());
-
-        // Clear existing options and add new ones
-        question.getOptions().clear();
-        for (int i = 0; i < request.getOptions().size(); i++) {
-            QuizDto.OptionRequest optionRequest = request.getOptions().get(i);
-            QuestionOption option = QuestionOption.builder()
-                    .optionText(optionRequest.getOptionText())
-                    .isCorrect(optionRequest.getIsCorrect())
-                    .optionOrder(i)
-                    .build();
-            question.addOption(option);
-        }
+        applyChanges(question, request.getQuestionText(), request.getQuestionType(), request.getPoints(),
+                request.getOptions());
 
         Question updatedQuestion = questionRepository.save(question);
+        answerKeyCache.invalidate(quizId);
+        quizDeliveryCache.invalidate(quizId);
         return mapToResponse(updatedQuestion);
     }
 
+    /**
+     * Update several questions of a quiz in one transaction: one query loads the questions with their
+     * options, and the changed rows are flushed together as JDBC batches (see JdbcBatchScope).
+     */
+    @Transactional
+    public List<QuizDto.QuestionResponse> updateQuestions(UUID quizId, QuizDto.BulkQuestionUpdateRequest request) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+        validateOwnership(quiz.getCourse().getTeacherId());
+
+        Map<UUID, QuizDto.QuestionUpdateRequest> updates = new LinkedHashMap<>();
+        for (QuizDto.QuestionUpdateRequest update : request.getQuestions()) {
+            if (updates.put(update.getId(), update) != null) {
+                throw new RuntimeException("Question updated more than once: " + update.getId());
+            }
+        }
+
+        Map<UUID, Question> questions = questionRepository.findWithOptionsByQuizIdAndIdIn(quizId, updates.keySet())
+                .stream()
+                .collect(Collectors.toMap(Question::getId, question -> question));
+
+        List<Question> updatedQuestions = new ArrayList<>(updates.size());
+        for (QuizDto.QuestionUpdateRequest update : updates.values()) {
+            Question question = questions.get(update.getId());
+            if (question == null) {
+                throw new RuntimeException("Question not found: " + update.getId());
+            }
+            applyChanges(question, update.getQuestionText(), update.getQuestionType(), update.getPoints(),
+                    update.getOptions());
+            updatedQuestions.add(question);
+        }
+
+        jdbcBatchScope.flushBatched(() -> questionRepository.saveAll(updatedQuestions));
+        answerKeyCache.invalidate(quizId);
+        quizDeliveryCache.invalidate(quizId);
+        return updatedQuestions.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public void deleteQuestion(UUID quizId, UUID questionId) {
         Question question = questionRepository.findById(questionId)
@@ -102,6 +136,54 @@ public class QuestionService {
         validateOwnership(question.getQuiz().getCourse().getTeacherId());
 
         questionRepository.delete(question);
+        answerKeyCache.invalidate(quizId);
+        quizDeliveryCache.invalidate(quizId);
+    }
+
+    /**
+     * Match the requested options to the existing ones by id: kept options are updated in place (and only
+     * written when something changed), options without id are inserted and the missing ones are deleted.
+     * Option ids therefore stay stable for answers and item analysis.
+     */
+    private void applyChanges(Question question, String questionText, String questionType, Integer points,
+            List<QuizDto.OptionRequest> optionRequests) {
+        question.setQuestionText(questionText);
+        question.setQuestionType(questionType);
+        question.setPoints(points);
+
+        Map<UUID, QuestionOption> existing = new HashMap<>();
+        question.getOptions().forEach(option -> existing.put(option.getId(), option));
+
+        Set<UUID> kept = new HashSet<>();
+        List<QuestionOption> added = new ArrayList<>();
+        for (int i = 0; i < optionRequests.size(); i++) {
+            QuizDto.OptionRequest optionRequest = optionRequests.get(i);
+            if (optionRequest.getId() == null) {
+                added.add(QuestionOption.builder()
+                        .optionText(optionRequest.getOptionText())
+                        .isCorrect(optionRequest.getIsCorrect())
+                        .optionOrder(i)
+                        .build());
+                continue;
+            }
+
+            QuestionOption option = existing.get(optionRequest.getId());
+            if (option == null) {
+                throw new RuntimeException("Option not found: " + optionRequest.getId());
+            }
+            if (!kept.add(option.getId())) {
+                throw new RuntimeException("Option listed more than once: " + optionRequest.getId());
+            }
+            option.setOptionText(optionRequest.getOptionText());
+            option.setIsCorrect(optionRequest.getIsCorrect());
+            option.setOptionOrder(i);
+        }
+
+        existing.values().stream()
+                .filter(option -> !kept.contains(option.getId()))
+                .collect(Collectors.toList())
+                .forEach(question::removeOption);
+        added.forEach(question::addOption);
     }
 
     private void validateOwnership(Long teacherId) {
@@ -0,0 +1,181 @@
+package com.radim.project.service;
+
+import com.radim.project.dto.QuizDto;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionOptionStatsRepositoryCustom.OptionCount;
+import com.radim.project.repository.QuizRepository;
+import com.radim.project.repository.StudentAnswerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Item analysis for teachers: difficulty (percent correct) per question and answer distribution per option,
+ * read from the running counters in question_option_stats that submitQuizAttempt maintains.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnalyticsService {
+
+    private final QuestionOptionStatsRepository questionOptionStatsRepository;
+    private final StudentAnswerRepository studentAnswerRepository;
+    private final QuizRepository quizRepository;
+
+    @Value("${quiz.analytics.rebuild-batch-size:500}")
+    private int rebuildBatchSize = 500;
+
+    @Transactional(readOnly = true)
+    public QuizDto.ItemAnalysisResponse getItemAnalysis(UUID courseId, UUID quizId) {
+        validateQuiz(courseId, quizId);
+
+        Map<UUID, QuestionOptionStatsRepository.QuestionTotalsView> totals = new HashMap<>();
+        questionOptionStatsRepository.findQuestionTotalsByQuizId(quizId)
+                .forEach(view -> totals.put(view.getQuestionId(), view));
+
+        Map<UUID, QuizDto.QuestionAnalysis> questions = new LinkedHashMap<>();
+        for (QuestionOptionStatsRepository.OptionStatsView row : questionOptionStatsRepository.findOptionStatsByQuizId(quizId)) {
+            QuizDto.QuestionAnalysis question = questions.computeIfAbsent(row.getQuestionId(), id -> {
+                QuestionOptionStatsRepository.QuestionTotalsView total = totals.get(id);
+                long answerCount = total != null && total.getAnswerCount() != null ? total.getAnswerCount() : 0L;
+                long correctCount = total != null && total.getCorrectCount() != null ? total.getCorrectCount() : 0L;
+                return QuizDto.QuestionAnalysis.builder()
+                        .questionId(id)
+                        .questionText(row.getQuestionText())
+                        .answerCount(answerCount)
+                        .correctCount(correctCount)
+                        .percentCorrect(toPercentage(correctCount, answerCount))
+                        .options(new ArrayList<>())
+                        .build();
+            });
+
+            long selectCount = row.getSelectCount() != null ? row.getSelectCount() : 0L;
+            question.getOptions().add(QuizDto.OptionAnalysis.builder()
+                    .optionId(row.getOptionId())
+                    .optionText(row.getOptionText())
+                    .isCorrect(row.getIsCorrect())
+                    .selectCount(selectCount)
+                    .selectRate(toPercentage(selectCount, question.getAnswerCount()))
+                    .build());
+        }
+
+        return QuizDto.ItemAnalysisResponse.builder()
+                .quizId(quizId)
+                .questions(new ArrayList<>(questions.values()))
+                .build();
+    }
+
+    /**
+     * Recompute the counters of a quiz from student_answers, e.g. after a backfill or a lost update.
+     * Answers are streamed in question order and written in batches, so memory stays bounded by the
+     * batch size. The quiz's counters are locked exclusively for the whole rebuild: submissions that
+     * already incremented them are committed before the answers are read, and later ones wait for the
+     * rebuild to commit before adding their counts, so no answer is lost or counted twice.
+     */
+    @Transactional
+    public QuizDto.ItemAnalysisRebuildResponse rebuildItemAnalysis(UUID courseId, UUID quizId) {
+        validateQuiz(courseId, quizId);
+        log.info("Rebuilding item analysis counters for quiz {}", quizId);
+
+        questionOptionStatsRepository.lockCountsExclusively(quizId);
+        questionOptionStatsRepository.deleteByQuizId(quizId);
+
+        long answersProcessed = 0;
+        int statsRows = 0;
+        Map<UUID, long[]> questionCounts = new LinkedHashMap<>();
+        UUID currentQuestionId = null;
+        List<OptionCount> batch = new ArrayList<>();
+        try (Stream<StudentAnswerRepository.AnswerView> answers = studentAnswerRepository.streamAnswersByQuizId(quizId)) {
+            Iterator<StudentAnswerRepository.AnswerView> iterator = answers.iterator();
+            while (iterator.hasNext()) {
+                StudentAnswerRepository.AnswerView answer = iterator.next();
+                if (!answer.getQuestionId().equals(currentQuestionId)) {
+                    statsRows += drain(currentQuestionId, questionCounts, batch);
+                    if (batch.size() >= rebuildBatchSize) {
+                        flush(quizId, batch);
+                    }
+                    currentQuestionId = answer.getQuestionId();
+                }
+                long[] counts = questionCounts.computeIfAbsent(answer.getSelectedOptionId(), id -> new long[2]);
+                counts[0]++;
+                if (Boolean.TRUE.equals(answer.getIsCorrect())) {
+                    counts[1]++;
+                }
+                answersProcessed++;
+            }
+        }
+        statsRows += drain(currentQuestionId, questionCounts, batch);
+        flush(quizId, batch);
+
+        log.info("Rebuilt {} item analysis rows from {} answers for quiz {}", statsRows, answersProcessed, quizId);
+        return QuizDto.ItemAnalysisRebuildResponse.builder()
+                .quizId(quizId)
+                .answersProcessed(answersProcessed)
+                .statsRows(statsRows)
+                .build();
+    }
+
+    private int drain(UUID questionId, Map<UUID, long[]> questionCounts, List<OptionCount> batch) {
+        if (questionId == null) {
+            return 0;
+        }
+        questionCounts.forEach((optionId, counts) -> batch.add(new OptionCount(questionId, optionId, counts[0], counts[1])));
+        int rows = questionCounts.size();
+        questionCounts.clear();
+        return rows;
+    }
+
+    private void flush(UUID quizId, List<OptionCount> batch) {
+        if (!batch.isEmpty()) {
+            questionOptionStatsRepository.incrementCounts(quizId, batch);
+            batch.clear();
+        }
+    }
+
+    private Double toPercentage(long count, long total) {
+        if (total == 0) {
+            return null;
+        }
+        return Math.round((count * 100.0 / total) * 100.0) / 100.0;
+    }
+
+    private void validateQuiz(UUID courseId, UUID quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+        if (!quiz.getCourse().getId().equals(courseId)) {
+            throw new RuntimeException("Quiz does not belong to the specified course");
+        }
+
+        validateOwnership(quiz.getCourse().getTeacherId());
+    }
+
+    private void validateOwnership(Long teacherId) {
+        Long currentUserId = getCurrentUserId();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!isAdmin && !teacherId.equals(currentUserId)) {
+            throw new AccessDeniedException("You are not the owner of this course");
+        }
+    }
+
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        try {
+            return Long.parseLong((String) authentication.getPrincipal());
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid User ID");
+        }
+    }
+}
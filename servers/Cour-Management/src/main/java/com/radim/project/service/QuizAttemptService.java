@@ -4,14 +4,19 @@ import com.radim.project.dto.QuizAttemptDto;
 import com.radim.project.entity.*;
 import com.radim.project.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,6 +28,12 @@ public class QuizAttemptService {
     private final StudentAnswerRepository studentAnswerRepository;
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizBestAttemptRepository quizBestAttemptRepository;
+    private final QuestionOptionStatsRepository questionOptionStatsRepository;
+    private final AttemptExpiryQueue attemptExpiryQueue;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
      * Student starts a quiz attempt
@@ -34,18 +45,26 @@ public class QuizAttemptService {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new RuntimeException("Quiz not found"));
 
+        // Max score comes from the compiled answer key, questions are not loaded
+        LocalDateTime startedAt = LocalDateTime.now();
         QuizAttempt attempt = QuizAttempt.builder()
                 .quiz(quiz)
                 .studentId(studentId)
                 .score(0)
-                .maxScore(quiz.getQuestions().size()) // 1 point per question
+                .maxScore(answerKeyCache.getAnswerKey(quizId).maxScore())
                 .percentage(0.0)
                 .passed(false)
-                .startedAt(LocalDateTime.now())
+                .startedAt(startedAt)
+                .expiresAt(quiz.getTimeLimitMinutes() != null
+                        ? startedAt.plusMinutes(quiz.getTimeLimitMinutes())
+                        : null)
                 .studentAnswers(new ArrayList<>())
                 .build();
 
         QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        if (savedAttempt.getExpiresAt() != null) {
+            attemptExpiryQueue.schedule(savedAttempt.getId(), savedAttempt.getExpiresAt());
+        }
 
         return mapToResponseWithoutAnswers(savedAttempt);
     }
@@ -55,59 +74,79 @@ public class QuizAttemptService {
      */
     @Transactional
     public QuizAttemptDto.AttemptResponse submitQuizAttempt(UUID attemptId, QuizAttemptDto.SubmitRequest request) {
-        Long studentId = getCurrentStudentId();
+        QuizAttempt attempt = getOpenAttempt(attemptId);
 
-        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
-                .orElseThrow(() -> new RuntimeException("Quiz attempt not found"));
+        // Grade against the compiled answer key, no question or option is loaded
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(attempt.getQuiz().getId());
+        GradedAnswers graded = gradeAnswers(attempt, answerKey, request);
 
-        // Verify ownership
-        if (!attempt.getStudentId().equals(studentId)) {
-            throw new RuntimeException("Not authorized to submit this attempt");
-        }
+        // Replace the answers saved so far
+        studentAnswerRepository.deleteByQuizAttemptId(attemptId);
+        studentAnswerRepository.saveAll(graded.studentAnswers());
 
-        // Check if already submitted
-        if (attempt.getSubmittedAt() != null) {
+        // Update attempt with the weighted score, against the answer key it was graded with.
+        // A concurrent duplicate submission loses here and rolls back its answers.
+        if (!finalizeAttempt(attempt, graded.score(), answerKey, LocalDateTime.now())) {
             throw new RuntimeException("Quiz already submitted");
         }
+        questionOptionStatsRepository.incrementCounts(attempt.getQuiz().getId(), graded.optionCounts());
+        recordBestAttempt(attempt);
 
-        // Process each answer
-        int correctCount = 0;
-        List<StudentAnswer> studentAnswers = new ArrayList<>();
+        return mapToResponseWithAnswers(attempt, graded.answerDetails());
+    }
 
-        for (QuizAttemptDto.SubmitRequest.AnswerSubmission submission : request.getAnswers()) {
-            Question question = questionRepository.findById(submission.getQuestionId())
-                    .orElseThrow(() -> new RuntimeException("Question not found: " + submission.getQuestionId()));
+    /**
+     * Student saves the answers given so far without submitting. Each call replaces the previous set;
+     * these are the answers an expired attempt is graded with.
+     */
+    @Transactional
+    public QuizAttemptDto.AttemptResponse saveAnswers(UUID attemptId, QuizAttemptDto.SubmitRequest request) {
+        QuizAttempt attempt = getOpenAttempt(attemptId);
 
-            // Check if the selected option is correct
-            boolean isCorrect = question.getOptions().stream()
-                    .anyMatch(opt -> opt.getId().equals(submission.getSelectedOptionId()) && opt.getIsCorrect());
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(attempt.getQuiz().getId());
+        GradedAnswers graded = gradeAnswers(attempt, answerKey, request);
 
-            if (isCorrect) {
-                correctCount++;
-            }
+        studentAnswerRepository.deleteByQuizAttemptId(attemptId);
+        studentAnswerRepository.saveAll(graded.studentAnswers());
 
-            StudentAnswer answer = StudentAnswer.builder()
-                    .quizAttempt(attempt)
-                    .question(question)
-                    .selectedOptionId(submission.getSelectedOptionId())
-                    .isCorrect(isCorrect)
-                    .build();
+        return mapToResponseWithoutAnswers(attempt);
+    }
 
-            studentAnswers.add(answer);
+    /**
+     * Auto-submit an attempt whose time limit has run out, graded with the answers saved so far.
+     * Returns false when the attempt no longer exists or was submitted in the meantime.
+     */
+    @Transactional
+    public boolean expireAttempt(UUID attemptId) {
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId).orElse(null);
+        if (attempt == null || attempt.getSubmittedAt() != null) {
+            return false;
         }
 
-        // Save all answers
-        studentAnswerRepository.saveAll(studentAnswers);
-
-        // Update attempt with score
-        attempt.setScore(correctCount);
-        attempt.setSubmittedAt(LocalDateTime.now());
-        attempt.calculatePercentage();
-        attempt.determinePassed();
-
-        QuizAttempt updatedAttempt = quizAttemptRepository.save(attempt);
+        UUID quizId = attempt.getQuiz().getId();
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(quizId);
+        int score = 0;
+        List<QuestionOptionStatsRepository.OptionCount> optionCounts = new ArrayList<>();
+        for (StudentAnswerRepository.AnswerView answer : studentAnswerRepository.findAnswerViewsByQuizAttemptId(attemptId)) {
+            AnswerKeyCache.QuestionKey questionKey = answerKey.question(answer.getQuestionId());
+            if (questionKey == null) {
+                continue;
+            }
+            boolean isCorrect = Boolean.TRUE.equals(answer.getIsCorrect());
+            if (isCorrect) {
+                score += questionKey.points();
+            }
+            optionCounts.add(new QuestionOptionStatsRepository.OptionCount(
+                    questionKey.questionId(), answer.getSelectedOptionId(), 1, isCorrect ? 1 : 0));
+        }
 
-        return mapToResponseWithAnswers(updatedAttempt, studentAnswers);
+        LocalDateTime submittedAt = attempt.getExpiresAt() != null ? attempt.getExpiresAt() : LocalDateTime.now();
+        if (!finalizeAttempt(attempt, score, answerKey, submittedAt)) {
+            return false;
+        }
+        questionOptionStatsRepository.incrementCounts(quizId, optionCounts);
+        recordBestAttempt(attempt);
+        return true;
     }
 
     /**
@@ -128,6 +167,36 @@ public class QuizAttemptService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Page through the submitted attempts of a quiz, newest first, with keyset pagination on
+     * (submittedAt, id). Attempts still in progress are not listed.
+     */
+    public QuizAttemptDto.AttemptPage getQuizAttemptsPage(UUID quizId, Long studentId, Boolean passed,
+            String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<QuizAttemptRepository.AttemptSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = quizAttemptRepository.findSubmittedSummariesByQuizId(quizId, studentId, passed, limit);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = quizAttemptRepository.findSubmittedSummariesByQuizIdAfter(quizId, studentId, passed,
+                    after.submittedAt(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<QuizAttemptRepository.AttemptSummaryView> page = hasMore ? rows.subList(0, pageSize) : rows;
+        QuizAttemptRepository.AttemptSummaryView last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return QuizAttemptDto.AttemptPage.builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new PageCursor(last.getSubmittedAt(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     /**
      * Get detailed attempt with answers
      */
@@ -135,9 +204,22 @@ public class QuizAttemptService {
         QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
+        // Answers saved on an open attempt must not reveal whether they are correct
+        if (attempt.getSubmittedAt() == null) {
+            return mapToResponseWithoutAnswers(attempt);
+        }
+
         List<StudentAnswer> answers = studentAnswerRepository.findByQuizAttemptId(attemptId);
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(attempt.getQuiz().getId());
+
+        List<QuizAttemptDto.AnswerDetail> answerDetails = answers.stream()
+                .map(answer -> {
+                    AnswerKeyCache.QuestionKey questionKey = answerKey.question(answer.getQuestion().getId());
+                    return questionKey != null ? mapToAnswerDetail(questionKey, answer) : mapToAnswerDetail(answer);
+                })
+                .collect(Collectors.toList());
 
-        return mapToResponseWithAnswers(attempt, answers);
+        return mapToResponseWithAnswers(attempt, answerDetails);
     }
 
     /**
@@ -150,6 +232,111 @@ public class QuizAttemptService {
     }
 
     // Helper methods
+
+    /**
+     * Attempt of the current student that still accepts answers
+     */
+    private QuizAttempt getOpenAttempt(UUID attemptId) {
+        Long studentId = getCurrentStudentId();
+
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new RuntimeException("Quiz attempt not found"));
+
+        // Verify ownership
+        if (!attempt.getStudentId().equals(studentId)) {
+            throw new RuntimeException("Not authorized to submit this attempt");
+        }
+
+        // Check if already submitted
+        if (attempt.getSubmittedAt() != null) {
+            throw new RuntimeException("Quiz already submitted");
+        }
+
+        // Past the deadline the attempt is auto-submitted with the answers saved so far
+        if (attemptExpiryQueue.isClosed(attempt.getExpiresAt())) {
+            throw new RuntimeException("Quiz time limit exceeded");
+        }
+
+        return attempt;
+    }
+
+    /**
+     * Record the grade of an attempt with a conditional update, so that of two concurrent submissions
+     * only one wins. The managed attempt is only updated once the row was, as a bulk update would
+     * otherwise flush it first. Returns false when the attempt was already submitted.
+     */
+    private boolean finalizeAttempt(QuizAttempt attempt, int score, AnswerKeyCache.AnswerKey answerKey,
+            LocalDateTime submittedAt) {
+        QuizAttempt graded = QuizAttempt.builder()
+                .score(score)
+                .maxScore(answerKey.maxScore())
+                .submittedAt(submittedAt)
+                .build();
+        graded.calculatePercentage();
+        graded.determinePassed(answerKey.passingScore());
+
+        if (quizAttemptRepository.submitIfOpen(attempt.getId(), graded.getScore(), graded.getMaxScore(),
+                graded.getPercentage(), graded.getPassed(), graded.getSubmittedAt(), LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        attempt.setScore(graded.getScore());
+        attempt.setMaxScore(graded.getMaxScore());
+        attempt.setPercentage(graded.getPercentage());
+        attempt.setPassed(graded.getPassed());
+        attempt.setSubmittedAt(graded.getSubmittedAt());
+        return true;
+    }
+
+    private GradedAnswers gradeAnswers(QuizAttempt attempt, AnswerKeyCache.AnswerKey answerKey,
+            QuizAttemptDto.SubmitRequest request) {
+        int score = 0;
+        List<StudentAnswer> studentAnswers = new ArrayList<>();
+        List<QuizAttemptDto.AnswerDetail> answerDetails = new ArrayList<>();
+        List<QuestionOptionStatsRepository.OptionCount> optionCounts = new ArrayList<>();
+        Set<UUID> answeredQuestionIds = new HashSet<>();
+
+        for (QuizAttemptDto.SubmitRequest.AnswerSubmission submission : request.getAnswers()) {
+            AnswerKeyCache.QuestionKey questionKey = answerKey.question(submission.getQuestionId());
+            if (questionKey == null) {
+                throw new RuntimeException("Question not found: " + submission.getQuestionId());
+            }
+            if (!answeredQuestionIds.add(questionKey.questionId())) {
+                throw new RuntimeException("Question answered more than once: " + submission.getQuestionId());
+            }
+
+            boolean isCorrect = questionKey.isCorrect(submission.getSelectedOptionId());
+            if (isCorrect) {
+                score += questionKey.points();
+            }
+
+            StudentAnswer answer = StudentAnswer.builder()
+                    .quizAttempt(attempt)
+                    .question(questionRepository.getReferenceById(questionKey.questionId()))
+                    .selectedOptionId(submission.getSelectedOptionId())
+                    .isCorrect(isCorrect)
+                    .build();
+
+            studentAnswers.add(answer);
+            answerDetails.add(mapToAnswerDetail(questionKey, answer));
+            optionCounts.add(new QuestionOptionStatsRepository.OptionCount(
+                    questionKey.questionId(), submission.getSelectedOptionId(), 1, isCorrect ? 1 : 0));
+        }
+
+        return new GradedAnswers(score, studentAnswers, answerDetails, optionCounts);
+    }
+
+    /**
+     * Keep quiz_best_attempts in sync: the first submission seeds the row, later ones replace it
+     * only when they score strictly higher. One upsert, so concurrent submissions of the same
+     * student never race the (quiz_id, student_id) unique constraint.
+     */
+    private void recordBestAttempt(QuizAttempt attempt) {
+        quizBestAttemptRepository.upsertIfBetter(attempt.getQuiz().getId(), List.of(
+                new QuizBestAttemptRepository.BestAttempt(attempt.getStudentId(), attempt.getId(),
+                        attempt.getPercentage(), attempt.getPassed(), attempt.getSubmittedAt())));
+    }
+
     private Long getCurrentStudentId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         try {
@@ -159,6 +346,21 @@ public class QuizAttemptService {
         }
     }
 
+    private QuizAttemptDto.AttemptResponse mapToResponse(QuizAttemptRepository.AttemptSummaryView attempt) {
+        return QuizAttemptDto.AttemptResponse.builder()
+                .id(attempt.getId())
+                .quizId(attempt.getQuizId())
+                .quizTitle(attempt.getQuizTitle())
+                .studentId(attempt.getStudentId())
+                .score(attempt.getScore())
+                .maxScore(attempt.getMaxScore())
+                .percentage(attempt.getPercentage())
+                .passed(attempt.getPassed())
+                .startedAt(attempt.getStartedAt())
+                .submittedAt(attempt.getSubmittedAt())
+                .build();
+    }
+
     private QuizAttemptDto.AttemptResponse mapToResponseWithoutAnswers(QuizAttempt attempt) {
         return QuizAttemptDto.AttemptResponse.builder()
                 .id(attempt.getId())
@@ -171,28 +373,38 @@ public class QuizAttemptService {
                 .passed(attempt.getPassed())
                 .startedAt(attempt.getStartedAt())
                 .submittedAt(attempt.getSubmittedAt())
+                .expiresAt(attempt.getExpiresAt())
                 .build();
     }
 
-    private QuizAttemptDto.AttemptResponse mapToResponseWithAnswers(QuizAttempt attempt, List<StudentAnswer> answers) {
-        List<QuizAttemptDto.AnswerDetail> answerDetails = answers.stream()
-                .map(answer -> {
-                    UUID correctOptionId = answer.getQuestion().getOptions().stream()
-                            .filter(QuestionOption::getIsCorrect)
-                            .map(QuestionOption::getId)
-                            .findFirst()
-                            .orElse(null);
-
-                    return QuizAttemptDto.AnswerDetail.builder()
-                            .questionId(answer.getQuestion().getId())
-                            .questionContent(answer.getQuestion().getQuestionText())
-                            .selectedOptionId(answer.getSelectedOptionId())
-                            .correctOptionId(correctOptionId)
-                            .isCorrect(answer.getIsCorrect())
-                            .build();
-                })
-                .collect(Collectors.toList());
+    private QuizAttemptDto.AnswerDetail mapToAnswerDetail(AnswerKeyCache.QuestionKey questionKey, StudentAnswer answer) {
+        return QuizAttemptDto.AnswerDetail.builder()
+                .questionId(questionKey.questionId())
+                .questionContent(questionKey.questionText())
+                .selectedOptionId(answer.getSelectedOptionId())
+                .correctOptionId(questionKey.correctOptionId())
+                .isCorrect(answer.getIsCorrect())
+                .build();
+    }
 
+    private QuizAttemptDto.AnswerDetail mapToAnswerDetail(StudentAnswer answer) {
+        UUID correctOptionId = answer.getQuestion().getOptions().stream()
+                .filter(QuestionOption::getIsCorrect)
+                .map(QuestionOption::getId)
+                .findFirst()
+                .orElse(null);
+
+        return QuizAttemptDto.AnswerDetail.builder()
+                .questionId(answer.getQuestion().getId())
+                .questionContent(answer.getQuestion().getQuestionText())
+                .selectedOptionId(answer.getSelectedOptionId())
+                .correctOptionId(correctOptionId)
+                .isCorrect(answer.getIsCorrect())
+                .build();
+    }
+
+    private QuizAttemptDto.AttemptResponse mapToResponseWithAnswers(QuizAttempt attempt,
+            List<QuizAttemptDto.AnswerDetail> answerDetails) {
         return QuizAttemptDto.AttemptResponse.builder()
                 .id(attempt.getId())
                 .quizId(attempt.getQuiz().getId())
@@ -204,7 +416,35 @@ public class QuizAttemptService {
                 .passed(attempt.getPassed())
                 .startedAt(attempt.getStartedAt())
                 .submittedAt(attempt.getSubmittedAt())
+                .expiresAt(attempt.getExpiresAt())
                 .answers(answerDetails)
                 .build();
     }
+
+    private record GradedAnswers(int score, List<StudentAnswer> studentAnswers,
+            List<QuizAttemptDto.AnswerDetail> answerDetails,
+            List<QuestionOptionStatsRepository.OptionCount> optionCounts) {
+    }
+
+    /**
+     * Opaque keyset cursor: position of the last row of a page
+     */
+    private record PageCursor(LocalDateTime submittedAt, UUID id) {
+
+        String encode() {
+            String raw = submittedAt + "_" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('_');
+                return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        UUID.fromString(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizDto;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU cache of the student-facing quiz payload: the quiz with its questions and options,
+ * without correctness, already serialized to JSON together with a strong ETag of those bytes.
+ * When many students open the same quiz at once only one of them builds the payload.
+ * Invalidated by QuizService and QuestionService whenever the quiz or its questions change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizDeliveryCache {
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quiz.delivery-cache.max-size:1000}")
+    private int maxSize = 1000;
+
+    private final Map<UUID, CacheSlot<Payload>> payloads = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CacheSlot<Payload>> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private final Map<UUID, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public Payload getPayload(UUID quizId) {
+        Payload cached = lookup(quizId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object lock = loadLocks.computeIfAbsent(quizId, id -> new Object());
+        try {
+            synchronized (lock) {
+                CacheSlot<Payload> slot;
+                long generation;
+                synchronized (payloads) {
+                    slot = payloads.computeIfAbsent(quizId, id -> new CacheSlot<>());
+                    if (slot.value() != null) {
+                        return slot.value();
+                    }
+                    generation = slot.generation();
+                }
+                Payload payload = load(quizId);
+                synchronized (payloads) {
+                    // Not cached when the quiz was invalidated, or the slot evicted, while loading
+                    if (payloads.get(quizId) == slot) {
+                        slot.fill(generation, payload);
+                    }
+                }
+                return payload;
+            }
+        } finally {
+            loadLocks.remove(quizId, lock);
+        }
+    }
+
+    /**
+     * Drop the payload of a quiz now and again once the current transaction commits,
+     * so that a concurrent read cannot cache the pre-commit quiz. Each drop bumps the quiz's
+     * generation: a load that was running at that point does not store its payload.
+     */
+    public void invalidate(UUID quizId) {
+        evict(quizId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(quizId);
+                }
+            });
+        }
+    }
+
+    private Payload lookup(UUID quizId) {
+        synchronized (payloads) {
+            CacheSlot<Payload> slot = payloads.get(quizId);
+            return slot != null ? slot.value() : null;
+        }
+    }
+
+    private void evict(UUID quizId) {
+        synchronized (payloads) {
+            CacheSlot<Payload> slot = payloads.get(quizId);
+            if (slot != null) {
+                slot.invalidate();
+            }
+        }
+    }
+
+    private Payload load(UUID quizId) {
+        log.debug("Serializing delivery payload for quiz {}", quizId);
+
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz not found"));
+
+        Map<UUID, QuizDto.DeliveryQuestion> questions = new LinkedHashMap<>();
+        for (QuestionRepository.DeliveryRow row : questionRepository.findDeliveryRowsByQuizId(quizId)) {
+            QuizDto.DeliveryQuestion question = questions.computeIfAbsent(row.getQuestionId(),
+                    id -> QuizDto.DeliveryQuestion.builder()
+                            .id(id)
+                            .questionText(row.getQuestionText())
+                            .questionType(row.getQuestionType())
+                            .points(row.getPoints())
+                            .options(new ArrayList<>())
+                            .build());
+            if (row.getOptionId() != null) {
+                question.getOptions().add(QuizDto.DeliveryOption.builder()
+                        .id(row.getOptionId())
+                        .optionText(row.getOptionText())
+                        .build());
+            }
+        }
+
+        UUID courseId = quiz.getCourse().getId();
+        QuizDto.DeliveryResponse response = QuizDto.DeliveryResponse.builder()
+                .quizId(quizId)
+                .courseId(courseId)
+                .title(quiz.getTitle())
+                .description(quiz.getDescription())
+                .timeLimitMinutes(quiz.getTimeLimitMinutes())
+                .questions(new ArrayList<>(questions.values()))
+                .build();
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new Payload(courseId, body, etag(body));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize quiz " + quizId, e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serialized payload of a quiz. The ETag is derived from the bytes, so it only changes with the content.
+     */
+    public record Payload(UUID courseId, byte[] body, String etag) {
+    }
+}
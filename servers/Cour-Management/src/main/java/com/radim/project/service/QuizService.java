@@ -22,6 +22,8 @@ public class QuizService {
 
     private final QuizRepository quizRepository;
     private final CourseRepository courseRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizDeliveryCache quizDeliveryCache;
 
     public List<QuizDto.Response> getQuizzesByCourse(UUID courseId) {
         return quizRepository.findByCourseId(courseId).stream()
@@ -35,6 +37,17 @@ public class QuizService {
         return mapToResponse(quiz);
     }
 
+    /**
+     * Student view of a quiz, served from the pre-serialized payload cache
+     */
+    public QuizDeliveryCache.Payload getQuizDelivery(UUID courseId, UUID quizId) {
+        QuizDeliveryCache.Payload payload = quizDeliveryCache.getPayload(quizId);
+        if (!payload.courseId().equals(courseId)) {
+            throw new RuntimeException("Quiz does not belong to the specified course");
+        }
+        return payload;
+    }
+
     @Transactional
     public QuizDto.Response createQuiz(UUID courseId, QuizDto.Request request) {
         Course course = courseRepository.findById(courseId)
@@ -47,6 +60,7 @@ public class QuizService {
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .difficulty(request.getDifficulty())
+                .timeLimitMinutes(request.getTimeLimitMinutes())
                 .build();
 
         Quiz savedQuiz = quizRepository.save(quiz);
@@ -67,8 +81,11 @@ public class QuizService {
         quiz.setTitle(request.getTitle());
         quiz.setDescription(request.getDescription());
         quiz.setDifficulty(request.getDifficulty());
+        // Attempts already started keep the deadline they were given
+        quiz.setTimeLimitMinutes(request.getTimeLimitMinutes());
 
         Quiz updatedQuiz = quizRepository.save(quiz);
+        quizDeliveryCache.invalidate(quizId);
         return mapToResponse(updatedQuiz);
     }
 
@@ -84,6 +101,8 @@ public class QuizService {
         validateOwnership(quiz.getCourse().getTeacherId());
 
         quizRepository.delete(quiz);
+        answerKeyCache.invalidate(quizId);
+        quizDeliveryCache.invalidate(quizId);
     }
 
     private void validateOwnership(Long teacherId) {
@@ -113,6 +132,7 @@ public class QuizService {
                 .title(quiz.getTitle())
                 .description(quiz.getDescription())
                 .difficulty(quiz.getDifficulty())
+                .timeLimitMinutes(quiz.getTimeLimitMinutes())
                 .createdAt(quiz.getCreatedAt())
                 .updatedAt(quiz.getUpdatedAt())
                 .build();
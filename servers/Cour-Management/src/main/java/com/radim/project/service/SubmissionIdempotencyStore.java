@@ -0,0 +1,126 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.exception.IdempotencyKeyMismatchException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU store of quiz submission results by Idempotency-Key. The first request with a key
+ * runs the submission; retries get its result back without grading again, and duplicates arriving
+ * while it is still running wait for it. A failed submission is forgotten so that it can be retried.
+ * A hash of the request body is kept with the key: reusing a key with a different body is rejected.
+ * Results are kept in memory only, per instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionIdempotencyStore {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${quiz.submission.idempotency.max-size:10000}")
+    private int maxSize = 10000;
+
+    @Value("${quiz.submission.idempotency.wait-seconds:30}")
+    private long waitSeconds = 30;
+
+    private final Map<Key, Entry> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * Run the submission once per (attempt, user, key)
+     */
+    public Result submitOnce(UUID attemptId, String userId, String idempotencyKey,
+            QuizAttemptDto.SubmitRequest request, Supplier<QuizAttemptDto.AttemptResponse> submission) {
+        Key key = new Key(attemptId, userId, idempotencyKey);
+        Entry first;
+        CompletableFuture<QuizAttemptDto.AttemptResponse> mine = new CompletableFuture<>();
+        Entry entry = new Entry(requestHash(request), mine);
+        synchronized (results) {
+            first = results.putIfAbsent(key, entry);
+        }
+        if (first != null) {
+            if (!first.requestHash().equals(entry.requestHash())) {
+                throw new IdempotencyKeyMismatchException(
+                        "Idempotency-Key " + idempotencyKey + " was already used with a different request");
+            }
+            log.debug("Replaying submission of attempt {} for Idempotency-Key {}", attemptId, idempotencyKey);
+            return new Result(await(first.response()), true);
+        }
+
+        try {
+            QuizAttemptDto.AttemptResponse response = submission.get();
+            mine.complete(response);
+            return new Result(response, false);
+        } catch (RuntimeException e) {
+            synchronized (results) {
+                results.remove(key, entry);
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private QuizAttemptDto.AttemptResponse await(CompletableFuture<QuizAttemptDto.AttemptResponse> first) {
+        try {
+            return first.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Submission still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Submission interrupted");
+        }
+    }
+
+    /**
+     * SHA-256 of the request as serialized by Jackson, so formatting of the original body does not matter
+     */
+    private String requestHash(QuizAttemptDto.SubmitRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize submission", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Submission result, replayed when an earlier request with the same key produced it
+     */
+    public record Result(QuizAttemptDto.AttemptResponse response, boolean replayed) {
+    }
+
+    private record Key(UUID attemptId, String userId, String idempotencyKey) {
+    }
+
+    private record Entry(String requestHash, CompletableFuture<QuizAttemptDto.AttemptResponse> response) {
+    }
+}
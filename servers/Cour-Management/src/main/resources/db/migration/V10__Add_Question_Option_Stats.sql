@@ -0,0 +1,29 @@
+-- V10: Running per-option answer counters for item analysis
+
+CREATE TABLE question_option_stats (
+    id UUID PRIMARY KEY,
+    quiz_id UUID NOT NULL REFERENCES quizzes(id) ON DELETE CASCADE,
+    question_id UUID NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    option_id UUID NOT NULL,
+    select_count BIGINT NOT NULL DEFAULT 0,
+    correct_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE(question_id, option_id)
+);
+
+CREATE INDEX idx_question_option_stats_quiz ON question_option_stats(quiz_id);
+
+-- Backfill from existing answers
+INSERT INTO question_option_stats (id, quiz_id, question_id, option_id, select_count, correct_count, created_at, updated_at)
+SELECT gen_random_uuid(),
+       q.quiz_id,
+       sa.question_id,
+       sa.selected_option_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE sa.is_correct),
+       NOW(),
+       NOW()
+FROM student_answers sa
+JOIN questions q ON sa.question_id = q.id
+GROUP BY q.quiz_id, sa.question_id, sa.selected_option_id;
@@ -0,0 +1,4 @@
+-- V11: Index for keyset pagination of submitted attempts per quiz (submitted_at DESC, id DESC)
+
+CREATE INDEX idx_quiz_attempts_quiz_submitted ON quiz_attempts(quiz_id, submitted_at DESC, id DESC)
+    WHERE submitted_at IS NOT NULL;
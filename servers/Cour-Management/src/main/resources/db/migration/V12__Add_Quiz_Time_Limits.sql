@@ -0,0 +1,9 @@
+-- V12: Optional time limit per quiz and deadline per attempt
+
+ALTER TABLE quizzes ADD COLUMN time_limit_minutes INT;
+
+ALTER TABLE quiz_attempts ADD COLUMN expires_at TIMESTAMP;
+
+-- Open timed attempts, loaded into the expiry queue at startup
+CREATE INDEX idx_quiz_attempts_open_expiry ON quiz_attempts(expires_at)
+    WHERE submitted_at IS NULL AND expires_at IS NOT NULL;
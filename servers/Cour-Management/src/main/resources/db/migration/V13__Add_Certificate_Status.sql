@@ -0,0 +1,11 @@
+-- V13: Certificate PDFs are rendered in the background, the certificates table doubles as the job queue
+
+ALTER TABLE certificates ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'READY';
+
+ALTER TABLE certificates ADD COLUMN failure_reason VARCHAR(500);
+
+-- Certificates whose PDF was never generated are rendered by the worker
+UPDATE certificates SET status = 'PENDING' WHERE pdf_url IS NULL;
+
+-- Pending certificates, polled oldest first by the render worker
+CREATE INDEX idx_certificates_pending ON certificates(created_at) WHERE status = 'PENDING';
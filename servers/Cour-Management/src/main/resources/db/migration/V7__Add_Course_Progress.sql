@@ -0,0 +1,28 @@
+-- V7: Materialized per-student course progress counters
+
+CREATE TABLE course_progress (
+    id UUID PRIMARY KEY,
+    course_id UUID NOT NULL REFERENCES courses(id) ON DELETE CASCADE,
+    student_id BIGINT NOT NULL,
+    total_lessons BIGINT NOT NULL DEFAULT 0,
+    completed_lessons BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE(course_id, student_id)
+);
+
+CREATE INDEX idx_course_progress_student ON course_progress(student_id);
+
+-- Backfill counters for students that already have progress
+INSERT INTO course_progress (id, course_id, student_id, total_lessons, completed_lessons, created_at, updated_at)
+SELECT gen_random_uuid(),
+       m.course_id,
+       lp.student_id,
+       (SELECT COUNT(*) FROM lessons l2 JOIN modules m2 ON l2.module_id = m2.id WHERE m2.course_id = m.course_id),
+       COUNT(*) FILTER (WHERE lp.completed),
+       NOW(),
+       NOW()
+FROM lesson_progress lp
+JOIN lessons l ON lp.lesson_id = l.id
+JOIN modules m ON l.module_id = m.id
+GROUP BY m.course_id, lp.student_id;
@@ -0,0 +1,4 @@
+-- V8: Compact per-student lesson completion bitset
+-- One bit per lesson in course order; NULL means rebuild from lesson_progress on next read
+
+ALTER TABLE course_progress ADD COLUMN completion_bits BYTEA;
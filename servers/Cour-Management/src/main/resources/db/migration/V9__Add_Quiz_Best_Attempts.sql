@@ -0,0 +1,32 @@
+-- V9: Materialized best submitted attempt per (quiz, student)
+
+CREATE TABLE quiz_best_attempts (
+    id UUID PRIMARY KEY,
+    quiz_id UUID NOT NULL REFERENCES quizzes(id) ON DELETE CASCADE,
+    student_id BIGINT NOT NULL,
+    attempt_id UUID NOT NULL REFERENCES quiz_attempts(id) ON DELETE CASCADE,
+    percentage DOUBLE PRECISION NOT NULL,
+    passed BOOLEAN NOT NULL,
+    submitted_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE(quiz_id, student_id)
+);
+
+CREATE INDEX idx_quiz_best_attempts_student ON quiz_best_attempts(student_id);
+
+-- Backfill from submitted attempts, earliest submission wins ties
+INSERT INTO quiz_best_attempts (id, quiz_id, student_id, attempt_id, percentage, passed, submitted_at, created_at, updated_at)
+SELECT DISTINCT ON (qa.quiz_id, qa.student_id)
+       gen_random_uuid(),
+       qa.quiz_id,
+       qa.student_id,
+       qa.id,
+       qa.percentage,
+       qa.passed,
+       qa.submitted_at,
+       NOW(),
+       NOW()
+FROM quiz_attempts qa
+WHERE qa.submitted_at IS NOT NULL
+ORDER BY qa.quiz_id, qa.student_id, qa.percentage DESC, qa.submitted_at ASC;
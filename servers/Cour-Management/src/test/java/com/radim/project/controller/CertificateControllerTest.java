@@ -1,15 +1,18 @@
 package com.radim.project.controller;
 
 import com.radim.project.dto.CertificateDto;
+import com.radim.project.entity.enums.CertificateStatus;
 import com.radim.project.service.CertificateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,6 +24,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -56,6 +63,11 @@ class CertificateControllerTest {
         @MockBean
         private CertificateService certificateService;
 
+        @TempDir
+        Path tempDir;
+
+        private static final byte[] PDF_CONTENT = "%PDF-1.4 certificate".getBytes(StandardCharsets.US_ASCII);
+
         private CertificateDto.CertificateResponse certificateResponse;
         private final UUID courseId = UUID.randomUUID();
         private final Long studentId = 100L;
@@ -145,4 +157,183 @@ class CertificateControllerTest {
 
                 verify(certificateService).checkEligibility(courseId, studentId);
         }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should accept certificate generation while the PDF is pending")
+        void generateCertificate_Pending_Accepted() throws Exception {
+                // Given
+                certificateResponse.setStatus(CertificateStatus.PENDING);
+                when(certificateService.generateCertificate(courseId, studentId)).thenReturn(certificateResponse);
+
+                // When & Then
+                mockMvc.perform(post("/api/certificates/generate/{courseId}", courseId)
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.status", is("PENDING")))
+                                .andExpect(jsonPath("$.downloadUrl").doesNotExist());
+        }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should stream certificate PDF with validators")
+        void downloadCertificate_Success() throws Exception {
+                // Given
+                UUID certificateId = UUID.randomUUID();
+                when(certificateService.downloadCertificate(certificateId)).thenReturn(certificateFile(certificateId));
+
+                // When & Then
+                mockMvc.perform(get("/api/certificates/{certificateId}/download", certificateId))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                                .andExpect(content().bytes(PDF_CONTENT))
+                                .andExpect(header().string("ETag", "\"cert-v1\""))
+                                .andExpect(header().exists("Last-Modified"))
+                                .andExpect(header().string("Accept-Ranges", "bytes"))
+                                .andExpect(header().string("Content-Disposition",
+                                                containsString("certificate-" + certificateId + ".pdf")));
+        }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should serve a byte range of the certificate PDF")
+        void downloadCertificate_Range_PartialContent() throws Exception {
+                // Given
+                UUID certificateId = UUID.randomUUID();
+                when(certificateService.downloadCertificate(certificateId)).thenReturn(certificateFile(certificateId));
+
+                // When & Then
+                mockMvc.perform(get("/api/certificates/{certificateId}/download", certificateId)
+                                .header("Range", "bytes=0-3"))
+                                .andExpect(status().isPartialContent())
+                                .andExpect(header().string("Content-Range", "bytes 0-3/" + PDF_CONTENT.length))
+                                .andExpect(content().bytes(Arrays.copyOfRange(PDF_CONTENT, 0, 4)));
+        }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should answer 304 when the certificate PDF is unchanged")
+        void downloadCertificate_IfNoneMatch_NotModified() throws Exception {
+                // Given
+                UUID certificateId = UUID.randomUUID();
+                when(certificateService.downloadCertificate(certificateId)).thenReturn(certificateFile(certificateId));
+
+                // When & Then
+                mockMvc.perform(get("/api/certificates/{certificateId}/download", certificateId)
+                                .header("If-None-Match", "\"cert-v1\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @WithMockUser(username = "7", roles = "TEACHER")
+        @DisplayName("Should issue certificates to a class as teacher")
+        void issueClassCertificates_AsTeacher_Success() throws Exception {
+                // Given
+                UUID classId = UUID.randomUUID();
+                CertificateDto.ClassIssuanceResponse issuanceResponse = CertificateDto.ClassIssuanceResponse.builder()
+                                .courseId(courseId)
+                                .classId(classId)
+                                .totalStudents(1)
+                                .issued(1)
+                                .results(List.of(CertificateDto.StudentIssuanceResult.builder()
+                                                .studentId(studentId)
+                                                .outcome("ISSUED")
+                                                .status(CertificateStatus.PENDING)
+                                                .build()))
+                                .build();
+                when(certificateService.issueClassCertificates(courseId, classId, 7L)).thenReturn(issuanceResponse);
+
+                // When & Then
+                mockMvc.perform(post("/api/certificates/courses/{courseId}/classes/{classId}", courseId, classId)
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.issued", is(1)))
+                                .andExpect(jsonPath("$.results[0].outcome", is("ISSUED")));
+
+                verify(certificateService).issueClassCertificates(courseId, classId, 7L);
+        }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should forbid class certificate issuance for students")
+        void issueClassCertificates_AsStudent_Forbidden() throws Exception {
+                // When & Then
+                mockMvc.perform(post("/api/certificates/courses/{courseId}/classes/{classId}", courseId,
+                                UUID.randomUUID())
+                                .with(csrf()))
+                                .andExpect(status().isForbidden());
+
+                verify(certificateService, never()).issueClassCertificates(any(), any(), any());
+        }
+
+        @Test
+        @WithMockUser(username = "7", roles = "TEACHER")
+        @DisplayName("Should check eligibility of listed students as teacher")
+        void checkBulkEligibility_ListedStudents_Success() throws Exception {
+                // Given
+                CertificateDto.BulkEligibilityResponse eligibilityResponse = CertificateDto.BulkEligibilityResponse
+                                .builder()
+                                .courseId(courseId)
+                                .totalStudents(1)
+                                .eligibleStudents(1)
+                                .results(List.of(CertificateDto.CertificateEligibilityResponse.builder()
+                                                .studentId(studentId)
+                                                .eligible(true)
+                                                .build()))
+                                .build();
+                when(certificateService.checkEligibility(courseId, List.of(studentId), 7L))
+                                .thenReturn(eligibilityResponse);
+
+                // When & Then
+                mockMvc.perform(post("/api/certificates/courses/{courseId}/eligibility", courseId)
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"studentIds\": [100]}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.eligibleStudents", is(1)))
+                                .andExpect(jsonPath("$.results[0].studentId", is(100)));
+        }
+
+        @Test
+        @WithMockUser(username = "7", roles = "TEACHER")
+        @DisplayName("Should check eligibility of all enrolled students when no body is sent")
+        void checkBulkEligibility_AllEnrolled_Success() throws Exception {
+                // Given
+                when(certificateService.checkEligibility(courseId, null, 7L))
+                                .thenReturn(CertificateDto.BulkEligibilityResponse.builder()
+                                                .courseId(courseId)
+                                                .totalStudents(0)
+                                                .eligibleStudents(0)
+                                                .results(List.of())
+                                                .build());
+
+                // When & Then
+                mockMvc.perform(post("/api/certificates/courses/{courseId}/eligibility", courseId)
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalStudents", is(0)));
+
+                verify(certificateService).checkEligibility(courseId, null, 7L);
+        }
+
+        @Test
+        @WithMockUser(username = "100", roles = "STUDENT")
+        @DisplayName("Should forbid bulk eligibility checks for students")
+        void checkBulkEligibility_AsStudent_Forbidden() throws Exception {
+                // When & Then
+                mockMvc.perform(post("/api/certificates/courses/{courseId}/eligibility", courseId)
+                                .with(csrf()))
+                                .andExpect(status().isForbidden());
+
+                verify(certificateService, never()).checkEligibility(any(), any(), any());
+        }
+
+        private CertificateService.CertificateFile certificateFile(UUID certificateId) throws IOException {
+                Path pdf = tempDir.resolve(certificateId + ".pdf");
+                Files.write(pdf, PDF_CONTENT);
+                return new CertificateService.CertificateFile(certificateId, new FileSystemResource(pdf),
+                                Files.getLastModifiedTime(pdf).toMillis(), "\"cert-v1\"");
+        }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.radim.project.dto.CourseDto;
 import com.radim.project.entity.enums.CourseLevel;
 import com.radim.project.service.CourseService;
+import com.radim.project.service.CourseStructureCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -66,6 +67,9 @@ class CourseControllerTest {
         @MockBean
         private CourseService courseService;
 
+        @MockBean
+        private CourseStructureCache courseStructureCache;
+
         private CourseDto.Response courseResponse;
         private CourseDto.Request courseRequest;
         private final UUID courseId = UUID.randomUUID();
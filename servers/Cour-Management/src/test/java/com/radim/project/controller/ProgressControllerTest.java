@@ -20,10 +20,14 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -122,4 +126,132 @@ class ProgressControllerTest {
 
         verify(progressService).getLessonProgress(lessonId, studentId);
     }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should get read-only lesson progress overview")
+    void getLessonProgressOverview_Success() throws Exception {
+        // Given
+        when(progressService.getLessonProgressOverview(courseId, studentId)).thenReturn(List.of(lessonProgressResponse));
+
+        // When & Then
+        mockMvc.perform(get("/api/progress/courses/{courseId}/lessons/overview", courseId)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].completed", is(true)));
+
+        verify(progressService).getLessonProgressOverview(courseId, studentId);
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should sync a batch of offline lesson completions")
+    void syncLessonCompletions_Success() throws Exception {
+        // Given
+        when(progressService.syncLessonCompletions(eq(studentId), anyList())).thenReturn(List.of(lessonProgressResponse));
+        String body = "{\"completions\":[{\"lessonId\":\"" + lessonId + "\",\"completedAt\":\"2025-01-10T10:15:30\"}]}";
+
+        // When & Then
+        mockMvc.perform(post("/api/progress/lessons/complete/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lessonId", is(lessonId.toString())))
+                .andExpect(jsonPath("$[0].completed", is(true)));
+
+        verify(progressService).syncLessonCompletions(eq(studentId),
+                argThat(list -> list.size() == 1 && list.get(0).getLessonId().equals(lessonId)));
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should reject an empty completion batch")
+    void syncLessonCompletions_EmptyBatch_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/progress/lessons/complete/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"completions\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(progressService);
+    }
+
+    @Test
+    @WithMockUser(username = "1", roles = "TEACHER")
+    @DisplayName("Should stream progress matrix for course owner")
+    void getCourseProgressMatrix_Success() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"students\":[]}".getBytes());
+            return null;
+        }).when(progressService).writeCourseProgressMatrix(eq(courseId), eq(true), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/progress/courses/{courseId}/students", courseId)
+                .param("includeLessons", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students", hasSize(0)));
+
+        verify(progressService).validateCourseOwnership(courseId, 1L);
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should forbid students from viewing the progress matrix")
+    void getCourseProgressMatrix_AsStudent_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/progress/courses/{courseId}/students", courseId))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(progressService);
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should get module progress")
+    void getModuleProgress_Success() throws Exception {
+        // Given
+        ProgressDto.ModuleProgressResponse moduleProgress = ProgressDto.ModuleProgressResponse.builder()
+                .moduleId(UUID.randomUUID())
+                .totalLessons(4L)
+                .completedLessons(2L)
+                .completionRate(50.0)
+                .build();
+        when(progressService.getModuleProgress(courseId, studentId)).thenReturn(List.of(moduleProgress));
+
+        // When & Then
+        mockMvc.perform(get("/api/progress/courses/{courseId}/modules", courseId)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].completionRate", is(50.0)));
+
+        verify(progressService).getModuleProgress(courseId, studentId);
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should get next lesson")
+    void getNextLesson_Success() throws Exception {
+        // Given
+        UUID nextLessonId = UUID.randomUUID();
+        when(progressService.getNextLesson(courseId, studentId)).thenReturn(ProgressDto.NextLessonResponse.builder()
+                .courseId(courseId)
+                .lessonId(nextLessonId)
+                .completedLessons(3L)
+                .completionRate(75.0)
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/progress/courses/{courseId}/next-lesson", courseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lessonId", is(nextLessonId.toString())))
+                .andExpect(jsonPath("$.completedLessons", is(3)));
+    }
 }
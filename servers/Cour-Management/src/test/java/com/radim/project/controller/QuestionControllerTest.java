@@ -264,4 +264,73 @@ class QuestionControllerTest {
 
                 verify(questionService).deleteQuestion(quizId, questionId);
         }
+
+        @Test
+        @WithMockUser(roles = "TEACHER")
+        void testUpdateQuestions_ValidData_UpdatesSuccessfully() throws Exception {
+                // Given
+                QuizDto.BulkQuestionUpdateRequest request = new QuizDto.BulkQuestionUpdateRequest(List.of(
+                                QuizDto.QuestionUpdateRequest.builder()
+                                                .id(questionId)
+                                                .questionText("What is Spring Boot?")
+                                                .questionType("MULTIPLE_CHOICE")
+                                                .points(10)
+                                                .options(questionRequest.getOptions())
+                                                .build()));
+                when(questionService.updateQuestions(eq(quizId), any(QuizDto.BulkQuestionUpdateRequest.class)))
+                                .thenReturn(List.of(questionResponse));
+
+                // When & Then
+                mockMvc.perform(put("/quizzes/{quizId}/questions", quizId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].id").value(questionId.toString()));
+
+                verify(questionService).updateQuestions(eq(quizId), any(QuizDto.BulkQuestionUpdateRequest.class));
+        }
+
+        @Test
+        @WithMockUser(roles = "TEACHER")
+        void testUpdateQuestions_MissingQuestionId_ReturnsBadRequest() throws Exception {
+                // Given
+                QuizDto.BulkQuestionUpdateRequest request = new QuizDto.BulkQuestionUpdateRequest(List.of(
+                                QuizDto.QuestionUpdateRequest.builder()
+                                                .questionText("What is Spring Boot?")
+                                                .questionType("MULTIPLE_CHOICE")
+                                                .options(questionRequest.getOptions())
+                                                .build()));
+
+                // When & Then
+                mockMvc.perform(put("/quizzes/{quizId}/questions", quizId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                                .with(csrf()))
+                                .andExpect(status().isBadRequest());
+
+                verify(questionService, never()).updateQuestions(any(), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        void testUpdateQuestions_AsStudent_Forbidden() throws Exception {
+                // Given
+                QuizDto.BulkQuestionUpdateRequest request = new QuizDto.BulkQuestionUpdateRequest(List.of(
+                                QuizDto.QuestionUpdateRequest.builder()
+                                                .id(questionId)
+                                                .questionText("What is Spring Boot?")
+                                                .questionType("MULTIPLE_CHOICE")
+                                                .options(questionRequest.getOptions())
+                                                .build()));
+
+                // When & Then
+                mockMvc.perform(put("/quizzes/{quizId}/questions", quizId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                                .with(csrf()))
+                                .andExpect(status().isForbidden());
+
+                verify(questionService, never()).updateQuestions(any(), any());
+        }
 }
@@ -2,7 +2,9 @@ package com.radim.project.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.exception.GlobalExceptionHandler;
 import com.radim.project.service.QuizAttemptService;
+import com.radim.project.service.SubmissionIdempotencyStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,7 +38,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(QuizAttemptController.class)
 @ActiveProfiles("test")
-@ContextConfiguration(classes = { QuizAttemptController.class, QuizAttemptControllerTest.TestSecurityConfig.class })
+@ContextConfiguration(classes = { QuizAttemptController.class, SubmissionIdempotencyStore.class,
+        GlobalExceptionHandler.class, QuizAttemptControllerTest.TestSecurityConfig.class })
 @DisplayName("QuizAttemptController Web Layer Tests")
 class QuizAttemptControllerTest {
 
@@ -147,4 +151,123 @@ class QuizAttemptControllerTest {
 
         verify(quizAttemptService).getQuizAttempts(quizId);
     }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    @DisplayName("Should page through quiz attempts with filters and cursor")
+    void getQuizAttemptsPage_AsTeacher_Success() throws Exception {
+        // Given
+        QuizAttemptDto.AttemptPage page = QuizAttemptDto.AttemptPage.builder()
+                .items(List.of(attemptResponse))
+                .nextCursor("next")
+                .hasMore(true)
+                .build();
+        when(quizAttemptService.getQuizAttemptsPage(quizId, 100L, true, "abc", 10)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/quiz-attempts/quiz/{quizId}/page", quizId)
+                .param("studentId", "100")
+                .param("passed", "true")
+                .param("cursor", "abc")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(quizAttemptService).getQuizAttemptsPage(quizId, 100L, true, "abc", 10);
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should replay the first submission for a retried Idempotency-Key")
+    void submitQuizAttempt_WithIdempotencyKey_ReplaysRetry() throws Exception {
+        // Given
+        UUID attemptId = UUID.randomUUID();
+        QuizAttemptDto.SubmitRequest submitRequest = QuizAttemptDto.SubmitRequest.builder().build();
+        when(quizAttemptService.submitQuizAttempt(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class)))
+                .thenReturn(attemptResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/quiz-attempts/{attemptId}/submit", attemptId)
+                .with(csrf())
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(submitRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+        mockMvc.perform(post("/api/quiz-attempts/{attemptId}/submit", attemptId)
+                .with(csrf())
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(submitRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.passed", is(true)));
+
+        verify(quizAttemptService, times(1)).submitQuizAttempt(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class));
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should reject an Idempotency-Key reused with different answers")
+    void submitQuizAttempt_WithReusedIdempotencyKey_Unprocessable() throws Exception {
+        // Given
+        UUID attemptId = UUID.randomUUID();
+        QuizAttemptDto.SubmitRequest submitRequest = QuizAttemptDto.SubmitRequest.builder().answers(List.of()).build();
+        QuizAttemptDto.SubmitRequest changedRequest = QuizAttemptDto.SubmitRequest.builder()
+                .answers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(UUID.randomUUID(), UUID.randomUUID())))
+                .build();
+        when(quizAttemptService.submitQuizAttempt(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class)))
+                .thenReturn(attemptResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/quiz-attempts/{attemptId}/submit", attemptId)
+                .with(csrf())
+                .header("Idempotency-Key", "reused-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(submitRequest)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/quiz-attempts/{attemptId}/submit", attemptId)
+                .with(csrf())
+                .header("Idempotency-Key", "reused-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changedRequest)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(quizAttemptService, times(1)).submitQuizAttempt(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class));
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should save answers without submitting")
+    void saveAnswers_Success() throws Exception {
+        // Given
+        UUID attemptId = UUID.randomUUID();
+        QuizAttemptDto.SubmitRequest request = QuizAttemptDto.SubmitRequest.builder()
+                .answers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(UUID.randomUUID(), UUID.randomUUID())))
+                .build();
+        when(quizAttemptService.saveAnswers(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class)))
+                .thenReturn(attemptResponse);
+
+        // When & Then
+        mockMvc.perform(put("/api/quiz-attempts/{attemptId}/answers", attemptId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(quizAttemptService).saveAnswers(eq(attemptId), any(QuizAttemptDto.SubmitRequest.class));
+    }
+
+    @Test
+    @WithMockUser(username = "100", roles = "STUDENT")
+    @DisplayName("Should forbid students from paging quiz attempts")
+    void getQuizAttemptsPage_AsStudent_Forbidden() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/quiz-attempts/quiz/{quizId}/page", quizId))
+                .andExpect(status().isForbidden());
+
+        verify(quizAttemptService, never()).getQuizAttemptsPage(any(), any(), any(), any(), anyInt());
+    }
 }
@@ -1,8 +1,12 @@
 package com.radim.project.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizAttemptDto;
 import com.radim.project.dto.QuizDto;
 import com.radim.project.entity.enums.QuizDifficulty;
+import com.radim.project.service.OfflineGradingService;
+import com.radim.project.service.QuizAnalyticsService;
+import com.radim.project.service.QuizDeliveryCache;
 import com.radim.project.service.QuizService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,12 +27,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -61,6 +67,12 @@ class QuizControllerTest {
         @MockBean
         private QuizService quizService;
 
+        @MockBean
+        private QuizAnalyticsService quizAnalyticsService;
+
+        @MockBean
+        private OfflineGradingService offlineGradingService;
+
         private QuizDto.Response quizResponse;
         private QuizDto.Request quizRequest;
         private final UUID courseId = UUID.randomUUID();
@@ -100,6 +112,36 @@ class QuizControllerTest {
                 verify(quizService).getQuizzesByCourse(courseId);
         }
 
+        @Test
+        @DisplayName("Should serve the pre-serialized quiz payload with its ETag")
+        void getQuizDelivery_Success() throws Exception {
+                // Given
+                byte[] body = "{\"quizId\":\"q\",\"questions\":[]}".getBytes(StandardCharsets.UTF_8);
+                when(quizService.getQuizDelivery(courseId, quizId))
+                                .thenReturn(new QuizDeliveryCache.Payload(courseId, body, "\"abc123\""));
+
+                // When & Then
+                mockMvc.perform(get("/courses/{courseId}/quizzes/{quizId}/delivery", courseId, quizId))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"abc123\""))
+                                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(content().bytes(body));
+        }
+
+        @Test
+        @DisplayName("Should answer 304 when the quiz payload is unchanged")
+        void getQuizDelivery_NotModified() throws Exception {
+                // Given
+                when(quizService.getQuizDelivery(courseId, quizId))
+                                .thenReturn(new QuizDeliveryCache.Payload(courseId, new byte[] { '{', '}' }, "\"abc123\""));
+
+                // When & Then
+                mockMvc.perform(get("/courses/{courseId}/quizzes/{quizId}/delivery", courseId, quizId)
+                                .header("If-None-Match", "\"abc123\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().bytes(new byte[0]));
+        }
+
         @Test
         @DisplayName("Should get quiz by ID")
         void getQuizById_Success() throws Exception {
@@ -188,4 +230,127 @@ class QuizControllerTest {
 
                 verify(quizService, never()).deleteQuiz(any(), any());
         }
+
+        @Test
+        @WithMockUser(roles = "TEACHER")
+        @DisplayName("Should get item analysis as teacher")
+        void getItemAnalysis_AsTeacher_Success() throws Exception {
+                // Given
+                UUID questionId = UUID.randomUUID();
+                QuizDto.ItemAnalysisResponse analysis = QuizDto.ItemAnalysisResponse.builder()
+                                .quizId(quizId)
+                                .questions(List.of(QuizDto.QuestionAnalysis.builder()
+                                                .questionId(questionId)
+                                                .answerCount(4L)
+                                                .correctCount(3L)
+                                                .percentCorrect(75.0)
+                                                .options(List.of())
+                                                .build()))
+                                .build();
+                when(quizAnalyticsService.getItemAnalysis(courseId, quizId)).thenReturn(analysis);
+
+                // When & Then
+                mockMvc.perform(get("/courses/{courseId}/quizzes/{quizId}/item-analysis", courseId, quizId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.questions", hasSize(1)))
+                                .andExpect(jsonPath("$.questions[0].percentCorrect", is(75.0)));
+
+                verify(quizAnalyticsService).getItemAnalysis(courseId, quizId);
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 403 when student requests item analysis")
+        void getItemAnalysis_AsStudent_Forbidden() throws Exception {
+                mockMvc.perform(get("/courses/{courseId}/quizzes/{quizId}/item-analysis", courseId, quizId))
+                                .andExpect(status().isForbidden());
+
+                verify(quizAnalyticsService, never()).getItemAnalysis(any(), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Should rebuild item analysis as admin")
+        void rebuildItemAnalysis_AsAdmin_Success() throws Exception {
+                // Given
+                when(quizAnalyticsService.rebuildItemAnalysis(courseId, quizId))
+                                .thenReturn(new QuizDto.ItemAnalysisRebuildResponse(quizId, 120L, 8));
+
+                // When & Then
+                mockMvc.perform(post("/courses/{courseId}/quizzes/{quizId}/item-analysis/rebuild", courseId, quizId)
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.answersProcessed", is(120)));
+        }
+
+        @Test
+        @WithMockUser(roles = "TEACHER")
+        @DisplayName("Should accept offline answer sheets as teacher")
+        void startOfflineGrading_AsTeacher_Accepted() throws Exception {
+                // Given
+                UUID jobId = UUID.randomUUID();
+                when(offlineGradingService.startGrading(eq(courseId), eq(quizId), any()))
+                                .thenReturn(QuizAttemptDto.GradingJobResponse.builder()
+                                                .jobId(jobId)
+                                                .quizId(quizId)
+                                                .status("RUNNING")
+                                                .totalRows(2)
+                                                .gradedRows(0)
+                                                .failedRows(0)
+                                                .errors(List.of())
+                                                .build());
+
+                // When & Then
+                mockMvc.perform(post("/courses/{courseId}/quizzes/{quizId}/offline-grading", courseId, quizId)
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{\"studentId\":1,\"answers\":[]}\n{\"studentId\":2,\"answers\":[]}\n"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.jobId", is(jobId.toString())))
+                                .andExpect(jsonPath("$.totalRows", is(2)));
+
+                verify(offlineGradingService).startGrading(eq(courseId), eq(quizId), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "STUDENT")
+        @DisplayName("Should return 403 when student uploads offline answer sheets")
+        void startOfflineGrading_AsStudent_Forbidden() throws Exception {
+                mockMvc.perform(post("/courses/{courseId}/quizzes/{quizId}/offline-grading", courseId, quizId)
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{\"studentId\":1,\"answers\":[]}"))
+                                .andExpect(status().isForbidden());
+
+                verify(offlineGradingService, never()).startGrading(any(), any(), any());
+        }
+
+        @Test
+        @WithMockUser(roles = "TEACHER")
+        @DisplayName("Should get offline grading progress")
+        void getOfflineGradingJob_Success() throws Exception {
+                // Given
+                UUID jobId = UUID.randomUUID();
+                when(offlineGradingService.getJob(courseId, quizId, jobId))
+                                .thenReturn(QuizAttemptDto.GradingJobResponse.builder()
+                                                .jobId(jobId)
+                                                .quizId(quizId)
+                                                .status("COMPLETED")
+                                                .totalRows(2)
+                                                .gradedRows(1)
+                                                .failedRows(1)
+                                                .errors(List.of(QuizAttemptDto.RowError.builder()
+                                                                .line(2)
+                                                                .studentId(2L)
+                                                                .message("Question not found")
+                                                                .build()))
+                                                .build());
+
+                // When & Then
+                mockMvc.perform(get("/courses/{courseId}/quizzes/{quizId}/offline-grading/{jobId}", courseId, quizId, jobId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                                .andExpect(jsonPath("$.errors", hasSize(1)))
+                                .andExpect(jsonPath("$.errors[0].line", is(2)));
+        }
 }
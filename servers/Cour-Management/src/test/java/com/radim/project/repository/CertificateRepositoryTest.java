@@ -1,6 +1,7 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.*;
+import com.radim.project.entity.enums.CertificateStatus;
 import com.radim.project.entity.enums.CourseLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
@@ -105,4 +107,91 @@ class CertificateRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getStudentId()).isEqualTo(studentId1);
     }
+
+    @Test
+    @DisplayName("Should list pending certificates and complete them only once")
+    void completeRender_OnlyWhilePending() {
+        // Given
+        Certificate pending = entityManager.persistAndFlush(certificate1);
+        Certificate ready = entityManager.persistAndFlush(Certificate.builder()
+                .course(testCourse)
+                .studentId(200L)
+                .verificationCode("CERT-2024-002")
+                .completionRate(90.0)
+                .issuedAt(LocalDateTime.now())
+                .status(CertificateStatus.READY)
+                .pdfUrl("uploads/ready.pdf")
+                .build());
+
+        // When
+        List<UUID> pendingIds = certificateRepository.findIdsByStatus(CertificateStatus.PENDING, Limit.of(10));
+        int first = certificateRepository.completeRender(pending.getId(), CertificateStatus.READY, "uploads/cert.pdf",
+                null, LocalDateTime.now());
+        int second = certificateRepository.completeRender(pending.getId(), CertificateStatus.FAILED, null,
+                "Late failure", LocalDateTime.now());
+        entityManager.clear();
+
+        // Then
+        assertThat(pendingIds).containsExactly(pending.getId());
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        Certificate rendered = certificateRepository.findWithCourseById(pending.getId()).orElseThrow();
+        assertThat(rendered.getStatus()).isEqualTo(CertificateStatus.READY);
+        assertThat(rendered.getPdfUrl()).isEqualTo("uploads/cert.pdf");
+        assertThat(rendered.getCourse().getTitle()).isEqualTo("Java Certification Course");
+        assertThat(certificateRepository.findById(ready.getId()).orElseThrow().getStatus())
+                .isEqualTo(CertificateStatus.READY);
+    }
+
+    @Test
+    @DisplayName("Should find certificates of a course for a group of students")
+    void findByCourseIdAndStudentIdIn_Success() {
+        // Given
+        entityManager.persist(certificate1);
+        entityManager.persist(Certificate.builder()
+                .course(testCourse)
+                .studentId(200L)
+                .verificationCode("CERT-2024-002")
+                .completionRate(90.0)
+                .issuedAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        // When
+        List<Certificate> certificates = certificateRepository.findByCourse_IdAndStudentIdIn(testCourse.getId(),
+                List.of(studentId1, 300L));
+
+        // Then
+        assertThat(certificates).extracting(Certificate::getStudentId).containsExactly(studentId1);
+    }
+
+    @Test
+    @DisplayName("Should requeue failed certificates only")
+    void requeueFailed_OnlyFailed() {
+        // Given
+        certificate1.setStatus(CertificateStatus.FAILED);
+        certificate1.setFailureReason("Disk full");
+        Certificate failed = entityManager.persistAndFlush(certificate1);
+        Certificate ready = entityManager.persistAndFlush(Certificate.builder()
+                .course(testCourse)
+                .studentId(200L)
+                .verificationCode("CERT-2024-002")
+                .completionRate(90.0)
+                .issuedAt(LocalDateTime.now())
+                .status(CertificateStatus.READY)
+                .pdfUrl("uploads/ready.pdf")
+                .build());
+
+        // When
+        int requeued = certificateRepository.requeueFailed(List.of(failed.getId(), ready.getId()));
+        entityManager.clear();
+
+        // Then
+        assertThat(requeued).isEqualTo(1);
+        Certificate pending = certificateRepository.findById(failed.getId()).orElseThrow();
+        assertThat(pending.getStatus()).isEqualTo(CertificateStatus.PENDING);
+        assertThat(pending.getFailureReason()).isNull();
+        assertThat(certificateRepository.findById(ready.getId()).orElseThrow().getStatus())
+                .isEqualTo(CertificateStatus.READY);
+    }
 }
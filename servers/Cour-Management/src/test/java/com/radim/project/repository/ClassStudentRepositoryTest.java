@@ -89,4 +89,23 @@ class ClassStudentRepositoryTest {
         Optional<ClassStudent> found = classStudentRepository.findById(id);
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should list student IDs of a class in order")
+    void findStudentIdsByClassId_Success() {
+        // Given
+        entityManager.persist(ClassStudent.builder()
+                .studentClass(testClass)
+                .studentId(studentId2)
+                .addedBy(1L)
+                .build());
+        entityManager.persist(classStudent1);
+        entityManager.flush();
+
+        // When
+        List<Long> studentIds = classStudentRepository.findStudentIdsByClassId(testClass.getId());
+
+        // Then
+        assertThat(studentIds).containsExactly(studentId1, studentId2);
+    }
 }
@@ -0,0 +1,176 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.*;
+import com.radim.project.entity.enums.CourseLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("CourseProgressRepository Integration Tests")
+class CourseProgressRepositoryTest {
+
+    @Autowired
+    private CourseProgressRepository courseProgressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Course testCourse;
+    private Lesson testLesson;
+    private final Long studentId1 = 100L;
+    private final Long studentId2 = 200L;
+
+    @BeforeEach
+    void setUp() {
+        testCourse = Course.builder()
+                .title("Java Course")
+                .description("Learn Java")
+                .category("Programming")
+                .level(CourseLevel.BEGINNER)
+                .teacherId(1L)
+                .build();
+        testCourse = entityManager.persistAndFlush(testCourse);
+
+        com.radim.project.entity.Module testModule = com.radim.project.entity.Module.builder()
+                .title("Module 1")
+                .course(testCourse)
+                .orderIndex(1)
+                .build();
+        testModule = entityManager.persistAndFlush(testModule);
+
+        testLesson = Lesson.builder()
+                .title("Lesson 1")
+                .module(testModule)
+                .orderIndex(1)
+                .build();
+        testLesson = entityManager.persistAndFlush(testLesson);
+
+        entityManager.persistAndFlush(CourseProgress.builder()
+                .course(testCourse)
+                .studentId(studentId1)
+                .totalLessons(5L)
+                .completedLessons(2L)
+                .build());
+        entityManager.persistAndFlush(CourseProgress.builder()
+                .course(testCourse)
+                .studentId(studentId2)
+                .totalLessons(5L)
+                .completedLessons(0L)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should find counters by course and student")
+    void findByCourseIdAndStudentId_Success() {
+        // When
+        Optional<CourseProgress> found = courseProgressRepository
+                .findByCourse_IdAndStudentId(testCourse.getId(), studentId1);
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(found.get().getCompletedLessons()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should increment completed lessons only for the given student")
+    void incrementCompletedLessons_Success() {
+        // When
+        int updated = courseProgressRepository.incrementCompletedLessons(testCourse.getId(), studentId1);
+        entityManager.clear();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(courseProgressRepository.findByCourse_IdAndStudentId(testCourse.getId(), studentId1))
+                .get().extracting(CourseProgress::getCompletedLessons).isEqualTo(3L);
+        assertThat(courseProgressRepository.findByCourse_IdAndStudentId(testCourse.getId(), studentId2))
+                .get().extracting(CourseProgress::getCompletedLessons).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Should return zero when student has no counters yet")
+    void incrementCompletedLessons_NoRow_ReturnsZero() {
+        // When
+        int updated = courseProgressRepository.incrementCompletedLessons(testCourse.getId(), 999L);
+
+        // Then
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    @DisplayName("Should adjust total lessons for every student of the course")
+    void adjustTotalLessons_Success() {
+        // When
+        int updated = courseProgressRepository.adjustTotalLessons(testCourse.getId(), 1);
+        entityManager.clear();
+
+        // Then
+        assertThat(updated).isEqualTo(2);
+        assertThat(courseProgressRepository.findAll())
+                .allMatch(cp -> cp.getTotalLessons() == 6L);
+    }
+
+    @Test
+    @DisplayName("Should decrement completed lessons for students who completed a removed lesson")
+    void decrementCompletedForLesson_Success() {
+        // Given
+        entityManager.persistAndFlush(LessonProgress.builder()
+                .lesson(testLesson)
+                .studentId(studentId1)
+                .completed(true)
+                .build());
+
+        // When
+        int updated = courseProgressRepository.decrementCompletedForLesson(testCourse.getId(), testLesson.getId());
+        entityManager.clear();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(courseProgressRepository.findByCourse_IdAndStudentId(testCourse.getId(), studentId1))
+                .get().extracting(CourseProgress::getCompletedLessons).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should read persisted completion bits bypassing the persistence context")
+    void findCompletionBits_ReadsTable() {
+        // Given
+        CourseProgress loaded = courseProgressRepository.findByCourse_IdAndStudentId(testCourse.getId(), studentId1)
+                .orElseThrow();
+        courseProgressRepository.updateCompletionBits(testCourse.getId(), studentId1, new byte[] { 5 });
+
+        // When
+        CourseProgressRepository.CompletionBitsView view = courseProgressRepository
+                .findCompletionBits(testCourse.getId(), studentId1).orElseThrow();
+
+        // Then
+        assertThat(loaded.getCompletionBits()).isNull();
+        assertThat(view.getCompletionBits()).containsExactly(5);
+        assertThat(view.getTotalLessons()).isEqualTo(5L);
+        assertThat(courseProgressRepository.findCompletionBits(testCourse.getId(), 999L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read persisted completion bits with the row locked")
+    void findCompletionBitsForUpdate_ReadsTable() {
+        // Given
+        courseProgressRepository.updateCompletionBits(testCourse.getId(), studentId1, new byte[] { 3 });
+
+        // When
+        CourseProgressRepository.CompletionBitsView view = courseProgressRepository
+                .findCompletionBitsForUpdate(testCourse.getId(), studentId1).orElseThrow();
+
+        // Then
+        assertThat(view.getCompletionBits()).containsExactly(3);
+        assertThat(view.getTotalLessons()).isEqualTo(5L);
+        assertThat(courseProgressRepository.findCompletionBitsForUpdate(testCourse.getId(), 999L)).isEmpty();
+    }
+}
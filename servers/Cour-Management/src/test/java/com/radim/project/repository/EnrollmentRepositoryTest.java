@@ -2,6 +2,8 @@ package com.radim.project.repository;
 
 import com.radim.project.entity.Course;
 import com.radim.project.entity.Enrollment;
+import com.radim.project.entity.Lesson;
+import com.radim.project.entity.LessonProgress;
 import com.radim.project.entity.enums.AssignmentType;
 import com.radim.project.entity.enums.CourseLevel;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -175,4 +178,107 @@ class EnrollmentRepositoryTest {
         Optional<Enrollment> found = enrollmentRepository.findById(enrollmentId);
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should stream completed lesson counts for every enrolled student")
+    void streamStudentCompletionsByCourseId_Success() {
+        // Given
+        entityManager.persistAndFlush(enrollment1);
+        entityManager.persistAndFlush(enrollment2);
+        com.radim.project.entity.Module module = entityManager.persistAndFlush(com.radim.project.entity.Module.builder()
+                .title("Module 1")
+                .course(testCourse)
+                .orderIndex(1)
+                .build());
+        Lesson lesson1 = entityManager.persistAndFlush(Lesson.builder().title("Lesson 1").module(module).orderIndex(1).build());
+        Lesson lesson2 = entityManager.persistAndFlush(Lesson.builder().title("Lesson 2").module(module).orderIndex(2).build());
+        entityManager.persistAndFlush(LessonProgress.builder().lesson(lesson1).studentId(studentId1).completed(true).build());
+        entityManager.persistAndFlush(LessonProgress.builder().lesson(lesson2).studentId(studentId1).completed(true).build());
+        entityManager.persistAndFlush(LessonProgress.builder().lesson(lesson1).studentId(studentId2).completed(false).build());
+
+        // When
+        List<EnrollmentRepository.StudentCompletionView> rows;
+        try (Stream<EnrollmentRepository.StudentCompletionView> stream = enrollmentRepository
+                .streamStudentCompletionsByCourseId(testCourse.getId())) {
+            rows = stream.toList();
+        }
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getStudentId()).isEqualTo(studentId1);
+        assertThat(rows.get(0).getCompletedLessons()).isEqualTo(2L);
+        assertThat(rows.get(1).getStudentId()).isEqualTo(studentId2);
+        assertThat(rows.get(1).getCompletedLessons()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not count lessons completed in other courses")
+    void streamStudentCompletionsByCourseId_IgnoresOtherCourses() {
+        // Given
+        entityManager.persistAndFlush(enrollment1);
+        Course otherCourse = entityManager.persistAndFlush(Course.builder()
+                .title("Other Course")
+                .level(CourseLevel.BEGINNER)
+                .teacherId(teacherId)
+                .build());
+        com.radim.project.entity.Module module = entityManager.persistAndFlush(com.radim.project.entity.Module.builder()
+                .title("Module 1")
+                .course(testCourse)
+                .orderIndex(1)
+                .build());
+        com.radim.project.entity.Module otherModule = entityManager.persistAndFlush(com.radim.project.entity.Module.builder()
+                .title("Other Module")
+                .course(otherCourse)
+                .orderIndex(1)
+                .build());
+        Lesson lesson = entityManager.persistAndFlush(Lesson.builder().title("Lesson 1").module(module).orderIndex(1).build());
+        Lesson otherLesson = entityManager.persistAndFlush(Lesson.builder().title("Other Lesson").module(otherModule).orderIndex(1).build());
+        entityManager.persistAndFlush(LessonProgress.builder().lesson(lesson).studentId(studentId1).completed(true).build());
+        entityManager.persistAndFlush(LessonProgress.builder().lesson(otherLesson).studentId(studentId1).completed(true).build());
+
+        // When
+        List<EnrollmentRepository.StudentCompletionView> rows;
+        try (Stream<EnrollmentRepository.StudentCompletionView> stream = enrollmentRepository
+                .streamStudentCompletionsByCourseId(testCourse.getId())) {
+            rows = stream.toList();
+        }
+
+        // Then
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getStudentId()).isEqualTo(studentId1);
+            assertThat(row.getCompletedLessons()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should list enrolled student IDs of a course in order")
+    void findStudentIdsByCourseId_Success() {
+        // Given
+        entityManager.persist(enrollment2);
+        entityManager.persist(enrollment1);
+        entityManager.flush();
+
+        // When
+        List<Long> studentIds = enrollmentRepository.findStudentIdsByCourseId(testCourse.getId());
+
+        // Then
+        assertThat(studentIds).containsExactly(studentId1, studentId2);
+        assertThat(enrollmentRepository.findStudentIdsByCourseId(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep only the listed students enrolled in the course")
+    void findEnrolledStudentIds_Success() {
+        // Given
+        entityManager.persist(enrollment1);
+        entityManager.persist(enrollment2);
+        entityManager.flush();
+
+        // When
+        List<Long> studentIds = enrollmentRepository.findEnrolledStudentIds(testCourse.getId(),
+                List.of(studentId2, 999L));
+
+        // Then
+        assertThat(studentIds).containsExactly(studentId2);
+    }
 }
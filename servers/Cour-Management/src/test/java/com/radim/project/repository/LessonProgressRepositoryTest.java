@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -89,6 +90,78 @@ class LessonProgressRepositoryTest {
         assertThat(found.get().getCompleted()).isTrue();
     }
 
+    @Test
+    @DisplayName("Should list all course lessons with student progress in order")
+    void findLessonProgressViewsByCourseId_Success() {
+        // Given
+        entityManager.persistAndFlush(progress1);
+        Lesson secondLesson = entityManager.persistAndFlush(Lesson.builder()
+                .title("Lesson 2")
+                .module(testLesson.getModule())
+                .orderIndex(2)
+                .build());
+        UUID courseId = testLesson.getModule().getCourse().getId();
+
+        // When
+        List<LessonProgressRepository.LessonProgressView> views = lessonProgressRepository
+                .findLessonProgressViewsByCourseId(courseId, studentId1);
+
+        // Then
+        assertThat(views).hasSize(2);
+        assertThat(views.get(0).getLessonId()).isEqualTo(testLesson.getId());
+        assertThat(views.get(0).getCompleted()).isTrue();
+        assertThat(views.get(1).getLessonId()).isEqualTo(secondLesson.getId());
+        assertThat(views.get(1).getCompleted()).isNull();
+        assertThat(lessonProgressRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not include other students' progress in course listing")
+    void findLessonProgressViewsByCourseId_OtherStudent() {
+        // Given
+        entityManager.persistAndFlush(progress1);
+        UUID courseId = testLesson.getModule().getCourse().getId();
+
+        // When
+        List<LessonProgressRepository.LessonProgressView> views = lessonProgressRepository
+                .findLessonProgressViewsByCourseId(courseId, 999L);
+
+        // Then
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).getCompleted()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should roll up lesson totals and completions per module")
+    void findModuleProgressByCourseId_Success() {
+        // Given
+        entityManager.persistAndFlush(progress1);
+        entityManager.persistAndFlush(Lesson.builder()
+                .title("Lesson 2")
+                .module(testLesson.getModule())
+                .orderIndex(2)
+                .build());
+        com.radim.project.entity.Module emptyModule = entityManager.persistAndFlush(
+                com.radim.project.entity.Module.builder()
+                        .title("Module 2")
+                        .course(testLesson.getModule().getCourse())
+                        .orderIndex(2)
+                        .build());
+        UUID courseId = testLesson.getModule().getCourse().getId();
+
+        // When
+        List<LessonProgressRepository.ModuleProgressView> views = lessonProgressRepository
+                .findModuleProgressByCourseId(courseId, studentId1);
+
+        // Then
+        assertThat(views).hasSize(2);
+        assertThat(views.get(0).getModuleId()).isEqualTo(testLesson.getModule().getId());
+        assertThat(views.get(0).getTotalLessons()).isEqualTo(2L);
+        assertThat(views.get(0).getCompletedLessons()).isEqualTo(1L);
+        assertThat(views.get(1).getModuleId()).isEqualTo(emptyModule.getId());
+        assertThat(views.get(1).getTotalLessons()).isZero();
+    }
+
     @Test
     @DisplayName("Should delete progress successfully")
     void delete_Success() {
@@ -1,7 +1,10 @@
 package com.radim.project.repository;
 
 import com.radim.project.entity.Course;
+import com.radim.project.entity.Lesson;
+import com.radim.project.entity.LessonContent;
 import com.radim.project.entity.Module;
+import com.radim.project.entity.enums.ContentType;
 import com.radim.project.entity.enums.CourseLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -129,4 +132,32 @@ class ModuleRepositoryTest {
         Optional<Module> found = moduleRepository.findById(moduleId);
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should load course outline rows in course order")
+    void findOutlineRowsByCourseId_Success() {
+        // Given
+        Module second = entityManager.persistAndFlush(module2);
+        Module first = entityManager.persistAndFlush(module1);
+        Lesson lessonB = entityManager.persistAndFlush(Lesson.builder().title("B").module(first).orderIndex(2).build());
+        Lesson lessonA = entityManager.persistAndFlush(Lesson.builder().title("A").module(first).orderIndex(1).build());
+        entityManager.persistAndFlush(LessonContent.builder()
+                .lesson(lessonA)
+                .type(ContentType.TEXT)
+                .textContent("Hello")
+                .orderIndex(1)
+                .build());
+
+        // When
+        List<ModuleRepository.OutlineRow> rows = moduleRepository.findOutlineRowsByCourseId(testCourse.getId());
+
+        // Then
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getLessonId()).isEqualTo(lessonA.getId());
+        assertThat(rows.get(0).getContentCount()).isEqualTo(1L);
+        assertThat(rows.get(1).getLessonId()).isEqualTo(lessonB.getId());
+        assertThat(rows.get(1).getContentCount()).isZero();
+        assertThat(rows.get(2).getModuleId()).isEqualTo(second.getId());
+        assertThat(rows.get(2).getLessonId()).isNull();
+    }
 }
@@ -0,0 +1,126 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.*;
+import com.radim.project.entity.enums.CourseLevel;
+import com.radim.project.entity.enums.QuizDifficulty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("QuestionOptionStatsRepository Integration Tests")
+class QuestionOptionStatsRepositoryTest {
+
+    @Autowired
+    private QuestionOptionStatsRepository questionOptionStatsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Quiz testQuiz;
+    private Question question;
+    private QuestionOption correctOption;
+    private QuestionOption wrongOption;
+
+    @BeforeEach
+    void setUp() {
+        Course testCourse = entityManager.persistAndFlush(Course.builder()
+                .title("Java Course")
+                .description("Learn Java")
+                .category("Programming")
+                .level(CourseLevel.BEGINNER)
+                .teacherId(1L)
+                .build());
+
+        testQuiz = entityManager.persistAndFlush(Quiz.builder()
+                .title("Java Quiz")
+                .course(testCourse)
+                .passingScore(70)
+                .difficulty(QuizDifficulty.EASY)
+                .build());
+
+        question = Question.builder()
+                .quiz(testQuiz)
+                .questionText("What is Java?")
+                .questionType("MULTIPLE_CHOICE")
+                .points(1)
+                .build();
+        correctOption = QuestionOption.builder().optionText("A language").isCorrect(true).optionOrder(0).build();
+        wrongOption = QuestionOption.builder().optionText("A coffee").isCorrect(false).optionOrder(1).build();
+        question.addOption(correctOption);
+        question.addOption(wrongOption);
+        question = entityManager.persistAndFlush(question);
+    }
+
+    @Test
+    @DisplayName("Should list every option with its counter in option order")
+    void findOptionStatsByQuizId_Success() {
+        // Given
+        entityManager.persistAndFlush(stats(correctOption.getId(), 3L, 3L));
+
+        // When
+        List<QuestionOptionStatsRepository.OptionStatsView> rows = questionOptionStatsRepository
+                .findOptionStatsByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).getOptionId()).isEqualTo(correctOption.getId());
+        assertThat(rows.get(0).getSelectCount()).isEqualTo(3L);
+        assertThat(rows.get(1).getOptionId()).isEqualTo(wrongOption.getId());
+        assertThat(rows.get(1).getSelectCount()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should total counters per question including replaced options")
+    void findQuestionTotalsByQuizId_Success() {
+        // Given
+        entityManager.persist(stats(correctOption.getId(), 3L, 3L));
+        entityManager.persist(stats(wrongOption.getId(), 1L, 0L));
+        entityManager.persist(stats(UUID.randomUUID(), 2L, 2L));
+        entityManager.flush();
+
+        // When
+        List<QuestionOptionStatsRepository.QuestionTotalsView> totals = questionOptionStatsRepository
+                .findQuestionTotalsByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(totals).hasSize(1);
+        assertThat(totals.get(0).getQuestionId()).isEqualTo(question.getId());
+        assertThat(totals.get(0).getAnswerCount()).isEqualTo(6L);
+        assertThat(totals.get(0).getCorrectCount()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should delete all counters of a quiz")
+    void deleteByQuizId_Success() {
+        // Given
+        entityManager.persistAndFlush(stats(correctOption.getId(), 3L, 3L));
+
+        // When
+        int deleted = questionOptionStatsRepository.deleteByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(questionOptionStatsRepository.findAll()).isEmpty();
+    }
+
+    private QuestionOptionStats stats(UUID optionId, Long selectCount, Long correctCount) {
+        return QuestionOptionStats.builder()
+                .quiz(testQuiz)
+                .question(question)
+                .optionId(optionId)
+                .selectCount(selectCount)
+                .correctCount(correctCount)
+                .build();
+    }
+}
@@ -136,4 +136,81 @@ class QuestionRepositoryTest {
         Optional<Question> found = questionRepository.findById(questionId);
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should return correct options per question as answer key rows")
+    void findAnswerKeyRowsByQuizId_Success() {
+        // Given
+        question1.addOption(QuestionOption.builder().optionText("A language").isCorrect(true).optionOrder(0).build());
+        question1.addOption(QuestionOption.builder().optionText("A coffee").isCorrect(false).optionOrder(1).build());
+        entityManager.persist(question1);
+        entityManager.persist(question2);
+        entityManager.flush();
+
+        // When
+        List<QuestionRepository.AnswerKeyRow> rows = questionRepository.findAnswerKeyRowsByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(rows).hasSize(2);
+        QuestionRepository.AnswerKeyRow javaRow = rows.stream()
+                .filter(row -> row.getQuestionId().equals(question1.getId()))
+                .findFirst().orElseThrow();
+        assertThat(javaRow.getOptionId()).isEqualTo(question1.getOptions().get(0).getId());
+        assertThat(javaRow.getPoints()).isEqualTo(10);
+        assertThat(javaRow.getPassingScore()).isEqualTo(70);
+        QuestionRepository.AnswerKeyRow oopRow = rows.stream()
+                .filter(row -> row.getQuestionId().equals(question2.getId()))
+                .findFirst().orElseThrow();
+        assertThat(oopRow.getOptionId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return a single answer key row for a quiz without questions")
+    void findAnswerKeyRowsByQuizId_NoQuestions() {
+        // When
+        List<QuestionRepository.AnswerKeyRow> rows = questionRepository.findAnswerKeyRowsByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getQuestionId()).isNull();
+        assertThat(rows.get(0).getPassingScore()).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("Should return delivery rows in option order")
+    void findDeliveryRowsByQuizId_Success() {
+        // Given
+        question1.addOption(QuestionOption.builder().optionText("A coffee").isCorrect(false).optionOrder(1).build());
+        question1.addOption(QuestionOption.builder().optionText("A language").isCorrect(true).optionOrder(0).build());
+        entityManager.persist(question1);
+        entityManager.flush();
+
+        // When
+        List<QuestionRepository.DeliveryRow> rows = questionRepository.findDeliveryRowsByQuizId(testQuiz.getId());
+
+        // Then
+        assertThat(rows).extracting(QuestionRepository.DeliveryRow::getOptionText)
+                .containsExactly("A language", "A coffee");
+        assertThat(rows.get(0).getPoints()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should load requested questions of a quiz with their options")
+    void findWithOptionsByQuizIdAndIdIn_Success() {
+        // Given
+        question1.addOption(QuestionOption.builder().optionText("A coffee").isCorrect(false).optionOrder(1).build());
+        question1.addOption(QuestionOption.builder().optionText("A language").isCorrect(true).optionOrder(0).build());
+        entityManager.persist(question1);
+        entityManager.persist(question2);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Question> questions = questionRepository.findWithOptionsByQuizIdAndIdIn(testQuiz.getId(),
+                List.of(question1.getId(), UUID.randomUUID()));
+
+        // Then
+        assertThat(questions).singleElement()
+                .satisfies(question -> assertThat(question.getOptions()).hasSize(2));
+    }
 }
@@ -9,8 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -160,4 +162,133 @@ class QuizAttemptRepositoryTest {
         Optional<QuizAttempt> found = quizAttemptRepository.findById(attemptId);
         assertThat(found).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should page submitted attempts newest first using the keyset cursor")
+    void findSubmittedSummariesByQuizId_KeysetPages() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(submitted(studentId1 + i, 50 + i * 10, base.plusMinutes(i)));
+        }
+        entityManager.persist(attempt1);
+        entityManager.flush();
+
+        // When
+        List<QuizAttemptRepository.AttemptSummaryView> firstPage = quizAttemptRepository
+                .findSubmittedSummariesByQuizId(testQuiz.getId(), null, null, Limit.of(3));
+        QuizAttemptRepository.AttemptSummaryView last = firstPage.get(firstPage.size() - 1);
+        List<QuizAttemptRepository.AttemptSummaryView> secondPage = quizAttemptRepository
+                .findSubmittedSummariesByQuizIdAfter(testQuiz.getId(), null, null,
+                        last.getSubmittedAt(), last.getId(), Limit.of(3));
+
+        // Then
+        assertThat(firstPage).extracting(QuizAttemptRepository.AttemptSummaryView::getSubmittedAt)
+                .containsExactly(base.plusMinutes(4), base.plusMinutes(3), base.plusMinutes(2));
+        assertThat(firstPage.get(0).getQuizTitle()).isEqualTo("Java Quiz");
+        assertThat(secondPage).extracting(QuizAttemptRepository.AttemptSummaryView::getSubmittedAt)
+                .containsExactly(base.plusMinutes(1), base);
+    }
+
+    @Test
+    @DisplayName("Should apply filters on keyset pages after the cursor")
+    void findSubmittedSummariesByQuizIdAfter_Filters() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        entityManager.persist(submitted(studentId1, 90, base));
+        entityManager.persist(submitted(studentId2, 95, base.plusMinutes(1)));
+        entityManager.persist(submitted(studentId1, 85, base.plusMinutes(2)));
+        entityManager.persist(submitted(studentId1, 40, base.plusMinutes(3)));
+        entityManager.flush();
+
+        // When
+        List<QuizAttemptRepository.AttemptSummaryView> firstPage = quizAttemptRepository
+                .findSubmittedSummariesByQuizId(testQuiz.getId(), studentId1, true, Limit.of(1));
+        List<QuizAttemptRepository.AttemptSummaryView> secondPage = quizAttemptRepository
+                .findSubmittedSummariesByQuizIdAfter(testQuiz.getId(), studentId1, true,
+                        firstPage.get(0).getSubmittedAt(), firstPage.get(0).getId(), Limit.of(10));
+
+        // Then
+        assertThat(firstPage).extracting(QuizAttemptRepository.AttemptSummaryView::getScore).containsExactly(85);
+        assertThat(secondPage).extracting(QuizAttemptRepository.AttemptSummaryView::getScore).containsExactly(90);
+    }
+
+    @Test
+    @DisplayName("Should filter submitted attempts by student and result")
+    void findSubmittedSummariesByQuizId_Filters() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+        entityManager.persist(submitted(studentId1, 90, base));
+        entityManager.persist(submitted(studentId1, 40, base.plusMinutes(1)));
+        entityManager.persist(submitted(studentId2, 80, base.plusMinutes(2)));
+        entityManager.flush();
+
+        // When
+        List<QuizAttemptRepository.AttemptSummaryView> byStudent = quizAttemptRepository
+                .findSubmittedSummariesByQuizId(testQuiz.getId(), studentId1, null, Limit.of(10));
+        List<QuizAttemptRepository.AttemptSummaryView> passed = quizAttemptRepository
+                .findSubmittedSummariesByQuizId(testQuiz.getId(), null, true, Limit.of(10));
+        List<QuizAttemptRepository.AttemptSummaryView> failedByStudent = quizAttemptRepository
+                .findSubmittedSummariesByQuizId(testQuiz.getId(), studentId1, false, Limit.of(10));
+
+        // Then
+        assertThat(byStudent).hasSize(2).allMatch(a -> a.getStudentId().equals(studentId1));
+        assertThat(passed).extracting(QuizAttemptRepository.AttemptSummaryView::getScore).containsExactly(80, 90);
+        assertThat(failedByStudent).extracting(QuizAttemptRepository.AttemptSummaryView::getScore).containsExactly(40);
+    }
+
+    @Test
+    @DisplayName("Should find open timed attempts only")
+    void findOpenTimedAttempts_Success() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.of(2024, 1, 1, 10, 30);
+        attempt1.setExpiresAt(expiresAt);
+        entityManager.persist(attempt1);
+        entityManager.persist(attempt2);
+        QuizAttempt closed = submitted(studentId1, 90, expiresAt.minusMinutes(5));
+        closed.setExpiresAt(expiresAt);
+        entityManager.persist(closed);
+        entityManager.flush();
+
+        // When
+        List<QuizAttemptRepository.OpenAttemptView> open = quizAttemptRepository.findOpenTimedAttempts();
+
+        // Then
+        assertThat(open).hasSize(1);
+        assertThat(open.get(0).getId()).isEqualTo(attempt1.getId());
+        assertThat(open.get(0).getExpiresAt()).isEqualTo(expiresAt);
+    }
+
+    @Test
+    @DisplayName("Should grade an attempt only while it is still open")
+    void submitIfOpen_OnlyOnce() {
+        // Given
+        QuizAttempt saved = entityManager.persistAndFlush(attempt1);
+        LocalDateTime submittedAt = LocalDateTime.of(2024, 1, 1, 10, 30);
+
+        // When
+        int first = quizAttemptRepository.submitIfOpen(saved.getId(), 40, 100, 40.0, false, submittedAt, submittedAt);
+        int second = quizAttemptRepository.submitIfOpen(saved.getId(), 90, 100, 90.0, true, submittedAt, submittedAt);
+        entityManager.clear();
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        QuizAttempt reloaded = entityManager.find(QuizAttempt.class, saved.getId());
+        assertThat(reloaded.getScore()).isEqualTo(40);
+        assertThat(reloaded.getSubmittedAt()).isEqualTo(submittedAt);
+    }
+
+    private QuizAttempt submitted(Long studentId, int score, LocalDateTime submittedAt) {
+        return QuizAttempt.builder()
+                .quiz(testQuiz)
+                .studentId(studentId)
+                .score(score)
+                .maxScore(100)
+                .percentage((double) score)
+                .passed(score >= 70)
+                .startedAt(submittedAt.minusMinutes(10))
+                .submittedAt(submittedAt)
+                .build();
+    }
 }
@@ -0,0 +1,142 @@
+package com.radim.project.repository;
+
+import com.radim.project.entity.*;
+import com.radim.project.entity.enums.CourseLevel;
+import com.radim.project.entity.enums.QuizDifficulty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("QuizBestAttemptRepository Integration Tests")
+class QuizBestAttemptRepositoryTest {
+
+    @Autowired
+    private QuizBestAttemptRepository quizBestAttemptRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Course testCourse;
+    private Quiz mandatoryQuiz;
+    private final Long studentId = 100L;
+
+    @BeforeEach
+    void setUp() {
+        testCourse = entityManager.persistAndFlush(Course.builder()
+                .title("Java Course")
+                .description("Learn Java")
+                .category("Programming")
+                .level(CourseLevel.BEGINNER)
+                .teacherId(1L)
+                .build());
+
+        mandatoryQuiz = entityManager.persistAndFlush(quiz("Final Exam", true));
+    }
+
+    @Test
+    @DisplayName("Should join mandatory quizzes to the student's best attempts")
+    void findMandatoryQuizResults_Success() {
+        // Given
+        Quiz untriedQuiz = entityManager.persistAndFlush(quiz("Midterm", true));
+        entityManager.persistAndFlush(quiz("Practice", false));
+        QuizAttempt attempt = attempt(85.0);
+        entityManager.persistAndFlush(QuizBestAttempt.builder()
+                .quiz(mandatoryQuiz)
+                .studentId(studentId)
+                .attempt(attempt)
+                .percentage(85.0)
+                .passed(true)
+                .submittedAt(attempt.getSubmittedAt())
+                .build());
+
+        // When
+        List<QuizBestAttemptRepository.MandatoryQuizResultView> results = quizBestAttemptRepository
+                .findMandatoryQuizResults(testCourse.getId(), studentId);
+
+        // Then
+        assertThat(results).hasSize(2);
+        QuizBestAttemptRepository.MandatoryQuizResultView exam = results.stream()
+                .filter(r -> r.getQuizId().equals(mandatoryQuiz.getId()))
+                .findFirst().orElseThrow();
+        assertThat(exam.getBestPercentage()).isEqualTo(85.0);
+        assertThat(exam.getPassingScore()).isEqualTo(70);
+        QuizBestAttemptRepository.MandatoryQuizResultView midterm = results.stream()
+                .filter(r -> r.getQuizId().equals(untriedQuiz.getId()))
+                .findFirst().orElseThrow();
+        assertThat(midterm.getBestPercentage()).isNull();
+        assertThat(quizBestAttemptRepository.findMandatoryQuizResults(testCourse.getId(), 999L))
+                .allMatch(r -> r.getBestPercentage() == null);
+    }
+
+    @Test
+    @DisplayName("Should return best percentages of a student group on mandatory quizzes only")
+    void findMandatoryBestPercentages_Success() {
+        // Given
+        Quiz practice = entityManager.persistAndFlush(quiz("Practice", false));
+        QuizAttempt attempt = attempt(85.0);
+        for (Long student : List.of(studentId, 200L, 300L)) {
+            entityManager.persist(QuizBestAttempt.builder()
+                    .quiz(mandatoryQuiz)
+                    .studentId(student)
+                    .attempt(attempt)
+                    .percentage(student == 200L ? 40.0 : 85.0)
+                    .passed(student != 200L)
+                    .submittedAt(attempt.getSubmittedAt())
+                    .build());
+        }
+        entityManager.persist(QuizBestAttempt.builder()
+                .quiz(practice)
+                .studentId(studentId)
+                .attempt(attempt)
+                .percentage(10.0)
+                .passed(false)
+                .submittedAt(attempt.getSubmittedAt())
+                .build());
+        entityManager.flush();
+
+        // When
+        List<QuizBestAttemptRepository.MandatoryBestView> results = quizBestAttemptRepository
+                .findMandatoryBestPercentages(testCourse.getId(), List.of(studentId, 200L));
+
+        // Then
+        assertThat(results).allMatch(r -> r.getQuizId().equals(mandatoryQuiz.getId()));
+        assertThat(results).extracting(QuizBestAttemptRepository.MandatoryBestView::getStudentId,
+                QuizBestAttemptRepository.MandatoryBestView::getPercentage)
+                .containsExactlyInAnyOrder(tuple(studentId, 85.0), tuple(200L, 40.0));
+    }
+
+    private Quiz quiz(String title, boolean mandatory) {
+        return Quiz.builder()
+                .title(title)
+                .course(testCourse)
+                .passingScore(70)
+                .difficulty(QuizDifficulty.EASY)
+                .mandatory(mandatory)
+                .build();
+    }
+
+    private QuizAttempt attempt(double percentage) {
+        return entityManager.persistAndFlush(QuizAttempt.builder()
+                .quiz(mandatoryQuiz)
+                .studentId(studentId)
+                .score((int) percentage)
+                .maxScore(100)
+                .percentage(percentage)
+                .passed(percentage >= 70)
+                .startedAt(LocalDateTime.now())
+                .submittedAt(LocalDateTime.now())
+                .build());
+    }
+}
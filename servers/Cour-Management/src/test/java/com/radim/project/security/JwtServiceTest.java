@@ -0,0 +1,96 @@
+package com.radim.project.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private Key key;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    @Test
+    void parsePrincipal_ShouldExposeClaims() {
+        String token = token(100L, List.of("TEACHER"), 60_000);
+
+        JwtPrincipal principal = jwtService.parsePrincipal(token);
+
+        assertThat(principal.username()).isEqualTo("teacher@example.com");
+        assertThat(principal.userId()).isEqualTo(100L);
+        assertThat(principal.name()).isEqualTo("100");
+        assertThat(principal.roles()).containsExactly("TEACHER");
+    }
+
+    @Test
+    void parsePrincipal_ShouldServeRepeatedTokenFromCache() {
+        String token = token(100L, List.of("STUDENT"), 60_000);
+
+        JwtPrincipal first = jwtService.parsePrincipal(token);
+        JwtPrincipal second = jwtService.parsePrincipal(token);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void parsePrincipal_ShouldRejectExpiredToken() {
+        String token = token(100L, List.of("STUDENT"), -1_000);
+
+        assertThatThrownBy(() -> jwtService.parsePrincipal(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void parsePrincipal_ShouldRejectTokenSignedWithAnotherKey() {
+        Key otherKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        String token = Jwts.builder()
+                .setSubject("teacher@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(otherKey)
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.parsePrincipal(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void parsePrincipal_ShouldEvictOldestToken_WhenCacheFull() {
+        ReflectionTestUtils.setField(jwtService, "cacheSize", 1);
+        String first = token(1L, List.of("STUDENT"), 60_000);
+        String second = token(2L, List.of("STUDENT"), 60_000);
+
+        JwtPrincipal cached = jwtService.parsePrincipal(first);
+        jwtService.parsePrincipal(second);
+
+        assertThat(jwtService.parsePrincipal(first)).isNotSameAs(cached).isEqualTo(cached);
+    }
+
+    private String token(Long userId, List<String> roles, long ttlMillis) {
+        return Jwts.builder()
+                .setSubject("teacher@example.com")
+                .claim("userId", userId)
+                .claim("roles", roles)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMillis))
+                .signWith(key)
+                .compact();
+    }
+}
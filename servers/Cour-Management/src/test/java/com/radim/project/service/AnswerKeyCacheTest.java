@@ -0,0 +1,137 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.QuestionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnswerKeyCacheTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @InjectMocks
+    private AnswerKeyCache answerKeyCache;
+
+    @Test
+    void getAnswerKey_ShouldCompileRowsAndCacheResult() {
+        UUID quizId = UUID.randomUUID();
+        UUID question1 = UUID.randomUUID();
+        UUID question2 = UUID.randomUUID();
+        UUID noAnswerQuestion = UUID.randomUUID();
+        UUID optionA = UUID.randomUUID();
+        UUID optionB = UUID.randomUUID();
+        UUID optionC = UUID.randomUUID();
+        List<QuestionRepository.AnswerKeyRow> rows = List.of(
+                row(question1, 5, optionA), row(question1, 5, optionB),
+                row(question2, null, optionC), row(noAnswerQuestion, 2, null));
+        when(questionRepository.findAnswerKeyRowsByQuizId(quizId)).thenReturn(rows);
+
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(quizId);
+        AnswerKeyCache.AnswerKey again = answerKeyCache.getAnswerKey(quizId);
+
+        assertThat(again).isSameAs(answerKey);
+        assertThat(answerKey.questions()).hasSize(3);
+        AnswerKeyCache.QuestionKey first = answerKey.question(question1);
+        assertThat(first.correctOptionIds()).containsExactly(optionA, optionB);
+        assertThat(first.correctOptionId()).isEqualTo(optionA);
+        assertThat(first.points()).isEqualTo(5);
+        assertThat(first.isCorrect(optionB)).isTrue();
+        assertThat(first.isCorrect(optionC)).isFalse();
+        assertThat(first.isCorrect(null)).isFalse();
+        assertThat(answerKey.question(question2).points()).isEqualTo(1);
+        assertThat(answerKey.question(noAnswerQuestion).correctOptionId()).isNull();
+        assertThat(answerKey.maxScore()).isEqualTo(8);
+        assertThat(answerKey.passingScore()).isEqualTo(75);
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizId(quizId);
+    }
+
+    @Test
+    void getAnswerKey_ShouldHandleQuizWithoutQuestions() {
+        UUID quizId = UUID.randomUUID();
+        List<QuestionRepository.AnswerKeyRow> rows = List.of(row(null, null, null));
+        when(questionRepository.findAnswerKeyRowsByQuizId(quizId)).thenReturn(rows);
+
+        AnswerKeyCache.AnswerKey answerKey = answerKeyCache.getAnswerKey(quizId);
+
+        assertThat(answerKey.questions()).isEmpty();
+        assertThat(answerKey.maxScore()).isZero();
+        assertThat(answerKey.passingScore()).isEqualTo(75);
+    }
+
+    @Test
+    void getAnswerKey_ShouldNotCacheKeyLoaded_WhenInvalidatedDuringLoad() {
+        UUID quizId = UUID.randomUUID();
+        UUID question = UUID.randomUUID();
+        UUID oldOption = UUID.randomUUID();
+        UUID newOption = UUID.randomUUID();
+        List<QuestionRepository.AnswerKeyRow> oldRows = List.of(row(question, 1, oldOption));
+        List<QuestionRepository.AnswerKeyRow> newRows = List.of(row(question, 1, newOption));
+        // The question edit commits and invalidates while the first load still holds the old rows
+        when(questionRepository.findAnswerKeyRowsByQuizId(quizId))
+                .thenAnswer(invocation -> {
+                    answerKeyCache.invalidate(quizId);
+                    return oldRows;
+                })
+                .thenReturn(newRows);
+
+        AnswerKeyCache.AnswerKey stale = answerKeyCache.getAnswerKey(quizId);
+        AnswerKeyCache.AnswerKey fresh = answerKeyCache.getAnswerKey(quizId);
+
+        assertThat(stale.question(question).correctOptionId()).isEqualTo(oldOption);
+        assertThat(fresh.question(question).correctOptionId()).isEqualTo(newOption);
+        assertThat(answerKeyCache.getAnswerKey(quizId)).isSameAs(fresh);
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizId(quizId);
+    }
+
+    @Test
+    void invalidate_ShouldRecompileOnNextRead() {
+        UUID quizId = UUID.randomUUID();
+        when(questionRepository.findAnswerKeyRowsByQuizId(quizId)).thenReturn(List.of());
+
+        answerKeyCache.getAnswerKey(quizId);
+        answerKeyCache.invalidate(quizId);
+        answerKeyCache.getAnswerKey(quizId);
+
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizId(quizId);
+    }
+
+    @Test
+    void getAnswerKey_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        ReflectionTestUtils.setField(answerKeyCache, "maxSize", 2);
+        when(questionRepository.findAnswerKeyRowsByQuizId(any())).thenReturn(List.of());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        answerKeyCache.getAnswerKey(first);
+        answerKeyCache.getAnswerKey(second);
+        answerKeyCache.getAnswerKey(first);
+        answerKeyCache.getAnswerKey(UUID.randomUUID());
+        answerKeyCache.getAnswerKey(first);
+        answerKeyCache.getAnswerKey(second);
+
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizId(first);
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizId(second);
+    }
+
+    private QuestionRepository.AnswerKeyRow row(UUID questionId, Integer points, UUID optionId) {
+        QuestionRepository.AnswerKeyRow row = mock(QuestionRepository.AnswerKeyRow.class);
+        lenient().when(row.getPassingScore()).thenReturn(75);
+        lenient().when(row.getQuestionId()).thenReturn(questionId);
+        lenient().when(row.getQuestionText()).thenReturn("Question");
+        lenient().when(row.getPoints()).thenReturn(points);
+        lenient().when(row.getOptionId()).thenReturn(optionId);
+        return row;
+    }
+}
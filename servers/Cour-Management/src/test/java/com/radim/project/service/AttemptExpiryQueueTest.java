@@ -0,0 +1,43 @@
+package com.radim.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttemptExpiryQueueTest {
+
+    private final AttemptExpiryQueue attemptExpiryQueue = new AttemptExpiryQueue();
+
+    @Test
+    void take_ShouldReturnAttemptsInDeadlineOrder_OnceDue() throws InterruptedException {
+        UUID later = UUID.randomUUID();
+        UUID earlier = UUID.randomUUID();
+        attemptExpiryQueue.schedule(later, LocalDateTime.now().minusMinutes(1));
+        attemptExpiryQueue.schedule(earlier, LocalDateTime.now().minusMinutes(5));
+        attemptExpiryQueue.schedule(UUID.randomUUID(), LocalDateTime.now().plusHours(1));
+
+        assertThat(attemptExpiryQueue.take()).isEqualTo(earlier);
+        assertThat(attemptExpiryQueue.take()).isEqualTo(later);
+        assertThat(attemptExpiryQueue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void isClosed_ShouldAllowGracePeriodAfterDeadline() {
+        assertThat(attemptExpiryQueue.isClosed(null)).isFalse();
+        assertThat(attemptExpiryQueue.isClosed(LocalDateTime.now().minusSeconds(10))).isFalse();
+        assertThat(attemptExpiryQueue.isClosed(LocalDateTime.now().minusMinutes(1))).isTrue();
+    }
+
+    @Test
+    void retry_ShouldMakeAttemptDueAfterDelay() throws InterruptedException {
+        UUID attemptId = UUID.randomUUID();
+        attemptExpiryQueue.retry(attemptId, 60_000);
+        attemptExpiryQueue.retry(attemptId, 0);
+
+        assertThat(attemptExpiryQueue.take()).isEqualTo(attemptId);
+        assertThat(attemptExpiryQueue.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttemptExpiryWorkerTest {
+
+    @Mock
+    private AttemptExpiryQueue attemptExpiryQueue;
+    @Mock
+    private QuizAttemptService quizAttemptService;
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @InjectMocks
+    private AttemptExpiryWorker attemptExpiryWorker;
+
+    @Test
+    void rebuildQueue_ShouldScheduleEveryOpenTimedAttempt() {
+        UUID attemptId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        QuizAttemptRepository.OpenAttemptView open = mock(QuizAttemptRepository.OpenAttemptView.class);
+        when(open.getId()).thenReturn(attemptId);
+        when(open.getExpiresAt()).thenReturn(expiresAt);
+        when(quizAttemptRepository.findOpenTimedAttempts()).thenReturn(List.of(open));
+
+        attemptExpiryWorker.rebuildQueue();
+
+        verify(attemptExpiryQueue).schedule(attemptId, expiresAt);
+    }
+
+    @Test
+    void expire_ShouldRequeueWithBackoff_WhenAutoSubmitFails() {
+        UUID attemptId = UUID.randomUUID();
+        when(quizAttemptService.expireAttempt(attemptId))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(true)
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        attemptExpiryWorker.expire(attemptId);
+        attemptExpiryWorker.expire(attemptId);
+        attemptExpiryWorker.expire(attemptId);
+        attemptExpiryWorker.expire(attemptId);
+
+        // The backoff doubles per failure and starts over once the attempt went through
+        verify(attemptExpiryQueue, times(2)).retry(attemptId, 1000);
+        verify(attemptExpiryQueue).retry(attemptId, 2000);
+    }
+
+    @Test
+    void retryDelayMillis_ShouldBeCapped() {
+        assertThat(attemptExpiryWorker.retryDelayMillis(1)).isEqualTo(1000);
+        assertThat(attemptExpiryWorker.retryDelayMillis(4)).isEqualTo(8000);
+        assertThat(attemptExpiryWorker.retryDelayMillis(100)).isEqualTo(300000);
+    }
+
+    @Test
+    void loadOpenAttempts_ShouldRetry_WhenDatabaseUnavailable() throws Exception {
+        ReflectionTestUtils.setField(attemptExpiryWorker, "retryInitialDelayMillis", 1L);
+        UUID attemptId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().minusMinutes(5);
+        QuizAttemptRepository.OpenAttemptView overdue = mock(QuizAttemptRepository.OpenAttemptView.class);
+        when(overdue.getId()).thenReturn(attemptId);
+        when(overdue.getExpiresAt()).thenReturn(expiresAt);
+        when(quizAttemptRepository.findOpenTimedAttempts())
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(List.of(overdue));
+
+        attemptExpiryWorker.loadOpenAttempts();
+
+        verify(quizAttemptRepository, times(2)).findOpenTimedAttempts();
+        verify(attemptExpiryQueue).schedule(attemptId, expiresAt);
+    }
+}
@@ -0,0 +1,75 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.repository.CertificateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateBatchWriterTest {
+
+    @Mock
+    private CertificateRepository certificateRepository;
+    @Mock
+    private CertificateRenderWorker certificateRenderWorker;
+    @Mock
+    private JdbcBatchScope jdbcBatchScope;
+
+    @InjectMocks
+    private CertificateBatchWriter certificateBatchWriter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(jdbcBatchScope.flushBatched(any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeChunk_ShouldInsertRequeueAndEnqueueEveryCertificate() {
+        Certificate certificate = Certificate.builder().studentId(3L).build();
+        UUID savedId = UUID.randomUUID();
+        UUID failedId = UUID.randomUUID();
+        when(certificateRepository.saveAll(List.of(certificate))).thenAnswer(invocation -> {
+            certificate.setId(savedId);
+            return List.of(certificate);
+        });
+
+        List<Certificate> saved = certificateBatchWriter.writeChunk(List.of(certificate), List.of(failedId));
+
+        assertThat(saved).containsExactly(certificate);
+        // The inserts are flushed batched before the requeue runs
+        InOrder inOrder = inOrder(jdbcBatchScope, certificateRepository);
+        inOrder.verify(jdbcBatchScope).flushBatched(any(Supplier.class));
+        inOrder.verify(certificateRepository).requeueFailed(List.of(failedId));
+        verify(certificateRenderWorker).enqueue(savedId);
+        verify(certificateRenderWorker).enqueue(failedId);
+    }
+
+    @Test
+    void writeChunk_ShouldSkipRequeue_WhenNothingFailed() {
+        when(certificateRepository.saveAll(List.of())).thenReturn(List.of());
+
+        certificateBatchWriter.writeChunk(List.of(), List.of());
+
+        verify(certificateRepository, never()).requeueFailed(any());
+        verify(certificateRenderWorker, never()).enqueue(any());
+    }
+}
@@ -0,0 +1,95 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.entity.Course;
+import com.radim.project.entity.enums.CertificateStatus;
+import com.radim.project.repository.CertificateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateRenderWorkerTest {
+
+    @Mock
+    private CertificateRepository certificateRepository;
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    @InjectMocks
+    private CertificateRenderWorker certificateRenderWorker;
+
+    @Test
+    void render_ShouldMarkCertificateReady() throws Exception {
+        Certificate certificate = pendingCertificate();
+        when(certificateRepository.findWithCourseById(certificate.getId())).thenReturn(Optional.of(certificate));
+        when(pdfGenerationService.generateCertificatePdf(certificate, certificate.getCourse()))
+                .thenReturn("uploads/cert.pdf");
+
+        certificateRenderWorker.render(certificate.getId());
+
+        verify(certificateRepository).completeRender(eq(certificate.getId()), eq(CertificateStatus.READY),
+                eq("uploads/cert.pdf"), isNull(), any());
+    }
+
+    @Test
+    void render_ShouldMarkCertificateFailed_WhenPdfCannotBeWritten() throws Exception {
+        Certificate certificate = pendingCertificate();
+        when(certificateRepository.findWithCourseById(certificate.getId())).thenReturn(Optional.of(certificate));
+        when(pdfGenerationService.generateCertificatePdf(any(), any())).thenThrow(new IOException("Disk full"));
+
+        certificateRenderWorker.render(certificate.getId());
+
+        verify(certificateRepository).completeRender(eq(certificate.getId()), eq(CertificateStatus.FAILED),
+                isNull(), eq("Disk full"), any());
+    }
+
+    @Test
+    void render_ShouldSkipCertificateNoLongerPending() throws Exception {
+        Certificate certificate = pendingCertificate();
+        certificate.setStatus(CertificateStatus.READY);
+        when(certificateRepository.findWithCourseById(certificate.getId())).thenReturn(Optional.of(certificate));
+
+        certificateRenderWorker.render(certificate.getId());
+
+        verify(pdfGenerationService, never()).generateCertificatePdf(any(), any());
+        verify(certificateRepository, never()).completeRender(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void sweep_ShouldRenderPendingCertificates() {
+        UUID certificateId = UUID.randomUUID();
+        when(certificateRepository.findIdsByStatus(eq(CertificateStatus.PENDING), any(Limit.class)))
+                .thenReturn(List.of(certificateId));
+        when(certificateRepository.findWithCourseById(certificateId)).thenReturn(Optional.empty());
+        certificateRenderWorker.startPool();
+        try {
+            certificateRenderWorker.sweep();
+
+            verify(certificateRepository, timeout(2000)).findWithCourseById(certificateId);
+        } finally {
+            certificateRenderWorker.stop();
+        }
+    }
+
+    private Certificate pendingCertificate() {
+        return Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(Course.builder().id(UUID.randomUUID()).title("Java").build())
+                .studentId(1L)
+                .verificationCode("ABC12345")
+                .status(CertificateStatus.PENDING)
+                .build();
+    }
+}
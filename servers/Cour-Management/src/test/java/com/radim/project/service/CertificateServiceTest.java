@@ -4,26 +4,37 @@ import com.radim.project.dto.CertificateDto;
 import com.radim.project.entity.Certificate;
 import com.radim.project.entity.Course;
 import com.radim.project.entity.Quiz;
-import com.radim.project.entity.QuizAttempt;
+import com.radim.project.entity.StudentClass;
+import com.radim.project.entity.enums.CertificateStatus;
 import com.radim.project.repository.CertificateRepository;
+import com.radim.project.repository.ClassStudentRepository;
 import com.radim.project.repository.CourseRepository;
-import com.radim.project.repository.QuizAttemptRepository;
+import com.radim.project.repository.EnrollmentRepository;
+import com.radim.project.repository.QuizBestAttemptRepository;
 import com.radim.project.repository.QuizRepository;
+import com.radim.project.repository.StudentClassRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,13 +47,23 @@ class CertificateServiceTest {
     @Mock
     private CourseRepository courseRepository;
     @Mock
-    private QuizRepository quizRepository;
-    @Mock
-    private QuizAttemptRepository quizAttemptRepository;
+    private QuizBestAttemptRepository quizBestAttemptRepository;
     @Mock
     private ProgressService progressService;
     @Mock
     private PdfGenerationService pdfGenerationService;
+    @Mock
+    private CertificateRenderWorker certificateRenderWorker;
+    @Mock
+    private CertificateBatchWriter certificateBatchWriter;
+    @Mock
+    private QuizRepository quizRepository;
+    @Mock
+    private StudentClassRepository studentClassRepository;
+    @Mock
+    private ClassStudentRepository classStudentRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
 
     @InjectMocks
     private CertificateService certificateService;
@@ -58,6 +79,7 @@ class CertificateServiceTest {
         course = Course.builder()
                 .id(courseId)
                 .title("Certified Java Developer")
+                .teacherId(7L)
                 .build();
 
         ReflectionTestUtils.setField(certificateService, "completionThreshold", 80.0);
@@ -67,20 +89,96 @@ class CertificateServiceTest {
     void checkEligibility_ShouldBeEligible() {
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
         when(progressService.calculateCompletionRate(courseId, studentId)).thenReturn(85.0);
-        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(quizBestAttemptRepository.findMandatoryQuizResults(courseId, studentId)).thenReturn(List.of());
 
         CertificateDto.CertificateEligibilityResponse response = certificateService.checkEligibility(courseId,
                 studentId);
 
+        assertThat(response.getStudentId()).isEqualTo(studentId);
         assertThat(response.getEligible()).isTrue();
         assertThat(response.getCompletionRequirementMet()).isTrue();
     }
 
+    @Test
+    void checkEligibility_ShouldEvaluateListedStudentsWithGroupedQueries() {
+        Quiz finalExam = Quiz.builder().id(UUID.randomUUID()).title("Final Exam").passingScore(70).build();
+        List<QuizBestAttemptRepository.MandatoryBestView> best = List.of(bestResult(finalExam, 1L, 90.0),
+                bestResult(finalExam, 2L, 40.0));
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of(finalExam));
+        when(enrollmentRepository.findEnrolledStudentIds(courseId, List.of(2L, 1L))).thenReturn(List.of(1L, 2L));
+        when(progressService.calculateCompletionRates(courseId, List.of(2L, 1L)))
+                .thenReturn(Map.of(1L, 100.0, 2L, 85.0));
+        when(quizBestAttemptRepository.findMandatoryBestPercentages(courseId, List.of(2L, 1L))).thenReturn(best);
+
+        CertificateDto.BulkEligibilityResponse response = certificateService.checkEligibility(courseId,
+                List.of(2L, 1L, 2L), 7L);
+
+        assertThat(response.getTotalStudents()).isEqualTo(2);
+        assertThat(response.getEligibleStudents()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(CertificateDto.CertificateEligibilityResponse::getStudentId)
+                .containsExactly(2L, 1L);
+        assertThat(response.getResults().get(0).getMissingRequirements())
+                .containsExactly("Quiz 'Final Exam' not passed (score: 40.0%, required: 70%)");
+        assertThat(response.getResults().get(1).getEligible()).isTrue();
+        assertThat(response.getUnknownStudentIds()).isEmpty();
+        verify(enrollmentRepository, never()).findStudentIdsByCourseId(any());
+        verify(progressService, never()).calculateCompletionRate(any(), any());
+    }
+
+    @Test
+    void checkEligibility_ShouldReportStudentsNotEnrolled() {
+        ReflectionTestUtils.setField(certificateService, "batchChunkSize", 2);
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(enrollmentRepository.findEnrolledStudentIds(courseId, List.of(1L, 99L))).thenReturn(List.of(1L));
+        when(enrollmentRepository.findEnrolledStudentIds(courseId, List.of(98L))).thenReturn(List.of());
+        when(progressService.calculateCompletionRates(courseId, List.of(1L))).thenReturn(Map.of(1L, 100.0));
+
+        CertificateDto.BulkEligibilityResponse response = certificateService.checkEligibility(courseId,
+                List.of(1L, 99L, 98L), 7L);
+
+        assertThat(response.getTotalStudents()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(CertificateDto.CertificateEligibilityResponse::getStudentId)
+                .containsExactly(1L);
+        assertThat(response.getUnknownStudentIds()).containsExactly(99L, 98L);
+        verify(progressService, never()).calculateCompletionRates(courseId, List.of());
+    }
+
+    @Test
+    void checkEligibility_ShouldEvaluateAllEnrolledStudents_WhenNoneListed() {
+        ReflectionTestUtils.setField(certificateService, "batchChunkSize", 2);
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L, 2L, 3L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(progressService.calculateCompletionRates(courseId, List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, 100.0, 2L, 20.0));
+        when(progressService.calculateCompletionRates(courseId, List.of(3L))).thenReturn(Map.of(3L, 80.0));
+
+        CertificateDto.BulkEligibilityResponse response = certificateService.checkEligibility(courseId, null, 7L);
+
+        assertThat(response.getTotalStudents()).isEqualTo(3);
+        assertThat(response.getEligibleStudents()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(CertificateDto.CertificateEligibilityResponse::getEligible)
+                .containsExactly(true, false, true);
+        verify(quizBestAttemptRepository, never()).findMandatoryBestPercentages(any(), any());
+    }
+
+    @Test
+    void checkEligibility_ShouldThrow_WhenCourseNotOwned() {
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+
+        assertThatThrownBy(() -> certificateService.checkEligibility(courseId, List.of(1L), 8L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Access denied: You do not own this course");
+        verify(progressService, never()).calculateCompletionRates(any(), any());
+    }
+
     @Test
     void checkEligibility_ShouldNotBeEligible_WhenCompletionLow() {
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
         when(progressService.calculateCompletionRate(courseId, studentId)).thenReturn(75.0);
-        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(quizBestAttemptRepository.findMandatoryQuizResults(courseId, studentId)).thenReturn(List.of());
 
         CertificateDto.CertificateEligibilityResponse response = certificateService.checkEligibility(courseId,
                 studentId);
@@ -91,14 +189,11 @@ class CertificateServiceTest {
 
     @Test
     void checkEligibility_ShouldNotBeEligible_WhenMandatoryQuizFailed() {
-        Quiz quiz = Quiz.builder().id(UUID.randomUUID()).title("Final Project").passingScore(80).build();
-        QuizAttempt attempt = QuizAttempt.builder().percentage(70.0).build();
+        List<QuizBestAttemptRepository.MandatoryQuizResultView> results = List.of(quizResult("Final Project", 70.0));
 
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
         when(progressService.calculateCompletionRate(courseId, studentId)).thenReturn(100.0);
-        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of(quiz));
-        when(quizAttemptRepository.findByQuiz_IdAndStudentIdOrderByPercentageDesc(any(), eq(studentId)))
-                .thenReturn(List.of(attempt));
+        when(quizBestAttemptRepository.findMandatoryQuizResults(courseId, studentId)).thenReturn(results);
 
         CertificateDto.CertificateEligibilityResponse response = certificateService.checkEligibility(courseId,
                 studentId);
@@ -108,12 +203,29 @@ class CertificateServiceTest {
                 .anyMatch(r -> r.contains("Final Project") && r.contains("not passed"));
     }
 
+    @Test
+    void checkEligibility_ShouldNotBeEligible_WhenMandatoryQuizNotAttempted() {
+        List<QuizBestAttemptRepository.MandatoryQuizResultView> results = List.of(
+                quizResult("Final Project", 95.0), quizResult("Midterm", null));
+
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(progressService.calculateCompletionRate(courseId, studentId)).thenReturn(100.0);
+        when(quizBestAttemptRepository.findMandatoryQuizResults(courseId, studentId)).thenReturn(results);
+
+        CertificateDto.CertificateEligibilityResponse response = certificateService.checkEligibility(courseId,
+                studentId);
+
+        assertThat(response.getEligible()).isFalse();
+        assertThat(response.getMandatoryQuizzesPassed()).isFalse();
+        assertThat(response.getMissingRequirements()).containsExactly("Quiz not attempted: Midterm");
+    }
+
     @Test
     void generateCertificate_ShouldSuccess() throws Exception {
         when(certificateRepository.findByCourse_IdAndStudentId(courseId, studentId)).thenReturn(Optional.empty());
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
         when(progressService.calculateCompletionRate(courseId, studentId)).thenReturn(90.0);
-        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(quizBestAttemptRepository.findMandatoryQuizResults(courseId, studentId)).thenReturn(List.of());
 
         Certificate certificate = Certificate.builder()
                 .id(UUID.randomUUID())
@@ -123,13 +235,240 @@ class CertificateServiceTest {
                 .build();
 
         when(certificateRepository.save(any(Certificate.class))).thenReturn(certificate);
-        when(pdfGenerationService.generateCertificatePdf(any(), any())).thenReturn("uploads/cert.pdf");
 
         CertificateDto.CertificateResponse response = certificateService.generateCertificate(courseId, studentId);
 
         assertThat(response).isNotNull();
-        verify(certificateRepository, times(2)).save(any());
-        verify(pdfGenerationService).generateCertificatePdf(any(), any());
+        assertThat(response.getStatus()).isEqualTo(CertificateStatus.PENDING);
+        assertThat(response.getDownloadUrl()).isNull();
+        verify(certificateRepository, times(1)).save(argThat(saved -> saved.getStatus() == CertificateStatus.PENDING));
+        verify(certificateRenderWorker).enqueue(certificate.getId());
+        verify(pdfGenerationService, never()).generateCertificatePdf(any(), any());
+    }
+
+    @Test
+    void generateCertificate_ShouldRequeueFailedCertificate() {
+        Certificate certificate = Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(course)
+                .studentId(studentId)
+                .verificationCode("ABC12345")
+                .status(CertificateStatus.FAILED)
+                .failureReason("Disk full")
+                .build();
+        when(certificateRepository.findByCourse_IdAndStudentId(courseId, studentId)).thenReturn(Optional.of(certificate));
+        when(certificateRepository.save(certificate)).thenReturn(certificate);
+
+        CertificateDto.CertificateResponse response = certificateService.generateCertificate(courseId, studentId);
+
+        assertThat(response.getStatus()).isEqualTo(CertificateStatus.PENDING);
+        assertThat(response.getFailureReason()).isNull();
+        verify(certificateRenderWorker).enqueue(certificate.getId());
+        verify(progressService, never()).calculateCompletionRate(any(), any());
+    }
+
+    @Test
+    void generateCertificate_ShouldReturnExistingReadyCertificate() {
+        Certificate certificate = Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(course)
+                .studentId(studentId)
+                .verificationCode("ABC12345")
+                .status(CertificateStatus.READY)
+                .pdfUrl("uploads/cert.pdf")
+                .build();
+        when(certificateRepository.findByCourse_IdAndStudentId(courseId, studentId)).thenReturn(Optional.of(certificate));
+
+        CertificateDto.CertificateResponse response = certificateService.generateCertificate(courseId, studentId);
+
+        assertThat(response.getDownloadUrl()).isEqualTo("/api/certificates/" + certificate.getId() + "/download");
+        verify(certificateRepository, never()).save(any());
+        verify(certificateRenderWorker, never()).enqueue(any());
+    }
+
+    @Test
+    void issueClassCertificates_ShouldReportOutcomePerStudent() {
+        UUID classId = givenOwnedClass();
+        Quiz finalExam = Quiz.builder().id(UUID.randomUUID()).title("Final Exam").passingScore(70).build();
+        Certificate ready = Certificate.builder().id(UUID.randomUUID()).course(course).studentId(1L)
+                .status(CertificateStatus.READY).build();
+        Certificate failed = Certificate.builder().id(UUID.randomUUID()).course(course).studentId(2L)
+                .status(CertificateStatus.FAILED).build();
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of(finalExam));
+        when(certificateRepository.findByCourse_IdAndStudentIdIn(courseId, List.of(1L, 2L, 3L, 4L, 5L)))
+                .thenReturn(List.of(ready, failed));
+        when(progressService.calculateCompletionRates(courseId, List.of(3L, 4L, 5L)))
+                .thenReturn(Map.of(3L, 100.0, 4L, 50.0, 5L, 90.0));
+        List<QuizBestAttemptRepository.MandatoryBestView> best = List.of(bestResult(finalExam, 3L, 95.0),
+                bestResult(finalExam, 4L, 95.0));
+        when(quizBestAttemptRepository.findMandatoryBestPercentages(courseId, List.of(3L, 4L, 5L))).thenReturn(best);
+        when(certificateBatchWriter.writeChunk(any(), eq(List.of(failed.getId())))).thenAnswer(invocation -> {
+            List<Certificate> issued = invocation.getArgument(0);
+            issued.forEach(certificate -> certificate.setId(UUID.randomUUID()));
+            return issued;
+        });
+
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                7L);
+
+        assertThat(response.getTotalStudents()).isEqualTo(5);
+        assertThat(response.getIssued()).isEqualTo(2);
+        assertThat(response.getAlreadyIssued()).isEqualTo(1);
+        assertThat(response.getNotEligible()).isEqualTo(2);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getResults()).extracting(CertificateDto.StudentIssuanceResult::getOutcome)
+                .containsExactly("ALREADY_ISSUED", "REQUEUED", "ISSUED", "NOT_ELIGIBLE", "NOT_ELIGIBLE");
+        assertThat(response.getResults().get(2).getStatus()).isEqualTo(CertificateStatus.PENDING);
+        assertThat(response.getResults().get(3).getMissingRequirements())
+                .containsExactly("Course completion 50.0% (required: 80.0%)");
+        assertThat(response.getResults().get(4).getMissingRequirements())
+                .containsExactly("Quiz not attempted: Final Exam");
+        verify(certificateBatchWriter).writeChunk(argThat(issued -> issued.size() == 1
+                && issued.get(0).getStudentId().equals(3L) && issued.get(0).getCompletionRate() == 100.0),
+                eq(List.of(failed.getId())));
+    }
+
+    @Test
+    void issueClassCertificates_ShouldProcessMembersInChunks() {
+        UUID classId = givenOwnedClass();
+        ReflectionTestUtils.setField(certificateService, "batchChunkSize", 2);
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(1L, 2L, 3L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(certificateRepository.findByCourse_IdAndStudentIdIn(eq(courseId), any())).thenReturn(List.of());
+        when(progressService.calculateCompletionRates(eq(courseId), any()))
+                .thenReturn(Map.of(1L, 100.0, 2L, 100.0, 3L, 100.0));
+        when(certificateBatchWriter.writeChunk(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                7L);
+
+        assertThat(response.getIssued()).isEqualTo(3);
+        verify(certificateBatchWriter, times(2)).writeChunk(any(), any());
+        verify(certificateRepository).findByCourse_IdAndStudentIdIn(courseId, List.of(1L, 2L));
+        verify(certificateRepository).findByCourse_IdAndStudentIdIn(courseId, List.of(3L));
+        verify(quizBestAttemptRepository, never()).findMandatoryBestPercentages(any(), any());
+    }
+
+    @Test
+    void issueClassCertificates_ShouldRetryChunk_WhenCertificateIssuedConcurrently() {
+        UUID classId = givenOwnedClass();
+        Certificate concurrent = Certificate.builder().id(UUID.randomUUID()).course(course).studentId(1L)
+                .status(CertificateStatus.PENDING).build();
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(1L, 2L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(certificateRepository.findByCourse_IdAndStudentIdIn(courseId, List.of(1L, 2L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(concurrent));
+        when(progressService.calculateCompletionRates(eq(courseId), any()))
+                .thenReturn(Map.of(1L, 100.0, 2L, 100.0));
+        when(certificateBatchWriter.writeChunk(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                7L);
+
+        assertThat(response.getResults()).extracting(CertificateDto.StudentIssuanceResult::getOutcome)
+                .containsExactly("ALREADY_ISSUED", "ISSUED");
+        assertThat(response.getFailed()).isZero();
+        verify(certificateBatchWriter, times(2)).writeChunk(any(), any());
+        verify(certificateBatchWriter).writeChunk(argThat(issued -> issued.size() == 1
+                && issued.get(0).getStudentId().equals(2L)), eq(List.of()));
+    }
+
+    @Test
+    void issueClassCertificates_ShouldReportError_WhenRetryConflictsAgain() {
+        UUID classId = givenOwnedClass();
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(1L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(certificateRepository.findByCourse_IdAndStudentIdIn(courseId, List.of(1L))).thenReturn(List.of());
+        when(progressService.calculateCompletionRates(courseId, List.of(1L))).thenReturn(Map.of(1L, 100.0));
+        when(certificateBatchWriter.writeChunk(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                7L);
+
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("duplicate key");
+        verify(certificateBatchWriter, times(2)).writeChunk(any(), any());
+    }
+
+    @Test
+    void issueClassCertificates_ShouldReportChunkFailure() {
+        UUID classId = givenOwnedClass();
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(1L, 2L));
+        when(quizRepository.findByCourse_IdAndMandatoryTrue(courseId)).thenReturn(List.of());
+        when(certificateRepository.findByCourse_IdAndStudentIdIn(courseId, List.of(1L, 2L))).thenReturn(List.of());
+        when(progressService.calculateCompletionRates(courseId, List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, 100.0, 2L, 10.0));
+        when(certificateBatchWriter.writeChunk(any(), any())).thenThrow(new RuntimeException("Connection reset"));
+
+        CertificateDto.ClassIssuanceResponse response = certificateService.issueClassCertificates(courseId, classId,
+                7L);
+
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getNotEligible()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getOutcome()).isEqualTo("ERROR");
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Connection reset");
+    }
+
+    @Test
+    void issueClassCertificates_ShouldThrow_WhenClassNotOwned() {
+        UUID classId = UUID.randomUUID();
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(studentClassRepository.findById(classId))
+                .thenReturn(Optional.of(StudentClass.builder().id(classId).teacherId(8L).build()));
+
+        assertThatThrownBy(() -> certificateService.issueClassCertificates(courseId, classId, 7L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Access denied: You do not own this class");
+        verify(certificateBatchWriter, never()).writeChunk(any(), any());
+    }
+
+    @Test
+    void issueClassCertificates_ShouldThrow_WhenCourseNotOwned() {
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+
+        assertThatThrownBy(() -> certificateService.issueClassCertificates(courseId, UUID.randomUUID(), 8L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Access denied: You do not own this course");
+        verify(studentClassRepository, never()).findById(any());
+    }
+
+    @Test
+    void downloadCertificate_ShouldReturnResourceWithValidators() throws Exception {
+        Certificate certificate = Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(course)
+                .status(CertificateStatus.READY)
+                .pdfUrl("uploads/cert.pdf")
+                .build();
+        Resource resource = mock(Resource.class);
+        when(resource.lastModified()).thenReturn(0x1234L);
+        when(certificateRepository.findById(certificate.getId())).thenReturn(Optional.of(certificate));
+        when(pdfGenerationService.loadCertificateResource("uploads/cert.pdf")).thenReturn(resource);
+
+        CertificateService.CertificateFile file = certificateService.downloadCertificate(certificate.getId());
+
+        assertThat(file.resource()).isSameAs(resource);
+        assertThat(file.lastModified()).isEqualTo(0x1234L);
+        assertThat(file.etag()).isEqualTo("\"" + certificate.getId() + "-1234\"");
+    }
+
+    @Test
+    void downloadCertificate_ShouldThrow_WhenStillPending() {
+        Certificate certificate = Certificate.builder()
+                .id(UUID.randomUUID())
+                .course(course)
+                .status(CertificateStatus.PENDING)
+                .build();
+        when(certificateRepository.findById(certificate.getId())).thenReturn(Optional.of(certificate));
+
+        assertThatThrownBy(() -> certificateService.downloadCertificate(certificate.getId()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Certificate PDF not yet generated");
     }
 
     @Test
@@ -159,4 +498,29 @@ class CertificateServiceTest {
 
         assertThat(response.getValid()).isFalse();
     }
+
+    private UUID givenOwnedClass() {
+        UUID classId = UUID.randomUUID();
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(studentClassRepository.findById(classId))
+                .thenReturn(Optional.of(StudentClass.builder().id(classId).teacherId(7L).build()));
+        return classId;
+    }
+
+    private QuizBestAttemptRepository.MandatoryBestView bestResult(Quiz quiz, Long studentId, Double percentage) {
+        QuizBestAttemptRepository.MandatoryBestView view = mock(QuizBestAttemptRepository.MandatoryBestView.class);
+        lenient().when(view.getQuizId()).thenReturn(quiz.getId());
+        lenient().when(view.getStudentId()).thenReturn(studentId);
+        lenient().when(view.getPercentage()).thenReturn(percentage);
+        return view;
+    }
+
+    private QuizBestAttemptRepository.MandatoryQuizResultView quizResult(String title, Double bestPercentage) {
+        QuizBestAttemptRepository.MandatoryQuizResultView view = mock(QuizBestAttemptRepository.MandatoryQuizResultView.class);
+        lenient().when(view.getQuizId()).thenReturn(UUID.randomUUID());
+        lenient().when(view.getQuizTitle()).thenReturn(title);
+        lenient().when(view.getPassingScore()).thenReturn(80);
+        lenient().when(view.getBestPercentage()).thenReturn(bestPercentage);
+        return view;
+    }
 }
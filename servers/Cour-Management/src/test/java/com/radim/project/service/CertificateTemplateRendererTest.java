@@ -0,0 +1,68 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Certificate;
+import com.radim.project.entity.Course;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CertificateTemplateRendererTest {
+
+    private final CertificateTemplateRenderer renderer = new CertificateTemplateRenderer();
+
+    @Test
+    void render_ShouldStampVariableFieldsOnTemplate() throws IOException {
+        String text = renderText(certificate(7L, "FIRSTCODE"), Course.builder().title("Java Basics").build());
+
+        assertThat(text)
+                .contains("Certificate of Completion")
+                .contains("This is to certify that")
+                .contains("Student ID: 7")
+                .contains("has successfully completed the course")
+                .contains("Java Basics")
+                .contains("with a completion rate of 92.5%")
+                .contains("Issued on: March 05, 2025")
+                .contains("Verification Code: FIRSTCODE");
+    }
+
+    @Test
+    void render_ShouldReuseTemplateAcrossCertificates() throws IOException {
+        renderText(certificate(7L, "FIRSTCODE"), Course.builder().title("Java Basics").build());
+
+        String text = renderText(certificate(8L, "SECONDCODE"), Course.builder().title("Spring Boot").build());
+
+        assertThat(text)
+                .contains("Certificate of Completion")
+                .contains("Student ID: 8")
+                .contains("Spring Boot")
+                .contains("Verification Code: SECONDCODE")
+                .doesNotContain("FIRSTCODE");
+    }
+
+    private String renderText(Certificate certificate, Course course) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(certificate, course, out);
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            return new PDFTextStripper().getText(document);
+        }
+    }
+
+    private Certificate certificate(Long studentId, String verificationCode) {
+        return Certificate.builder()
+                .id(UUID.randomUUID())
+                .studentId(studentId)
+                .completionRate(92.5)
+                .verificationCode(verificationCode)
+                .issuedAt(LocalDateTime.of(2025, 3, 5, 10, 0))
+                .build();
+    }
+}
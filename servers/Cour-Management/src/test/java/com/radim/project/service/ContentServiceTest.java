@@ -35,6 +35,8 @@ class ContentServiceTest {
     private LessonContentRepository contentRepository;
     @Mock
     private LessonRepository lessonRepository;
+    @Mock
+    private CourseStructureCache courseStructureCache;
 
     @InjectMocks
     private ContentService contentService;
@@ -0,0 +1,116 @@
+package com.radim.project.service;
+
+import com.radim.project.repository.ModuleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseStructureCacheTest {
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @InjectMocks
+    private CourseStructureCache courseStructureCache;
+
+    @Test
+    void getOutline_ShouldGroupRowsAndCacheResult() {
+        UUID courseId = UUID.randomUUID();
+        UUID moduleId = UUID.randomUUID();
+        UUID emptyModuleId = UUID.randomUUID();
+        UUID lesson1 = UUID.randomUUID();
+        UUID lesson2 = UUID.randomUUID();
+        List<ModuleRepository.OutlineRow> rows = List.of(
+                row(moduleId, lesson1), row(moduleId, lesson2), row(emptyModuleId, null));
+        when(moduleRepository.findOutlineRowsByCourseId(courseId)).thenReturn(rows);
+
+        CourseStructureCache.CourseOutline outline = courseStructureCache.getOutline(courseId);
+        CourseStructureCache.CourseOutline again = courseStructureCache.getOutline(courseId);
+
+        assertThat(again).isSameAs(outline);
+        assertThat(outline.modules()).hasSize(2);
+        assertThat(outline.modules().get(1).lessons()).isEmpty();
+        assertThat(outline.lessonIds()).containsExactly(lesson1, lesson2);
+        assertThat(outline.lessonCount()).isEqualTo(2);
+        verify(moduleRepository, times(1)).findOutlineRowsByCourseId(courseId);
+        assertThat(courseStructureCache.getStats().hits()).isEqualTo(1);
+        assertThat(courseStructureCache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_ShouldReloadOnNextRead() {
+        UUID courseId = UUID.randomUUID();
+        when(moduleRepository.findOutlineRowsByCourseId(courseId)).thenReturn(List.of());
+
+        courseStructureCache.getOutline(courseId);
+        courseStructureCache.invalidate(courseId);
+        courseStructureCache.getOutline(courseId);
+
+        verify(moduleRepository, times(2)).findOutlineRowsByCourseId(courseId);
+        assertThat(courseStructureCache.getStats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void getOutline_ShouldNotCacheOutlineLoaded_WhenInvalidatedDuringLoad() {
+        UUID courseId = UUID.randomUUID();
+        UUID moduleId = UUID.randomUUID();
+        UUID lesson1 = UUID.randomUUID();
+        UUID lesson2 = UUID.randomUUID();
+        List<ModuleRepository.OutlineRow> oldRows = List.of(row(moduleId, lesson1));
+        List<ModuleRepository.OutlineRow> newRows = List.of(row(moduleId, lesson1), row(moduleId, lesson2));
+        // A lesson is added and invalidates the course while the first load still holds the old rows
+        when(moduleRepository.findOutlineRowsByCourseId(courseId))
+                .thenAnswer(invocation -> {
+                    courseStructureCache.invalidate(courseId);
+                    return oldRows;
+                })
+                .thenReturn(newRows);
+
+        CourseStructureCache.CourseOutline stale = courseStructureCache.getOutline(courseId);
+        CourseStructureCache.CourseOutline fresh = courseStructureCache.getOutline(courseId);
+
+        assertThat(stale.lessonIds()).containsExactly(lesson1);
+        assertThat(fresh.lessonIds()).containsExactly(lesson1, lesson2);
+        assertThat(courseStructureCache.getOutline(courseId)).isSameAs(fresh);
+        verify(moduleRepository, times(2)).findOutlineRowsByCourseId(courseId);
+        assertThat(courseStructureCache.getStats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void getOutline_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        ReflectionTestUtils.setField(courseStructureCache, "maxSize", 2);
+        when(moduleRepository.findOutlineRowsByCourseId(any())).thenReturn(List.of());
+        UUID first = UUID.randomUUID();
+
+        courseStructureCache.getOutline(first);
+        courseStructureCache.getOutline(UUID.randomUUID());
+        courseStructureCache.getOutline(UUID.randomUUID());
+        courseStructureCache.getOutline(first);
+
+        CourseStructureCache.Stats stats = courseStructureCache.getStats();
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.size()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(4);
+    }
+
+    private ModuleRepository.OutlineRow row(UUID moduleId, UUID lessonId) {
+        ModuleRepository.OutlineRow row = mock(ModuleRepository.OutlineRow.class);
+        lenient().when(row.getModuleId()).thenReturn(moduleId);
+        lenient().when(row.getModuleTitle()).thenReturn("Module");
+        lenient().when(row.getLessonId()).thenReturn(lessonId);
+        lenient().when(row.getLessonTitle()).thenReturn("Lesson");
+        lenient().when(row.getContentCount()).thenReturn(0L);
+        return row;
+    }
+}
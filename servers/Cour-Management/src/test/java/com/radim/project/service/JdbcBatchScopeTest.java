@@ -0,0 +1,66 @@
+package com.radim.project.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcBatchScopeTest {
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Session session;
+
+    @InjectMocks
+    private JdbcBatchScope jdbcBatchScope;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jdbcBatchScope, "entityManager", entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+    }
+
+    @Test
+    void flushBatched_ShouldFlushWorkBeforeRestoringBatchSize() {
+        when(session.getJdbcBatchSize()).thenReturn(null);
+        Runnable work = mock(Runnable.class);
+
+        jdbcBatchScope.flushBatched(work);
+
+        InOrder inOrder = inOrder(session, work);
+        inOrder.verify(session).setJdbcBatchSize(500);
+        inOrder.verify(work).run();
+        inOrder.verify(session).flush();
+        inOrder.verify(session).setJdbcBatchSize(null);
+    }
+
+    @Test
+    void flushBatched_ShouldReturnResultOfWork() {
+        assertThat(jdbcBatchScope.flushBatched(() -> "saved")).isEqualTo("saved");
+        verify(session).flush();
+    }
+
+    @Test
+    void flushBatched_ShouldRestoreBatchSize_WhenWorkFails() {
+        when(session.getJdbcBatchSize()).thenReturn(20);
+
+        assertThatThrownBy(() -> jdbcBatchScope.flushBatched(() -> {
+            throw new RuntimeException("constraint violation");
+        })).hasMessage("constraint violation");
+
+        verify(session, never()).flush();
+        verify(session).setJdbcBatchSize(20);
+    }
+}
@@ -0,0 +1,121 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.*;
+import com.radim.project.entity.enums.AssignmentType;
+import com.radim.project.entity.enums.CourseLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ LessonCompletionBitsetService.class, CourseStructureCache.class, EnrollmentService.class })
+@DisplayName("LessonCompletionBitsetService Integration Tests")
+class LessonCompletionBitsetServiceIntegrationTest {
+
+    @Autowired
+    private LessonCompletionBitsetService bitsetService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Long teacherId = 1L;
+    private Course testCourse;
+    private StudentClass testClass;
+    private Lesson firstLesson;
+
+    @BeforeEach
+    void setUp() {
+        testCourse = entityManager.persistAndFlush(Course.builder()
+                .title("Java Course")
+                .description("Learn Java")
+                .category("Programming")
+                .level(CourseLevel.BEGINNER)
+                .teacherId(teacherId)
+                .build());
+        com.radim.project.entity.Module module = entityManager.persistAndFlush(com.radim.project.entity.Module.builder()
+                .title("Module 1")
+                .course(testCourse)
+                .orderIndex(1)
+                .build());
+        firstLesson = entityManager.persistAndFlush(Lesson.builder()
+                .title("Lesson 1")
+                .module(module)
+                .orderIndex(1)
+                .build());
+        entityManager.persistAndFlush(Lesson.builder()
+                .title("Lesson 2")
+                .module(module)
+                .orderIndex(2)
+                .build());
+
+        testClass = entityManager.persistAndFlush(StudentClass.builder()
+                .name("Java 101")
+                .teacherId(teacherId)
+                .build());
+        for (Long studentId : List.of(100L, 200L)) {
+            entityManager.persist(ClassStudent.builder()
+                    .studentClass(testClass)
+                    .studentId(studentId)
+                    .addedBy(teacherId)
+                    .build());
+        }
+
+        // Both class members completed the first lesson, 200 also the second one
+        progress(100L, 0);
+        progress(200L, 0, 1);
+        // Enrolled on their own, outside the class, with nothing completed
+        entityManager.persist(Enrollment.builder()
+                .course(testCourse)
+                .studentId(300L)
+                .assignedBy(teacherId)
+                .assignmentType(AssignmentType.INDIVIDUAL)
+                .enrolledAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should intersect the members of a class enrolled through class assignment")
+    void findLessonsCompletedByAll_ClassEnrolledThroughAssignment() {
+        // Given
+        enrollmentService.assignClassToCourse(testCourse.getId(), testClass.getId(), teacherId);
+
+        // When
+        List<UUID> classCommon = bitsetService.findLessonsCompletedByAll(testCourse.getId(), testClass.getId());
+        List<UUID> courseCommon = bitsetService.findLessonsCompletedByAll(testCourse.getId(), null);
+
+        // Then
+        assertThat(classCommon).containsExactly(firstLesson.getId());
+        assertThat(courseCommon).isEmpty();
+    }
+
+    private void progress(Long studentId, int... completedOrdinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : completedOrdinals) {
+            bits.set(ordinal);
+        }
+        entityManager.persist(CourseProgress.builder()
+                .course(testCourse)
+                .studentId(studentId)
+                .totalLessons(2L)
+                .completedLessons((long) completedOrdinals.length)
+                .completionBits(bits.toByteArray())
+                .build());
+    }
+}
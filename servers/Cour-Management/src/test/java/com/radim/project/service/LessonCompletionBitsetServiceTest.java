@@ -0,0 +1,250 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.CourseProgress;
+import com.radim.project.entity.Lesson;
+import com.radim.project.entity.LessonProgress;
+import com.radim.project.repository.ClassStudentRepository;
+import com.radim.project.repository.CourseProgressRepository;
+import com.radim.project.repository.EnrollmentRepository;
+import com.radim.project.repository.LessonProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LessonCompletionBitsetServiceTest {
+
+    @Mock
+    private CourseProgressRepository courseProgressRepository;
+    @Mock
+    private CourseStructureCache courseStructureCache;
+    @Mock
+    private LessonProgressRepository lessonProgressRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private ClassStudentRepository classStudentRepository;
+
+    @InjectMocks
+    private LessonCompletionBitsetService bitsetService;
+
+    private UUID courseId;
+    private Long studentId;
+    private List<UUID> lessonIds;
+
+    @BeforeEach
+    void setUp() {
+        courseId = UUID.randomUUID();
+        studentId = 1L;
+        lessonIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<CourseStructureCache.LessonOutline> lessons = new ArrayList<>();
+        for (UUID id : lessonIds) {
+            lessons.add(new CourseStructureCache.LessonOutline(id, "Lesson", lessons.size(), 0));
+        }
+        lenient().when(courseStructureCache.getOutline(courseId)).thenReturn(new CourseStructureCache.CourseOutline(
+                courseId, List.of(new CourseStructureCache.ModuleOutline(UUID.randomUUID(), "Module", 0, lessons))));
+    }
+
+    @Test
+    void findNextIncompleteLesson_ShouldUsePersistedBits() {
+        CourseProgressRepository.CompletionBitsView persisted = bitsView(0, 1);
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.of(persisted));
+
+        Optional<UUID> next = bitsetService.findNextIncompleteLesson(courseId, studentId);
+
+        assertThat(next).contains(lessonIds.get(2));
+        assertThat(bitsetService.getCompletionRate(courseId, studentId)).isEqualTo(66.67);
+        verify(courseProgressRepository, times(1)).findCompletionBitsForUpdate(courseId, studentId);
+        verifyNoInteractions(lessonProgressRepository);
+    }
+
+    @Test
+    void getCompletionBits_ShouldRebuildFromLessonProgress_WhenBitsMissing() {
+        CourseProgressRepository.CompletionBitsView persisted = mock(CourseProgressRepository.CompletionBitsView.class);
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.of(persisted));
+        when(lessonProgressRepository.findByStudentIdAndCourseIdWithLesson(studentId, courseId)).thenReturn(List.of(
+                LessonProgress.builder().lesson(Lesson.builder().id(lessonIds.get(1)).build()).completed(true).build(),
+                LessonProgress.builder().lesson(Lesson.builder().id(lessonIds.get(2)).build()).completed(false).build()));
+
+        BitSet bits = bitsetService.getCompletionBits(courseId, studentId);
+
+        assertThat(bits.get(1)).isTrue();
+        assertThat(bits.cardinality()).isEqualTo(1);
+        verify(courseProgressRepository).updateCompletionBits(eq(courseId), eq(studentId), any(byte[].class));
+    }
+
+    @Test
+    void getCompletionBits_ShouldCacheRebuiltBitsOnlyAfterCommit() {
+        CourseProgressRepository.CompletionBitsView persisted = mock(CourseProgressRepository.CompletionBitsView.class);
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.of(persisted));
+        when(lessonProgressRepository.findByStudentIdAndCourseIdWithLesson(studentId, courseId)).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bitsetService.getCompletionBits(courseId, studentId);
+            bitsetService.getCompletionBits(courseId, studentId);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bitsetService.getCompletionBits(courseId, studentId);
+
+        verify(courseProgressRepository, times(2)).findCompletionBitsForUpdate(courseId, studentId);
+    }
+
+    @Test
+    void getCompletionBits_ShouldNotCacheBits_WhenNoCountersRow() {
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.empty());
+        when(lessonProgressRepository.findByStudentIdAndCourseIdWithLesson(studentId, courseId)).thenReturn(List.of());
+
+        bitsetService.getCompletionBits(courseId, studentId);
+        bitsetService.getCompletionBits(courseId, studentId);
+
+        verify(courseProgressRepository, times(2)).findCompletionBitsForUpdate(courseId, studentId);
+        verify(courseProgressRepository, never()).updateCompletionBits(any(), any(), any());
+    }
+
+    @Test
+    void markCompleted_ShouldSetBitOnPersistedBits() {
+        CourseProgressRepository.CompletionBitsView persisted = bitsView(0);
+        when(courseProgressRepository.findCompletionBits(courseId, studentId)).thenReturn(Optional.of(persisted));
+
+        bitsetService.markCompleted(courseId, studentId, lessonIds.get(1));
+
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        verify(courseProgressRepository).updateCompletionBits(courseId, studentId, expected.toByteArray());
+    }
+
+    @Test
+    void markCompleted_ShouldUpdateCachedBitsOnlyAfterCommit() {
+        CourseProgressRepository.CompletionBitsView cached = bitsView(0);
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.of(cached));
+        CourseProgressRepository.CompletionBitsView persisted = bitsView(0, 2);
+        when(courseProgressRepository.findCompletionBits(courseId, studentId)).thenReturn(Optional.of(persisted));
+        bitsetService.getCompletionBits(courseId, studentId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bitsetService.markCompleted(courseId, studentId, lessonIds.get(1));
+
+            assertThat(bitsetService.getCompletionBits(courseId, studentId).get(1)).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // The cached copy gains the bit, the persisted bits of the other completion are written to the table
+        assertThat(bitsetService.getCompletionBits(courseId, studentId).get(1)).isTrue();
+        BitSet expected = new BitSet();
+        expected.set(0, 3);
+        verify(courseProgressRepository).updateCompletionBits(courseId, studentId, expected.toByteArray());
+    }
+
+    @Test
+    void markCompleted_ShouldSkipUpdate_WhenPersistedBitsMissing() {
+        CourseProgressRepository.CompletionBitsView persisted = mock(CourseProgressRepository.CompletionBitsView.class);
+        when(courseProgressRepository.findCompletionBits(courseId, studentId)).thenReturn(Optional.of(persisted));
+
+        bitsetService.markCompleted(courseId, studentId, lessonIds.get(1));
+
+        verify(courseProgressRepository, never()).updateCompletionBits(any(), any(), any());
+    }
+
+    @Test
+    void findLessonsCompletedByAll_ShouldIntersectStudentBitsets() {
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L, 2L));
+        when(courseProgressRepository.findByCourse_Id(courseId)).thenReturn(List.of(
+                counters(1L, 0, 1), counters(2L, 1, 2)));
+
+        List<UUID> common = bitsetService.findLessonsCompletedByAll(courseId, null);
+
+        assertThat(common).containsExactly(lessonIds.get(1));
+        verify(lessonProgressRepository, never()).streamCompletedLessonsByCourseId(any());
+    }
+
+    @Test
+    void findLessonsCompletedByAll_ShouldRestrictToEnrolledClassMembers() {
+        UUID classId = UUID.randomUUID();
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L, 2L, 3L));
+        when(classStudentRepository.findStudentIdsByClassId(classId)).thenReturn(List.of(2L, 3L, 4L));
+        when(courseProgressRepository.findByCourse_Id(courseId)).thenReturn(List.of(
+                counters(1L), counters(2L, 0, 1), counters(3L, 1, 2)));
+
+        List<UUID> common = bitsetService.findLessonsCompletedByAll(courseId, classId);
+
+        assertThat(common).containsExactly(lessonIds.get(1));
+    }
+
+    @Test
+    void findLessonsCompletedByAll_ShouldRebuildStaleBitsetsInOnePass() {
+        CourseProgress stale = counters(2L);
+        stale.setCompletionBits(null);
+        when(enrollmentRepository.findStudentIdsByCourseId(courseId)).thenReturn(List.of(1L, 2L));
+        when(courseProgressRepository.findByCourse_Id(courseId)).thenReturn(List.of(counters(1L, 0, 2), stale));
+        LessonProgressRepository.StudentLessonView view = mock(LessonProgressRepository.StudentLessonView.class);
+        when(view.getStudentId()).thenReturn(2L);
+        when(view.getLessonId()).thenReturn(lessonIds.get(2));
+        when(lessonProgressRepository.streamCompletedLessonsByCourseId(courseId)).thenReturn(Stream.of(view));
+
+        List<UUID> common = bitsetService.findLessonsCompletedByAll(courseId, null);
+
+        assertThat(common).containsExactly(lessonIds.get(2));
+        verify(courseProgressRepository).updateCompletionBits(eq(courseId), eq(2L), any(byte[].class));
+    }
+
+    @Test
+    void invalidateCourse_ShouldDropCachedBits() {
+        CourseProgressRepository.CompletionBitsView persisted = bitsView(0);
+        when(courseProgressRepository.findCompletionBitsForUpdate(courseId, studentId)).thenReturn(Optional.of(persisted));
+        bitsetService.getCompletionBits(courseId, studentId);
+
+        bitsetService.invalidateCourse(courseId);
+        bitsetService.getCompletionBits(courseId, studentId);
+
+        verify(courseProgressRepository).clearCompletionBitsByCourseId(courseId);
+        verify(courseProgressRepository, times(2)).findCompletionBitsForUpdate(courseId, studentId);
+    }
+
+    private CourseProgressRepository.CompletionBitsView bitsView(int... completedOrdinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : completedOrdinals) {
+            bits.set(ordinal);
+        }
+        CourseProgressRepository.CompletionBitsView view = mock(CourseProgressRepository.CompletionBitsView.class);
+        lenient().when(view.getCompletionBits()).thenReturn(bits.toByteArray());
+        lenient().when(view.getTotalLessons()).thenReturn((long) lessonIds.size());
+        return view;
+    }
+
+    private CourseProgress counters(Long studentId, int... completedOrdinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : completedOrdinals) {
+            bits.set(ordinal);
+        }
+        return CourseProgress.builder()
+                .studentId(studentId)
+                .totalLessons((long) lessonIds.size())
+                .completedLessons((long) completedOrdinals.length)
+                .completionBits(bits.toByteArray())
+                .build();
+    }
+}
@@ -34,6 +34,10 @@ class LessonServiceTest {
     private LessonRepository lessonRepository;
     @Mock
     private ModuleRepository moduleRepository;
+    @Mock
+    private ProgressService progressService;
+    @Mock
+    private CourseStructureCache courseStructureCache;
 
     @InjectMocks
     private LessonService lessonService;
@@ -48,7 +52,7 @@ class LessonServiceTest {
         teacherId = 1L;
         moduleId = UUID.randomUUID();
 
-        Course course = Course.builder().teacherId(teacherId).build();
+        Course course = Course.builder().id(UUID.randomUUID()).teacherId(teacherId).build();
         module = com.radim.project.entity.Module.builder().id(moduleId).course(course).build();
 
         mockedSecurityContextHolder = mockStatic(SecurityContextHolder.class);
@@ -88,6 +92,7 @@ class LessonServiceTest {
 
         assertThat(response).isNotNull();
         assertThat(response.getTitle()).isEqualTo("New Lesson");
+        verify(progressService).onLessonCreated(module.getCourse().getId());
     }
 
     @Test
@@ -122,6 +127,7 @@ class LessonServiceTest {
 
         lessonService.deleteLesson(moduleId, lessonId);
 
+        verify(progressService).onLessonDeleted(module.getCourse().getId(), lessonId);
         verify(lessonRepository).delete(existingLesson);
     }
 
@@ -33,6 +33,10 @@ class ModuleServiceTest {
     private ModuleRepository moduleRepository;
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private ProgressService progressService;
+    @Mock
+    private CourseStructureCache courseStructureCache;
 
     @InjectMocks
     private ModuleService moduleService;
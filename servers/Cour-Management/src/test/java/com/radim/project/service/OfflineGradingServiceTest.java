@@ -0,0 +1,269 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.entity.Course;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuizRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfflineGradingServiceTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+    @Mock
+    private AnswerKeyCache answerKeyCache;
+    @Mock
+    private OfflineGradingWriter offlineGradingWriter;
+
+    private OfflineGradingService offlineGradingService;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    private Path tempDir;
+
+    private MockedStatic<SecurityContextHolder> mockedSecurityContextHolder;
+    private final Long teacherId = 1L;
+    private final UUID courseId = UUID.randomUUID();
+    private final UUID quizId = UUID.randomUUID();
+    private final UUID questionId = UUID.randomUUID();
+    private final UUID correctOptionId = UUID.randomUUID();
+    private final UUID wrongOptionId = UUID.randomUUID();
+    private AnswerKeyCache.AnswerKey answerKey;
+
+    @BeforeEach
+    void setUp() {
+        offlineGradingService = new OfflineGradingService(quizRepository, answerKeyCache, offlineGradingWriter,
+                objectMapper);
+        offlineGradingService.startPool();
+
+        answerKey = new AnswerKeyCache.AnswerKey(quizId, Map.of(questionId,
+                new AnswerKeyCache.QuestionKey(questionId, "2 + 2 ?", Set.of(correctOptionId), 10)), 10, 60);
+
+        mockedSecurityContextHolder = mockStatic(SecurityContextHolder.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+
+        mockedSecurityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getPrincipal()).thenReturn(teacherId.toString());
+        lenient().doReturn(List.of(new SimpleGrantedAuthority("ROLE_TEACHER"))).when(authentication).getAuthorities();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedSecurityContextHolder.close();
+        offlineGradingService.stopPool();
+    }
+
+    @Test
+    void grade_ShouldScoreSheetAgainstAnswerKey() {
+        LocalDateTime importedAt = LocalDateTime.now();
+
+        OfflineGradingService.GradeResult result = offlineGradingService.grade(
+                sheet(1, 7L, correctOptionId), answerKey, importedAt);
+
+        assertThat(result.error()).isNull();
+        assertThat(result.sheet().score()).isEqualTo(10);
+        assertThat(result.sheet().percentage()).isEqualTo(100.0);
+        assertThat(result.sheet().passed()).isTrue();
+        assertThat(result.sheet().submittedAt()).isEqualTo(importedAt);
+        assertThat(result.sheet().answers()).singleElement()
+                .satisfies(answer -> assertThat(answer.correct()).isTrue());
+    }
+
+    @Test
+    void grade_ShouldRejectUnknownQuestion() {
+        QuizAttemptDto.OfflineSheet sheet = QuizAttemptDto.OfflineSheet.builder()
+                .studentId(7L)
+                .answers(List.of(answer(UUID.randomUUID(), correctOptionId)))
+                .build();
+
+        OfflineGradingService.GradeResult result = offlineGradingService.grade(
+                new OfflineGradingService.ParsedSheet(3, sheet), answerKey, LocalDateTime.now());
+
+        assertThat(result.sheet()).isNull();
+        assertThat(result.line()).isEqualTo(3);
+        assertThat(result.error()).startsWith("Question not found");
+    }
+
+    @Test
+    void grade_ShouldRejectDuplicateAnswerAndMissingStudent() {
+        QuizAttemptDto.OfflineSheet duplicate = QuizAttemptDto.OfflineSheet.builder()
+                .studentId(7L)
+                .answers(List.of(answer(questionId, correctOptionId), answer(questionId, wrongOptionId)))
+                .build();
+        QuizAttemptDto.OfflineSheet anonymous = QuizAttemptDto.OfflineSheet.builder()
+                .answers(List.of(answer(questionId, correctOptionId)))
+                .build();
+
+        assertThat(offlineGradingService.grade(new OfflineGradingService.ParsedSheet(1, duplicate), answerKey,
+                LocalDateTime.now()).error()).startsWith("Question answered more than once");
+        assertThat(offlineGradingService.grade(new OfflineGradingService.ParsedSheet(2, anonymous), answerKey,
+                LocalDateTime.now()).error()).isEqualTo("studentId is required");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_ShouldWriteInBatchesAndTrackProgress() throws IOException {
+        ReflectionTestUtils.setField(offlineGradingService, "batchSize", 2);
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey);
+        OfflineGradingService.GradingJob job = offlineGradingService.new GradingJob(UUID.randomUUID(), quizId);
+
+        offlineGradingService.run(job, upload(
+                sheet(1, 7L, correctOptionId),
+                sheet(2, 8L, UUID.randomUUID()),
+                sheet(3, 9L, wrongOptionId)));
+
+        ArgumentCaptor<List<OfflineGradingWriter.GradedSheet>> batches = ArgumentCaptor.forClass(List.class);
+        verify(offlineGradingWriter, times(2)).writeBatch(eq(quizId), batches.capture());
+        assertThat(batches.getAllValues().get(0)).hasSize(2);
+        assertThat(batches.getAllValues().get(1)).singleElement()
+                .satisfies(graded -> assertThat(graded.passed()).isFalse());
+
+        QuizAttemptDto.GradingJobResponse response = job.toResponse();
+        assertThat(response.getStatus()).isEqualTo("COMPLETED");
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getGradedRows()).isEqualTo(3);
+        assertThat(response.getFailedRows()).isZero();
+        assertThat(response.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void run_ShouldFailRowsOfBatchThatCannotBeSaved() throws IOException {
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey);
+        doThrow(new RuntimeException("constraint violation")).when(offlineGradingWriter).writeBatch(eq(quizId), any());
+        OfflineGradingService.GradingJob job = offlineGradingService.new GradingJob(UUID.randomUUID(), quizId);
+
+        offlineGradingService.run(job, upload(sheet(1, 7L, correctOptionId), sheet(2, 8L, wrongOptionId)));
+
+        QuizAttemptDto.GradingJobResponse response = job.toResponse();
+        assertThat(response.getStatus()).isEqualTo("COMPLETED");
+        assertThat(response.getGradedRows()).isZero();
+        assertThat(response.getFailedRows()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(QuizAttemptDto.RowError::getLine).containsExactly(1, 2);
+    }
+
+    @Test
+    void run_ShouldFailWhenUploadCannotBeRead() {
+        OfflineGradingService.GradingJob job = offlineGradingService.new GradingJob(UUID.randomUUID(), quizId);
+
+        offlineGradingService.run(job, tempDir.resolve("missing.jsonl"));
+
+        assertThat(job.toResponse().getStatus()).isEqualTo("FAILED");
+        verifyNoInteractions(offlineGradingWriter);
+    }
+
+    @Test
+    void startGrading_ShouldReportInvalidLines() {
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz(teacherId)));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey);
+
+        QuizAttemptDto.GradingJobResponse started = offlineGradingService.startGrading(courseId, quizId,
+                new ByteArrayInputStream("not json\n\n{\"studentId\":".getBytes(StandardCharsets.UTF_8)));
+        QuizAttemptDto.GradingJobResponse response = awaitFinished(started.getJobId());
+
+        assertThat(response.getStatus()).isEqualTo("COMPLETED");
+        assertThat(response.getTotalRows()).isEqualTo(2);
+        assertThat(response.getFailedRows()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(QuizAttemptDto.RowError::getLine).containsExactly(1, 3);
+        verifyNoInteractions(offlineGradingWriter);
+    }
+
+    @Test
+    void startGrading_ShouldThrowWhenNotOwner() {
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz(99L)));
+
+        assertThatThrownBy(() -> offlineGradingService.startGrading(courseId, quizId,
+                new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void getJob_ShouldThrowWhenUnknown() {
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz(teacherId)));
+
+        assertThatThrownBy(() -> offlineGradingService.getJob(courseId, quizId, UUID.randomUUID()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Grading job not found");
+    }
+
+    private Quiz quiz(Long ownerId) {
+        return Quiz.builder()
+                .id(quizId)
+                .course(Course.builder().id(courseId).teacherId(ownerId).build())
+                .build();
+    }
+
+    private QuizAttemptDto.GradingJobResponse awaitFinished(UUID jobId) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        QuizAttemptDto.GradingJobResponse response = offlineGradingService.getJob(courseId, quizId, jobId);
+        while (response.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+            response = offlineGradingService.getJob(courseId, quizId, jobId);
+        }
+        return response;
+    }
+
+    /**
+     * Writes the sheets as JSON lines, in line order
+     */
+    private Path upload(OfflineGradingService.ParsedSheet... sheets) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (OfflineGradingService.ParsedSheet sheet : sheets) {
+            while (lines.size() < sheet.line() - 1) {
+                lines.add("");
+            }
+            lines.add(objectMapper.writeValueAsString(sheet.sheet()));
+        }
+        return Files.write(tempDir.resolve(UUID.randomUUID() + ".jsonl"), lines, StandardCharsets.UTF_8);
+    }
+
+    private OfflineGradingService.ParsedSheet sheet(int line, Long studentId, UUID selectedOptionId) {
+        return new OfflineGradingService.ParsedSheet(line, QuizAttemptDto.OfflineSheet.builder()
+                .studentId(studentId)
+                .answers(List.of(answer(questionId, selectedOptionId)))
+                .build());
+    }
+
+    private QuizAttemptDto.SubmitRequest.AnswerSubmission answer(UUID question, UUID option) {
+        QuizAttemptDto.SubmitRequest.AnswerSubmission submission = new QuizAttemptDto.SubmitRequest.AnswerSubmission();
+        submission.setQuestionId(question);
+        submission.setSelectedOptionId(option);
+        return submission;
+    }
+}
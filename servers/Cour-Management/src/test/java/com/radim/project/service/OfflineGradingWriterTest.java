@@ -0,0 +1,100 @@
+package com.radim.project.service;
+
+import com.radim.project.entity.Question;
+import com.radim.project.entity.Quiz;
+import com.radim.project.entity.QuizAttempt;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizAttemptRepository;
+import com.radim.project.repository.QuizBestAttemptRepository;
+import com.radim.project.repository.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OfflineGradingWriterTest {
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+    @Mock
+    private QuizRepository quizRepository;
+    @Mock
+    private QuestionRepository questionRepository;
+    @Mock
+    private QuizBestAttemptRepository quizBestAttemptRepository;
+    @Mock
+    private QuestionOptionStatsRepository questionOptionStatsRepository;
+
+    @Mock
+    private JdbcBatchScope jdbcBatchScope;
+
+    @InjectMocks
+    private OfflineGradingWriter offlineGradingWriter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(jdbcBatchScope).flushBatched(any(Runnable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeBatch_ShouldSaveAttemptsAndUpsertBestAttempts() {
+        UUID quizId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        UUID correctOptionId = UUID.randomUUID();
+        UUID wrongOptionId = UUID.randomUUID();
+        Quiz quiz = Quiz.builder().id(quizId).build();
+        when(quizRepository.getReferenceById(quizId)).thenReturn(quiz);
+        when(questionRepository.getReferenceById(questionId)).thenReturn(Question.builder().id(questionId).build());
+
+        LocalDateTime submittedAt = LocalDateTime.now();
+        offlineGradingWriter.writeBatch(quizId, List.of(
+                graded(1, 7L, 0, submittedAt, questionId, wrongOptionId),
+                graded(2, 7L, 10, submittedAt, questionId, correctOptionId),
+                graded(3, 8L, 10, submittedAt, questionId, correctOptionId),
+                graded(4, 9L, 10, submittedAt, questionId, correctOptionId)));
+
+        ArgumentCaptor<List<QuizAttempt>> attempts = ArgumentCaptor.forClass(List.class);
+        verify(quizAttemptRepository).saveAll(attempts.capture());
+        assertThat(attempts.getValue()).hasSize(4)
+                .allSatisfy(attempt -> assertThat(attempt.getStudentAnswers()).hasSize(1));
+
+        verify(questionOptionStatsRepository).incrementCounts(quizId, List.of(
+                new QuestionOptionStatsRepository.OptionCount(questionId, wrongOptionId, 1, 0),
+                new QuestionOptionStatsRepository.OptionCount(questionId, correctOptionId, 3, 3)));
+
+        // One row per student with their best sheet of the batch; existing rows are left to ON CONFLICT
+        ArgumentCaptor<List<QuizBestAttemptRepository.BestAttempt>> bestAttempts = ArgumentCaptor.forClass(List.class);
+        verify(quizBestAttemptRepository).upsertIfBetter(eq(quizId), bestAttempts.capture());
+        assertThat(bestAttempts.getValue()).extracting(QuizBestAttemptRepository.BestAttempt::studentId)
+                .containsExactly(7L, 8L, 9L);
+        assertThat(bestAttempts.getValue()).allSatisfy(best -> {
+            assertThat(best.percentage()).isEqualTo(100.0);
+            assertThat(best.passed()).isTrue();
+        });
+        verifyNoMoreInteractions(quizBestAttemptRepository);
+    }
+
+    private OfflineGradingWriter.GradedSheet graded(int line, Long studentId, int score, LocalDateTime submittedAt,
+            UUID questionId, UUID optionId) {
+        return new OfflineGradingWriter.GradedSheet(line, studentId, score, 10, score * 10.0, score >= 6, submittedAt,
+                List.of(new OfflineGradingWriter.GradedAnswer(questionId, optionId, score > 0)));
+    }
+}
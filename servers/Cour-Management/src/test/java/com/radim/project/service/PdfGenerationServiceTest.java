@@ -5,15 +5,18 @@ import com.radim.project.entity.Course;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class PdfGenerationServiceTest {
 
@@ -24,7 +27,7 @@ class PdfGenerationServiceTest {
 
     @BeforeEach
     void setUp() {
-        pdfGenerationService = new PdfGenerationService();
+        pdfGenerationService = new PdfGenerationService(new CertificateTemplateRenderer());
         ReflectionTestUtils.setField(pdfGenerationService, "certificateStoragePath", tempDir.toString());
     }
 
@@ -50,13 +53,23 @@ class PdfGenerationServiceTest {
     }
 
     @Test
-    void loadCertificatePdf_ShouldReturnBytes() throws IOException {
+    void loadCertificateResource_ShouldStreamFile() throws IOException {
         Path testFile = tempDir.resolve("test.pdf");
         byte[] content = "PDF Content".getBytes();
         Files.write(testFile, content);
 
-        byte[] result = pdfGenerationService.loadCertificatePdf(testFile.toString());
+        Resource result = pdfGenerationService.loadCertificateResource(testFile.toString());
 
-        assertThat(result).isEqualTo(content);
+        assertThat(result.contentLength()).isEqualTo(content.length);
+        try (InputStream in = result.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void loadCertificateResource_ShouldThrow_WhenFileMissing() {
+        assertThatThrownBy(() -> pdfGenerationService.loadCertificateResource(tempDir.resolve("missing.pdf").toString()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Failed to load certificate PDF");
     }
 }
@@ -1,27 +1,41 @@
 package com.radim.project.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.radim.project.dto.ProgressDto;
 import com.radim.project.entity.Course;
+import com.radim.project.entity.CourseProgress;
 import com.radim.project.entity.Lesson;
 import com.radim.project.entity.LessonProgress;
 import com.radim.project.entity.Module;
+import com.radim.project.repository.CourseProgressRepository;
 import com.radim.project.repository.CourseRepository;
+import com.radim.project.repository.EnrollmentRepository;
 import com.radim.project.repository.LessonProgressRepository;
 import com.radim.project.repository.LessonRepository;
-import com.radim.project.repository.ModuleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,81 +48,148 @@ class ProgressServiceTest {
     @Mock
     private CourseRepository courseRepository;
     @Mock
-    private ModuleRepository moduleRepository;
+    private CourseProgressRepository courseProgressRepository;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private LessonCompletionBitsetService completionBitsetService;
+    @Mock
+    private CourseStructureCache courseStructureCache;
 
     @InjectMocks
     private ProgressService progressService;
 
     private UUID lessonId;
     private Long studentId;
+    private UUID courseId;
     private Lesson lesson;
 
     @BeforeEach
     void setUp() {
         lessonId = UUID.randomUUID();
         studentId = 1L;
+        courseId = UUID.randomUUID();
+        Course course = Course.builder().id(courseId).title("Java Course").build();
+        Module module = Module.builder().id(UUID.randomUUID()).course(course).build();
         lesson = Lesson.builder()
                 .id(lessonId)
+                .module(module)
                 .title("Intro to Java")
                 .build();
     }
 
     @Test
-    void markLessonComplete_ShouldCreateProgress_WhenNotExist() {
+    void markLessonComplete_ShouldIncrementCounters_WhenNewlyCompleted() {
         when(lessonRepository.findById(lessonId)).thenReturn(Optional.of(lesson));
-        when(lessonProgressRepository.findByLesson_IdAndStudentId(lessonId, studentId)).thenReturn(Optional.empty());
-        when(lessonProgressRepository.save(any(LessonProgress.class))).thenAnswer(i -> i.getArgument(0));
+        when(lessonProgressRepository.markCompleted(eq(lessonId), eq(studentId), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(lessonProgressRepository.findByLesson_IdAndStudentId(lessonId, studentId))
+                .thenReturn(Optional.of(completedProgress()));
+        when(courseProgressRepository.incrementCompletedLessons(courseId, studentId)).thenReturn(1);
 
         ProgressDto.LessonProgressResponse response = progressService.markLessonComplete(lessonId, studentId);
 
         assertThat(response.getCompleted()).isTrue();
-        verify(lessonProgressRepository).save(any(LessonProgress.class));
+        verify(courseProgressRepository).incrementCompletedLessons(courseId, studentId);
+        verify(courseProgressRepository, never()).seedCompletedLessons(any(), any(), anyLong(), anyLong());
+        verify(completionBitsetService).markCompleted(courseId, studentId, lessonId);
     }
 
     @Test
-    void markLessonComplete_ShouldUpdateProgress_WhenExists() {
-        LessonProgress progress = LessonProgress.builder()
-                .lesson(lesson)
-                .studentId(studentId)
-                .completed(false)
-                .build();
+    void markLessonComplete_ShouldSeedCounters_WhenFirstCompletionInCourse() {
+        when(lessonRepository.findById(lessonId)).thenReturn(Optional.of(lesson));
+        when(lessonProgressRepository.markCompleted(eq(lessonId), eq(studentId), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(lessonProgressRepository.findByLesson_IdAndStudentId(lessonId, studentId))
+                .thenReturn(Optional.of(completedProgress()));
+        when(courseProgressRepository.incrementCompletedLessons(courseId, studentId)).thenReturn(0);
+        when(courseStructureCache.getOutline(courseId)).thenReturn(outline(lessonId, UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID()));
+        when(lessonProgressRepository.countByStudentIdAndLesson_Module_Course_IdAndCompletedTrue(studentId, courseId))
+                .thenReturn(1L);
+
+        progressService.markLessonComplete(lessonId, studentId);
 
+        verify(courseProgressRepository).seedCompletedLessons(courseId, studentId, 4L, 1L);
+        verify(courseProgressRepository, never()).save(any());
+    }
+
+    @Test
+    void markLessonComplete_ShouldNotIncrementCounters_WhenAlreadyCompleted() {
         when(lessonRepository.findById(lessonId)).thenReturn(Optional.of(lesson));
+        when(lessonProgressRepository.markCompleted(eq(lessonId), eq(studentId), any(LocalDateTime.class)))
+                .thenReturn(0);
         when(lessonProgressRepository.findByLesson_IdAndStudentId(lessonId, studentId))
-                .thenReturn(Optional.of(progress));
-        when(lessonProgressRepository.save(any(LessonProgress.class))).thenReturn(progress);
+                .thenReturn(Optional.of(completedProgress()));
 
         ProgressDto.LessonProgressResponse response = progressService.markLessonComplete(lessonId, studentId);
 
         assertThat(response.getCompleted()).isTrue();
+        verifyNoInteractions(courseProgressRepository);
+        verifyNoInteractions(completionBitsetService);
     }
 
     @Test
     void getCourseProgress_ShouldCalculateCorrectly() {
-        UUID courseId = UUID.randomUUID();
         Course course = Course.builder().id(courseId).title("Java Course").build();
+        CourseProgress counters = CourseProgress.builder()
+                .course(course)
+                .studentId(studentId)
+                .totalLessons(10L)
+                .completedLessons(7L)
+                .build();
 
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(lessonProgressRepository.countTotalLessonsByCourseId(courseId)).thenReturn(10L);
-        when(lessonProgressRepository.countByStudentIdAndLesson_Module_Course_IdAndCompletedTrue(studentId, courseId))
-                .thenReturn(7L);
+        when(courseProgressRepository.findByCourse_IdAndStudentId(courseId, studentId))
+                .thenReturn(Optional.of(counters));
 
         ProgressDto.CourseProgressResponse response = progressService.getCourseProgress(courseId, studentId);
 
         assertThat(response.getCompletionRate()).isEqualTo(70.0);
         assertThat(response.getCompletedLessons()).isEqualTo(7L);
+        verifyNoInteractions(courseStructureCache);
+    }
+
+    @Test
+    void calculateCompletionRates_ShouldDefaultToZero_WhenNoCounters() {
+        CourseProgress counters = CourseProgress.builder()
+                .studentId(studentId)
+                .totalLessons(3L)
+                .completedLessons(2L)
+                .build();
+        when(courseProgressRepository.findByCourse_IdAndStudentIdIn(courseId, List.of(studentId, 99L)))
+                .thenReturn(List.of(counters));
+
+        Map<Long, Double> rates = progressService.calculateCompletionRates(courseId, List.of(studentId, 99L));
+
+        assertThat(rates).containsExactlyInAnyOrderEntriesOf(Map.of(studentId, 66.67, 99L, 0.0));
+        verifyNoInteractions(courseStructureCache);
+    }
+
+    @Test
+    void getCourseProgress_ShouldFallBackToLessonCount_WhenNoCounters() {
+        Course course = Course.builder().id(courseId).title("Java Course").build();
+
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(courseProgressRepository.findByCourse_IdAndStudentId(courseId, studentId)).thenReturn(Optional.empty());
+        when(courseStructureCache.getOutline(courseId)).thenReturn(outline(new UUID[10]));
+
+        ProgressDto.CourseProgressResponse response = progressService.getCourseProgress(courseId, studentId);
+
+        assertThat(response.getTotalLessons()).isEqualTo(10L);
+        assertThat(response.getCompletedLessons()).isZero();
+        assertThat(response.getCompletionRate()).isZero();
     }
 
     @Test
     void getAllLessonProgressForCourse_ShouldSyncMissingProgress() {
-        UUID courseId = UUID.randomUUID();
         Course course = Course.builder().id(courseId).build();
-        UUID moduleId = UUID.randomUUID();
-        Module module = Module.builder().id(moduleId).build();
 
         when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-        when(moduleRepository.findByCourseIdOrderByOrderIndexAsc(courseId)).thenReturn(List.of(module));
-        when(lessonRepository.findByModuleIdOrderByOrderIndexAsc(moduleId)).thenReturn(List.of(lesson));
+        when(courseStructureCache.getOutline(courseId)).thenReturn(outline(lessonId));
+        when(lessonRepository.getReferenceById(lessonId)).thenReturn(lesson);
         when(lessonProgressRepository.findByStudentIdAndCourseIdWithLesson(studentId, courseId)).thenReturn(List.of());
         when(lessonProgressRepository.save(any(LessonProgress.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -119,4 +200,213 @@ class ProgressServiceTest {
         assertThat(responses.get(0).getLessonId()).isEqualTo(lessonId);
         verify(lessonProgressRepository).save(any(LessonProgress.class));
     }
+
+    @Test
+    void getLessonProgressOverview_ShouldReturnNotStartedEntries_WithoutWrites() {
+        LessonProgressRepository.LessonProgressView view = mock(LessonProgressRepository.LessonProgressView.class);
+        when(view.getLessonId()).thenReturn(lessonId);
+        when(view.getLessonTitle()).thenReturn("Intro to Java");
+        when(view.getCompleted()).thenReturn(null);
+        when(lessonProgressRepository.findLessonProgressViewsByCourseId(courseId, studentId)).thenReturn(List.of(view));
+
+        List<ProgressDto.LessonProgressResponse> responses = progressService.getLessonProgressOverview(courseId,
+                studentId);
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getCompleted()).isFalse();
+        verify(lessonProgressRepository, never()).save(any());
+    }
+
+    @Test
+    void getLessonProgressOverview_ShouldThrow_WhenCourseMissing() {
+        when(lessonProgressRepository.findLessonProgressViewsByCourseId(courseId, studentId)).thenReturn(List.of());
+        when(courseRepository.existsById(courseId)).thenReturn(false);
+
+        assertThatThrownBy(() -> progressService.getLessonProgressOverview(courseId, studentId))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Course not found");
+    }
+
+    @Test
+    void getAllLessonProgressForCourse_ShouldUseReadOnlyPath_WhenCreateMissingDisabled() {
+        ReflectionTestUtils.setField(progressService, "createMissingLessonProgress", false);
+        when(lessonProgressRepository.findLessonProgressViewsByCourseId(courseId, studentId)).thenReturn(List.of());
+        when(courseRepository.existsById(courseId)).thenReturn(true);
+
+        List<ProgressDto.LessonProgressResponse> responses = progressService.getAllLessonProgressForCourse(courseId,
+                studentId);
+
+        assertThat(responses).isEmpty();
+        verifyNoInteractions(courseStructureCache);
+        verify(lessonProgressRepository, never()).save(any());
+    }
+
+    @Test
+    void syncLessonCompletions_ShouldUpsertOnceAndKeepEarliestCompletion() {
+        LocalDateTime earlier = LocalDateTime.now().minusHours(2);
+        LocalDateTime later = LocalDateTime.now().minusHours(1);
+        UUID unknownLessonId = UUID.randomUUID();
+        LessonRepository.LessonCourseView view = mock(LessonRepository.LessonCourseView.class);
+        when(view.getLessonId()).thenReturn(lessonId);
+        when(view.getCourseId()).thenReturn(courseId);
+        when(lessonRepository.findCourseIdsByLessonIds(any())).thenReturn(List.of(view));
+        LessonProgress progress = LessonProgress.builder()
+                .lesson(lesson)
+                .studentId(studentId)
+                .completed(true)
+                .completedAt(earlier)
+                .build();
+        when(lessonProgressRepository.findByStudentIdAndLessonIdInWithLesson(eq(studentId), any()))
+                .thenReturn(List.of(progress));
+
+        List<ProgressDto.LessonProgressResponse> responses = progressService.syncLessonCompletions(studentId, List.of(
+                new ProgressDto.LessonCompletion(lessonId, later),
+                new ProgressDto.LessonCompletion(lessonId, earlier),
+                new ProgressDto.LessonCompletion(unknownLessonId, later)));
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getCompletedAt()).isEqualTo(earlier);
+        verify(lessonProgressRepository).upsertCompletions(studentId, Map.of(lessonId, earlier));
+        verify(courseProgressRepository).refreshCounters(eq(studentId), eq(java.util.Set.of(courseId)));
+        verify(lessonProgressRepository, never()).save(any());
+    }
+
+    @Test
+    void syncLessonCompletions_ShouldClampFutureTimestamps() {
+        LessonRepository.LessonCourseView view = mock(LessonRepository.LessonCourseView.class);
+        when(view.getLessonId()).thenReturn(lessonId);
+        when(view.getCourseId()).thenReturn(courseId);
+        when(lessonRepository.findCourseIdsByLessonIds(any())).thenReturn(List.of(view));
+
+        progressService.syncLessonCompletions(studentId, List.of(
+                new ProgressDto.LessonCompletion(lessonId, LocalDateTime.now().plusDays(1))));
+
+        verify(lessonProgressRepository).upsertCompletions(eq(studentId),
+                argThat(m -> !m.get(lessonId).isAfter(LocalDateTime.now())));
+    }
+
+    @Test
+    void syncLessonCompletions_ShouldSkipWrites_WhenNoKnownLessons() {
+        when(lessonRepository.findCourseIdsByLessonIds(any())).thenReturn(List.of());
+
+        List<ProgressDto.LessonProgressResponse> responses = progressService.syncLessonCompletions(studentId,
+                List.of(new ProgressDto.LessonCompletion(UUID.randomUUID(), null)));
+
+        assertThat(responses).isEmpty();
+        verify(lessonProgressRepository, never()).upsertCompletions(any(), any());
+        verifyNoInteractions(courseProgressRepository);
+    }
+
+    @Test
+    void writeCourseProgressMatrix_ShouldStreamTotalsAndLessonBits() throws Exception {
+        UUID secondLessonId = UUID.randomUUID();
+        when(courseStructureCache.getOutline(courseId)).thenReturn(outline(lessonId, secondLessonId));
+        EnrollmentRepository.StudentCompletionView student1 = mock(EnrollmentRepository.StudentCompletionView.class);
+        when(student1.getStudentId()).thenReturn(1L);
+        when(student1.getCompletedLessons()).thenReturn(1L);
+        EnrollmentRepository.StudentCompletionView student2 = mock(EnrollmentRepository.StudentCompletionView.class);
+        when(student2.getStudentId()).thenReturn(2L);
+        when(student2.getCompletedLessons()).thenReturn(0L);
+        when(enrollmentRepository.streamStudentCompletionsByCourseId(courseId)).thenReturn(Stream.of(student1, student2));
+        LessonProgressRepository.StudentLessonView completion = mock(LessonProgressRepository.StudentLessonView.class);
+        when(completion.getStudentId()).thenReturn(1L);
+        when(completion.getLessonId()).thenReturn(secondLessonId);
+        when(lessonProgressRepository.streamCompletedLessonsByCourseId(courseId)).thenReturn(Stream.of(completion));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        progressService.writeCourseProgressMatrix(courseId, true, out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(json.get("totalLessons").asLong()).isEqualTo(2L);
+        assertThat(json.get("lessonIds")).hasSize(2);
+        assertThat(json.get("students")).hasSize(2);
+        assertThat(json.get("students").get(0).get("completionRate").asDouble()).isEqualTo(50.0);
+        assertThat(json.get("students").get(0).get("lessonCompletion").asText()).isEqualTo("01");
+        assertThat(json.get("students").get(1).get("lessonCompletion").asText()).isEqualTo("00");
+    }
+
+    @Test
+    void writeCourseProgressMatrix_ShouldSkipLessonQuery_WhenDetailNotRequested() throws Exception {
+        when(courseStructureCache.getOutline(courseId)).thenReturn(outline(lessonId));
+        when(enrollmentRepository.streamStudentCompletionsByCourseId(courseId)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        progressService.writeCourseProgressMatrix(courseId, false, out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertThat(json.has("lessonIds")).isFalse();
+        assertThat(json.get("students")).isEmpty();
+        verify(lessonProgressRepository, never()).streamCompletedLessonsByCourseId(any());
+    }
+
+    @Test
+    void validateCourseOwnership_ShouldThrow_WhenTeacherDoesNotOwnCourse() {
+        Course course = Course.builder().id(courseId).teacherId(5L).build();
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+
+        assertThatThrownBy(() -> progressService.validateCourseOwnership(courseId, 6L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Access denied");
+    }
+
+    @Test
+    void getModuleProgress_ShouldMapGroupedCounts() {
+        LessonProgressRepository.ModuleProgressView view = mock(LessonProgressRepository.ModuleProgressView.class);
+        UUID moduleId = UUID.randomUUID();
+        when(view.getModuleId()).thenReturn(moduleId);
+        when(view.getModuleTitle()).thenReturn("Basics");
+        when(view.getTotalLessons()).thenReturn(3L);
+        when(view.getCompletedLessons()).thenReturn(1L);
+        when(lessonProgressRepository.findModuleProgressByCourseId(courseId, studentId)).thenReturn(List.of(view));
+
+        List<ProgressDto.ModuleProgressResponse> responses = progressService.getModuleProgress(courseId, studentId);
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getModuleTitle()).isEqualTo("Basics");
+        assertThat(responses.get(0).getCompletionRate()).isEqualTo(33.33);
+        verify(lessonProgressRepository, never()).findByStudentIdAndCourseIdWithLesson(any(), any());
+    }
+
+    @Test
+    void getNextLesson_ShouldUseCompletionBitset() {
+        UUID nextLessonId = UUID.randomUUID();
+        BitSet completed = new BitSet();
+        completed.set(0);
+        when(courseRepository.existsById(courseId)).thenReturn(true);
+        when(completionBitsetService.getCompletionBits(courseId, studentId)).thenReturn(completed);
+        when(completionBitsetService.findNextIncompleteLesson(courseId, studentId)).thenReturn(Optional.of(nextLessonId));
+        when(completionBitsetService.getCompletionRate(courseId, studentId)).thenReturn(50.0);
+
+        ProgressDto.NextLessonResponse response = progressService.getNextLesson(courseId, studentId);
+
+        assertThat(response.getLessonId()).isEqualTo(nextLessonId);
+        assertThat(response.getCompletedLessons()).isEqualTo(1L);
+        assertThat(response.getCompletionRate()).isEqualTo(50.0);
+    }
+
+    @Test
+    void onLessonsReordered_ShouldInvalidateCourseBitsets() {
+        progressService.onLessonsReordered(courseId);
+
+        verify(completionBitsetService).invalidateCourse(courseId);
+    }
+
+    private LessonProgress completedProgress() {
+        return LessonProgress.builder()
+                .lesson(lesson)
+                .studentId(studentId)
+                .completed(true)
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private CourseStructureCache.CourseOutline outline(UUID... lessonIds) {
+        List<CourseStructureCache.LessonOutline> lessons = new ArrayList<>();
+        for (int i = 0; i < lessonIds.length; i++) {
+            UUID id = lessonIds[i] != null ? lessonIds[i] : UUID.randomUUID();
+            lessons.add(new CourseStructureCache.LessonOutline(id, "Lesson " + i, i, 0));
+        }
+        return new CourseStructureCache.CourseOutline(courseId, List.of(
+                new CourseStructureCache.ModuleOutline(UUID.randomUUID(), "Module", 0, lessons)));
+    }
 }
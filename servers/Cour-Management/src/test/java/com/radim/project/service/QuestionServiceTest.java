@@ -22,10 +22,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +38,12 @@ class QuestionServiceTest {
     private QuestionRepository questionRepository;
     @Mock
     private QuizRepository quizRepository;
+    @Mock
+    private AnswerKeyCache answerKeyCache;
+    @Mock
+    private QuizDeliveryCache quizDeliveryCache;
+    @Mock
+    private JdbcBatchScope jdbcBatchScope;
 
     @InjectMocks
     private QuestionService questionService;
@@ -93,5 +102,134 @@ class QuestionServiceTest {
 
         assertThat(response).isNotNull();
         verify(questionRepository).save(any(Question.class));
+        verify(answerKeyCache).invalidate(quizId);
+    }
+
+    @Test
+    void deleteQuestion_ShouldInvalidateAnswerKey() {
+        Question question = Question.builder().id(UUID.randomUUID()).quiz(quiz).build();
+        when(questionRepository.findById(question.getId())).thenReturn(Optional.of(question));
+
+        questionService.deleteQuestion(quizId, question.getId());
+
+        verify(questionRepository).delete(question);
+        verify(answerKeyCache).invalidate(quizId);
+        verify(quizDeliveryCache).invalidate(quizId);
+    }
+
+    @Test
+    void updateQuestion_ShouldKeepMatchedOptionsAndOnlyReplaceRemovedOnes() {
+        QuestionOption kept = QuestionOption.builder().id(UUID.randomUUID()).optionText("A language")
+                .isCorrect(true).optionOrder(0).build();
+        QuestionOption removed = QuestionOption.builder().id(UUID.randomUUID()).optionText("A coffee")
+                .isCorrect(false).optionOrder(1).build();
+        Question question = Question.builder().id(UUID.randomUUID()).quiz(quiz).questionText("What is Java?")
+                .options(new ArrayList<>()).build();
+        question.addOption(kept);
+        question.addOption(removed);
+        when(questionRepository.findById(question.getId())).thenReturn(Optional.of(question));
+        when(questionRepository.save(question)).thenReturn(question);
+
+        QuizDto.QuestionResponse response = questionService.updateQuestion(quizId, question.getId(),
+                QuizDto.QuestionRequest.builder()
+                        .questionText("What is Java?")
+                        .questionType("MULTIPLE_CHOICE")
+                        .options(List.of(
+                                new QuizDto.OptionRequest("An island", false),
+                                new QuizDto.OptionRequest(kept.getId(), "A programming language", true)))
+                        .build());
+
+        assertThat(question.getOptions()).hasSize(2).contains(kept).doesNotContain(removed);
+        assertThat(kept.getOptionText()).isEqualTo("A programming language");
+        assertThat(kept.getOptionOrder()).isEqualTo(1);
+        assertThat(removed.getQuestion()).isNull();
+        assertThat(response.getOptions()).extracting(QuizDto.OptionResponse::getOptionText)
+                .containsExactly("An island", "A programming language");
+        verify(answerKeyCache).invalidate(quizId);
+        verify(quizDeliveryCache).invalidate(quizId);
+    }
+
+    @Test
+    void updateQuestion_ShouldThrow_WhenOptionBelongsToAnotherQuestion() {
+        Question question = Question.builder().id(UUID.randomUUID()).quiz(quiz).options(new ArrayList<>()).build();
+        when(questionRepository.findById(question.getId())).thenReturn(Optional.of(question));
+
+        assertThatThrownBy(() -> questionService.updateQuestion(quizId, question.getId(),
+                QuizDto.QuestionRequest.builder()
+                        .questionText("What is Java?")
+                        .questionType("MULTIPLE_CHOICE")
+                        .options(List.of(
+                                new QuizDto.OptionRequest(UUID.randomUUID(), "A language", true),
+                                new QuizDto.OptionRequest("A coffee", false)))
+                        .build()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Option not found");
+
+        verify(questionRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateQuestions_ShouldLoadAllQuestionsOnceAndInvalidateOnce() {
+        Question first = Question.builder().id(UUID.randomUUID()).quiz(quiz).options(new ArrayList<>()).build();
+        Question second = Question.builder().id(UUID.randomUUID()).quiz(quiz).options(new ArrayList<>()).build();
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(questionRepository.findWithOptionsByQuizIdAndIdIn(eq(quizId), any()))
+                .thenReturn(List.of(second, first));
+        AtomicBoolean inBatchScope = new AtomicBoolean();
+        when(jdbcBatchScope.flushBatched(any(Supplier.class))).thenAnswer(invocation -> {
+            inBatchScope.set(true);
+            try {
+                return invocation.<Supplier<?>>getArgument(0).get();
+            } finally {
+                inBatchScope.set(false);
+            }
+        });
+        List<Boolean> savedInBatchScope = new ArrayList<>();
+        when(questionRepository.saveAll(any())).thenAnswer(invocation -> {
+            savedInBatchScope.add(inBatchScope.get());
+            return invocation.getArgument(0);
+        });
+
+        List<QuizDto.QuestionResponse> responses = questionService.updateQuestions(quizId,
+                new QuizDto.BulkQuestionUpdateRequest(List.of(update(first.getId(), "First?"),
+                        update(second.getId(), "Second?"))));
+
+        assertThat(responses).extracting(QuizDto.QuestionResponse::getQuestionText)
+                .containsExactly("First?", "Second?");
+        assertThat(first.getOptions()).hasSize(2);
+        verify(questionRepository).saveAll(List.of(first, second));
+        // Saved inside the batch scope, which flushes before restoring the batch size
+        assertThat(savedInBatchScope).containsExactly(true);
+        verify(answerKeyCache, times(1)).invalidate(quizId);
+        verify(quizDeliveryCache, times(1)).invalidate(quizId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateQuestions_ShouldThrow_WhenQuestionNotInQuiz() {
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(questionRepository.findWithOptionsByQuizIdAndIdIn(eq(quizId), any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> questionService.updateQuestions(quizId,
+                new QuizDto.BulkQuestionUpdateRequest(List.of(update(UUID.randomUUID(), "Where?")))))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageStartingWith("Question not found");
+
+        verify(questionRepository, never()).saveAll(any());
+        verify(jdbcBatchScope, never()).flushBatched(any(Supplier.class));
+        verify(answerKeyCache, never()).invalidate(any());
+    }
+
+    private QuizDto.QuestionUpdateRequest update(UUID questionId, String questionText) {
+        return QuizDto.QuestionUpdateRequest.builder()
+                .id(questionId)
+                .questionText(questionText)
+                .questionType("MULTIPLE_CHOICE")
+                .points(5)
+                .options(List.of(
+                        new QuizDto.OptionRequest("Yes", true),
+                        new QuizDto.OptionRequest("No", false)))
+                .build();
     }
 }
@@ -0,0 +1,188 @@
+package com.radim.project.service;
+
+import com.radim.project.dto.QuizDto;
+import com.radim.project.entity.Course;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuestionOptionStatsRepository;
+import com.radim.project.repository.QuestionOptionStatsRepositoryCustom.OptionCount;
+import com.radim.project.repository.QuizRepository;
+import com.radim.project.repository.StudentAnswerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizAnalyticsServiceTest {
+
+    @Mock
+    private QuestionOptionStatsRepository questionOptionStatsRepository;
+    @Mock
+    private StudentAnswerRepository studentAnswerRepository;
+    @Mock
+    private QuizRepository quizRepository;
+
+    @InjectMocks
+    private QuizAnalyticsService quizAnalyticsService;
+
+    private MockedStatic<SecurityContextHolder> mockedSecurityContextHolder;
+    private Long teacherId;
+    private UUID courseId;
+    private UUID quizId;
+
+    @BeforeEach
+    void setUp() {
+        teacherId = 1L;
+        courseId = UUID.randomUUID();
+        quizId = UUID.randomUUID();
+
+        Course course = Course.builder().id(courseId).teacherId(teacherId).build();
+        Quiz quiz = Quiz.builder().id(quizId).course(course).build();
+        lenient().when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+
+        mockedSecurityContextHolder = mockStatic(SecurityContextHolder.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        Authentication authentication = mock(Authentication.class);
+
+        mockedSecurityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(teacherId.toString());
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_TEACHER"))).when(authentication).getAuthorities();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedSecurityContextHolder.close();
+    }
+
+    @Test
+    void getItemAnalysis_ShouldComputeDifficultyAndDistribution() {
+        UUID questionId = UUID.randomUUID();
+        UUID unansweredId = UUID.randomUUID();
+        UUID correctOption = UUID.randomUUID();
+        UUID wrongOption = UUID.randomUUID();
+        List<QuestionOptionStatsRepository.QuestionTotalsView> totals = List.of(totals(questionId, 4L, 3L));
+        List<QuestionOptionStatsRepository.OptionStatsView> rows = List.of(
+                optionRow(questionId, correctOption, true, 3L),
+                optionRow(questionId, wrongOption, false, null),
+                optionRow(unansweredId, UUID.randomUUID(), true, null));
+        when(questionOptionStatsRepository.findQuestionTotalsByQuizId(quizId)).thenReturn(totals);
+        when(questionOptionStatsRepository.findOptionStatsByQuizId(quizId)).thenReturn(rows);
+
+        QuizDto.ItemAnalysisResponse response = quizAnalyticsService.getItemAnalysis(courseId, quizId);
+
+        assertThat(response.getQuestions()).hasSize(2);
+        QuizDto.QuestionAnalysis question = response.getQuestions().get(0);
+        assertThat(question.getAnswerCount()).isEqualTo(4L);
+        assertThat(question.getPercentCorrect()).isEqualTo(75.0);
+        assertThat(question.getOptions()).extracting(QuizDto.OptionAnalysis::getSelectCount).containsExactly(3L, 0L);
+        assertThat(question.getOptions().get(0).getSelectRate()).isEqualTo(75.0);
+        QuizDto.QuestionAnalysis unanswered = response.getQuestions().get(1);
+        assertThat(unanswered.getAnswerCount()).isZero();
+        assertThat(unanswered.getPercentCorrect()).isNull();
+        verify(studentAnswerRepository, never()).streamAnswersByQuizId(any());
+    }
+
+    @Test
+    void getItemAnalysis_ShouldThrowException_WhenNotOwner() {
+        Course otherCourse = Course.builder().id(courseId).teacherId(99L).build();
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(Quiz.builder().id(quizId).course(otherCourse).build()));
+
+        assertThatThrownBy(() -> quizAnalyticsService.getItemAnalysis(courseId, quizId))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void rebuildItemAnalysis_ShouldAggregateStreamedAnswersInBatches() {
+        ReflectionTestUtils.setField(quizAnalyticsService, "rebuildBatchSize", 2);
+        UUID question1 = UUID.randomUUID();
+        UUID question2 = UUID.randomUUID();
+        UUID optionA = UUID.randomUUID();
+        UUID optionB = UUID.randomUUID();
+        UUID optionC = UUID.randomUUID();
+        List<StudentAnswerRepository.AnswerView> answers = List.of(
+                answer(question1, optionA, true), answer(question1, optionA, true), answer(question1, optionB, false),
+                answer(question2, optionC, true));
+        when(studentAnswerRepository.streamAnswersByQuizId(quizId)).thenReturn(answers.stream());
+        List<List<OptionCount>> batches = new ArrayList<>();
+        when(questionOptionStatsRepository.incrementCounts(eq(quizId), any())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<Collection<OptionCount>>getArgument(1)));
+            return 0;
+        });
+
+        QuizDto.ItemAnalysisRebuildResponse response = quizAnalyticsService.rebuildItemAnalysis(courseId, quizId);
+
+        assertThat(response.getAnswersProcessed()).isEqualTo(4L);
+        assertThat(response.getStatsRows()).isEqualTo(3);
+        InOrder inOrder = inOrder(questionOptionStatsRepository, studentAnswerRepository);
+        inOrder.verify(questionOptionStatsRepository).lockCountsExclusively(quizId);
+        inOrder.verify(questionOptionStatsRepository).deleteByQuizId(quizId);
+        inOrder.verify(studentAnswerRepository).streamAnswersByQuizId(quizId);
+        assertThat(batches).containsExactly(
+                List.of(new OptionCount(question1, optionA, 2, 2), new OptionCount(question1, optionB, 1, 0)),
+                List.of(new OptionCount(question2, optionC, 1, 1)));
+    }
+
+    @Test
+    void rebuildItemAnalysis_ShouldOnlyClear_WhenNoAnswers() {
+        when(studentAnswerRepository.streamAnswersByQuizId(quizId)).thenReturn(Stream.empty());
+
+        QuizDto.ItemAnalysisRebuildResponse response = quizAnalyticsService.rebuildItemAnalysis(courseId, quizId);
+
+        assertThat(response.getAnswersProcessed()).isZero();
+        verify(questionOptionStatsRepository).deleteByQuizId(quizId);
+        verify(questionOptionStatsRepository, never()).incrementCounts(any(), any());
+    }
+
+    private QuestionOptionStatsRepository.QuestionTotalsView totals(UUID questionId, Long answers, Long correct) {
+        QuestionOptionStatsRepository.QuestionTotalsView view = mock(QuestionOptionStatsRepository.QuestionTotalsView.class);
+        lenient().when(view.getQuestionId()).thenReturn(questionId);
+        lenient().when(view.getAnswerCount()).thenReturn(answers);
+        lenient().when(view.getCorrectCount()).thenReturn(correct);
+        return view;
+    }
+
+    private QuestionOptionStatsRepository.OptionStatsView optionRow(UUID questionId, UUID optionId, boolean correct,
+            Long selectCount) {
+        QuestionOptionStatsRepository.OptionStatsView view = mock(QuestionOptionStatsRepository.OptionStatsView.class);
+        lenient().when(view.getQuestionId()).thenReturn(questionId);
+        lenient().when(view.getQuestionText()).thenReturn("Question");
+        lenient().when(view.getOptionId()).thenReturn(optionId);
+        lenient().when(view.getOptionText()).thenReturn("Option");
+        lenient().when(view.getIsCorrect()).thenReturn(correct);
+        lenient().when(view.getSelectCount()).thenReturn(selectCount);
+        return view;
+    }
+
+    private StudentAnswerRepository.AnswerView answer(UUID questionId, UUID optionId, boolean correct) {
+        StudentAnswerRepository.AnswerView view = mock(StudentAnswerRepository.AnswerView.class);
+        lenient().when(view.getQuestionId()).thenReturn(questionId);
+        lenient().when(view.getSelectedOptionId()).thenReturn(optionId);
+        lenient().when(view.getIsCorrect()).thenReturn(correct);
+        return view;
+    }
+}
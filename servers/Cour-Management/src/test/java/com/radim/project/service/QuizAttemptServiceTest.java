@@ -11,18 +11,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +41,14 @@ class QuizAttemptServiceTest {
     private QuizRepository quizRepository;
     @Mock
     private QuestionRepository questionRepository;
+    @Mock
+    private AnswerKeyCache answerKeyCache;
+    @Mock
+    private QuizBestAttemptRepository quizBestAttemptRepository;
+    @Mock
+    private QuestionOptionStatsRepository questionOptionStatsRepository;
+    @Mock
+    private AttemptExpiryQueue attemptExpiryQueue;
 
     @InjectMocks
     private QuizAttemptService quizAttemptService;
@@ -56,8 +69,8 @@ class QuizAttemptServiceTest {
         Authentication authentication = mock(Authentication.class);
 
         mockedSecurityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(studentId.toString());
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getPrincipal()).thenReturn(studentId.toString());
 
         quiz = Quiz.builder()
                 .id(quizId)
@@ -75,6 +88,7 @@ class QuizAttemptServiceTest {
     @Test
     void startQuizAttempt_ShouldSuccess() {
         when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(UUID.randomUUID(), UUID.randomUUID()));
 
         QuizAttempt attempt = QuizAttempt.builder()
                 .id(UUID.randomUUID())
@@ -88,7 +102,7 @@ class QuizAttemptServiceTest {
 
         assertThat(response).isNotNull();
         assertThat(response.getStudentId()).isEqualTo(studentId);
-        verify(quizAttemptRepository).save(any(QuizAttempt.class));
+        verify(quizAttemptRepository).save(argThat(saved -> saved.getMaxScore() == 1));
     }
 
     @Test
@@ -105,10 +119,7 @@ class QuizAttemptServiceTest {
 
         UUID questionId = UUID.randomUUID();
         UUID optionId = UUID.randomUUID();
-        QuestionOption option = QuestionOption.builder().id(optionId).isCorrect(true).build();
-        Question question = Question.builder().id(questionId).options(List.of(option)).build();
-
-        when(questionRepository.findById(questionId)).thenReturn(Optional.of(question));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, optionId));
 
         QuizAttemptDto.SubmitRequest.AnswerSubmission submission = new QuizAttemptDto.SubmitRequest.AnswerSubmission();
         submission.setQuestionId(questionId);
@@ -117,13 +128,124 @@ class QuizAttemptServiceTest {
         QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
         request.setAnswers(List.of(submission));
 
-        when(quizAttemptRepository.save(any(QuizAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), eq(1), eq(1), eq(100.0), eq(true), any(), any()))
+                .thenReturn(1);
 
         QuizAttemptDto.AttemptResponse response = quizAttemptService.submitQuizAttempt(attemptId, request);
 
         assertThat(response.getScore()).isEqualTo(1);
         assertThat(response.getPassed()).isTrue();
+        assertThat(response.getAnswers()).hasSize(1);
+        assertThat(response.getAnswers().get(0).getCorrectOptionId()).isEqualTo(optionId);
         verify(studentAnswerRepository).saveAll(anyList());
+        verify(questionRepository, never()).findById(any());
+        verify(quizBestAttemptRepository).upsertIfBetter(quizId, List.of(new QuizBestAttemptRepository.BestAttempt(
+                studentId, attemptId, 100.0, true, attempt.getSubmittedAt())));
+        verify(questionOptionStatsRepository).incrementCounts(quizId,
+                List.of(new QuestionOptionStatsRepository.OptionCount(questionId, optionId, 1, 1)));
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldRecordFailedAttemptThroughUpsert() {
+        UUID attemptId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .build();
+        UUID questionId = UUID.randomUUID();
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, UUID.randomUUID()));
+
+        QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
+        request.setAnswers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(questionId, UUID.randomUUID())));
+
+        quizAttemptService.submitQuizAttempt(attemptId, request);
+
+        // Whether the student already has a row is left to ON CONFLICT, nothing is read first
+        verify(quizBestAttemptRepository).upsertIfBetter(quizId, List.of(new QuizBestAttemptRepository.BestAttempt(
+                studentId, attemptId, 0.0, false, attempt.getSubmittedAt())));
+        verifyNoMoreInteractions(quizBestAttemptRepository);
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldWeightScoreByPoints_AndUseQuizPassingScore() {
+        UUID attemptId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .build();
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        UUID hardQuestion = UUID.randomUUID();
+        UUID hardOption = UUID.randomUUID();
+        UUID easyQuestion = UUID.randomUUID();
+        UUID easyOption = UUID.randomUUID();
+        AnswerKeyCache.AnswerKey answerKey = new AnswerKeyCache.AnswerKey(quizId, Map.of(
+                hardQuestion, new AnswerKeyCache.QuestionKey(hardQuestion, "Hard", Set.of(hardOption), 3),
+                easyQuestion, new AnswerKeyCache.QuestionKey(easyQuestion, "Easy", Set.of(easyOption), 1)),
+                4, 70);
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey);
+
+        QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
+        request.setAnswers(List.of(
+                new QuizAttemptDto.SubmitRequest.AnswerSubmission(hardQuestion, hardOption),
+                new QuizAttemptDto.SubmitRequest.AnswerSubmission(easyQuestion, UUID.randomUUID())));
+
+        QuizAttemptDto.AttemptResponse response = quizAttemptService.submitQuizAttempt(attemptId, request);
+
+        assertThat(response.getScore()).isEqualTo(3);
+        assertThat(response.getMaxScore()).isEqualTo(4);
+        assertThat(response.getPercentage()).isEqualTo(75.0);
+        assertThat(response.getPassed()).isTrue();
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldThrowException_WhenQuestionAnsweredTwice() {
+        UUID attemptId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .build();
+        UUID questionId = UUID.randomUUID();
+        UUID optionId = UUID.randomUUID();
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, optionId));
+
+        QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
+        request.setAnswers(List.of(
+                new QuizAttemptDto.SubmitRequest.AnswerSubmission(questionId, optionId),
+                new QuizAttemptDto.SubmitRequest.AnswerSubmission(questionId, optionId)));
+
+        assertThatThrownBy(() -> quizAttemptService.submitQuizAttempt(attemptId, request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Question answered more than once: " + questionId);
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldThrowException_WhenQuestionNotInQuiz() {
+        UUID attemptId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .build();
+
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(UUID.randomUUID(), UUID.randomUUID()));
+
+        UUID otherQuestionId = UUID.randomUUID();
+        QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
+        request.setAnswers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(otherQuestionId, UUID.randomUUID())));
+
+        assertThatThrownBy(() -> quizAttemptService.submitQuizAttempt(attemptId, request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Question not found: " + otherQuestionId);
+        verify(studentAnswerRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -156,4 +278,211 @@ class QuizAttemptServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Quiz already submitted");
     }
+
+    @Test
+    void startQuizAttempt_ShouldSetDeadlineAndSchedule_WhenQuizIsTimed() {
+        quiz.setTimeLimitMinutes(30);
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(UUID.randomUUID(), UUID.randomUUID()));
+        when(quizAttemptRepository.save(any(QuizAttempt.class))).thenAnswer(invocation -> {
+            QuizAttempt saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+
+        QuizAttemptDto.AttemptResponse response = quizAttemptService.startQuizAttempt(quizId);
+
+        assertThat(response.getExpiresAt()).isEqualTo(response.getStartedAt().plusMinutes(30));
+        verify(attemptExpiryQueue).schedule(response.getId(), response.getExpiresAt());
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldThrowException_WhenConcurrentSubmissionWon() {
+        UUID attemptId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .build();
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, UUID.randomUUID()));
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        QuizAttemptDto.SubmitRequest request = new QuizAttemptDto.SubmitRequest();
+        request.setAnswers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(questionId, UUID.randomUUID())));
+
+        assertThatThrownBy(() -> quizAttemptService.submitQuizAttempt(attemptId, request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Quiz already submitted");
+        assertThat(attempt.getSubmittedAt()).isNull();
+        verify(questionOptionStatsRepository, never()).incrementCounts(any(), anyList());
+        verify(quizBestAttemptRepository, never()).upsertIfBetter(any(), anyList());
+    }
+
+    @Test
+    void submitQuizAttempt_ShouldThrowException_WhenTimeLimitExceeded() {
+        UUID attemptId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().minusMinutes(5);
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .expiresAt(expiresAt)
+                .build();
+
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(attemptExpiryQueue.isClosed(expiresAt)).thenReturn(true);
+
+        assertThatThrownBy(() -> quizAttemptService.submitQuizAttempt(attemptId, new QuizAttemptDto.SubmitRequest()))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Quiz time limit exceeded");
+        verify(studentAnswerRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void saveAnswers_ShouldReplaceSavedAnswers_WithoutGradingAttempt() {
+        UUID attemptId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        UUID correctOptionId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .score(0)
+                .build();
+        QuizAttemptDto.SubmitRequest request = QuizAttemptDto.SubmitRequest.builder()
+                .answers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(questionId, correctOptionId)))
+                .build();
+
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, correctOptionId));
+
+        QuizAttemptDto.AttemptResponse response = quizAttemptService.saveAnswers(attemptId, request);
+
+        assertThat(response.getSubmittedAt()).isNull();
+        assertThat(response.getScore()).isZero();
+        assertThat(response.getAnswers()).isNull();
+        verify(studentAnswerRepository).deleteByQuizAttemptId(attemptId);
+        verify(studentAnswerRepository).saveAll(argThat(answers -> answers.iterator().next().getIsCorrect()));
+        verify(questionOptionStatsRepository, never()).incrementCounts(any(), anyList());
+        verify(quizAttemptRepository, never()).save(any());
+    }
+
+    @Test
+    void expireAttempt_ShouldGradeSavedAnswers() {
+        UUID attemptId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        UUID correctOptionId = UUID.randomUUID();
+        LocalDateTime expiresAt = LocalDateTime.now().minusMinutes(1);
+        StudentAnswerRepository.AnswerView saved = mock(StudentAnswerRepository.AnswerView.class);
+        when(saved.getQuestionId()).thenReturn(questionId);
+        when(saved.getSelectedOptionId()).thenReturn(correctOptionId);
+        when(saved.getIsCorrect()).thenReturn(true);
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .expiresAt(expiresAt)
+                .build();
+
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(questionId, correctOptionId));
+        when(studentAnswerRepository.findAnswerViewsByQuizAttemptId(attemptId)).thenReturn(List.of(saved));
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), eq(1), eq(1), eq(100.0), eq(true), eq(expiresAt), any()))
+                .thenReturn(1);
+
+        boolean expired = quizAttemptService.expireAttempt(attemptId);
+
+        assertThat(expired).isTrue();
+        assertThat(attempt.getSubmittedAt()).isEqualTo(expiresAt);
+        assertThat(attempt.getPassed()).isTrue();
+        verify(questionOptionStatsRepository).incrementCounts(eq(quizId), argThat(counts -> counts.size() == 1));
+        verify(quizBestAttemptRepository).upsertIfBetter(quizId, List.of(new QuizBestAttemptRepository.BestAttempt(
+                studentId, attemptId, 100.0, true, expiresAt)));
+    }
+
+    @Test
+    void expireAttempt_ShouldDoNothing_WhenSubmittedConcurrently() {
+        UUID attemptId = UUID.randomUUID();
+        QuizAttempt attempt = QuizAttempt.builder()
+                .id(attemptId)
+                .quiz(quiz)
+                .studentId(studentId)
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+
+        when(quizAttemptRepository.findById(attemptId)).thenReturn(Optional.of(attempt));
+        when(answerKeyCache.getAnswerKey(quizId)).thenReturn(answerKey(UUID.randomUUID(), UUID.randomUUID()));
+        when(studentAnswerRepository.findAnswerViewsByQuizAttemptId(attemptId)).thenReturn(List.of());
+        when(quizAttemptRepository.submitIfOpen(eq(attemptId), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        boolean expired = quizAttemptService.expireAttempt(attemptId);
+
+        assertThat(expired).isFalse();
+        assertThat(attempt.getSubmittedAt()).isNull();
+        verify(questionOptionStatsRepository, never()).incrementCounts(any(), anyList());
+        verify(quizBestAttemptRepository, never()).upsertIfBetter(any(), anyList());
+    }
+
+    @Test
+    void getQuizAttemptsPage_ShouldReturnCursor_WhenMoreRowsExist() {
+        LocalDateTime submittedAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        QuizAttemptRepository.AttemptSummaryView first = summary(UUID.randomUUID(), submittedAt.plusMinutes(1));
+        QuizAttemptRepository.AttemptSummaryView second = summary(UUID.randomUUID(), submittedAt);
+        QuizAttemptRepository.AttemptSummaryView extra = summary(UUID.randomUUID(), submittedAt.minusMinutes(1));
+        when(quizAttemptRepository.findSubmittedSummariesByQuizId(quizId, null, true, Limit.of(3)))
+                .thenReturn(List.of(first, second, extra));
+
+        QuizAttemptDto.AttemptPage page = quizAttemptService.getQuizAttemptsPage(quizId, null, true, null, 2);
+
+        assertThat(page.getItems()).extracting(QuizAttemptDto.AttemptResponse::getId)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(page.getHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotBlank();
+
+        when(quizAttemptRepository.findSubmittedSummariesByQuizIdAfter(
+                quizId, null, true, submittedAt, second.getId(), Limit.of(3)))
+                .thenReturn(List.of(extra));
+
+        QuizAttemptDto.AttemptPage next = quizAttemptService.getQuizAttemptsPage(
+                quizId, null, true, page.getNextCursor(), 2);
+
+        assertThat(next.getItems()).extracting(QuizAttemptDto.AttemptResponse::getId).containsExactly(extra.getId());
+        assertThat(next.getHasMore()).isFalse();
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getQuizAttemptsPage_ShouldClampPageSize() {
+        when(quizAttemptRepository.findSubmittedSummariesByQuizId(quizId, studentId, null, Limit.of(101)))
+                .thenReturn(List.of());
+
+        QuizAttemptDto.AttemptPage page = quizAttemptService.getQuizAttemptsPage(quizId, studentId, null, "", 500);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getHasMore()).isFalse();
+    }
+
+    @Test
+    void getQuizAttemptsPage_ShouldThrowException_WhenCursorInvalid() {
+        assertThatThrownBy(() -> quizAttemptService.getQuizAttemptsPage(quizId, null, null, "not-a-cursor", 20))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private QuizAttemptRepository.AttemptSummaryView summary(UUID id, LocalDateTime submittedAt) {
+        QuizAttemptRepository.AttemptSummaryView view = mock(QuizAttemptRepository.AttemptSummaryView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        lenient().when(view.getQuizId()).thenReturn(quizId);
+        lenient().when(view.getStudentId()).thenReturn(studentId);
+        lenient().when(view.getSubmittedAt()).thenReturn(submittedAt);
+        return view;
+    }
+
+    private AnswerKeyCache.AnswerKey answerKey(UUID questionId, UUID correctOptionId) {
+        AnswerKeyCache.QuestionKey questionKey = new AnswerKeyCache.QuestionKey(
+                questionId, "Question", Set.of(correctOptionId), 1);
+        return new AnswerKeyCache.AnswerKey(quizId, Map.of(questionId, questionKey), 1, quiz.getPassingScore());
+    }
 }
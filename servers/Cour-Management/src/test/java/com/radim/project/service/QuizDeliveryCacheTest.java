@@ -0,0 +1,121 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.entity.Course;
+import com.radim.project.entity.Quiz;
+import com.radim.project.repository.QuestionRepository;
+import com.radim.project.repository.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizDeliveryCacheTest {
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private QuizDeliveryCache quizDeliveryCache;
+    private UUID quizId;
+    private UUID courseId;
+
+    @BeforeEach
+    void setUp() {
+        quizDeliveryCache = new QuizDeliveryCache(quizRepository, questionRepository, objectMapper);
+        quizId = UUID.randomUUID();
+        courseId = UUID.randomUUID();
+        Quiz quiz = Quiz.builder()
+                .id(quizId)
+                .course(Course.builder().id(courseId).build())
+                .title("Java Quiz")
+                .timeLimitMinutes(20)
+                .build();
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+    }
+
+    @Test
+    void getPayload_ShouldSerializeQuestionsWithoutCorrectness_AndCache() throws Exception {
+        UUID questionId = UUID.randomUUID();
+        UUID option1 = UUID.randomUUID();
+        UUID option2 = UUID.randomUUID();
+        List<QuestionRepository.DeliveryRow> rows = List.of(row(questionId, option1, "A"), row(questionId, option2, "B"));
+        when(questionRepository.findDeliveryRowsByQuizId(quizId)).thenReturn(rows);
+
+        QuizDeliveryCache.Payload payload = quizDeliveryCache.getPayload(quizId);
+        QuizDeliveryCache.Payload again = quizDeliveryCache.getPayload(quizId);
+
+        assertThat(again).isSameAs(payload);
+        assertThat(payload.courseId()).isEqualTo(courseId);
+        assertThat(payload.etag()).startsWith("\"").endsWith("\"");
+        JsonNode json = objectMapper.readTree(payload.body());
+        assertThat(json.get("timeLimitMinutes").asInt()).isEqualTo(20);
+        assertThat(json.get("questions")).hasSize(1);
+        JsonNode options = json.get("questions").get(0).get("options");
+        assertThat(options).hasSize(2);
+        assertThat(options.get(0).get("optionText").asText()).isEqualTo("A");
+        assertThat(new String(payload.body())).doesNotContain("isCorrect");
+        verify(questionRepository, times(1)).findDeliveryRowsByQuizId(quizId);
+    }
+
+    @Test
+    void invalidate_ShouldReload_WithSameETagWhenContentUnchanged() {
+        when(questionRepository.findDeliveryRowsByQuizId(quizId)).thenReturn(List.of());
+
+        QuizDeliveryCache.Payload first = quizDeliveryCache.getPayload(quizId);
+        quizDeliveryCache.invalidate(quizId);
+        QuizDeliveryCache.Payload second = quizDeliveryCache.getPayload(quizId);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.etag()).isEqualTo(first.etag());
+        verify(questionRepository, times(2)).findDeliveryRowsByQuizId(quizId);
+    }
+
+    @Test
+    void getPayload_ShouldNotCachePayloadLoaded_WhenInvalidatedDuringLoad() {
+        UUID questionId = UUID.randomUUID();
+        List<QuestionRepository.DeliveryRow> oldRows = List.of(row(questionId, UUID.randomUUID(), "Old"));
+        List<QuestionRepository.DeliveryRow> newRows = List.of(row(questionId, UUID.randomUUID(), "New"));
+        // The question edit commits and invalidates while the first load still holds the old rows
+        when(questionRepository.findDeliveryRowsByQuizId(quizId))
+                .thenAnswer(invocation -> {
+                    quizDeliveryCache.invalidate(quizId);
+                    return oldRows;
+                })
+                .thenReturn(newRows);
+
+        QuizDeliveryCache.Payload stale = quizDeliveryCache.getPayload(quizId);
+        QuizDeliveryCache.Payload fresh = quizDeliveryCache.getPayload(quizId);
+
+        assertThat(new String(stale.body())).contains("Old");
+        assertThat(new String(fresh.body())).contains("New");
+        assertThat(fresh.etag()).isNotEqualTo(stale.etag());
+        assertThat(quizDeliveryCache.getPayload(quizId)).isSameAs(fresh);
+        verify(questionRepository, times(2)).findDeliveryRowsByQuizId(quizId);
+    }
+
+    private QuestionRepository.DeliveryRow row(UUID questionId, UUID optionId, String optionText) {
+        QuestionRepository.DeliveryRow row = mock(QuestionRepository.DeliveryRow.class);
+        lenient().when(row.getQuestionId()).thenReturn(questionId);
+        lenient().when(row.getQuestionText()).thenReturn("Question");
+        lenient().when(row.getQuestionType()).thenReturn("MULTIPLE_CHOICE");
+        lenient().when(row.getPoints()).thenReturn(1);
+        lenient().when(row.getOptionId()).thenReturn(optionId);
+        lenient().when(row.getOptionText()).thenReturn(optionText);
+        return row;
+    }
+}
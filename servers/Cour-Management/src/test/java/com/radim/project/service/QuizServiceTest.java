@@ -36,6 +36,10 @@ class QuizServiceTest {
     private QuizRepository quizRepository;
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private AnswerKeyCache answerKeyCache;
+    @Mock
+    private QuizDeliveryCache quizDeliveryCache;
 
     @InjectMocks
     private QuizService quizService;
@@ -57,9 +61,9 @@ class QuizServiceTest {
         Authentication authentication = mock(Authentication.class);
 
         mockedSecurityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(teacherId.toString());
-        doReturn(List.of(new SimpleGrantedAuthority("ROLE_TEACHER"))).when(authentication).getAuthorities();
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getPrincipal()).thenReturn(teacherId.toString());
+        lenient().doReturn(List.of(new SimpleGrantedAuthority("ROLE_TEACHER"))).when(authentication).getAuthorities();
     }
 
     @AfterEach
@@ -90,4 +94,31 @@ class QuizServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getTitle()).isEqualTo("Final Quiz");
     }
+
+    @Test
+    void updateQuiz_ShouldInvalidateDeliveryPayload() {
+        UUID quizId = UUID.randomUUID();
+        Quiz quiz = Quiz.builder().id(quizId).course(course).title("Quiz").build();
+        when(quizRepository.findById(quizId)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(quiz)).thenReturn(quiz);
+
+        QuizDto.Response response = quizService.updateQuiz(courseId, quizId, QuizDto.Request.builder()
+                .title("Timed Quiz")
+                .timeLimitMinutes(45)
+                .build());
+
+        assertThat(response.getTimeLimitMinutes()).isEqualTo(45);
+        verify(quizDeliveryCache).invalidate(quizId);
+    }
+
+    @Test
+    void getQuizDelivery_ShouldThrowException_WhenQuizInOtherCourse() {
+        UUID quizId = UUID.randomUUID();
+        when(quizDeliveryCache.getPayload(quizId))
+                .thenReturn(new QuizDeliveryCache.Payload(UUID.randomUUID(), new byte[0], "\"etag\""));
+
+        assertThatThrownBy(() -> quizService.getQuizDelivery(courseId, quizId))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Quiz does not belong to the specified course");
+    }
 }
@@ -0,0 +1,115 @@
+package com.radim.project.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.radim.project.dto.QuizAttemptDto;
+import com.radim.project.exception.IdempotencyKeyMismatchException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubmissionIdempotencyStoreTest {
+
+    private final SubmissionIdempotencyStore store = new SubmissionIdempotencyStore(new ObjectMapper());
+    private final QuizAttemptDto.SubmitRequest request = QuizAttemptDto.SubmitRequest.builder()
+            .answers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(UUID.randomUUID(), UUID.randomUUID())))
+            .build();
+    private final UUID attemptId = UUID.randomUUID();
+
+    @Test
+    void submitOnce_ShouldReplayFirstResult_ForSameKey() {
+        AtomicInteger calls = new AtomicInteger();
+        QuizAttemptDto.AttemptResponse response = QuizAttemptDto.AttemptResponse.builder().id(attemptId).build();
+
+        SubmissionIdempotencyStore.Result first = store.submitOnce(attemptId, "100", "key-1", request, () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        SubmissionIdempotencyStore.Result retry = store.submitOnce(attemptId, "100", "key-1", request, () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("Quiz already submitted");
+        });
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isSameAs(response);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void submitOnce_ShouldRejectSameKey_WithDifferentRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        store.submitOnce(attemptId, "100", "key-1", request, () -> {
+            calls.incrementAndGet();
+            return QuizAttemptDto.AttemptResponse.builder().build();
+        });
+        QuizAttemptDto.SubmitRequest changed = QuizAttemptDto.SubmitRequest.builder()
+                .answers(List.of(new QuizAttemptDto.SubmitRequest.AnswerSubmission(UUID.randomUUID(), UUID.randomUUID())))
+                .build();
+
+        assertThatThrownBy(() -> store.submitOnce(attemptId, "100", "key-1", changed, () -> {
+            calls.incrementAndGet();
+            return QuizAttemptDto.AttemptResponse.builder().build();
+        })).isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void submitOnce_ShouldNotShareResults_AcrossUsers() {
+        store.submitOnce(attemptId, "100", "key-1", request, () -> QuizAttemptDto.AttemptResponse.builder().build());
+
+        assertThatThrownBy(() -> store.submitOnce(attemptId, "200", "key-1", request, () -> {
+            throw new RuntimeException("Not authorized to submit this attempt");
+        })).hasMessage("Not authorized to submit this attempt");
+    }
+
+    @Test
+    void submitOnce_ShouldForgetFailedSubmission_SoItCanBeRetried() {
+        assertThatThrownBy(() -> store.submitOnce(attemptId, "100", "key-1", request, () -> {
+            throw new RuntimeException("Question not found");
+        })).hasMessage("Question not found");
+
+        SubmissionIdempotencyStore.Result retry = store.submitOnce(attemptId, "100", "key-1", request,
+                () -> QuizAttemptDto.AttemptResponse.builder().build());
+
+        assertThat(retry.replayed()).isFalse();
+    }
+
+    @Test
+    void submitOnce_ShouldMakeConcurrentDuplicateWaitForFirst() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        QuizAttemptDto.AttemptResponse response = QuizAttemptDto.AttemptResponse.builder().id(attemptId).build();
+
+        CompletableFuture<SubmissionIdempotencyStore.Result> first = CompletableFuture.supplyAsync(() ->
+                store.submitOnce(attemptId, "100", "key-1", request, () -> {
+                    calls.incrementAndGet();
+                    firstStarted.countDown();
+                    try {
+                        releaseFirst.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response;
+                }));
+        firstStarted.await();
+        CompletableFuture<SubmissionIdempotencyStore.Result> duplicate = CompletableFuture.supplyAsync(() ->
+                store.submitOnce(attemptId, "100", "key-1", request, () -> {
+                    calls.incrementAndGet();
+                    return QuizAttemptDto.AttemptResponse.builder().build();
+                }));
+        releaseFirst.countDown();
+
+        assertThat(first.get().response()).isSameAs(response);
+        assertThat(duplicate.get().response()).isSameAs(response);
+        assertThat(duplicate.get().replayed()).isTrue();
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -1,13 +1,17 @@
 package radim.ma.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +19,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -22,6 +29,11 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
+
+    // When enabled, the principal is built from the token's userId and roles claims instead of loading the user
+    @Value("${application.security.jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -38,19 +50,20 @@ public class JwtFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
+
+            if (stateless) {
+                authenticateFromClaims(jwt, request);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
             final String userEmail = jwtUtil.extractUsername(jwt);
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
             if (jwtUtil.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                authenticate(userDetails, request);
             }
         }
         } catch (Exception e) {
@@ -62,4 +75,49 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Stateless mode: one verified parse of the token, then a cached account-state check so that
+     * deleted users are rejected without a users query on every request.
+     * Tokens issued without userId/roles claims fall back to loading the user.
+     */
+    private void authenticateFromClaims(String jwt, HttpServletRequest request) {
+        Claims claims = jwtUtil.extractAllVerifiedClaims(jwt);
+        String userEmail = claims.getSubject();
+        if (userEmail == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        List<?> roles = claims.get("roles", List.class);
+        if (userId == null || roles == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+                authenticate(userDetails, request);
+            }
+            return;
+        }
+
+        Optional<UserStateCache.UserState> state = userStateCache.getActiveUser(userId);
+        if (state.isEmpty() || !userEmail.equals(state.get().email())) {
+            logger.warn("JWT rejected: user " + userId + " no longer active");
+            return;
+        }
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(String::valueOf)
+                .map(role -> new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role))
+                .collect(Collectors.toList());
+        authenticate(new User(userEmail, "", authorities), request);
+    }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -31,6 +31,14 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Parse and verify the token once, returning all of its claims.
+     * Throws if the signature is invalid or the token has expired.
+     */
+    public Claims extractAllVerifiedClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -0,0 +1,68 @@
+package radim.ma.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import radim.ma.entities.Role;
+import radim.ma.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of the account state needed to trust a token without loading the user:
+ * whether the user still exists (soft-deleted users are filtered out by the repository) and
+ * its email and role. Missing users are cached too, so a deleted account costs one query per TTL.
+ * UserService evicts entries on update, delete and restore.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.user-state-cache.ttl:60s}")
+    private Duration ttl = Duration.ofSeconds(60);
+
+    @Value("${application.security.user-state-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private final Map<Long, CachedState> states = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedState> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    public Optional<UserState> getActiveUser(Long userId) {
+        long now = System.nanoTime();
+        synchronized (states) {
+            CachedState cached = states.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttl.toNanos()) {
+                return Optional.ofNullable(cached.state());
+            }
+        }
+
+        UserState state = userRepository.findById(userId)
+                .map(user -> new UserState(user.getId(), user.getEmail(), user.getRole()))
+                .orElse(null);
+        synchronized (states) {
+            states.put(userId, new CachedState(state, now));
+        }
+        return Optional.ofNullable(state);
+    }
+
+    public void evict(Long userId) {
+        synchronized (states) {
+            states.remove(userId);
+        }
+    }
+
+    public record UserState(Long id, String email, Role role) {
+    }
+
+    private record CachedState(UserState state, long loadedAt) {
+    }
+}
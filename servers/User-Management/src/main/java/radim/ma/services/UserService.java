@@ -3,10 +3,13 @@ package radim.ma.services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import radim.ma.dto.UserDto;
 import radim.ma.entities.Role;
 import radim.ma.entities.User;
 import radim.ma.repositories.UserRepository;
+import radim.ma.security.UserStateCache;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,6 +19,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserStateCache userStateCache;
 
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
@@ -43,6 +47,7 @@ public class UserService {
         user.setLastName(userDto.getLastName());
 
         User updatedUser = userRepository.save(user);
+        evictAfterCommit(id);
         return mapToDto(updatedUser);
     }
 
@@ -50,11 +55,30 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        evictAfterCommit(id);
     }
 
     @Transactional
     public void restoreUser(Long id) {
         userRepository.restoreUser(id);
+        evictAfterCommit(id);
+    }
+
+    /**
+     * Evict the cached state once the current transaction commits, so that a concurrent token check
+     * cannot cache the pre-commit state again. Evicts immediately outside a transaction.
+     */
+    private void evictAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userStateCache.evict(id);
+                }
+            });
+        } else {
+            userStateCache.evict(id);
+        }
     }
 
     private UserDto mapToDto(User user) {
@@ -16,6 +16,7 @@ import radim.ma.dto.RefreshTokenRequest;
 import radim.ma.dto.RegisterRequest;
 import radim.ma.entities.Role;
 import radim.ma.security.JwtUtil;
+import radim.ma.security.UserStateCache;
 import radim.ma.services.AuthService;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +38,9 @@ class AuthControllerTest {
         @MockBean
         private JwtUtil jwtUtil;
 
+        @MockBean
+        private UserStateCache userStateCache;
+
         @MockBean
         private UserDetailsService userDetailsService;
 
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import radim.ma.config.TestSecurityConfig;
 import radim.ma.dto.CreditDto;
 import radim.ma.security.JwtUtil;
+import radim.ma.security.UserStateCache;
 import radim.ma.services.CreditService;
 
 import java.math.BigDecimal;
@@ -43,6 +44,9 @@ class CreditControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStateCache userStateCache;
+
     // JwtFilter and AuthenticationProvider removed as they are not needed with
     // TestSecurityConfig
 
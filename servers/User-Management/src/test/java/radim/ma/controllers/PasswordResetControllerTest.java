@@ -36,6 +36,9 @@ class PasswordResetControllerTest {
         @MockBean
         private radim.ma.security.JwtUtil jwtUtil;
 
+        @MockBean
+        private radim.ma.security.UserStateCache userStateCache;
+
         // Security mocks removed
 
         private ForgotPasswordRequest forgotPasswordRequest;
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import radim.ma.dto.UserDto;
 import radim.ma.entities.Role;
 import radim.ma.security.JwtUtil;
+import radim.ma.security.UserStateCache;
 import radim.ma.services.UserService;
 
 import java.util.List;
@@ -38,6 +39,9 @@ class UserControllerTest {
         @MockBean
         private JwtUtil jwtUtil;
 
+        @MockBean
+        private UserStateCache userStateCache;
+
         @MockBean
         private UserDetailsService userDetailsService;
 
@@ -36,6 +36,9 @@ class VerificationControllerTest {
         @MockBean
         private radim.ma.security.JwtUtil jwtUtil;
 
+        @MockBean
+        private radim.ma.security.UserStateCache userStateCache;
+
         // Security mocks removed
 
         private VerificationRequest verificationRequest;
@@ -1,5 +1,7 @@
 package radim.ma.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,11 +17,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import radim.ma.entities.Role;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +39,9 @@ class JwtFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private UserStateCache userStateCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -221,4 +231,74 @@ class JwtFilterTest {
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
+
+    @Test
+    void testDoFilterInternal_StatelessMode_BuildsPrincipalFromClaims() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtil.extractAllVerifiedClaims(token)).thenReturn(claims(7L, List.of("ROLE_STUDENT")));
+        when(userStateCache.getActiveUser(7L)).thenReturn(Optional.of(
+                new UserStateCache.UserState(7L, "test@example.com", Role.STUDENT)));
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test@example.com");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting("authority").containsExactly("ROLE_STUDENT");
+    }
+
+    @Test
+    void testDoFilterInternal_StatelessMode_RejectsDeletedUser() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = "valid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtil.extractAllVerifiedClaims(token)).thenReturn(claims(7L, List.of("ROLE_STUDENT")));
+        when(userStateCache.getActiveUser(7L)).thenReturn(Optional.empty());
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void testDoFilterInternal_StatelessMode_FallsBackWhenClaimsMissing() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+        String token = "legacy.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtil.extractAllVerifiedClaims(token)).thenReturn(claims(null, null));
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(userDetails);
+        when(jwtUtil.isTokenValid(token, userDetails)).thenReturn(true);
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(userStateCache, never()).getActiveUser(any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+    }
+
+    private Claims claims(Long userId, List<String> roles) {
+        DefaultClaims claims = new DefaultClaims();
+        claims.setSubject("test@example.com");
+        if (userId != null) {
+            claims.put("userId", userId);
+        }
+        if (roles != null) {
+            claims.put("roles", roles);
+        }
+        return claims;
+    }
 }
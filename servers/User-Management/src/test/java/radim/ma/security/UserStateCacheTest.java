@@ -0,0 +1,84 @@
+package radim.ma.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import radim.ma.entities.Role;
+import radim.ma.entities.User;
+import radim.ma.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStateCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserStateCache userStateCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(1L)
+                .email("john@example.com")
+                .role(Role.STUDENT)
+                .build();
+    }
+
+    @Test
+    void getActiveUser_CachesStateWithinTtl() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        Optional<UserStateCache.UserState> first = userStateCache.getActiveUser(1L);
+        Optional<UserStateCache.UserState> second = userStateCache.getActiveUser(1L);
+
+        assertThat(first).isPresent();
+        assertThat(second).contains(first.get());
+        assertThat(first.get().email()).isEqualTo("john@example.com");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getActiveUser_CachesMissingUser() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(userStateCache.getActiveUser(2L)).isEmpty();
+        assertThat(userStateCache.getActiveUser(2L)).isEmpty();
+
+        verify(userRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void getActiveUser_ReloadsAfterEvict() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user), Optional.empty());
+
+        assertThat(userStateCache.getActiveUser(1L)).isPresent();
+        userStateCache.evict(1L);
+
+        assertThat(userStateCache.getActiveUser(1L)).isEmpty();
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getActiveUser_ReloadsAfterTtlExpires() {
+        ReflectionTestUtils.setField(userStateCache, "ttl", Duration.ZERO);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userStateCache.getActiveUser(1L);
+        userStateCache.getActiveUser(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+}
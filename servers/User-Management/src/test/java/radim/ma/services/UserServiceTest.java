@@ -6,10 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import radim.ma.dto.UserDto;
 import radim.ma.entities.Role;
 import radim.ma.entities.User;
 import radim.ma.repositories.UserRepository;
+import radim.ma.security.UserStateCache;
 
 import java.util.Optional;
 
@@ -23,6 +26,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserStateCache userStateCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -70,6 +76,7 @@ class UserServiceTest {
 
         assertNotNull(result);
         assertEquals("Jane", user.getFirstName()); // Verify entity was updated
+        verify(userStateCache).evict(1L);
     }
 
     @Test
@@ -79,5 +86,30 @@ class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository, times(1)).delete(user);
+        verify(userStateCache).evict(1L);
+    }
+
+    @Test
+    void restoreUser_EvictsCachedUserState() {
+        userService.restoreUser(1L);
+
+        verify(userRepository).restoreUser(1L);
+        verify(userStateCache).evict(1L);
+    }
+
+    @Test
+    void restoreUser_EvictsCachedUserStateOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.restoreUser(1L);
+
+            verify(userRepository).restoreUser(1L);
+            verify(userStateCache, never()).evict(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(userStateCache).evict(1L);
     }
 }